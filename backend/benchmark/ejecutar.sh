@@ -0,0 +1,47 @@
+#!/bin/bash
+# Benchmarks JMH del backend de Alquigest
+#
+# Uso: ./ejecutar.sh [opción] [expresión regular de benchmarks]
+#
+# Opciones:
+#   comparar    - Corre los benchmarks y los compara con resultados/linea-base.json (por defecto)
+#   linea-base  - Corre los benchmarks y guarda el resultado como nueva línea base
+#
+# Ejemplos:
+#   ./ejecutar.sh
+#   ./ejecutar.sh comparar FechaUtil
+#   ./ejecutar.sh linea-base
+#
+# La comparación termina con código 1 si algún benchmark tarda o asigna más de un 10% que la línea base
+# (TOLERANCIA=0.2 ./ejecutar.sh para cambiarla). La línea base tiene que generarse en la misma máquina.
+
+set -e
+
+BENCHMARK_DIR="$(cd "$(dirname "${BASH_SOURCE[0]}")" && pwd)"
+OPCION="${1:-comparar}"
+FILTRO="${2:-.*Benchmark.*}"
+TOLERANCIA="${TOLERANCIA:-0.10}"
+
+# Publicar las clases del backend y armar el jar de benchmarks
+(cd "$BENCHMARK_DIR/.." && mvn -B -q -Pbenchmark -DskipTests install)
+cd "$BENCHMARK_DIR"
+mvn -B -q package
+
+case "$OPCION" in
+    linea-base)
+        java -jar target/benchmarks.jar resultados/linea-base.json "$FILTRO"
+        ;;
+    comparar)
+        if [ ! -f resultados/linea-base.json ]; then
+            echo "No hay línea base: ejecutar primero ./ejecutar.sh linea-base"
+            exit 2
+        fi
+        java -jar target/benchmarks.jar resultados/actual.json "$FILTRO"
+        java -cp target/benchmarks.jar com.alquileres.benchmark.CompararResultados \
+            resultados/linea-base.json resultados/actual.json "$TOLERANCIA"
+        ;;
+    *)
+        echo "Opción desconocida: $OPCION (usar comparar o linea-base)"
+        exit 2
+        ;;
+esac
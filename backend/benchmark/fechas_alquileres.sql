@@ -0,0 +1,59 @@
+-- Comparación de consultas por mes sobre alquileres: fecha como texto vs columna DATE con índice
+--
+-- Uso (base de prueba, NO producción):
+--   psql -d alquigest_bench -f benchmark/fechas_alquileres.sql
+--
+-- Crea dos tablas temporales con 100.000 alquileres repartidos en 10 años y compara:
+--   1. El filtro anterior: MONTH/YEAR sobre CAST(texto AS date), que obliga a recorrer toda la tabla
+--   2. El filtro actual: rango semiabierto [primer día del mes, primer día del mes siguiente) sobre DATE indexada
+
+\timing on
+
+DROP TABLE IF EXISTS bench_alquileres_texto;
+DROP TABLE IF EXISTS bench_alquileres_fecha;
+
+CREATE TEMP TABLE bench_alquileres_texto AS
+SELECT g AS id,
+       (g % 2000) + 1 AS contrato_id,
+       to_char(DATE '2016-01-10' + ((g % 120) * INTERVAL '1 month'), 'YYYY-MM-DD') AS fecha_vencimiento_pago,
+       (g % 3 = 0) AS esta_pagado,
+       true AS es_activo
+FROM generate_series(1, 100000) AS g;
+
+CREATE TEMP TABLE bench_alquileres_fecha AS
+SELECT id, contrato_id, fecha_vencimiento_pago::date AS fecha_vencimiento_pago, esta_pagado, es_activo
+FROM bench_alquileres_texto;
+
+CREATE INDEX bench_idx_fecha_vencimiento ON bench_alquileres_fecha (fecha_vencimiento_pago);
+CREATE INDEX bench_idx_contrato_fecha_vencimiento ON bench_alquileres_fecha (contrato_id, fecha_vencimiento_pago);
+
+ANALYZE bench_alquileres_texto;
+ANALYZE bench_alquileres_fecha;
+
+-- Alquileres pagados del mes (honorarios / informe 1)
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM bench_alquileres_texto
+WHERE esta_pagado
+  AND EXTRACT(MONTH FROM CAST(fecha_vencimiento_pago AS date)) = 3
+  AND EXTRACT(YEAR FROM CAST(fecha_vencimiento_pago AS date)) = 2024;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM bench_alquileres_fecha
+WHERE esta_pagado
+  AND fecha_vencimiento_pago >= DATE '2024-03-01'
+  AND fecha_vencimiento_pago < DATE '2024-04-01';
+
+-- Último alquiler por contrato (listado de contratos)
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT a.* FROM bench_alquileres_texto a
+WHERE a.contrato_id IN (1, 2, 3, 4, 5)
+  AND CAST(a.fecha_vencimiento_pago AS date) = (
+      SELECT MAX(CAST(a2.fecha_vencimiento_pago AS date)) FROM bench_alquileres_texto a2
+      WHERE a2.contrato_id = a.contrato_id);
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT a.* FROM bench_alquileres_fecha a
+WHERE a.contrato_id IN (1, 2, 3, 4, 5)
+  AND a.fecha_vencimiento_pago = (
+      SELECT MAX(a2.fecha_vencimiento_pago) FROM bench_alquileres_fecha a2
+      WHERE a2.contrato_id = a.contrato_id);
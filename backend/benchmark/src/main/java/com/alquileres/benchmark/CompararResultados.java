@@ -0,0 +1,107 @@
+package com.alquileres.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compara una corrida de benchmarks con la línea base y falla si alguno empeoró
+ *
+ * Todos los benchmarks miden tiempo promedio por operación, así que un valor mayor es peor.
+ * Se compara el tiempo y la memoria asignada por operación; la tolerancia cubre el ruido entre corridas.
+ *
+ * Uso: java -cp target/benchmarks.jar com.alquileres.benchmark.CompararResultados
+ *          resultados/linea-base.json resultados/actual.json [tolerancia, por defecto 0.10]
+ */
+public class CompararResultados {
+
+    private static final double TOLERANCIA_POR_DEFECTO = 0.10;
+    private static final String ASIGNACION_POR_OPERACION = "gc.alloc.rate.norm";
+
+    private static final class Medicion {
+        final double tiempo;
+        final double error;
+        final String unidad;
+        final double bytesPorOperacion;
+
+        Medicion(double tiempo, double error, String unidad, double bytesPorOperacion) {
+            this.tiempo = tiempo;
+            this.error = error;
+            this.unidad = unidad;
+            this.bytesPorOperacion = bytesPorOperacion;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Uso: CompararResultados <linea-base.json> <actual.json> [tolerancia]");
+            System.exit(2);
+        }
+        double tolerancia = args.length > 2 ? Double.parseDouble(args[2]) : TOLERANCIA_POR_DEFECTO;
+
+        Map<String, Medicion> base = leer(Path.of(args[0]));
+        Map<String, Medicion> actual = leer(Path.of(args[1]));
+
+        int regresiones = 0;
+        for (Map.Entry<String, Medicion> entrada : actual.entrySet()) {
+            Medicion anterior = base.get(entrada.getKey());
+            Medicion nueva = entrada.getValue();
+            if (anterior == null) {
+                System.out.printf("NUEVO      %s: %.3f %s%n", entrada.getKey(), nueva.tiempo, nueva.unidad);
+                continue;
+            }
+
+            // Solo es regresión si la diferencia supera la tolerancia y el error de las dos mediciones
+            double limiteTiempo = anterior.tiempo * (1 + tolerancia) + anterior.error + nueva.error;
+            boolean masLento = nueva.tiempo > limiteTiempo;
+            boolean masAsignacion = anterior.bytesPorOperacion > 0
+                    && nueva.bytesPorOperacion > anterior.bytesPorOperacion * (1 + tolerancia);
+
+            String estado = masLento || masAsignacion ? "REGRESIÓN" : "OK";
+            if (masLento || masAsignacion) {
+                regresiones++;
+            }
+            System.out.printf("%-10s %s: %.3f -> %.3f %s (%+.1f%%), %.0f -> %.0f B/op%n",
+                    estado, entrada.getKey(), anterior.tiempo, nueva.tiempo, nueva.unidad,
+                    variacion(anterior.tiempo, nueva.tiempo),
+                    anterior.bytesPorOperacion, nueva.bytesPorOperacion);
+        }
+
+        if (regresiones > 0) {
+            System.out.printf("%d benchmark(s) empeoraron más de %.0f%% respecto de la línea base%n",
+                    regresiones, tolerancia * 100);
+            System.exit(1);
+        }
+        System.out.println("Sin regresiones respecto de la línea base");
+    }
+
+    /**
+     * Lee el JSON de JMH: un benchmark por elemento, identificado por nombre y parámetros
+     */
+    private static Map<String, Medicion> leer(Path archivo) throws IOException {
+        Map<String, Medicion> mediciones = new LinkedHashMap<>();
+        for (JsonNode resultado : new ObjectMapper().readTree(archivo.toFile())) {
+            StringBuilder nombre = new StringBuilder(resultado.path("benchmark").asText());
+            resultado.path("params").fields().forEachRemaining(parametro ->
+                    nombre.append(' ').append(parametro.getKey()).append('=').append(parametro.getValue().asText()));
+
+            JsonNode principal = resultado.path("primaryMetric");
+            JsonNode asignacion = resultado.path("secondaryMetrics").path(ASIGNACION_POR_OPERACION);
+            double error = principal.path("scoreError").asDouble(0);
+            mediciones.put(nombre.toString(), new Medicion(
+                    principal.path("score").asDouble(),
+                    Double.isNaN(error) ? 0 : error,
+                    principal.path("scoreUnit").asText(),
+                    asignacion.path("score").asDouble(0)));
+        }
+        return mediciones;
+    }
+
+    private static double variacion(double anterior, double nueva) {
+        return anterior == 0 ? 0 : (nueva - anterior) / anterior * 100;
+    }
+}
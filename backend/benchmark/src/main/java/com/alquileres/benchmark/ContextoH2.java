@@ -0,0 +1,175 @@
+package com.alquileres.benchmark;
+
+import com.alquileres.AlquigestApplication;
+import com.alquileres.model.Alquiler;
+import com.alquileres.model.Contrato;
+import com.alquileres.model.EstadoContrato;
+import com.alquileres.model.Inmueble;
+import com.alquileres.model.Inquilino;
+import com.alquileres.model.Propietario;
+import com.alquileres.repository.AlquilerRepository;
+import com.alquileres.repository.ContratoRepository;
+import com.alquileres.repository.EstadoContratoRepository;
+import com.alquileres.repository.EstadoInmuebleRepository;
+import com.alquileres.repository.InmuebleRepository;
+import com.alquileres.repository.InquilinoRepository;
+import com.alquileres.repository.PropietarioRepository;
+import com.alquileres.repository.TipoInmuebleRepository;
+import com.alquileres.security.EncryptionService;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Aplicación completa sobre una base H2 en memoria (modo PostgreSQL) con datos de prueba
+ *
+ * Se inicia una vez por benchmark y carga propietarios, inmuebles, inquilinos, contratos vigentes y
+ * un año de alquileres por contrato, así las consultas recorren volúmenes parecidos a los de producción.
+ * Las migraciones e índices propios de PostgreSQL se omiten solos al detectar otra base.
+ */
+@State(Scope.Benchmark)
+public class ContextoH2 {
+
+    // Clave de prueba de 256 bits en hexadecimal, con el mismo formato que ENCRYPTION_KEY
+    private static final String CLAVE_PRUEBA = "6a3838956795d84d0c717e266885a25a37aacd0260a1b2c3d4e5f60718293a4b";
+    private static final int CONTRATOS_POR_PROPIETARIO = 4;
+    private static final int ALQUILERES_POR_CONTRATO = 12;
+    private static final String[] NOMBRES = {"María", "José", "Ana", "Carlos", "Lucía", "Martín", "Sofía", "Diego"};
+    private static final String[] APELLIDOS = {"González", "Rodríguez", "Fernández", "López", "Martínez", "Pérez"};
+    private static final String[] CALLES = {"Av. Colón", "Bv. San Juan", "Duarte Quirós", "Av. Vélez Sarsfield", "Obispo Trejo"};
+
+    // Primer mes de alquileres cargados; los contratos vencen después del último
+    public static final LocalDate PRIMER_VENCIMIENTO = LocalDate.of(2025, 1, 10);
+
+    @Param({"1000"})
+    private int cantidadContratos;
+
+    private ConfigurableApplicationContext contexto;
+    private List<Long> contratoIds;
+
+    @Setup(Level.Trial)
+    public void iniciar() throws Exception {
+        contexto = new SpringApplicationBuilder(AlquigestApplication.class)
+                .logStartupInfo(false)
+                .run(propiedades());
+        contratoIds = cargarDatos();
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        if (contexto != null) {
+            contexto.close();
+        }
+    }
+
+    public <T> T bean(Class<T> tipo) {
+        return contexto.getBean(tipo);
+    }
+
+    public List<Long> getContratoIds() {
+        return contratoIds;
+    }
+
+    /**
+     * Propiedades por línea de comandos: tienen prioridad sobre application.properties del backend
+     */
+    private static String[] propiedades() {
+        String directorioPDFs = Path.of(System.getProperty("java.io.tmpdir"), "alquigest-benchmark-pdfs").toString();
+        return new String[] {
+            "--server.port=0",
+            "--spring.main.banner-mode=off",
+            "--spring.datasource.url=jdbc:h2:mem:alquigest;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+                + "DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+            "--spring.datasource.username=sa",
+            "--spring.datasource.password=",
+            "--spring.datasource.driver-class-name=org.h2.Driver",
+            "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+            "--spring.jpa.hibernate.ddl-auto=create-drop",
+            "--allowed.origins=http://localhost:3000",
+            "--app.jwt-secret=" + CLAVE_PRUEBA,
+            "--app.jwt-expiration-ms=86400000",
+            "--app.password-reset-token-expiration-ms=3600000",
+            "--resend.api-key=re_benchmark",
+            "--encryption.key=" + CLAVE_PRUEBA,
+            "--app.pdf.directorio=" + directorioPDFs,
+            "--logging.level.root=WARN"
+        };
+    }
+
+    /**
+     * Carga los datos de prueba en lotes y devuelve los IDs de los contratos
+     * Los tipos de inmueble y estados los crea DataInitializer al iniciar
+     */
+    private List<Long> cargarDatos() throws Exception {
+        EncryptionService encryptionService = bean(EncryptionService.class);
+        EstadoContrato vigente = bean(EstadoContratoRepository.class).findByNombre("Vigente").orElseThrow();
+        Long departamento = bean(TipoInmuebleRepository.class).findByNombre("Departamento").orElseThrow().getId();
+        Integer alquilado = bean(EstadoInmuebleRepository.class).findByNombre("Alquilado").orElseThrow().getId().intValue();
+
+        List<Propietario> propietarios = new ArrayList<>();
+        for (int i = 0; i < cantidadContratos / CONTRATOS_POR_PROPIETARIO; i++) {
+            Propietario propietario = new Propietario(NOMBRES[i % NOMBRES.length], APELLIDOS[i % APELLIDOS.length],
+                    String.format("20-%08d-%d", 20_000_000 + i, i % 10));
+            propietario.setEmail("propietario" + i + "@correo.com");
+            propietario.setClaveFiscal(encryptionService.encriptar("ClaveAFIP" + (100000 + i)));
+            propietarios.add(propietario);
+        }
+        propietarios = bean(PropietarioRepository.class).saveAll(propietarios);
+
+        List<Inmueble> inmuebles = new ArrayList<>();
+        List<Inquilino> inquilinos = new ArrayList<>();
+        for (int i = 0; i < cantidadContratos; i++) {
+            Inmueble inmueble = new Inmueble(propietarios.get(i % propietarios.size()).getId(),
+                    CALLES[i % CALLES.length] + " " + (100 + i), null, alquilado);
+            inmueble.setTipoInmuebleId(departamento);
+            inmueble.setEsAlquilado(true);
+            inmuebles.add(inmueble);
+
+            Inquilino inquilino = new Inquilino(NOMBRES[(i + 3) % NOMBRES.length], APELLIDOS[(i + 1) % APELLIDOS.length],
+                    String.format("27-%08d-%d", 30_000_000 + i, i % 10), "351" + (4_000_000 + i));
+            inquilino.setEstaAlquilando(true);
+            inquilinos.add(inquilino);
+        }
+        inmuebles = bean(InmuebleRepository.class).saveAll(inmuebles);
+        inquilinos = bean(InquilinoRepository.class).saveAll(inquilinos);
+
+        List<Contrato> contratos = new ArrayList<>();
+        for (int i = 0; i < cantidadContratos; i++) {
+            LocalDate inicio = PRIMER_VENCIMIENTO.withDayOfMonth(1).minusMonths(i % 12);
+            Contrato contrato = new Contrato(inmuebles.get(i), inquilinos.get(i), inicio, inicio.plusYears(3),
+                    BigDecimal.valueOf(250_000 + (i % 40) * 10_000L), vigente);
+            contrato.setPeriodoAumento(3);
+            contratos.add(contrato);
+        }
+        contratos = bean(ContratoRepository.class).saveAll(contratos);
+
+        AlquilerRepository alquilerRepository = bean(AlquilerRepository.class);
+        List<Alquiler> alquileres = new ArrayList<>();
+        for (Contrato contrato : contratos) {
+            for (int mes = 0; mes < ALQUILERES_POR_CONTRATO; mes++) {
+                Alquiler alquiler = new Alquiler(contrato, PRIMER_VENCIMIENTO.plusMonths(mes), contrato.getMonto());
+                // Los primeros meses están pagados; los últimos, pendientes
+                if (mes < ALQUILERES_POR_CONTRATO - 2) {
+                    alquiler.setEstaPagado(true);
+                    alquiler.setFechaPago(PRIMER_VENCIMIENTO.plusMonths(mes).minusDays(3).toString());
+                    alquiler.setMetodo("Transferencia");
+                }
+                alquileres.add(alquiler);
+            }
+        }
+        alquilerRepository.saveAll(alquileres);
+
+        return contratos.stream().map(Contrato::getId).toList();
+    }
+}
@@ -0,0 +1,43 @@
+package com.alquileres.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Corre los benchmarks con el profiler de GC y guarda los resultados en JSON
+ *
+ * El profiler de GC agrega la memoria asignada por operación (gc.alloc.rate.norm) y la cantidad y
+ * duración de las recolecciones, que CompararResultados revisa junto con el tiempo.
+ *
+ * Uso: java -jar target/benchmarks.jar [archivo JSON] [expresión regular de benchmarks]
+ */
+public class EjecutarBenchmarks {
+
+    private static final String RESULTADO_POR_DEFECTO = "resultados/actual.json";
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        Path resultado = Path.of(args.length > 0 ? args[0] : RESULTADO_POR_DEFECTO);
+        String filtro = args.length > 1 ? args[1] : ".*Benchmark.*";
+
+        if (resultado.getParent() != null) {
+            Files.createDirectories(resultado.getParent());
+        }
+
+        Options opciones = new OptionsBuilder()
+                .include(filtro)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultado.toString())
+                .build();
+
+        new Runner(opciones).run();
+    }
+}
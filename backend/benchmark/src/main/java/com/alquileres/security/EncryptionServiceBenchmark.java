@@ -0,0 +1,115 @@
+package com.alquileres.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encriptación y desencriptación de la clave fiscal, que se desencripta por cada propietario de un listado
+ *
+ * desencriptarSinReutilizar reproduce la implementación anterior (clave decodificada y Cipher.getInstance
+ * en cada llamada) como referencia del costo por llamada que se ahorra al reutilizar clave y Cipher.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EncryptionServiceBenchmark {
+
+    // Clave de prueba de 256 bits en hexadecimal, con el mismo formato que ENCRYPTION_KEY
+    static final String CLAVE_PRUEBA = "6a3838956795d84d0c717e266885a25a37aacd0260a1b2c3d4e5f60718293a4b";
+
+    private static final int CANTIDAD_CLAVES = 256;
+
+    private EncryptionService encryptionService;
+    private String[] clavesFiscales;
+    private String[] clavesEncriptadas;
+    private String[] clavesLegadas;
+    private int indice;
+
+    @Setup
+    public void preparar() throws Exception {
+        encryptionService = new EncryptionService(CLAVE_PRUEBA);
+
+        clavesFiscales = new String[CANTIDAD_CLAVES];
+        clavesEncriptadas = new String[CANTIDAD_CLAVES];
+        clavesLegadas = new String[CANTIDAD_CLAVES];
+        for (int i = 0; i < CANTIDAD_CLAVES; i++) {
+            clavesFiscales[i] = "ClaveAFIP" + (100000 + i * 37);
+            clavesEncriptadas[i] = encryptionService.encriptar(clavesFiscales[i]);
+            clavesLegadas[i] = encriptarLegado(clavesFiscales[i]);
+        }
+    }
+
+    /**
+     * Valor en el formato anterior (AES/ECB, sin prefijo), como los guardados antes de AES-GCM
+     */
+    private static String encriptarLegado(String valor) throws Exception {
+        Cipher cipher = Cipher.getInstance("AES");
+        cipher.init(Cipher.ENCRYPT_MODE, claveLegada());
+        return Base64.getEncoder().encodeToString(cipher.doFinal(valor.getBytes()));
+    }
+
+    private static SecretKeySpec claveLegada() {
+        byte[] keyBytes = new byte[CLAVE_PRUEBA.length() / 2];
+        for (int i = 0; i < CLAVE_PRUEBA.length(); i += 2) {
+            keyBytes[i / 2] = (byte) ((Character.digit(CLAVE_PRUEBA.charAt(i), 16) << 4)
+                    + Character.digit(CLAVE_PRUEBA.charAt(i + 1), 16));
+        }
+        return new SecretKeySpec(keyBytes, 0, keyBytes.length, "AES");
+    }
+
+    private int siguiente() {
+        indice = (indice + 1) & (CANTIDAD_CLAVES - 1);
+        return indice;
+    }
+
+    @Benchmark
+    public String encriptar() throws Exception {
+        return encryptionService.encriptar(clavesFiscales[siguiente()]);
+    }
+
+    @Benchmark
+    public String desencriptar() throws Exception {
+        return encryptionService.desencriptar(clavesEncriptadas[siguiente()]);
+    }
+
+    @Benchmark
+    public String desencriptarLegado() throws Exception {
+        return encryptionService.desencriptar(clavesLegadas[siguiente()]);
+    }
+
+    /**
+     * Implementación anterior: decodifica la clave y busca el proveedor de Cipher en cada llamada
+     */
+    @Benchmark
+    public String desencriptarSinReutilizar() throws Exception {
+        Cipher cipher = Cipher.getInstance("AES");
+        cipher.init(Cipher.DECRYPT_MODE, claveLegada());
+        return new String(cipher.doFinal(Base64.getDecoder().decode(clavesLegadas[siguiente()])));
+    }
+
+    /**
+     * Un listado completo de propietarios desencriptado en lote
+     */
+    @Benchmark
+    public Map<String, String> desencriptarTodos() {
+        return encryptionService.desencriptarTodos(Arrays.asList(clavesEncriptadas));
+    }
+}
@@ -0,0 +1,181 @@
+package com.alquileres.service;
+
+import com.alquileres.dto.InformeAlquileresDTO;
+import com.alquileres.dto.InformeAumentosDTO;
+import com.alquileres.dto.InformeHonorariosDTO;
+import com.alquileres.dto.InformePagosServiciosDTO;
+import com.alquileres.repository.AlquilerRepository;
+import com.alquileres.repository.AumentoAlquilerRepository;
+import com.alquileres.repository.PagoServicioRepository;
+import com.alquileres.repository.projection.FilaInformeAlquiler;
+import com.alquileres.repository.projection.FilaInformeAumento;
+import com.alquileres.repository.projection.FilaInformePagoServicio;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Armado fila por fila de los informes a partir de las proyecciones de los repositorios
+ *
+ * Los repositorios devuelven listas ya cargadas, así se mide solo el trabajo por fila del servicio
+ * (DTOs, montos, formato de fechas y agrupación por contrato). La consulta se mide en RepositoriosBenchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InformeServiceBenchmark {
+
+    private static final YearMonth MES = YearMonth.of(2025, 3);
+    private static final String[] NOMBRES = {"María", "José", "Ana", "Carlos", "Lucía", "Martín", "Sofía", "Diego"};
+    private static final String[] APELLIDOS = {"González", "Rodríguez", "Fernández", "López", "Martínez", "Pérez"};
+    private static final String[] SERVICIOS = {"Luz", "Agua", "Gas", "Rentas", "Municipalidad"};
+
+    // Cantidad de alquileres del mes (un estudio chico tiene cientos; el límite práctico es de miles)
+    @Param({"200", "2000"})
+    private int cantidadFilas;
+
+    private InformeService informeService;
+
+    @Setup
+    public void preparar() {
+        AlquilerRepository alquilerRepository = mock(AlquilerRepository.class);
+        PagoServicioRepository pagoServicioRepository = mock(PagoServicioRepository.class);
+        AumentoAlquilerRepository aumentoAlquilerRepository = mock(AumentoAlquilerRepository.class);
+
+        List<FilaInformeAlquiler> alquileres = new ArrayList<>();
+        List<FilaInformeAumento> aumentos = new ArrayList<>();
+        List<FilaInformePagoServicio> pagos = new ArrayList<>();
+        for (int i = 0; i < cantidadFilas; i++) {
+            alquileres.add(new FilaAlquiler(i));
+            aumentos.add(new FilaAumento(i));
+            // Cada contrato tiene entre uno y cinco servicios en el mes
+            for (int s = 0; s <= i % SERVICIOS.length; s++) {
+                pagos.add(new FilaPagoServicio(i, s));
+            }
+        }
+
+        when(alquilerRepository.findFilasInformeHonorarios(any(), any())).thenReturn(alquileres);
+        when(alquilerRepository.findFilasInformeAlquileres(any(), any(), anyString())).thenReturn(alquileres);
+        when(aumentoAlquilerRepository.findFilasInformeAumentos(any(), any())).thenReturn(aumentos);
+        when(pagoServicioRepository.findFilasInformePagosServicios(anyString(), any(), any())).thenReturn(pagos);
+
+        informeService = new InformeService(alquilerRepository, pagoServicioRepository, aumentoAlquilerRepository,
+                new ClockService());
+    }
+
+    @Benchmark
+    public InformeHonorariosDTO generarInformeHonorarios() {
+        return informeService.generarInformeHonorarios(MES);
+    }
+
+    @Benchmark
+    public InformeAlquileresDTO generarInformeAlquileres() {
+        return informeService.generarInformeAlquileres(MES);
+    }
+
+    @Benchmark
+    public InformeAumentosDTO generarInformeAumentos() {
+        return informeService.generarInformeAumentos(6, MES);
+    }
+
+    @Benchmark
+    public InformePagosServiciosDTO generarInformePagosServicios() {
+        return informeService.generarInformePagosServicios(MES);
+    }
+
+    private static BigDecimal monto(int i) {
+        return BigDecimal.valueOf(180_000 + (i % 40) * 12_500L, 0).setScale(2);
+    }
+
+    private static final class FilaAlquiler implements FilaInformeAlquiler {
+        private final int i;
+
+        FilaAlquiler(int i) {
+            this.i = i;
+        }
+
+        public Long getAlquilerId() { return 10_000L + i; }
+        public Long getContratoId() { return (long) i; }
+        public Long getInmuebleId() { return (long) i; }
+        public String getDireccionInmueble() { return "Av. Colón " + (100 + i); }
+        public String getNombreInquilino() { return NOMBRES[i % NOMBRES.length]; }
+        public String getApellidoInquilino() { return APELLIDOS[i % APELLIDOS.length]; }
+        public String getNombrePropietario() { return NOMBRES[(i + 3) % NOMBRES.length]; }
+        public String getApellidoPropietario() { return APELLIDOS[(i + 2) % APELLIDOS.length]; }
+        public BigDecimal getMonto() { return monto(i); }
+        public String getFechaPago() { return i % 3 == 0 ? null : "2025-03-0" + (1 + i % 9); }
+        public LocalDate getFechaVencimientoPago() { return MES.atDay(10); }
+        public Boolean getEstaPagado() { return i % 3 != 0; }
+    }
+
+    private static final class FilaAumento implements FilaInformeAumento {
+        private final int i;
+
+        FilaAumento(int i) {
+            this.i = i;
+        }
+
+        // Dos aumentos por contrato en el período
+        public Long getAumentoId() { return (long) i; }
+        public Long getContratoId() { return (long) (i / 2); }
+        public String getDireccionInmueble() { return "Av. Colón " + (100 + i / 2); }
+        public String getNombreInquilino() { return NOMBRES[i % NOMBRES.length]; }
+        public String getApellidoInquilino() { return APELLIDOS[i % APELLIDOS.length]; }
+        public String getNombrePropietario() { return NOMBRES[(i + 3) % NOMBRES.length]; }
+        public String getApellidoPropietario() { return APELLIDOS[(i + 2) % APELLIDOS.length]; }
+        public LocalDate getFechaAumento() { return MES.atDay(1).minusMonths(i % 6); }
+        public BigDecimal getMontoAnterior() { return monto(i); }
+        public BigDecimal getMontoNuevo() { return monto(i).multiply(new BigDecimal("1.35")); }
+        public BigDecimal getPorcentajeAumento() { return new BigDecimal("35.00"); }
+    }
+
+    private static final class FilaPagoServicio implements FilaInformePagoServicio {
+        private final int contrato;
+        private final int servicio;
+
+        FilaPagoServicio(int contrato, int servicio) {
+            this.contrato = contrato;
+            this.servicio = servicio;
+        }
+
+        public Integer getPagoServicioId() { return contrato * SERVICIOS.length + servicio; }
+        public String getFechaPago() { return "2025-03-15"; }
+        public BigDecimal getMonto() { return BigDecimal.valueOf(8_000 + servicio * 1_750L, 0).setScale(2); }
+        public String getPeriodoServicio() { return "03/2025"; }
+        public String getTipoServicio() { return SERVICIOS[servicio]; }
+        public Boolean getEstaPagado() { return (contrato + servicio) % 4 != 0; }
+        public Long getContratoId() { return (long) contrato; }
+        public String getDireccionInmueble() { return "Av. Colón " + (100 + contrato); }
+        public String getNombrePropietario() { return NOMBRES[(contrato + 3) % NOMBRES.length]; }
+        public String getApellidoPropietario() { return APELLIDOS[(contrato + 2) % APELLIDOS.length]; }
+        public String getNombreInquilino() { return NOMBRES[contrato % NOMBRES.length]; }
+        public String getApellidoInquilino() { return APELLIDOS[contrato % APELLIDOS.length]; }
+        public Long getAlquilerId() { return 10_000L + contrato; }
+        public BigDecimal getMontoAlquiler() { return monto(contrato); }
+        public LocalDate getFechaVencimientoAlquiler() { return MES.atDay(10); }
+        public Boolean getAlquilerPagado() { return contrato % 3 != 0; }
+    }
+}
@@ -0,0 +1,87 @@
+package com.alquileres.service;
+
+import com.alquileres.benchmark.ContextoH2;
+import com.alquileres.config.CacheNames;
+import com.alquileres.dto.ContratoDTO;
+import com.alquileres.dto.InformeHonorariosDTO;
+import com.alquileres.dto.PaginaDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caminos con consultas a la base: enriquecimiento de contratos e informes, sobre H2 con datos cargados
+ *
+ * Mide consulta, mapeo de Hibernate y armado de DTOs juntos. Los tiempos absolutos no son los de
+ * PostgreSQL, pero sirven para comparar cambios en la cantidad de consultas o en el trabajo por fila.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class RepositoriosBenchmark {
+
+    private ContratoService contratoService;
+    private InformeService informeService;
+    private Cache contratoPorId;
+    private List<Long> contratoIds;
+    private int indice;
+
+    @Setup
+    public void preparar(ContextoH2 contexto) {
+        contratoService = contexto.bean(ContratoService.class);
+        informeService = contexto.bean(InformeService.class);
+        contratoPorId = contexto.bean(CacheManager.class).getCache(CacheNames.CONTRATO_POR_ID);
+        contratoIds = contexto.getContratoIds();
+    }
+
+    /**
+     * Un contrato con su propietario (clave fiscal desencriptada), tipo de inmueble y último alquiler
+     * Se quita del caché antes de cada consulta para medir enrichContratoDTO y no el acierto de caché
+     */
+    @Benchmark
+    public ContratoDTO obtenerContratoPorId() {
+        Long id = contratoIds.get(indice++ % contratoIds.size());
+        contratoPorId.evict(id);
+        return contratoService.obtenerContratoPorId(id);
+    }
+
+    /**
+     * Primera página del listado de contratos, enriquecida en lote
+     */
+    @Benchmark
+    public PaginaDTO<ContratoDTO> obtenerPaginaContratos() {
+        return contratoService.obtenerPaginaContratos(null, 50, null, null, null, null, null);
+    }
+
+    /**
+     * Página de contratos filtrada por texto en la dirección o el inquilino
+     */
+    @Benchmark
+    public PaginaDTO<ContratoDTO> buscarPaginaContratosPorTexto() {
+        return contratoService.obtenerPaginaContratos(null, 50, "Vigente", null, null, null, "colón");
+    }
+
+    /**
+     * Informe de honorarios de un mes con todos los contratos pagados
+     */
+    @Benchmark
+    public InformeHonorariosDTO generarInformeHonorarios() {
+        return informeService.generarInformeHonorarios(YearMonth.from(ContextoH2.PRIMER_VENCIMIENTO));
+    }
+}
@@ -0,0 +1,77 @@
+package com.alquileres.util;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lectura de una página de la serie del ICL con el mismo formato que devuelve la API del BCRA
+ *
+ * Mide solo el parseo del JSON y la carga del mapa, sin la llamada HTTP.
+ * 30 valores es la sincronización diaria; 3000 es una página completa de la descarga inicial.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BCRAApiClientBenchmark {
+
+    @Param({"30", "3000"})
+    private int cantidadValores;
+
+    private BCRAApiClient cliente;
+    private String pagina;
+
+    @Setup
+    public void preparar() {
+        cliente = new BCRAApiClient("http://localhost/monetarias/40", WebClient.builder(), new SimpleMeterRegistry());
+        pagina = generarPagina(cantidadValores);
+    }
+
+    /**
+     * Genera una respuesta de la API con valores diarios crecientes, como los publica el BCRA
+     */
+    static String generarPagina(int cantidad) {
+        StringBuilder json = new StringBuilder(cantidad * 48 + 256);
+        json.append("{\"status\":200,\"metadata\":{\"resultset\":{\"count\":").append(cantidad)
+            .append(",\"offset\":0,\"limit\":3000}},\"results\":[{\"idVariable\":40,\"detalle\":[");
+
+        LocalDate fecha = LocalDate.of(2025, 12, 31);
+        BigDecimal valor = new BigDecimal("25.1234");
+        for (int i = 0; i < cantidad; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"fecha\":\"").append(fecha.minusDays(i)).append("\",\"valor\":")
+                .append(valor.subtract(BigDecimal.valueOf(i, 3)).setScale(4, RoundingMode.HALF_UP)).append('}');
+        }
+        return json.append("]}]}").toString();
+    }
+
+    @Benchmark
+    public NavigableMap<LocalDate, BigDecimal> agregarPagina() throws IOException {
+        NavigableMap<LocalDate, BigDecimal> serie = new TreeMap<>();
+        cliente.agregarPagina(pagina, serie);
+        return serie;
+    }
+}
@@ -0,0 +1,101 @@
+package com.alquileres.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversiones de fechas de FechaUtil que se hacen por cada contrato y alquiler de una respuesta
+ *
+ * Cada invocación convierte una fecha distinta de un arreglo de fechas reales (diez años de vencimientos),
+ * para que el JIT no optimice sobre un único valor constante.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FechaUtilBenchmark {
+
+    private static final int CANTIDAD_FECHAS = 1024;
+
+    private String[] fechasUsuario;
+    private String[] fechasISO;
+    private String[] fechasISOConHora;
+    private LocalDate[] fechas;
+    private int indice;
+
+    @Setup
+    public void preparar() {
+        fechasUsuario = new String[CANTIDAD_FECHAS];
+        fechasISO = new String[CANTIDAD_FECHAS];
+        fechasISOConHora = new String[CANTIDAD_FECHAS];
+        fechas = new LocalDate[CANTIDAD_FECHAS];
+
+        LocalDate inicio = LocalDate.of(2016, 1, 1);
+        for (int i = 0; i < CANTIDAD_FECHAS; i++) {
+            LocalDate fecha = inicio.plusDays(i * 3L + (i % 7));
+            fechas[i] = fecha;
+            fechasUsuario[i] = FechaUtil.formatearUsuario(fecha);
+            fechasISO[i] = FechaUtil.formatearISO(fecha);
+            fechasISOConHora[i] = fecha.atStartOfDay().toString() + ":00";
+        }
+    }
+
+    private int siguiente() {
+        indice = (indice + 1) & (CANTIDAD_FECHAS - 1);
+        return indice;
+    }
+
+    @Benchmark
+    public String convertirFechaUsuarioToISO() {
+        return FechaUtil.convertirFechaUsuarioToISO(fechasUsuario[siguiente()]);
+    }
+
+    @Benchmark
+    public String convertirFechaUsuarioToISODate() {
+        return FechaUtil.convertirFechaUsuarioToISODate(fechasUsuario[siguiente()]);
+    }
+
+    @Benchmark
+    public String convertirFechaISOToUsuario() {
+        return FechaUtil.convertirFechaISOToUsuario(fechasISO[siguiente()]);
+    }
+
+    @Benchmark
+    public LocalDate parsearFechaUsuario() {
+        return FechaUtil.parsearFecha(fechasUsuario[siguiente()]);
+    }
+
+    @Benchmark
+    public LocalDate parsearFechaISO() {
+        return FechaUtil.parsearFecha(fechasISO[siguiente()]);
+    }
+
+    @Benchmark
+    public String formatearUsuario() {
+        return FechaUtil.formatearUsuario(fechas[siguiente()]);
+    }
+
+    @Benchmark
+    public String agregarMeses() {
+        return FechaUtil.agregarMeses(fechasISOConHora[siguiente()], 12);
+    }
+
+    @Benchmark
+    public int compararFechas() {
+        int i = siguiente();
+        return FechaUtil.compararFechas(fechasISO[i], fechasISO[(i + 1) & (CANTIDAD_FECHAS - 1)]);
+    }
+}
@@ -1,62 +1,127 @@
 package com.alquileres.config;
 
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
+import com.fasterxml.jackson.databind.jsontype.PolymorphicTypeValidator;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Bean;
-import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.BatchStrategies;
 import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
-import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 
 import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Configuración de caché para la aplicación
  *
- * Habilita caché con dos opciones:
- * - Redis (si está disponible en producción)
- * - ConcurrentMapCacheManager (para desarrollo local)
+ * Cada caché tiene una memoria local acotada (L1) con su propio máximo de entradas y TTL,
+ * así las consultas frecuentes se responden sin salir del proceso y sin crecer sin límite.
+ * Si Redis está configurado (producción) se usa además como segundo nivel (L2), con los
+ * valores guardados como JSON en lugar de serialización de Java. En ese caso las invalidaciones
+ * de otra instancia no llegan a L1, así que su TTL se limita a TTL_LOCAL_CON_REDIS: un contrato
+ * modificado en una instancia se ve en las demás a los pocos segundos.
  */
 @Configuration
 @EnableCaching
 public class CacheConfig {
 
+    private static final Duration REDIS_TTL = Duration.ofHours(1);
+    private static final Duration DASHBOARD_TTL = Duration.ofMinutes(1);
+    private static final int REDIS_SCAN_LOTE = 500;
+
+    private static final Duration TTL_LISTADOS = Duration.ofMinutes(5);
+    private static final Duration TTL_POR_CLAVE = Duration.ofMinutes(10);
+    static final Duration TTL_LOCAL_CON_REDIS = Duration.ofSeconds(5);
+
+    /**
+     * Máximo de entradas y TTL local de cada caché (con Redis, el TTL se limita a TTL_LOCAL_CON_REDIS)
+     * Los listados y totales tienen pocas claves; las consultas por ID crecen con la cantidad de datos
+     */
+    static final Map<String, CacheManagerDosNiveles.Politica> POLITICAS = Map.ofEntries(
+        Map.entry(CacheNames.CONTRATOS, new CacheManagerDosNiveles.Politica(1, TTL_LISTADOS)),
+        Map.entry(CacheNames.CONTRATOS_VIGENTES, new CacheManagerDosNiveles.Politica(1, TTL_LISTADOS)),
+        Map.entry(CacheNames.CONTRATOS_VIGENTES_COUNT, new CacheManagerDosNiveles.Politica(1, TTL_LISTADOS)),
+        Map.entry(CacheNames.CONTRATOS_NO_VIGENTES, new CacheManagerDosNiveles.Politica(1, TTL_LISTADOS)),
+        Map.entry(CacheNames.CONTRATOS_PROXIMOS_VENCER, new CacheManagerDosNiveles.Politica(20, TTL_LISTADOS)),
+        Map.entry(CacheNames.CONTRATOS_PROXIMOS_VENCER_COUNT, new CacheManagerDosNiveles.Politica(20, TTL_LISTADOS)),
+        Map.entry(CacheNames.CONTRATOS_POR_INMUEBLE, new CacheManagerDosNiveles.Politica(1_000, TTL_POR_CLAVE)),
+        Map.entry(CacheNames.CONTRATOS_POR_INQUILINO, new CacheManagerDosNiveles.Politica(1_000, TTL_POR_CLAVE)),
+        Map.entry(CacheNames.CONTRATO_POR_ID, new CacheManagerDosNiveles.Politica(2_000, TTL_POR_CLAVE)),
+        Map.entry(CacheNames.CONTRATO_EXISTE, new CacheManagerDosNiveles.Politica(5_000, TTL_POR_CLAVE)),
+        Map.entry(CacheNames.INMUEBLE_TIENE_CONTRATO_VIGENTE, new CacheManagerDosNiveles.Politica(5_000, TTL_POR_CLAVE)),
+        Map.entry(CacheNames.SERVICIOS_POR_CONTRATO, new CacheManagerDosNiveles.Politica(2_000, TTL_POR_CLAVE)),
+        Map.entry(CacheNames.DASHBOARD, new CacheManagerDosNiveles.Politica(12, DASHBOARD_TTL))
+    );
+
+    static final CacheManagerDosNiveles.Politica POLITICA_POR_DEFECTO =
+        new CacheManagerDosNiveles.Politica(500, TTL_LISTADOS);
+
     /**
-     * Configuración de Redis Cache para producción
-     * TTL: 1 hora para contratos y datos relacionados
+     * Memoria local + Redis para producción
+     * TTL en Redis: 1 hora para contratos y datos relacionados, 1 minuto para el dashboard
      */
     @Bean
     @ConditionalOnProperty(name = "spring.data.redis.host", matchIfMissing = false)
-    public CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+    public CacheManagerDosNiveles cacheManager(RedisConnectionFactory connectionFactory) {
         RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig()
-                .entryTtl(Duration.ofHours(1));
+                .entryTtl(REDIS_TTL)
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(serializadorJson()));
+
+        // Vaciar un caché (listados, dashboard) recorre sus claves con SCAN en lugar de KEYS, que bloquea Redis
+        RedisCacheWriter writer = RedisCacheWriter.nonLockingRedisCacheWriter(
+                connectionFactory, BatchStrategies.scan(REDIS_SCAN_LOTE));
+
+        RedisCacheManager redis = RedisCacheManager.builder(writer)
+                .cacheDefaults(config)
+                .withCacheConfiguration(CacheNames.DASHBOARD, config.entryTtl(DASHBOARD_TTL))
+                .build();
+        // No es un bean: se inicializa a mano para que tome la configuración propia del dashboard
+        redis.initializeCaches();
 
-        return RedisCacheManager.create(connectionFactory);
+        Map<String, CacheManagerDosNiveles.Politica> politicas = new HashMap<>();
+        POLITICAS.forEach((nombre, politica) -> politicas.put(nombre, politica.conTtlMaximo(TTL_LOCAL_CON_REDIS)));
+        return new CacheManagerDosNiveles(politicas, POLITICA_POR_DEFECTO.conTtlMaximo(TTL_LOCAL_CON_REDIS),
+                                          redis::getCache);
     }
 
     /**
-     * Configuración de caché en memoria para desarrollo
+     * Solo memoria local, para desarrollo
      * Útil cuando Redis no está disponible
      */
     @Bean
     @ConditionalOnProperty(name = "spring.data.redis.host", matchIfMissing = true)
-    public CacheManager devCacheManager() {
-        return new ConcurrentMapCacheManager(
-                "contratos",
-                "contratos-vigentes",
-                "contratos-vigentes-count",
-                "contratos-no-vigentes",
-                "contratos-proximos-vencer",
-                "contratos-proximos-vencer-count",
-                "contratos-inmueble",
-                "contratos-inquilino",
-                "contrato-id",
-                "contrato-existe",
-                "inmueble-contrato-vigente",
-                "servicios-contrato"
-        );
+    public CacheManagerDosNiveles devCacheManager() {
+        return new CacheManagerDosNiveles(POLITICAS, POLITICA_POR_DEFECTO, null);
     }
-}
 
+    /**
+     * JSON con el tipo de cada valor, más compacto que la serialización de Java y sin exigir Serializable
+     */
+    static GenericJackson2JsonRedisSerializer serializadorJson() {
+        ObjectMapper mapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+        // EVERYTHING también guarda el tipo de Long y BigDecimal (con NON_FINAL un Long vuelve como Integer)
+        PolymorphicTypeValidator tiposPermitidos = BasicPolymorphicTypeValidator.builder()
+                .allowIfSubType("com.alquileres.")
+                .allowIfSubType("java.")
+                .allowIfSubType("org.springframework.cache.support.NullValue")
+                .build();
+        mapper.activateDefaultTyping(tiposPermitidos, ObjectMapper.DefaultTyping.EVERYTHING, JsonTypeInfo.As.PROPERTY);
+        GenericJackson2JsonRedisSerializer.registerNullValueSerializer(mapper, null);
+
+        return new GenericJackson2JsonRedisSerializer(mapper);
+    }
+}
@@ -0,0 +1,98 @@
+package com.alquileres.config;
+
+import org.springframework.cache.Cache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caché de dos niveles: primero la memoria local (L1) y después Redis (L2)
+ *
+ * Un acierto en L2 se copia a L1, así las lecturas siguientes no pasan por la red ni por la
+ * deserialización. Las escrituras e invalidaciones se aplican en los dos niveles.
+ * Las invalidaciones hechas en otra instancia no llegan a L1, por eso con Redis el TTL local se limita
+ * a unos segundos (ver CacheConfig).
+ */
+public class CacheDosNiveles implements Cache {
+
+    private final CacheLocalAcotada local;
+    private final Cache remoto;
+    private final LongAdder aciertosRemotos = new LongAdder();
+    private final CargasPorClave cargas = new CargasPorClave();
+
+    public CacheDosNiveles(CacheLocalAcotada local, Cache remoto) {
+        this.local = local;
+        this.remoto = remoto;
+    }
+
+    @Override
+    public String getName() {
+        return local.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return remoto.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ValueWrapper valor = local.get(key);
+        if (valor != null) {
+            return valor;
+        }
+        valor = remoto.get(key);
+        if (valor != null) {
+            aciertosRemotos.increment();
+            local.put(key, valor.get());
+        }
+        return valor;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper valor = get(key);
+        Object contenido = valor != null ? valor.get() : null;
+        if (contenido != null && type != null && !type.isInstance(contenido)) {
+            throw new IllegalStateException("El valor en caché no es del tipo " + type.getName() + ": " + contenido);
+        }
+        return (T) contenido;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper existente = get(key);
+        if (existente != null) {
+            return (T) existente.get();
+        }
+        return cargas.cargar(key, valueLoader, local, this);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        remoto.put(key, value);
+        local.put(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        remoto.evict(key);
+        local.evict(key);
+    }
+
+    @Override
+    public void clear() {
+        remoto.clear();
+        local.clear();
+    }
+
+    public CacheLocalAcotada getLocal() {
+        return local;
+    }
+
+    public long getAciertosRemotos() {
+        return aciertosRemotos.sum();
+    }
+}
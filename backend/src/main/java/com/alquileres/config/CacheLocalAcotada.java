@@ -0,0 +1,185 @@
+package com.alquileres.config;
+
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Caché en memoria con cantidad máxima de entradas y tiempo de vida
+ *
+ * Al superar el máximo se descarta la entrada usada hace más tiempo (LRU); las entradas vencidas
+ * se descartan al leerlas. Lleva la cuenta de aciertos, fallos y desalojos para las estadísticas.
+ */
+public class CacheLocalAcotada extends AbstractValueAdaptingCache {
+
+    private final String nombre;
+    private final int maxEntradas;
+    private final long ttlNanos;
+    private final LongSupplier reloj;
+
+    // LinkedHashMap en orden de acceso: la primera entrada es la usada hace más tiempo
+    private final LinkedHashMap<Object, Entrada> entradas;
+
+    private final LongAdder aciertos = new LongAdder();
+    private final LongAdder fallos = new LongAdder();
+    private final LongAdder desalojos = new LongAdder();
+    private final CargasPorClave cargas = new CargasPorClave();
+
+    public CacheLocalAcotada(String nombre, int maxEntradas, Duration ttl) {
+        this(nombre, maxEntradas, ttl, System::nanoTime);
+    }
+
+    CacheLocalAcotada(String nombre, int maxEntradas, Duration ttl, LongSupplier reloj) {
+        super(true);
+        this.nombre = nombre;
+        this.maxEntradas = maxEntradas;
+        this.ttlNanos = ttl.toNanos();
+        this.reloj = reloj;
+        this.entradas = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, Entrada> masAntigua) {
+                if (size() > CacheLocalAcotada.this.maxEntradas) {
+                    desalojos.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    private static final class Entrada {
+        final Object valor;
+        final long venceEn;
+
+        Entrada(Object valor, long venceEn) {
+            this.valor = valor;
+            this.venceEn = venceEn;
+        }
+    }
+
+    @Override
+    public String getName() {
+        return nombre;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return entradas;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        synchronized (entradas) {
+            Entrada entrada = entradas.get(key);
+            if (entrada != null && reloj.getAsLong() - entrada.venceEn >= 0) {
+                entradas.remove(key);
+                desalojos.increment();
+                entrada = null;
+            }
+            if (entrada == null) {
+                fallos.increment();
+                return null;
+            }
+            aciertos.increment();
+            return entrada.valor;
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper existente = get(key);
+        if (existente != null) {
+            return (T) existente.get();
+        }
+        return cargas.cargar(key, valueLoader, this, this);
+    }
+
+    /**
+     * Busca una entrada vigente sin actualizar las estadísticas ni el orden de uso
+     */
+    ValueWrapper buscarSinContar(Object key) {
+        synchronized (entradas) {
+            Entrada entrada = entradas.get(key);
+            if (entrada == null || reloj.getAsLong() - entrada.venceEn >= 0) {
+                return null;
+            }
+            return toValueWrapper(entrada.valor);
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        Entrada entrada = new Entrada(toStoreValue(value), reloj.getAsLong() + ttlNanos);
+        synchronized (entradas) {
+            entradas.put(key, entrada);
+        }
+    }
+
+    /**
+     * Reemplaza de forma atómica el valor vigente de una clave por el que devuelve la función
+     *
+     * La función recibe null si la clave no tiene una entrada vigente; si devuelve null la entrada se
+     * descarta, y si devuelve el mismo valor se deja como estaba, sin renovar el vencimiento.
+     * No actualiza las estadísticas.
+     *
+     * @return El valor que quedó guardado, o null si no quedó ninguno
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T actualizar(Object key, UnaryOperator<T> funcion) {
+        synchronized (entradas) {
+            long ahora = reloj.getAsLong();
+            Entrada entrada = entradas.get(key);
+            T actual = entrada == null || ahora - entrada.venceEn >= 0 ? null : (T) fromStoreValue(entrada.valor);
+            T nuevo = funcion.apply(actual);
+            if (nuevo == null) {
+                entradas.remove(key);
+            } else if (nuevo != actual) {
+                entradas.put(key, new Entrada(nuevo, ahora + ttlNanos));
+            }
+            return nuevo;
+        }
+    }
+
+    @Override
+    public void evict(Object key) {
+        synchronized (entradas) {
+            entradas.remove(key);
+        }
+    }
+
+    @Override
+    public void clear() {
+        synchronized (entradas) {
+            entradas.clear();
+        }
+    }
+
+    public int getCantidadEntradas() {
+        synchronized (entradas) {
+            return entradas.size();
+        }
+    }
+
+    public int getMaxEntradas() {
+        return maxEntradas;
+    }
+
+    public long getAciertos() {
+        return aciertos.sum();
+    }
+
+    public long getFallos() {
+        return fallos.sum();
+    }
+
+    public long getDesalojos() {
+        return desalojos.sum();
+    }
+}
@@ -0,0 +1,122 @@
+package com.alquileres.config;
+
+import com.alquileres.dto.EstadisticasCacheDTO;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * CacheManager con una memoria local acotada (L1) por caché y, opcionalmente, Redis como segundo nivel (L2)
+ *
+ * Cada caché usa la política (máximo de entradas y TTL local) configurada para su nombre;
+ * los nombres sin política propia usan la política por defecto.
+ */
+public class CacheManagerDosNiveles implements CacheManager {
+
+    /**
+     * Límite de entradas y tiempo de vida de un caché en memoria local
+     */
+    public static final class Politica {
+        private final int maxEntradas;
+        private final Duration ttl;
+
+        public Politica(int maxEntradas, Duration ttl) {
+            this.maxEntradas = maxEntradas;
+            this.ttl = ttl;
+        }
+
+        public int getMaxEntradas() {
+            return maxEntradas;
+        }
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        /**
+         * La misma política con el TTL local limitado a maximo
+         */
+        public Politica conTtlMaximo(Duration maximo) {
+            return ttl.compareTo(maximo) <= 0 ? this : new Politica(maxEntradas, maximo);
+        }
+    }
+
+    private final Map<String, Politica> politicas;
+    private final Politica politicaPorDefecto;
+    // Devuelve el caché de Redis para un nombre, o null si no hay segundo nivel
+    private final Function<String, Cache> segundoNivel;
+    private final Map<String, Cache> caches = new ConcurrentHashMap<>();
+
+    public CacheManagerDosNiveles(Map<String, Politica> politicas, Politica politicaPorDefecto,
+                                  Function<String, Cache> segundoNivel) {
+        this.politicas = politicas;
+        this.politicaPorDefecto = politicaPorDefecto;
+        this.segundoNivel = segundoNivel;
+        politicas.keySet().forEach(this::getCache);
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, this::crearCache);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return List.copyOf(caches.keySet());
+    }
+
+    private Cache crearCache(String nombre) {
+        Politica politica = politicas.getOrDefault(nombre, politicaPorDefecto);
+        CacheLocalAcotada local = new CacheLocalAcotada(nombre, politica.getMaxEntradas(), politica.getTtl());
+
+        Cache remoto = segundoNivel != null ? segundoNivel.apply(nombre) : null;
+        return remoto != null ? new CacheDosNiveles(local, remoto) : local;
+    }
+
+    /**
+     * Estadísticas de todos los cachés creados, ordenadas por nombre
+     */
+    public List<EstadisticasCacheDTO> obtenerEstadisticas() {
+        List<EstadisticasCacheDTO> estadisticas = new ArrayList<>();
+        caches.values().stream()
+            .sorted((a, b) -> a.getName().compareTo(b.getName()))
+            .forEach(cache -> estadisticas.add(estadisticasDe(cache)));
+        return estadisticas;
+    }
+
+    /**
+     * Estadísticas de un caché, creándolo si todavía no existe
+     */
+    public EstadisticasCacheDTO obtenerEstadisticas(String nombre) {
+        return estadisticasDe(getCache(nombre));
+    }
+
+    private EstadisticasCacheDTO estadisticasDe(Cache cache) {
+        CacheLocalAcotada local = cache instanceof CacheDosNiveles dosNiveles
+            ? dosNiveles.getLocal()
+            : (CacheLocalAcotada) cache;
+        long aciertosRemotos = cache instanceof CacheDosNiveles dosNiveles ? dosNiveles.getAciertosRemotos() : 0;
+
+        // Un acierto en Redis empieza como fallo local
+        long fallos = local.getFallos() - aciertosRemotos;
+        long consultas = local.getAciertos() + aciertosRemotos + fallos;
+
+        EstadisticasCacheDTO dto = new EstadisticasCacheDTO();
+        dto.setNombre(cache.getName());
+        dto.setEntradas(local.getCantidadEntradas());
+        dto.setMaxEntradas(local.getMaxEntradas());
+        dto.setAciertosLocales(local.getAciertos());
+        dto.setAciertosRemotos(aciertosRemotos);
+        dto.setFallos(fallos);
+        dto.setDesalojos(local.getDesalojos());
+        dto.setTasaAciertos(consultas == 0 ? 0.0 : (double) (consultas - fallos) / consultas);
+        return dto;
+    }
+}
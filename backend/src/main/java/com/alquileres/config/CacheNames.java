@@ -24,6 +24,9 @@ public class CacheNames {
     // Cachés de Servicios
     public static final String SERVICIOS_POR_CONTRATO = "servicios-contrato";
 
+    // Indicadores de la pantalla principal (TTL corto)
+    public static final String DASHBOARD = "dashboard";
+
     private CacheNames() {
         // Clase de constantes, no instanciable
     }
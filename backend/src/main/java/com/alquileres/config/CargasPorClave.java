@@ -0,0 +1,45 @@
+package com.alquileres.config;
+
+import org.springframework.cache.Cache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Carga de valores con un solo hilo por clave, como exige @Cacheable(sync = true)
+ *
+ * Los hilos que piden la misma clave mientras otro la carga esperan y toman el valor que quedó en la
+ * memoria local; las claves distintas se cargan en paralelo.
+ */
+final class CargasPorClave {
+
+    private final ConcurrentMap<Object, Object> cerrojos = new ConcurrentHashMap<>();
+
+    /**
+     * @param local Memoria local donde se busca el valor cargado por otro hilo (sin contar aciertos ni fallos)
+     * @param destino Caché donde se guarda el valor cargado
+     */
+    @SuppressWarnings("unchecked")
+    <T> T cargar(Object key, Callable<T> valueLoader, CacheLocalAcotada local, Cache destino) {
+        Object cerrojo = cerrojos.computeIfAbsent(key, k -> new Object());
+        try {
+            synchronized (cerrojo) {
+                Cache.ValueWrapper existente = local.buscarSinContar(key);
+                if (existente != null) {
+                    return (T) existente.get();
+                }
+                T valor;
+                try {
+                    valor = valueLoader.call();
+                } catch (Exception e) {
+                    throw new Cache.ValueRetrievalException(key, valueLoader, e);
+                }
+                destino.put(key, valor);
+                return valor;
+            }
+        } finally {
+            cerrojos.remove(key, cerrojo);
+        }
+    }
+}
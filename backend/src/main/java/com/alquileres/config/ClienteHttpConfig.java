@@ -0,0 +1,109 @@
+package com.alquileres.config;
+
+import io.netty.channel.ChannelOption;
+import io.netty.handler.ssl.SslContext;
+import io.netty.handler.ssl.SslContextBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.reactive.function.client.WebClientCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.TrustManagerFactory;
+import javax.net.ssl.X509TrustManager;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyStore;
+import java.security.cert.Certificate;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Cliente HTTP compartido por los WebClient de la aplicación (BCRA y Resend)
+ *
+ * Todos usan el mismo pool de conexiones no bloqueante de Reactor Netty, con un máximo de conexiones
+ * por host (el pool se arma por dirección remota), timeout de conexión y de respuesta. Spring aplica el
+ * customizer a cada WebClient.Builder que inyecta.
+ *
+ * TLS valida los certificados contra los de la JVM. Si un servidor no envía la cadena completa (como
+ * pasó con la API del BCRA), el certificado intermedio se agrega en app.http.certificados-ca (archivo
+ * PEM) en vez de desactivar la validación.
+ */
+@Configuration
+public class ClienteHttpConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClienteHttpConfig.class);
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider proveedorConexionesHttp(
+            @Value("${app.http.max-conexiones-por-host:20}") int maxConexionesPorHost,
+            @Value("${app.http.espera-conexion-segundos:10}") long esperaConexionSegundos) {
+        return ConnectionProvider.builder("alquigest-http")
+                .maxConnections(maxConexionesPorHost)
+                .pendingAcquireTimeout(Duration.ofSeconds(esperaConexionSegundos))
+                .maxIdleTime(Duration.ofSeconds(30))
+                .evictInBackground(Duration.ofSeconds(60))
+                .build();
+    }
+
+    @Bean
+    public WebClientCustomizer clienteHttpCompartido(
+            ConnectionProvider proveedorConexionesHttp,
+            @Value("${app.http.timeout-conexion-ms:5000}") int timeoutConexionMs,
+            @Value("${app.http.timeout-respuesta-segundos:30}") long timeoutRespuestaSegundos,
+            @Value("${app.http.certificados-ca:}") String certificadosCa) {
+        HttpClient httpClient = HttpClient.create(proveedorConexionesHttp)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, timeoutConexionMs)
+                .responseTimeout(Duration.ofSeconds(timeoutRespuestaSegundos));
+
+        if (!certificadosCa.isBlank()) {
+            SslContext sslContext = crearContextoSsl(Path.of(certificadosCa));
+            httpClient = httpClient.secure(spec -> spec.sslContext(sslContext));
+        }
+
+        ReactorClientHttpConnector conector = new ReactorClientHttpConnector(httpClient);
+        return builder -> builder.clientConnector(conector);
+    }
+
+    /**
+     * Contexto TLS que confía en los certificados de la JVM más los del archivo PEM
+     */
+    static SslContext crearContextoSsl(Path archivoPem) {
+        try {
+            List<X509Certificate> confiables = new ArrayList<>(Arrays.asList(certificadosDeLaJvm()));
+            CertificateFactory fabrica = CertificateFactory.getInstance("X.509");
+            try (InputStream entrada = Files.newInputStream(archivoPem)) {
+                for (Certificate certificado : fabrica.generateCertificates(entrada)) {
+                    confiables.add((X509Certificate) certificado);
+                }
+            }
+            logger.info("Certificados CA adicionales cargados desde {}", archivoPem);
+            return SslContextBuilder.forClient()
+                    .trustManager(confiables.toArray(new X509Certificate[0]))
+                    .build();
+        } catch (Exception e) {
+            throw new IllegalStateException("No se pudieron cargar los certificados de " + archivoPem, e);
+        }
+    }
+
+    private static X509Certificate[] certificadosDeLaJvm() throws Exception {
+        TrustManagerFactory fabrica = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+        fabrica.init((KeyStore) null);
+        for (TrustManager trustManager : fabrica.getTrustManagers()) {
+            if (trustManager instanceof X509TrustManager x509) {
+                return x509.getAcceptedIssuers();
+            }
+        }
+        return new X509Certificate[0];
+    }
+}
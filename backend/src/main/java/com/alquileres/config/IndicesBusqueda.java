@@ -0,0 +1,84 @@
+package com.alquileres.config;
+
+import com.alquileres.repository.InmuebleRepository;
+import com.alquileres.repository.InquilinoRepository;
+import com.alquileres.repository.PropietarioRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Crea las extensiones e índices de trigramas (pg_trgm) que usa la búsqueda de inquilinos, propietarios e inmuebles.
+ *
+ * - f_unaccent: envoltorio IMMUTABLE de unaccent, necesario para poder usarlo en un índice
+ * - Índices GIN sobre el texto completo de cada registro, sin acentos y en minúsculas (TEXTO_BUSQUEDA de cada
+ *   repositorio), para la búsqueda por similitud (operador <%, tolera errores de tipeo y ordena por word_similarity)
+ * - Índices GIN sobre upper(columna) para las búsquedas existentes por "contiene" (ContainingIgnoreCase),
+ *   que así dejan de recorrer toda la tabla
+ *
+ * Se ejecuta después de que Hibernate crea las tablas. Si la base no permite crear las extensiones,
+ * la búsqueda sigue funcionando con LIKE (ver BusquedaService).
+ */
+@Component
+public class IndicesBusqueda implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(IndicesBusqueda.class);
+
+    private static final String[] INDICES = {
+        "CREATE INDEX IF NOT EXISTS idx_inquilinos_busqueda_trgm ON inquilinos USING gin ((" + InquilinoRepository.TEXTO_BUSQUEDA + ") gin_trgm_ops)",
+        "CREATE INDEX IF NOT EXISTS idx_propietarios_busqueda_trgm ON propietarios USING gin ((" + PropietarioRepository.TEXTO_BUSQUEDA + ") gin_trgm_ops)",
+        "CREATE INDEX IF NOT EXISTS idx_inmuebles_busqueda_trgm ON inmuebles USING gin ((" + InmuebleRepository.TEXTO_BUSQUEDA + ") gin_trgm_ops)",
+        "CREATE INDEX IF NOT EXISTS idx_inquilinos_nombre_trgm ON inquilinos USING gin (upper(nombre) gin_trgm_ops)",
+        "CREATE INDEX IF NOT EXISTS idx_inquilinos_apellido_trgm ON inquilinos USING gin (upper(apellido) gin_trgm_ops)",
+        "CREATE INDEX IF NOT EXISTS idx_propietarios_nombre_trgm ON propietarios USING gin (upper(nombre) gin_trgm_ops)",
+        "CREATE INDEX IF NOT EXISTS idx_propietarios_apellido_trgm ON propietarios USING gin (upper(apellido) gin_trgm_ops)",
+        "CREATE INDEX IF NOT EXISTS idx_inmuebles_direccion_trgm ON inmuebles USING gin (upper(direccion) gin_trgm_ops)"
+    };
+
+    private final DataSource dataSource;
+
+    private volatile boolean disponible = false;
+
+    public IndicesBusqueda(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        String error = "No se pudieron crear los índices de búsqueda (se usará LIKE)";
+        InicioPostgres.ejecutarOpcional(dataSource, error, connection -> {
+            crearIndices(connection);
+            disponible = true;
+            logger.info(" - Índices de búsqueda por trigramas listos");
+            return null;
+        });
+    }
+
+    private void crearIndices(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+            statement.execute("CREATE EXTENSION IF NOT EXISTS unaccent");
+            // unaccent() es STABLE; con el diccionario explícito el resultado no cambia y se puede indexar
+            statement.execute("CREATE OR REPLACE FUNCTION f_unaccent(text) RETURNS text " +
+                              "LANGUAGE sql IMMUTABLE PARALLEL SAFE STRICT AS " +
+                              "$$ SELECT unaccent('unaccent'::regdictionary, $1) $$");
+            for (String indice : INDICES) {
+                statement.execute(indice);
+            }
+        }
+    }
+
+    /**
+     * Indica si la base tiene pg_trgm, f_unaccent y los índices de búsqueda
+     */
+    public boolean isDisponible() {
+        return disponible;
+    }
+}
@@ -0,0 +1,65 @@
+package com.alquileres.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Ejecución de las tareas de inicio que solo aplican a PostgreSQL (migraciones, triggers, índices)
+ *
+ * Cada tarea recibe una conexión y solo corre si la base es PostgreSQL; en otras bases (tests) no hace nada.
+ * Las tareas obligatorias detienen el inicio ante cualquier error; las opcionales solo lo registran.
+ */
+final class InicioPostgres {
+
+    private static final Logger logger = LoggerFactory.getLogger(InicioPostgres.class);
+
+    @FunctionalInterface
+    interface Tarea<T> {
+        T ejecutar(Connection connection) throws SQLException;
+    }
+
+    private InicioPostgres() {
+    }
+
+    /**
+     * Ejecuta una tarea de la que depende el esquema: si falla, el inicio se detiene
+     *
+     * @return Resultado de la tarea, o null si la base no es PostgreSQL
+     * @throws IllegalStateException si la tarea falla
+     */
+    static <T> T ejecutar(DataSource dataSource, String descripcion, Tarea<T> tarea) {
+        try (Connection connection = dataSource.getConnection()) {
+            if (!esPostgres(connection)) {
+                return null;
+            }
+            return tarea.ejecutar(connection);
+        } catch (SQLException e) {
+            throw new IllegalStateException(descripcion + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Ejecuta una tarea sin la que la aplicación puede funcionar: si falla, solo se registra
+     *
+     * @return Resultado de la tarea, o null si la base no es PostgreSQL o la tarea falló
+     */
+    static <T> T ejecutarOpcional(DataSource dataSource, String descripcion, Tarea<T> tarea) {
+        try (Connection connection = dataSource.getConnection()) {
+            if (!esPostgres(connection)) {
+                return null;
+            }
+            return tarea.ejecutar(connection);
+        } catch (Exception e) {
+            logger.warn("⚠️ {}: {}", descripcion, e.getMessage());
+            return null;
+        }
+    }
+
+    private static boolean esPostgres(Connection connection) throws SQLException {
+        return "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName());
+    }
+}
@@ -0,0 +1,68 @@
+package com.alquileres.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aspecto que mide la duración de los métodos @Transactional
+ *
+ * Cada invocación toma su propio tiempo de inicio, así las llamadas anidadas o recursivas no se pisan.
+ * Las transacciones que superan los 30 segundos se siguen informando en el log porque suelen
+ * indicar conexiones retenidas.
+ * Los endpoints (http.server.requests) y las tareas programadas (tasks.scheduled.execution) los mide
+ * Spring Boot Actuator.
+ */
+@Aspect
+@Component
+public class MetricasAspect {
+
+    private static final Logger logger = LoggerFactory.getLogger(MetricasAspect.class);
+    private static final long TRANSACTION_TIMEOUT_MS = 30000; // 30 segundos
+
+    static final String METRICA_TRANSACCIONES = "alquigest.transaccion";
+
+    private static final String SIN_EXCEPCION = "none";
+
+    private final MeterRegistry meterRegistry;
+
+    public MetricasAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("@annotation(org.springframework.transaction.annotation.Transactional)")
+    public Object medirTransaccion(ProceedingJoinPoint joinPoint) throws Throwable {
+        String clase = joinPoint.getTarget().getClass().getSimpleName();
+        String metodo = joinPoint.getSignature().getName();
+        String excepcion = SIN_EXCEPCION;
+        long inicio = System.nanoTime();
+
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            excepcion = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            long duracion = System.nanoTime() - inicio;
+            Timer.builder(METRICA_TRANSACCIONES)
+                    .description("Duración de los métodos @Transactional")
+                    .tags("clase", clase, "metodo", metodo, "excepcion", excepcion)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(duracion, TimeUnit.NANOSECONDS);
+
+            long duracionMs = duracion / 1_000_000;
+            if (duracionMs > TRANSACTION_TIMEOUT_MS) {
+                logger.warn("⚠️ LONG TRANSACTION DETECTED: {}.{} took {} ms (threshold: {} ms)",
+                           clase, metodo, duracionMs, TRANSACTION_TIMEOUT_MS);
+            }
+        }
+    }
+}
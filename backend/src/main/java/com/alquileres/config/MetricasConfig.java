@@ -0,0 +1,63 @@
+package com.alquileres.config;
+
+import com.alquileres.dto.EstadisticasCacheDTO;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Registra las métricas de los cachés, que Spring Boot no conoce porque el CacheManager es propio
+ *
+ * El pool de conexiones (hikaricp_*), los endpoints y las tareas programadas los mide Actuator.
+ */
+@Configuration
+public class MetricasConfig {
+
+    @Bean
+    public MeterBinder metricasCaches(CacheManagerDosNiveles cacheManager) {
+        return registro -> registrarCaches(registro, cacheManager);
+    }
+
+    /**
+     * Aciertos, fallos, tasa de aciertos, entradas y desalojos de cada caché creado hasta el momento
+     * (los de CacheConfig se crean al iniciar)
+     */
+    static void registrarCaches(MeterRegistry registro, CacheManagerDosNiveles cacheManager) {
+        for (String nombre : cacheManager.getCacheNames()) {
+            contador(registro, cacheManager, nombre, "alquigest.cache.aciertos", "Aciertos de caché por nivel",
+                    EstadisticasCacheDTO::getAciertosLocales, "nivel", "local");
+            contador(registro, cacheManager, nombre, "alquigest.cache.aciertos", "Aciertos de caché por nivel",
+                    EstadisticasCacheDTO::getAciertosRemotos, "nivel", "redis");
+            contador(registro, cacheManager, nombre, "alquigest.cache.fallos", "Fallos de caché",
+                    EstadisticasCacheDTO::getFallos);
+            contador(registro, cacheManager, nombre, "alquigest.cache.desalojos",
+                    "Entradas descartadas de la memoria local por límite o vencimiento",
+                    EstadisticasCacheDTO::getDesalojos);
+            Gauge.builder("alquigest.cache.tasa.aciertos", cacheManager,
+                          c -> c.obtenerEstadisticas(nombre).getTasaAciertos())
+                    .description("Proporción de consultas respondidas desde la caché")
+                    .tag("cache", nombre)
+                    .register(registro);
+            Gauge.builder("alquigest.cache.entradas", cacheManager,
+                          c -> c.obtenerEstadisticas(nombre).getEntradas())
+                    .description("Entradas en la memoria local")
+                    .tag("cache", nombre)
+                    .register(registro);
+        }
+    }
+
+    private static void contador(MeterRegistry registro, CacheManagerDosNiveles cacheManager, String nombre,
+                                 String metrica, String descripcion, ToDoubleFunction<EstadisticasCacheDTO> valor,
+                                 String... etiquetas) {
+        FunctionCounter.builder(metrica, cacheManager, c -> valor.applyAsDouble(c.obtenerEstadisticas(nombre)))
+                .description(descripcion)
+                .tag("cache", nombre)
+                .tags(etiquetas)
+                .register(registro);
+    }
+}
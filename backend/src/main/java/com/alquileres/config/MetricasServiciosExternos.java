@@ -0,0 +1,45 @@
+package com.alquileres.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Métricas de las llamadas a servicios externos (BCRA, Resend)
+ *
+ * La duración se publica como histograma, así los percentiles se calculan en Prometheus con
+ * histogram_quantile y se pueden agregar entre instancias.
+ */
+public final class MetricasServiciosExternos {
+
+    static final String METRICA_DURACION = "alquigest.servicio.externo";
+    static final String METRICA_ERRORES = "alquigest.servicio.externo.errores";
+
+    private MetricasServiciosExternos() {
+    }
+
+    /**
+     * Registra una llamada con su duración y, si falló, el tipo de error
+     *
+     * @param error Código HTTP o excepción que hizo fallar la llamada; null si terminó bien
+     */
+    public static void registrarLlamada(MeterRegistry meterRegistry, String servicio, long nanos, String error) {
+        Timer.builder(METRICA_DURACION)
+                .description("Duración de las llamadas a servicios externos")
+                .tag("servicio", servicio)
+                .tag("resultado", error == null ? "ok" : "error")
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+        if (error != null) {
+            Counter.builder(METRICA_ERRORES)
+                    .description("Llamadas fallidas a servicios externos")
+                    .tag("servicio", servicio)
+                    .tag("error", error)
+                    .register(meterRegistry)
+                    .increment();
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.alquileres.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Convierte a tipo DATE las columnas de fecha que se guardaban como texto.
+ *
+ * Hibernate (ddl-auto=update) no cambia el tipo de columnas existentes, por eso la conversión se hace
+ * con JDBC antes de que se cree el EntityManagerFactory. Acepta los formatos que se usaron históricamente
+ * (dd/MM/yyyy, yyyy-MM-dd y yyyy-MM-ddTHH:mm:ss); los valores vacíos quedan en NULL.
+ *
+ * Antes de convertir se buscan valores con otro formato: si hay alguno no se toca ninguna columna y
+ * el inicio falla indicando cuáles corregir, en lugar de perder esas fechas. Todas las columnas se
+ * convierten en una única transacción, así un error no deja el esquema a medio migrar.
+ * Si la columna ya es DATE o la tabla todavía no existe, no hace nada.
+ */
+@Component("migracionFechas")
+public class MigracionFechas implements InitializingBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(MigracionFechas.class);
+
+    private static final String[][] COLUMNAS = {
+        {"alquileres", "fecha_vencimiento_pago"},
+        {"contratos", "fecha_inicio"},
+        {"contratos", "fecha_fin"},
+        {"aumento_alquiler", "fecha_aumento"}
+    };
+
+    private static final String FORMATO_DD_MM_YYYY = "^\\d{2}/\\d{2}/\\d{4}$";
+    private static final String FORMATO_ISO = "^\\d{4}-\\d{2}-\\d{2}";
+
+    private final DataSource dataSource;
+
+    public MigracionFechas(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Hace que el EntityManagerFactory espere a que termine la conversión de columnas
+     */
+    @Bean
+    static EntityManagerFactoryDependsOnPostProcessor migracionFechasAntesDeJpa() {
+        return new EntityManagerFactoryDependsOnPostProcessor("migracionFechas");
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        InicioPostgres.ejecutar(dataSource, "Error al convertir columnas de fecha a DATE", connection -> {
+            convertirColumnas(connection);
+            return null;
+        });
+    }
+
+    private void convertirColumnas(Connection connection) throws SQLException {
+        List<String[]> pendientes = new ArrayList<>();
+        for (String[] columna : COLUMNAS) {
+            if (esTexto(connection, columna[0], columna[1])) {
+                pendientes.add(columna);
+            }
+        }
+        if (pendientes.isEmpty()) {
+            return;
+        }
+
+        verificarFormatos(connection, pendientes);
+        convertirEnUnaTransaccion(connection, pendientes);
+    }
+
+    private boolean esTexto(Connection connection, String tabla, String columna) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(
+                "SELECT data_type FROM information_schema.columns " +
+                "WHERE table_schema = current_schema() AND table_name = ? AND column_name = ?")) {
+            ps.setString(1, tabla);
+            ps.setString(2, columna);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) {
+                    return false;
+                }
+                String tipoActual = rs.getString(1);
+                return "character varying".equals(tipoActual) || "text".equals(tipoActual);
+            }
+        }
+    }
+
+    /**
+     * Falla si alguna columna tiene valores que no responden a ninguno de los formatos conocidos
+     */
+    private void verificarFormatos(Connection connection, List<String[]> columnas) throws SQLException {
+        List<String> invalidas = new ArrayList<>();
+        for (String[] columna : columnas) {
+            String tabla = columna[0];
+            String nombre = columna[1];
+            String sql = "SELECT COUNT(*), MIN(" + nombre + ") FROM " + tabla + " WHERE btrim(" + nombre + ") <> '' " +
+                         "AND " + nombre + " !~ '" + FORMATO_DD_MM_YYYY + "' AND " + nombre + " !~ '" + FORMATO_ISO + "'";
+            try (Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(sql)) {
+                rs.next();
+                long cantidad = rs.getLong(1);
+                if (cantidad > 0) {
+                    invalidas.add(tabla + "." + nombre + " (" + cantidad + " filas, por ejemplo '" + rs.getString(2) + "')");
+                }
+            }
+        }
+
+        if (!invalidas.isEmpty()) {
+            throw new IllegalStateException("Hay fechas con formato desconocido que se perderían al convertir " +
+                                            "las columnas a DATE; corregirlas antes de iniciar: " +
+                                            String.join(", ", invalidas));
+        }
+    }
+
+    private void convertirEnUnaTransaccion(Connection connection, List<String[]> columnas) throws SQLException {
+        boolean autoCommitOriginal = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            for (String[] columna : columnas) {
+                statement.execute(sentenciaConversion(columna[0], columna[1]));
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommitOriginal);
+        }
+
+        for (String[] columna : columnas) {
+            logger.info(" - Columna {}.{} convertida de texto a DATE", columna[0], columna[1]);
+        }
+    }
+
+    private static String sentenciaConversion(String tabla, String columna) {
+        return "ALTER TABLE " + tabla + " ALTER COLUMN " + columna + " TYPE date USING CASE " +
+               "WHEN " + columna + " ~ '" + FORMATO_DD_MM_YYYY + "' THEN to_date(" + columna + ", 'DD/MM/YYYY') " +
+               "WHEN " + columna + " ~ '" + FORMATO_ISO + "' THEN substring(" + columna + ", 1, 10)::date " +
+               "ELSE NULL END";
+    }
+}
@@ -0,0 +1,195 @@
+package com.alquileres.config;
+
+import com.alquileres.dto.ContenidoPDFDTO;
+import com.alquileres.service.AlmacenPDF;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.InputStream;
+import java.sql.Blob;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Mueve al almacén de PDFs el contenido que todavía está guardado en la columna pdfs.file.
+ *
+ * Al iniciar quita el NOT NULL de la columna (Hibernate con ddl-auto=update no lo hace) y, si
+ * app.pdf.migracion.habilitada está activo, lanza la migración en segundo plano. Cada PDF se migra en
+ * su propia transacción: se copia el large object al almacén como stream y se guarda el hash.
+ * Si la aplicación se detiene a mitad de camino, el siguiente inicio continúa con los que faltan.
+ *
+ * La copia en la base se conserva hasta activar app.pdf.migracion.liberar-base, una vez confirmado
+ * que el almacén está en un disco persistente: recién entonces se pone file en NULL y se libera el
+ * large object, solo de los PDFs cuyo contenido está en el almacén.
+ */
+@Component
+public class MigracionPDFs implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(MigracionPDFs.class);
+
+    private final DataSource dataSource;
+    private final AlmacenPDF almacenPDF;
+    private final Executor taskExecutor;
+    private final boolean habilitada;
+    private final boolean liberarBase;
+
+    public MigracionPDFs(DataSource dataSource,
+                         AlmacenPDF almacenPDF,
+                         @Qualifier("taskExecutor") Executor taskExecutor,
+                         @Value("${app.pdf.migracion.habilitada:false}") boolean habilitada,
+                         @Value("${app.pdf.migracion.liberar-base:false}") boolean liberarBase) {
+        this.dataSource = dataSource;
+        this.almacenPDF = almacenPDF;
+        this.taskExecutor = taskExecutor;
+        this.habilitada = habilitada;
+        this.liberarBase = liberarBase;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        List<Long> pendientes = InicioPostgres.ejecutarOpcional(dataSource,
+                "Error al preparar la migración de PDFs al almacén", connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("ALTER TABLE pdfs ALTER COLUMN file DROP NOT NULL");
+            }
+            return habilitada ? obtenerPendientes(connection) : null;
+        });
+
+        if (pendientes == null || pendientes.isEmpty()) {
+            return;
+        }
+
+        logger.info(" - {} PDFs pendientes de migrar al almacén, se migran en segundo plano", pendientes.size());
+        taskExecutor.execute(() -> migrar(pendientes));
+    }
+
+    private void migrar(List<Long> pendientes) {
+        int migrados = 0;
+        for (Long id : pendientes) {
+            try {
+                if (migrarPDF(id)) {
+                    migrados++;
+                }
+            } catch (Exception e) {
+                logger.warn("⚠️ Error al migrar el PDF ID {} al almacén: {}", id, e.getMessage());
+            }
+        }
+        logger.info(" - Migración de PDFs al almacén finalizada: {} de {}", migrados, pendientes.size());
+    }
+
+    private List<Long> obtenerPendientes(Connection connection) throws SQLException {
+        List<Long> ids = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(
+                 "SELECT id FROM pdfs WHERE file IS NOT NULL" + (liberarBase ? "" : " AND sha256 IS NULL") +
+                 " ORDER BY id")) {
+            while (rs.next()) {
+                ids.add(rs.getLong(1));
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * @return true si el PDF se copió al almacén o se liberó su copia en la base; false si no había nada que hacer
+     */
+    private boolean migrarPDF(Long id) throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommitOriginal = connection.getAutoCommit();
+            // Los large objects de PostgreSQL solo se pueden leer dentro de una transacción
+            connection.setAutoCommit(false);
+            try {
+                boolean migrado = copiarAlAlmacen(connection, id);
+                connection.commit();
+                return migrado;
+            } catch (Exception e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommitOriginal);
+            }
+        }
+    }
+
+    private boolean copiarAlAlmacen(Connection connection, Long id) throws Exception {
+        String sha256;
+        Long largeObject = null;
+        boolean copiado = false;
+
+        try (PreparedStatement select = connection.prepareStatement(
+                "SELECT file, sha256 FROM pdfs WHERE id = ? AND file IS NOT NULL FOR UPDATE")) {
+            select.setLong(1, id);
+            try (ResultSet rs = select.executeQuery()) {
+                if (!rs.next()) {
+                    return false;
+                }
+
+                boolean esLargeObject = "oid".equalsIgnoreCase(rs.getMetaData().getColumnTypeName(1));
+                if (esLargeObject) {
+                    largeObject = rs.getLong(1);
+                }
+                sha256 = rs.getString(2);
+                if (sha256 == null) {
+                    ContenidoPDFDTO guardado = guardarEnAlmacen(rs, esLargeObject);
+                    sha256 = guardado.getSha256();
+                    try (PreparedStatement update = connection.prepareStatement(
+                            "UPDATE pdfs SET sha256 = ?, tamano = ? WHERE id = ?")) {
+                        update.setString(1, sha256);
+                        update.setLong(2, guardado.getTamano());
+                        update.setLong(3, id);
+                        update.executeUpdate();
+                    }
+                    copiado = true;
+                } else if (!liberarBase) {
+                    return false;
+                }
+            }
+        }
+
+        if (!liberarBase) {
+            return copiado;
+        }
+        if (almacenPDF.obtener(sha256).isEmpty()) {
+            logger.warn("⚠️ El contenido del PDF ID {} no está en el almacén, se conserva en la base", id);
+            return copiado;
+        }
+
+        try (PreparedStatement update = connection.prepareStatement("UPDATE pdfs SET file = NULL WHERE id = ?")) {
+            update.setLong(1, id);
+            update.executeUpdate();
+        }
+        if (largeObject != null) {
+            try (PreparedStatement unlink = connection.prepareStatement("SELECT lo_unlink(?)")) {
+                unlink.setLong(1, largeObject);
+                unlink.execute();
+            }
+        }
+        return true;
+    }
+
+    private ContenidoPDFDTO guardarEnAlmacen(ResultSet rs, boolean esLargeObject) throws Exception {
+        if (esLargeObject) {
+            Blob blob = rs.getBlob(1);
+            try (InputStream contenido = blob.getBinaryStream()) {
+                return almacenPDF.guardar(contenido);
+            } finally {
+                blob.free();
+            }
+        }
+        try (InputStream contenido = rs.getBinaryStream(1)) {
+            return almacenPDF.guardar(contenido);
+        }
+    }
+}
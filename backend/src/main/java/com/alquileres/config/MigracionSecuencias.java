@@ -0,0 +1,88 @@
+package com.alquileres.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Pasa aumento_alquiler de columna IDENTITY a la secuencia aumento_alquiler_seq.
+ *
+ * Con IDENTITY Hibernate necesita el id generado por la base después de cada INSERT y por eso no
+ * puede agrupar inserts en lotes. La entidad ahora usa una secuencia con bloques de 50; antes de que
+ * se cree el EntityManagerFactory se crea la secuencia (si falta), se la adelanta al mayor id
+ * existente y se quita el IDENTITY de la columna. Si la tabla todavía no existe, no hace nada.
+ * Cualquier error detiene el inicio.
+ */
+@Component("migracionSecuencias")
+public class MigracionSecuencias implements InitializingBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(MigracionSecuencias.class);
+
+    private static final int ALLOCATION_SIZE = 50;
+
+    private final DataSource dataSource;
+
+    public MigracionSecuencias(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Hace que el EntityManagerFactory espere a que la secuencia esté lista
+     */
+    @Bean
+    static EntityManagerFactoryDependsOnPostProcessor migracionSecuenciasAntesDeJpa() {
+        return new EntityManagerFactoryDependsOnPostProcessor("migracionSecuencias");
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        // Sin la secuencia adelantada, Hibernate la crearía desde 1 y los inserts chocarían con ids existentes
+        InicioPostgres.ejecutar(dataSource, "Error al migrar aumento_alquiler a secuencia", connection -> {
+            migrarASecuencia(connection, "aumento_alquiler", "aumento_alquiler_seq");
+            return null;
+        });
+    }
+
+    private void migrarASecuencia(Connection connection, String tabla, String secuencia) throws SQLException {
+        if (!existeTabla(connection, tabla)) {
+            return;
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE SEQUENCE IF NOT EXISTS " + secuencia +
+                              " START WITH 1 INCREMENT BY " + ALLOCATION_SIZE);
+
+            // Con el optimizador pooled, el valor de la secuencia es el último id del bloque reservado:
+            // alcanza con que no quede por debajo del mayor id ya usado
+            try (ResultSet rs = statement.executeQuery(
+                    "SELECT setval('" + secuencia + "', m) FROM (SELECT MAX(id) AS m FROM " + tabla + ") t " +
+                    "WHERE m IS NOT NULL AND m > (SELECT last_value FROM " + secuencia + ")")) {
+                if (rs.next()) {
+                    logger.info(" - Secuencia {} adelantada a {}", secuencia, rs.getLong(1));
+                }
+            }
+
+            statement.execute("ALTER TABLE " + tabla + " ALTER COLUMN id DROP IDENTITY IF EXISTS");
+        }
+    }
+
+    private boolean existeTabla(Connection connection, String tabla) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(
+                "SELECT 1 FROM information_schema.tables WHERE table_schema = current_schema() AND table_name = ?")) {
+            ps.setString(1, tabla);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+}
@@ -107,6 +107,9 @@ public class SecurityConfig {
                 .requestMatchers(HttpMethod.GET, "/api/propietarios/**").hasAnyRole("ABOGADA", "SECRETARIA")
                 .requestMatchers("/api/propietarios/**").hasAnyRole("ABOGADA")
 
+                // BÚSQUEDA (inquilinos, propietarios e inmuebles) - Solo lectura: todos los roles
+                .requestMatchers(HttpMethod.GET, "/api/busqueda").hasAnyRole("ABOGADA", "SECRETARIA")
+
                 // AMBITOS PDF - Lectura: todos los roles autenticados
                 .requestMatchers(HttpMethod.GET, "/api/ambito-pdfs/**").hasAnyRole("ABOGADA", "SECRETARIA")
 
@@ -136,10 +139,20 @@ public class SecurityConfig {
                 .requestMatchers(HttpMethod.GET, "/api/servicios-actualizacion/**").hasAnyRole("ABOGADA", "SECRETARIA")
                 .requestMatchers("/api/actualizaciones-servicio/**").hasAnyRole("ABOGADA")
 
+                // TAREAS AUTOMÁTICAS - Lectura: todos los roles, Ejecución: ABOGADA
+                .requestMatchers(HttpMethod.GET, "/api/tareas/**").hasAnyRole("ABOGADA", "SECRETARIA")
+                .requestMatchers("/api/tareas/**").hasAnyRole("ABOGADA")
+
                 // BACKUP
                 .requestMatchers("/api/backup/descargar").hasRole("ABOGADA")
                 .requestMatchers("/api/backup/**").hasRole("ADMINISTRADOR")
 
+                // ESTADÍSTICAS DE CACHÉ
+                .requestMatchers("/api/cache/**").hasRole("ADMINISTRADOR")
+
+                // MÉTRICAS (formato Prometheus)
+                .requestMatchers(HttpMethod.GET, "/actuator/prometheus").hasRole("ADMINISTRADOR")
+
                 // HEALTH CHECK - Público
                 .requestMatchers("/health", "/api/health", "/api/health/**").permitAll()
 
@@ -0,0 +1,37 @@
+package com.alquileres.config;
+
+import com.alquileres.service.RegistroRevocaciones;
+import com.alquileres.service.RegistroRevocacionesMemoria;
+import com.alquileres.service.RegistroRevocacionesRedis;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * Configuración del registro de tokens revocados
+ *
+ * Igual que la caché:
+ * - Redis (si está disponible en producción), compartido entre instancias
+ * - En memoria (para desarrollo local)
+ */
+@Configuration
+public class TokenBlacklistConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "spring.data.redis.host", matchIfMissing = false)
+    public RegistroRevocaciones registroRevocacionesRedis(
+            RedisConnectionFactory connectionFactory,
+            @Value("${app.jwt-blacklist-rechazar-sin-redis:false}") boolean rechazarSinRedis) {
+        return new RegistroRevocacionesRedis(new StringRedisTemplate(connectionFactory), rechazarSinRedis);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "spring.data.redis.host", matchIfMissing = true)
+    public RegistroRevocaciones registroRevocacionesMemoria(
+            @Value("${app.jwt-blacklist-max-entradas:100000}") int maxEntradas) {
+        return new RegistroRevocacionesMemoria(maxEntradas);
+    }
+}
@@ -0,0 +1,76 @@
+package com.alquileres.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Statement;
+
+/**
+ * Crea los triggers que incrementan usuarios.version_credenciales.
+ *
+ * Los JWT llevan firmados los roles, los permisos y esta versión (ver JwtUtils). Cuando la versión
+ * guardada deja de coincidir con la del token, el filtro vuelve a cargar el usuario desde la base y
+ * emite un token nuevo. Los roles se cambian directamente en la base, así que la versión la mantienen
+ * triggers y no el código:
+ *
+ * - usuario_roles: cualquier alta, baja o cambio de rol
+ * - usuarios: cambio de contraseña o de estado (es_activo)
+ *
+ * Se ejecuta después de que Hibernate crea las tablas. Como el filtro confía en los claims mientras la
+ * versión coincida, sin triggers un cambio de roles o de contraseña no invalidaría los tokens emitidos:
+ * si no se pueden crear, el inicio falla. En otras bases (tests) no hace nada.
+ */
+@Component
+public class TriggersCredenciales implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(TriggersCredenciales.class);
+
+    private static final String[] SENTENCIAS = {
+        "CREATE OR REPLACE FUNCTION f_version_credenciales_usuario() RETURNS trigger LANGUAGE plpgsql AS $$ " +
+        "BEGIN " +
+        "  IF NEW.password IS DISTINCT FROM OLD.password OR NEW.es_activo IS DISTINCT FROM OLD.es_activo THEN " +
+        "    NEW.version_credenciales := NEW.version_credenciales + 1; " +
+        "  END IF; " +
+        "  RETURN NEW; " +
+        "END $$",
+        "CREATE OR REPLACE FUNCTION f_version_credenciales_roles() RETURNS trigger LANGUAGE plpgsql AS $$ " +
+        "BEGIN " +
+        "  IF TG_OP IN ('UPDATE', 'DELETE') THEN " +
+        "    UPDATE usuarios SET version_credenciales = version_credenciales + 1 WHERE id = OLD.usuario_id; " +
+        "  END IF; " +
+        "  IF TG_OP IN ('UPDATE', 'INSERT') THEN " +
+        "    UPDATE usuarios SET version_credenciales = version_credenciales + 1 WHERE id = NEW.usuario_id; " +
+        "  END IF; " +
+        "  RETURN NULL; " +
+        "END $$",
+        "DROP TRIGGER IF EXISTS trg_version_credenciales_usuario ON usuarios",
+        "CREATE TRIGGER trg_version_credenciales_usuario BEFORE UPDATE ON usuarios " +
+        "FOR EACH ROW EXECUTE FUNCTION f_version_credenciales_usuario()",
+        "DROP TRIGGER IF EXISTS trg_version_credenciales_roles ON usuario_roles",
+        "CREATE TRIGGER trg_version_credenciales_roles AFTER INSERT OR UPDATE OR DELETE ON usuario_roles " +
+        "FOR EACH ROW EXECUTE FUNCTION f_version_credenciales_roles()"
+    };
+
+    private final DataSource dataSource;
+
+    public TriggersCredenciales(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        InicioPostgres.ejecutar(dataSource, "No se pudieron crear los triggers de versión de credenciales", connection -> {
+            try (Statement statement = connection.createStatement()) {
+                for (String sentencia : SENTENCIAS) {
+                    statement.execute(sentencia);
+                }
+            }
+            logger.info(" - Triggers de versión de credenciales listos");
+            return null;
+        });
+    }
+}
@@ -3,19 +3,24 @@ package com.alquileres.controller;
 import com.alquileres.dto.AlquilerDTO;
 import com.alquileres.dto.AlquilerCreateDTO;
 import com.alquileres.dto.RegistroPagoDTO;
+import com.alquileres.dto.RegistroPagoAlquilerBatchRequest;
+import com.alquileres.dto.RegistroPagoBatchResponse;
 import com.alquileres.dto.NotificacionPagoAlquilerDTO;
 import com.alquileres.dto.AlquilerDetalladoDTO;
+import com.alquileres.dto.PaginaDTO;
 import com.alquileres.service.AlquilerService;
 import com.alquileres.exception.BusinessException;
 import com.alquileres.exception.ErrorCodes;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -36,6 +41,22 @@ public class AlquilerController {
         return ResponseEntity.ok(alquileres);
     }
 
+    // Obtener alquileres paginados por cursor, con filtros opcionales (estaPagado=false para pendientes, true para pagados)
+    @GetMapping("/pagina")
+    public ResponseEntity<PaginaDTO<AlquilerDTO>> obtenerPaginaAlquileres(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamano,
+            @RequestParam(required = false) Boolean estaPagado,
+            @RequestParam(required = false) Long contratoId,
+            @RequestParam(required = false) Long propietarioId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(required = false) String texto) {
+        PaginaDTO<AlquilerDTO> pagina = alquilerService.obtenerPaginaAlquileres(
+                cursor, tamano, estaPagado, contratoId, propietarioId, desde, hasta, texto);
+        return ResponseEntity.ok(pagina);
+    }
+
     // Obtener alquiler por ID
     @GetMapping("/{id}")
     public ResponseEntity<AlquilerDTO> obtenerAlquilerPorId(@PathVariable Long id) {
@@ -119,6 +140,25 @@ public class AlquilerController {
         return ResponseEntity.ok(alquilerPagado);
     }
 
+    // Registrar el pago de varios alquileres a la vez
+    @PutMapping("/pagos/batch")
+    @Operation(summary = "Registrar pagos de alquileres en batch",
+               description = "Marca como pagados varios alquileres en una sola transacción. " +
+                           "Cada alquiler informa su propio resultado; los que fallan no afectan a los demás.")
+    public ResponseEntity<RegistroPagoBatchResponse> registrarPagosBatch(
+            @Valid @RequestBody RegistroPagoAlquilerBatchRequest request) {
+        RegistroPagoBatchResponse response = alquilerService.registrarPagosBatch(request);
+
+        // 400 si todos fallaron, 207 Multi-Status si fallaron algunos, 200 si todos fueron exitosos
+        HttpStatus status;
+        if (response.getExitosos() == 0 && response.getFallidos() > 0) {
+            status = HttpStatus.BAD_REQUEST;
+        } else {
+            status = response.getFallidos() > 0 ? HttpStatus.MULTI_STATUS : HttpStatus.OK;
+        }
+        return ResponseEntity.status(status).body(response);
+    }
+
     // Verificar si existe un alquiler
     @GetMapping("/{id}/existe")
     public ResponseEntity<Boolean> existeAlquiler(@PathVariable Long id) {
@@ -13,14 +13,14 @@ import com.alquileres.repository.RolRepository;
 import com.alquileres.repository.UsuarioRepository;
 import com.alquileres.security.JwtUtils;
 import com.alquileres.security.UserDetailsImpl;
+import com.alquileres.security.VersionesCredenciales;
 import com.alquileres.service.PermisosService;
-import com.alquileres.service.ContratoActualizacionService;
-import com.alquileres.service.ServicioActualizacionService;
-import com.alquileres.service.AlquilerActualizacionService;
+import com.alquileres.service.TareaAutomaticaService;
 import com.alquileres.service.LoginAttemptService;
 import com.alquileres.service.PasswordResetService;
 import com.alquileres.service.ResendEmailService;
 import com.alquileres.service.CodigoSeguridadService;
+import io.jsonwebtoken.Claims;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.Cookie;
@@ -30,6 +30,8 @@ import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseCookie;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -70,13 +72,12 @@ public class AuthController {
     private final JwtUtils jwtUtils;
     private final com.alquileres.security.UserDetailsServiceImpl userDetailsService;
     private final PermisosService permisosService;
-    private final ContratoActualizacionService contratoActualizacionService;
-    private final ServicioActualizacionService servicioActualizacionService;
-    private final AlquilerActualizacionService alquilerActualizacionService;
+    private final TareaAutomaticaService tareaAutomaticaService;
     private final LoginAttemptService loginAttemptService;
     private final PasswordResetService passwordResetService;
     private final ResendEmailService resendEmailService;
     private final CodigoSeguridadService codigoSeguridadService;
+    private final VersionesCredenciales versionesCredenciales;
 
     public AuthController(
             AuthenticationManager authenticationManager,
@@ -86,13 +87,12 @@ public class AuthController {
             JwtUtils jwtUtils,
             com.alquileres.security.UserDetailsServiceImpl userDetailsService,
             PermisosService permisosService,
-            ContratoActualizacionService contratoActualizacionService,
-            ServicioActualizacionService servicioActualizacionService,
-            AlquilerActualizacionService alquilerActualizacionService,
+            TareaAutomaticaService tareaAutomaticaService,
             LoginAttemptService loginAttemptService,
             PasswordResetService passwordResetService,
             ResendEmailService resendEmailService,
-            com.alquileres.service.CodigoSeguridadService codigoSeguridadService) {
+            com.alquileres.service.CodigoSeguridadService codigoSeguridadService,
+            VersionesCredenciales versionesCredenciales) {
         this.authenticationManager = authenticationManager;
         this.usuarioRepository = usuarioRepository;
         this.rolRepository = rolRepository;
@@ -100,33 +100,27 @@ public class AuthController {
         this.jwtUtils = jwtUtils;
         this.userDetailsService = userDetailsService;
         this.permisosService = permisosService;
-        this.contratoActualizacionService = contratoActualizacionService;
-        this.servicioActualizacionService = servicioActualizacionService;
-        this.alquilerActualizacionService = alquilerActualizacionService;
+        this.tareaAutomaticaService = tareaAutomaticaService;
         this.loginAttemptService = loginAttemptService;
         this.passwordResetService = passwordResetService;
         this.codigoSeguridadService = codigoSeguridadService;
         this.resendEmailService = resendEmailService;
+        this.versionesCredenciales = versionesCredenciales;
     }
 
     @PostMapping("/signin")
     @Operation(summary = "Iniciar sesión")
     public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest, HttpServletResponse response) {
 
-        try {
-            // Verificar intentos previos y aplicar delay si es necesario
-            loginAttemptService.checkAndApplyDelay(loginRequest.getUsername());
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+        // Verificar intentos previos: si debe esperar, se rechaza sin demorar el hilo
+        long retryAfter = loginAttemptService.tryAcquire(loginRequest.getUsername());
+        if (retryAfter > 0) {
             return ResponseEntity
-                    .status(429) // Too Many Requests
-                    .body(new MessageResponse("Demasiados intentos fallidos. Por favor, espere antes de intentar nuevamente."));
+                    .status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter))
+                    .body(new MessageResponse("Demasiados intentos fallidos. Por favor, espere " + retryAfter + " segundos antes de intentar nuevamente."));
         }
 
-        // Ejecutar procesos de actualización automáticos de manera segura
-        // Estos procesos NO afectarán el resultado del login si fallan
-        ejecutarProcesosAutomaticos();
-
         try {
             Authentication authentication = authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getPassword()));
@@ -155,15 +149,17 @@ public class AuthController {
                     .collect(Collectors.toList());
 
             // Obtener permisos basados en los roles del usuario
-            Map<String, Boolean> permisos = obtenerPermisosUsuario(userDetails.getId());
+            Map<String, Boolean> permisos = obtenerPermisosUsuario(userDetails);
 
             // Devolver datos del usuario sin el token (ahora está en la cookie)
-            return ResponseEntity.ok(new JwtResponse(null, // No enviar token en el body
+            JwtResponse jwtResponse = new JwtResponse(null, // No enviar token en el body
                     userDetails.getId(),
                     userDetails.getUsername(),
                     userDetails.getEmail(),
                     roles,
-                    permisos));
+                    permisos);
+            jwtResponse.setProcesandoActualizaciones(iniciarProcesosAutomaticos());
+            return ResponseEntity.ok(jwtResponse);
         } catch (BadCredentialsException e) {
             // Login fallido - registrar intento
             loginAttemptService.loginFailed(loginRequest.getUsername());
@@ -172,9 +168,9 @@ public class AuthController {
             String message;
 
             if (attempts == 2) {
-                message = "Credenciales incorrectas. Advertencia: El próximo intento fallido tendrá un delay de 5 segundos.";
+                message = "Credenciales incorrectas. Advertencia: Debe esperar 5 segundos antes del próximo intento.";
             } else if (attempts == 3) {
-                message = "Credenciales incorrectas. Advertencia: Los próximos intentos fallidos tendrán un delay de 30 segundos.";
+                message = "Credenciales incorrectas. Advertencia: Debe esperar 30 segundos antes de cada nuevo intento.";
             } else if (attempts > 3) {
                 message = "Credenciales incorrectas. Debe esperar 30 segundos antes de cada intento.";
             } else {
@@ -188,38 +184,30 @@ public class AuthController {
     }
 
     /**
-     * Ejecuta los procesos automáticos de actualización de forma segura.
-     * Si alguno falla, se loguea el error pero NO afecta el resultado del login.
+     * Lanza en segundo plano los procesos automáticos de actualización (contratos vencidos,
+     * facturas de servicios y alquileres). El login no espera a que terminen.
+     * Si fallan, se loguea el error pero NO afecta el resultado del login.
+     *
+     * @return true si quedaron procesos ejecutándose
      */
-    private void ejecutarProcesosAutomaticos() {
-        try {
-            contratoActualizacionService.actualizarContratosVencidos();
-        } catch (Exception ignored) {
-        }
-
-        try {
-            servicioActualizacionService.procesarPagosPendientes();
-        } catch (Exception ignored) {
-        }
-
+    private boolean iniciarProcesosAutomaticos() {
         try {
-            alquilerActualizacionService.procesarAlquileresPendientes();
-        } catch (Exception ignored) {
+            return tareaAutomaticaService.iniciarProcesosPendientes();
+        } catch (Exception e) {
+            logger.error("Error al lanzar los procesos automáticos: {}", e.getMessage());
+            return false;
         }
     }
 
     /**
      * Obtiene los permisos de un usuario basado en sus roles
+     * Los roles ya vienen cargados en el usuario autenticado, no hace falta volver a buscarlo
      */
-    private Map<String, Boolean> obtenerPermisosUsuario(Long userId) {
+    private Map<String, Boolean> obtenerPermisosUsuario(UserDetailsImpl userDetails) {
         try {
-            // Obtener el usuario y sus roles
-            Usuario usuario = usuarioRepository.findById(userId)
-                    .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
-
             // Extraer los nombres de los roles
-            List<RolNombre> rolesNombre = usuario.getRoles().stream()
-                    .map(Rol::getNombre)
+            List<RolNombre> rolesNombre = userDetails.getAuthorities().stream()
+                    .map(authority -> RolNombre.valueOf(authority.getAuthority()))
                     .collect(Collectors.toList());
 
             // Obtener permisos consolidados para todos los roles del usuario
@@ -425,22 +413,29 @@ public class AuthController {
             }
 
             // Validar el token
-            if (!jwtUtils.validateJwtToken(jwt)) {
+            Claims claims = jwtUtils.obtenerClaims(jwt);
+            if (claims == null) {
                 return ResponseEntity.status(401)
                         .body(new MessageResponse("Token inválido o expirado"));
             }
 
-            // Obtener el usuario del token
-            String username = jwtUtils.getUserNameFromJwtToken(jwt);
-            UserDetailsImpl userDetails = (UserDetailsImpl) userDetailsService.loadUserByUsername(username);
+            // Usuario y permisos firmados en el token, salvo que el token sea anterior o esté desactualizado
+            String username = claims.getSubject();
+            UserDetailsImpl userDetails;
+            Map<String, Boolean> permisos;
+            if (jwtUtils.tieneDatosDeUsuario(claims)
+                    && versionesCredenciales.esVigente(username, jwtUtils.getVersionCredenciales(claims))) {
+                userDetails = jwtUtils.construirUsuario(claims);
+                permisos = jwtUtils.obtenerPermisos(claims);
+            } else {
+                userDetails = (UserDetailsImpl) userDetailsService.loadUserByUsername(username);
+                permisos = obtenerPermisosUsuario(userDetails);
+            }
 
             List<String> roles = userDetails.getAuthorities().stream()
                     .map(GrantedAuthority::getAuthority)
                     .collect(Collectors.toList());
 
-            // Obtener permisos actualizados
-            Map<String, Boolean> permisos = obtenerPermisosUsuario(userDetails.getId());
-
             // Devolver datos del usuario sin el token
             return ResponseEntity.ok(new JwtResponse(null,
                     userDetails.getId(),
@@ -513,7 +508,7 @@ public class AuthController {
                     .collect(Collectors.toList());
 
             // Obtener permisos actualizados
-            Map<String, Boolean> permisos = obtenerPermisosUsuario(userDetails.getId());
+            Map<String, Boolean> permisos = obtenerPermisosUsuario(userDetails);
 
             return ResponseEntity.ok(new JwtResponse(null, // No enviar token en el body
                     userDetails.getId(),
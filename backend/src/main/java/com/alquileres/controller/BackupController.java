@@ -1,14 +1,18 @@
 package com.alquileres.controller;
 
+import com.alquileres.dto.ProgresoRestauracionDTO;
+import com.alquileres.exception.BusinessException;
 import com.alquileres.service.BackupService;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -26,32 +30,33 @@ public class BackupController {
 
     /**
      * Descarga un backup SQL de la base de datos
-     * @return Archivo SQL comprimido
+     * El backup se genera mientras se envía, sin cargarlo completo en memoria
+     * @return Archivo SQL comprimido con gzip
      */
     @GetMapping("/descargar")
-    public ResponseEntity<byte[]> descargarBackup() {
-        try {
-            logger.info("Solicitado descarga de backup SQL");
-
-            // Generar backup
-            byte[] backupContent = backupService.generarBackupSQL();
-
-            // Generar nombre del archivo
-            String nombreArchivo = backupService.generarNombreArchivo();
-
-            // Configurar headers de respuesta
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentDispositionFormData("attachment", nombreArchivo);
-            headers.set("Content-Type", "application/sql");
-
-            logger.info("Backup generado exitosamente: {}", nombreArchivo);
-
-            return new ResponseEntity<>(backupContent, headers, HttpStatus.OK);
+    public ResponseEntity<StreamingResponseBody> descargarBackup() {
+        logger.info("Solicitado descarga de backup SQL");
+
+        // Generar nombre del archivo
+        String nombreArchivo = backupService.generarNombreArchivo();
+
+        // Configurar headers de respuesta
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentDispositionFormData("attachment", nombreArchivo);
+        headers.set("Content-Type", "application/gzip");
+
+        StreamingResponseBody cuerpo = salida -> {
+            try {
+                backupService.generarBackupSQL(salida);
+                logger.info("Backup generado exitosamente: {}", nombreArchivo);
+            } catch (Exception e) {
+                // Los headers ya se enviaron: se corta la descarga para que el archivo quede incompleto
+                logger.error("Error generando backup", e);
+                throw new IOException("Error generando backup", e);
+            }
+        };
 
-        } catch (Exception e) {
-            logger.error("Error generando backup", e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+        return new ResponseEntity<>(cuerpo, headers, HttpStatus.OK);
     }
 
     /**
@@ -76,15 +81,14 @@ public class BackupController {
 
             // Validar extensión
             String filename = file.getOriginalFilename();
-            if (filename == null || !filename.endsWith(".sql")) {
+            if (filename == null || !(filename.endsWith(".sql") || filename.endsWith(".sql.gz"))) {
                 response.put("success", false);
-                response.put("message", "El archivo debe tener extensión .sql");
+                response.put("message", "El archivo debe tener extensión .sql o .sql.gz");
                 return ResponseEntity.badRequest().body(response);
             }
 
             // Cargar backup
-            byte[] backupContent = file.getBytes();
-            backupService.cargarBackupSQL(backupContent);
+            ProgresoRestauracionDTO resultado = backupService.cargarBackupSQL(file, filename.endsWith(".gz"), file.getSize());
 
             logger.info("Backup cargado exitosamente: {}", filename);
 
@@ -92,9 +96,16 @@ public class BackupController {
             response.put("message", "Backup restaurado exitosamente");
             response.put("filename", filename);
             response.put("size", file.getSize());
+            response.put("sentenciasEjecutadas", resultado.getSentenciasEjecutadas());
+            response.put("filasRestauradas", resultado.getFilasRestauradas());
+            response.put("tablasRestauradas", resultado.getTablasRestauradas());
 
             return ResponseEntity.ok(response);
 
+        } catch (BusinessException e) {
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(e.getHttpStatus()).body(response);
         } catch (Exception e) {
             logger.error("Error cargando backup", e);
             response.put("success", false);
@@ -102,5 +113,17 @@ public class BackupController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
         }
     }
-}
 
+    /**
+     * Obtiene el avance de la restauración en curso o de la última ejecutada
+     * @return Avance de la restauración, o 204 si no se ejecutó ninguna
+     */
+    @GetMapping("/progreso")
+    public ResponseEntity<ProgresoRestauracionDTO> obtenerProgresoRestauracion() {
+        ProgresoRestauracionDTO progreso = backupService.obtenerProgresoRestauracion();
+        if (progreso == null) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.ok(progreso);
+    }
+}
@@ -0,0 +1,36 @@
+package com.alquileres.controller;
+
+import com.alquileres.dto.ResultadoBusquedaDTO;
+import com.alquileres.service.BusquedaService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/busqueda")
+@Tag(name = "Búsqueda", description = "Búsqueda unificada de inquilinos, propietarios e inmuebles")
+public class BusquedaController {
+
+    private final BusquedaService busquedaService;
+
+    public BusquedaController(BusquedaService busquedaService) {
+        this.busquedaService = busquedaService;
+    }
+
+    // GET /api/busqueda?texto=...&tipo=...&limite=... - Resultados más parecidos al texto, de mayor a menor puntaje
+    @GetMapping
+    @Operation(summary = "Buscar inquilinos, propietarios e inmuebles por similitud de texto")
+    public ResponseEntity<List<ResultadoBusquedaDTO>> buscar(
+            @RequestParam String texto,
+            @RequestParam(required = false) String tipo,
+            @RequestParam(required = false) Integer limite) {
+        List<ResultadoBusquedaDTO> resultados = busquedaService.buscar(texto, tipo, limite);
+        return ResponseEntity.ok(resultados);
+    }
+}
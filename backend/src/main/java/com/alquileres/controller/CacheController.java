@@ -0,0 +1,31 @@
+package com.alquileres.controller;
+
+import com.alquileres.config.CacheManagerDosNiveles;
+import com.alquileres.dto.EstadisticasCacheDTO;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/cache")
+@Tag(name = "Caché", description = "API para consultar el uso de los cachés de la aplicación")
+public class CacheController {
+
+    private final CacheManagerDosNiveles cacheManager;
+
+    public CacheController(CacheManagerDosNiveles cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @GetMapping("/estadisticas")
+    @Operation(summary = "Estadísticas de caché",
+               description = "Entradas en memoria, aciertos locales y en Redis, fallos y desalojos de cada caché")
+    public ResponseEntity<List<EstadisticasCacheDTO>> obtenerEstadisticas() {
+        return ResponseEntity.ok(cacheManager.obtenerEstadisticas());
+    }
+}
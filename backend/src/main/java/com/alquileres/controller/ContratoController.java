@@ -1,19 +1,27 @@
 package com.alquileres.controller;
 
+import com.alquileres.dto.ContenidoPDFDTO;
 import com.alquileres.dto.ContratoDTO;
 import com.alquileres.dto.ContratoCreateDTO;
 import com.alquileres.dto.EstadoContratoUpdateDTO;
+import com.alquileres.dto.PaginaDTO;
 import com.alquileres.service.ContratoService;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.Operation;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.Objects;
 
 @RestController
@@ -35,6 +43,22 @@ public class ContratoController {
         return ResponseEntity.ok(contratos);
     }
 
+    // GET /api/contratos/pagina - Obtener contratos paginados por cursor, con filtros opcionales
+    @GetMapping("/pagina")
+    @Operation(summary = "Obtener contratos paginados por cursor")
+    public ResponseEntity<PaginaDTO<ContratoDTO>> obtenerPaginaContratos(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamano,
+            @RequestParam(required = false) String estado,
+            @RequestParam(required = false) Long propietarioId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(required = false) String texto) {
+        PaginaDTO<ContratoDTO> pagina = contratoService.obtenerPaginaContratos(
+            cursor, tamano, estado, propietarioId, desde, hasta, texto);
+        return ResponseEntity.ok(pagina);
+    }
+
     // GET /api/contratos/{id} - Obtener contrato por ID
     @GetMapping("/{id}")
     @Operation(summary = "Obtener contrato por ID")
@@ -148,11 +172,11 @@ public class ContratoController {
                         .body(Map.of("error", "El archivo no debe superar 10MB"));
             }
 
-            // Convertir el archivo a bytes
-            byte[] pdfBytes = file.getBytes();
-
-            // Guardar el PDF en la base de datos
-            ContratoDTO contratoActualizado = contratoService.guardarPdf(id, pdfBytes, file.getOriginalFilename());
+            // Guardar el PDF en el almacén leyéndolo como stream
+            ContratoDTO contratoActualizado;
+            try (InputStream contenido = file.getInputStream()) {
+                contratoActualizado = contratoService.guardarPdf(id, contenido, file.getOriginalFilename());
+            }
 
             return ResponseEntity.ok(Map.of(
                     "mensaje", "PDF cargado exitosamente",
@@ -175,16 +199,23 @@ public class ContratoController {
                description = "Descarga el archivo PDF asociado a un contrato")
     public ResponseEntity<?> descargarPdf(@PathVariable Long id) {
         try {
-            byte[] pdfBytes = contratoService.obtenerPdf(id);
+            ContenidoPDFDTO contenido = contratoService.obtenerPdf(id);
 
-            if (pdfBytes == null || pdfBytes.length == 0) {
+            if (contenido == null || contenido.getRecurso() == null) {
                 return ResponseEntity.notFound().build();
             }
 
-            return ResponseEntity.ok()
-                    .header("Content-Disposition", "attachment; filename=contrato_" + id + ".pdf")
-                    .header("Content-Type", "application/pdf")
-                    .body(pdfBytes);
+            // El cuerpo se envía como stream desde el archivo; Spring atiende Range (206)
+            // e If-None-Match (304) a partir del Resource y del ETag
+            ResponseEntity.BodyBuilder respuesta = ResponseEntity.ok()
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=contrato_" + id + ".pdf")
+                    .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                    .contentType(MediaType.APPLICATION_PDF);
+            if (contenido.getSha256() != null) {
+                respuesta.eTag(contenido.getSha256())
+                        .cacheControl(CacheControl.noCache().cachePrivate());
+            }
+            return respuesta.body(contenido.getRecurso());
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(Map.of("error", e.getMessage()));
@@ -0,0 +1,33 @@
+package com.alquileres.controller;
+
+import com.alquileres.dto.DashboardDTO;
+import com.alquileres.service.DashboardService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controller de los indicadores de la pantalla principal
+ */
+@RestController
+@RequestMapping("/api/dashboard")
+@Tag(name = "Dashboard", description = "Indicadores de la pantalla principal")
+public class DashboardController {
+
+    private final DashboardService dashboardService;
+
+    public DashboardController(DashboardService dashboardService) {
+        this.dashboardService = dashboardService;
+    }
+
+    @GetMapping
+    @Operation(summary = "Indicadores del mes actual",
+               description = "Devuelve en una sola respuesta la cantidad de inmuebles activos, contratos vigentes, " +
+                           "pagos de servicios del mes (totales y no pagados) y los honorarios del mes.")
+    public ResponseEntity<DashboardDTO> obtenerResumen() {
+        return ResponseEntity.ok(dashboardService.obtenerResumen());
+    }
+}
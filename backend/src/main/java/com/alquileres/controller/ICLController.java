@@ -1,6 +1,6 @@
 package com.alquileres.controller;
 
-import com.alquileres.util.BCRAApiClient;
+import com.alquileres.service.ICLService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.http.ResponseEntity;
@@ -15,10 +15,10 @@ import java.util.Map;
 @Tag(name = "ICL BCRA", description = "Endpoints para consultar el Índice de Contratos de Locación del BCRA")
 public class ICLController {
 
-    private final BCRAApiClient bcraApiClient;
+    private final ICLService iclService;
 
-    public ICLController(BCRAApiClient bcraApiClient) {
-        this.bcraApiClient = bcraApiClient;
+    public ICLController(ICLService iclService) {
+        this.iclService = iclService;
     }
 
     /**
@@ -26,12 +26,12 @@ public class ICLController {
      */
     @GetMapping("/tasa")
     @Operation(summary = "Obtener tasa de aumento del ICL",
-               description = "Consulta la API del BCRA para obtener la tasa de aumento del ICL entre dos fechas")
+               description = "Obtiene la tasa de aumento del ICL entre dos fechas desde la serie local sincronizada con el BCRA")
     public ResponseEntity<Map<String, Object>> obtenerTasaICL(
             @RequestParam String fechaInicio,
             @RequestParam String fechaFin) {
 
-        BigDecimal tasaAumento = bcraApiClient.obtenerTasaAumentoICL(fechaInicio, fechaFin);
+        BigDecimal tasaAumento = iclService.obtenerTasaAumentoICL(fechaInicio, fechaFin);
 
         Map<String, Object> response = new HashMap<>();
         response.put("fechaInicio", fechaInicio);
@@ -55,7 +55,7 @@ public class ICLController {
             @RequestParam String fechaInicio,
             @RequestParam String fechaFin) {
 
-        BigDecimal nuevoMonto = bcraApiClient.calcularNuevoMontoConICL(montoOriginal, fechaInicio, fechaFin);
+        BigDecimal nuevoMonto = iclService.calcularNuevoMontoConICL(montoOriginal, fechaInicio, fechaFin);
         BigDecimal tasaAumento = nuevoMonto.divide(montoOriginal, 6, BigDecimal.ROUND_HALF_UP);
         BigDecimal diferencia = nuevoMonto.subtract(montoOriginal);
 
@@ -72,5 +72,21 @@ public class ICLController {
 
         return ResponseEntity.ok(response);
     }
+
+    /**
+     * POST /api/icl/sincronizar - Descargar del BCRA los valores del ICL que faltan en la serie local
+     */
+    @PostMapping("/sincronizar")
+    @Operation(summary = "Sincronizar serie ICL",
+               description = "Descarga del BCRA los valores del ICL posteriores al último almacenado localmente")
+    public ResponseEntity<Map<String, Object>> sincronizarICL() {
+        int valoresNuevos = iclService.sincronizar();
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("valoresNuevos", valoresNuevos);
+        response.put("ultimaFechaDisponible", iclService.obtenerUltimaFechaDisponible());
+
+        return ResponseEntity.ok(response);
+    }
 }
 
@@ -4,10 +4,13 @@ import com.alquileres.dto.*;
 import com.alquileres.service.InformeService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.YearMonth;
+
 /**
  * Controller para la generación de informes del sistema
  */
@@ -30,16 +33,19 @@ public class InformeController {
      * - Dashboard administrativo
      * - Análisis financiero mensual
      *
+     * @param mes Mes del informe en formato yyyy-MM (opcional, por defecto el mes actual)
      * @return JSON con honorarios por inmueble y total del mes
      */
     @GetMapping("/honorarios")
     @Operation(summary = "Informe de honorarios por inmueble",
                description = "Genera un informe con los honorarios del mes actual agrupados por inmueble. " +
                            "Incluye información del contrato, propietario, inquilino y monto del alquiler. " +
-                           "Solo incluye alquileres pagados de contratos vigentes.")
-    public ResponseEntity<?> generarInformeHonorarios() {
+                           "Solo incluye alquileres pagados de contratos vigentes. " +
+                           "Se puede indicar otro mes con el parámetro mes (yyyy-MM).")
+    public ResponseEntity<?> generarInformeHonorarios(
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth mes) {
         try {
-            InformeHonorariosDTO informe = informeService.generarInformeHonorarios();
+            InformeHonorariosDTO informe = informeService.generarInformeHonorarios(mes);
             return ResponseEntity.ok(informe);
         } catch (Exception e) {
             return ResponseEntity
@@ -57,16 +63,19 @@ public class InformeController {
      * - Seguimiento de morosidad
      * - Conciliación bancaria
      *
+     * @param mes Mes del informe en formato yyyy-MM (opcional, por defecto el mes actual)
      * @return JSON con detalle de todos los alquileres del mes y total pagado
      */
     @GetMapping("/alquileres")
     @Operation(summary = "Informe de pagos de alquileres del mes",
                description = "Genera un informe con todos los alquileres del mes actual (pagados y pendientes). " +
                            "Incluye fecha de pago, monto, fecha de vencimiento y estado de pago. " +
-                           "Solo incluye contratos vigentes.")
-    public ResponseEntity<?> generarInformeAlquileres() {
+                           "Solo incluye contratos vigentes. " +
+                           "Se puede indicar otro mes con el parámetro mes (yyyy-MM).")
+    public ResponseEntity<?> generarInformeAlquileres(
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth mes) {
         try {
-            InformeAlquileresDTO informe = informeService.generarInformeAlquileres();
+            InformeAlquileresDTO informe = informeService.generarInformeAlquileres(mes);
             return ResponseEntity.ok(informe);
         } catch (Exception e) {
             return ResponseEntity
@@ -85,17 +94,19 @@ public class InformeController {
      * - Seguimiento de índices de actualización
      *
      * @param meses Cantidad de meses hacia atrás (opcional, por defecto 6)
+     * @param hasta Último mes del informe en formato yyyy-MM (opcional, por defecto hasta hoy)
      * @return JSON con aumentos agrupados por contrato del período especificado
      */
     @GetMapping("/aumentos")
     @Operation(summary = "Informe de aumentos de alquiler",
                description = "Genera un informe con todos los aumentos de alquiler aplicados en los últimos N meses. " +
                            "Los aumentos están agrupados por contrato e incluyen fecha, montos anteriores/nuevos y porcentaje. " +
-                           "Se puede especificar la cantidad de meses (por defecto 6).")
+                           "Se puede especificar la cantidad de meses (por defecto 6) y el último mes con el parámetro hasta (yyyy-MM).")
     public ResponseEntity<?> generarInformeAumentos(
-            @RequestParam(required = false, defaultValue = "6") Integer meses) {
+            @RequestParam(required = false, defaultValue = "6") Integer meses,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth hasta) {
         try {
-            InformeAumentosDTO informe = informeService.generarInformeAumentos(meses);
+            InformeAumentosDTO informe = informeService.generarInformeAumentos(meses, hasta);
             return ResponseEntity.ok(informe);
         } catch (Exception e) {
             return ResponseEntity
@@ -114,16 +125,19 @@ public class InformeController {
      * - Dashboard de servicios por contrato
      * - Análisis de costos operativos
      *
+     * @param mes Mes del informe en formato yyyy-MM (opcional, por defecto el mes actual)
      * @return JSON con detalle completo de pagos de servicios incluyendo datos del contrato y alquiler relacionado
      */
     @GetMapping("/pagos-servicios")
     @Operation(summary = "Informe de pagos de servicios",
                description = "Genera un informe con todos los pagos de servicios del mes actual. " +
                            "Incluye fecha, monto, período, tipo de servicio, datos del contrato (partes y inmueble) " +
-                           "y datos del alquiler relacionado del mismo período.")
-    public ResponseEntity<?> generarInformePagosServicios() {
+                           "y datos del alquiler relacionado del mismo período. " +
+                           "Se puede indicar otro mes con el parámetro mes (yyyy-MM).")
+    public ResponseEntity<?> generarInformePagosServicios(
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth mes) {
         try {
-            InformePagosServiciosDTO informe = informeService.generarInformePagosServicios();
+            InformePagosServiciosDTO informe = informeService.generarInformePagosServicios(mes);
             return ResponseEntity.ok(informe);
         } catch (Exception e) {
             return ResponseEntity
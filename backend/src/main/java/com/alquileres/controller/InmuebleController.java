@@ -1,6 +1,7 @@
 package com.alquileres.controller;
 
 import com.alquileres.dto.InmuebleDTO;
+import com.alquileres.dto.PaginaDTO;
 import com.alquileres.service.InmuebleService;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
@@ -28,6 +29,21 @@ public class InmuebleController {
         return ResponseEntity.ok(inmuebles);
     }
 
+    // GET /api/inmuebles/pagina - Obtener inmuebles paginados por cursor, con filtros opcionales
+    @GetMapping("/pagina")
+    public ResponseEntity<PaginaDTO<InmuebleDTO>> obtenerPaginaInmuebles(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamano,
+            @RequestParam(required = false) Boolean esActivo,
+            @RequestParam(required = false) Boolean esAlquilado,
+            @RequestParam(required = false) Integer estado,
+            @RequestParam(required = false) Long propietarioId,
+            @RequestParam(required = false) String texto) {
+        PaginaDTO<InmuebleDTO> pagina = inmuebleService.obtenerPaginaInmuebles(
+                cursor, tamano, esActivo, esAlquilado, estado, propietarioId, texto);
+        return ResponseEntity.ok(pagina);
+    }
+
     // GET /api/inmuebles/activos - Obtener solo inmuebles activos
     @GetMapping("/activos")
     public ResponseEntity<List<InmuebleDTO>> obtenerInmueblesActivos() {
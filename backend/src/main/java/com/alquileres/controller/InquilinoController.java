@@ -1,6 +1,7 @@
 package com.alquileres.controller;
 
 import com.alquileres.dto.InquilinoDTO;
+import com.alquileres.dto.PaginaDTO;
 import com.alquileres.service.InquilinoService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -26,6 +27,19 @@ public class InquilinoController {
         return ResponseEntity.ok(inquilinos);
     }
 
+    // GET /api/inquilinos/pagina - Obtener inquilinos paginados por cursor, con filtros opcionales
+    @GetMapping("/pagina")
+    public ResponseEntity<PaginaDTO<InquilinoDTO>> obtenerPaginaInquilinos(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamano,
+            @RequestParam(required = false) Boolean esActivo,
+            @RequestParam(required = false) Boolean estaAlquilando,
+            @RequestParam(required = false) String texto) {
+        PaginaDTO<InquilinoDTO> pagina = inquilinoService.obtenerPaginaInquilinos(
+                cursor, tamano, esActivo, estaAlquilando, texto);
+        return ResponseEntity.ok(pagina);
+    }
+
     // GET /api/inquilinos/activos - Obtener solo inquilinos activos
     @GetMapping("/activos")
     public ResponseEntity<List<InquilinoDTO>> obtenerInquilinosActivos() {
@@ -1,5 +1,6 @@
 package com.alquileres.controller;
 
+import com.alquileres.dto.PaginaDTO;
 import com.alquileres.dto.PropietarioDTO;
 import com.alquileres.dto.RevelarClaveFiscalRequest;
 import com.alquileres.service.PropietarioService;
@@ -34,6 +35,17 @@ public class PropietarioController {
         return ResponseEntity.ok(propietarios);
     }
 
+    // GET /api/propietarios/pagina - Obtener propietarios paginados por cursor, con filtros opcionales
+    @GetMapping("/pagina")
+    public ResponseEntity<PaginaDTO<PropietarioDTO>> obtenerPaginaPropietarios(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamano,
+            @RequestParam(required = false) Boolean esActivo,
+            @RequestParam(required = false) String texto) {
+        PaginaDTO<PropietarioDTO> pagina = propietarioService.obtenerPaginaPropietarios(cursor, tamano, esActivo, texto);
+        return ResponseEntity.ok(pagina);
+    }
+
     // GET /api/propietarios/activos - Obtener solo propietarios activos
     @GetMapping("/activos")
     public ResponseEntity<List<PropietarioDTO>> obtenerPropietariosActivos() {
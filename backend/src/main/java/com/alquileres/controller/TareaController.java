@@ -0,0 +1,54 @@
+package com.alquileres.controller;
+
+import com.alquileres.dto.EjecucionTareaDTO;
+import com.alquileres.service.TareaAutomaticaService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/tareas")
+@Tag(name = "Tareas Automáticas", description = "API para consultar el progreso de los procesos automáticos en segundo plano")
+public class TareaController {
+
+    private final TareaAutomaticaService tareaAutomaticaService;
+
+    public TareaController(TareaAutomaticaService tareaAutomaticaService) {
+        this.tareaAutomaticaService = tareaAutomaticaService;
+    }
+
+    @GetMapping("/estado")
+    @Operation(summary = "Estado de los procesos automáticos",
+               description = "Indica si hay procesos en curso y la última ejecución de cada uno")
+    public ResponseEntity<Map<String, Object>> obtenerEstado() {
+        return ResponseEntity.ok(Map.of(
+            "procesando", tareaAutomaticaService.estaProcesando(),
+            "ejecuciones", tareaAutomaticaService.obtenerEstadoActual()
+        ));
+    }
+
+    @GetMapping
+    @Operation(summary = "Últimas ejecuciones", description = "Retorna las últimas ejecuciones registradas con su progreso")
+    public ResponseEntity<List<EjecucionTareaDTO>> obtenerUltimasEjecuciones() {
+        return ResponseEntity.ok(tareaAutomaticaService.obtenerUltimasEjecuciones());
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Obtener ejecución por ID")
+    public ResponseEntity<EjecucionTareaDTO> obtenerEjecucion(@PathVariable Long id) {
+        return ResponseEntity.ok(tareaAutomaticaService.obtenerEjecucion(id));
+    }
+
+    @PostMapping("/ejecutar")
+    @Operation(summary = "Ejecutar procesos pendientes",
+               description = "Lanza en segundo plano los procesos pendientes (o reanuda los interrumpidos)")
+    public ResponseEntity<Map<String, Object>> ejecutarProcesosPendientes() {
+        boolean procesando = tareaAutomaticaService.iniciarProcesosPendientes();
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(Map.of("procesando", procesando));
+    }
+}
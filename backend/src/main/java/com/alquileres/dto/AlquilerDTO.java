@@ -1,6 +1,7 @@
 package com.alquileres.dto;
 
 import com.alquileres.model.Alquiler;
+import com.alquileres.util.FechaUtil;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.Size;
@@ -52,7 +53,7 @@ public class AlquilerDTO {
     public AlquilerDTO(Alquiler alquiler) {
         this.id = alquiler.getId();
         this.contratoId = alquiler.getContrato() != null ? alquiler.getContrato().getId() : null;
-        this.fechaVencimientoPago = alquiler.getFechaVencimientoPago();
+        this.fechaVencimientoPago = FechaUtil.formatearISO(alquiler.getFechaVencimientoPago());
         this.fechaPago = alquiler.getFechaPago();
         this.monto = alquiler.getMonto();
         this.estaPagado = alquiler.getEstaPagado();
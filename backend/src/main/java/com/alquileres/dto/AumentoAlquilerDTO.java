@@ -1,6 +1,7 @@
 package com.alquileres.dto;
 
 import com.alquileres.model.AumentoAlquiler;
+import com.alquileres.util.FechaUtil;
 
 import java.math.BigDecimal;
 
@@ -30,7 +31,7 @@ public class AumentoAlquilerDTO {
     public AumentoAlquilerDTO(AumentoAlquiler aumentoAlquiler) {
         this.id = aumentoAlquiler.getId();
         this.contratoId = aumentoAlquiler.getContrato() != null ? aumentoAlquiler.getContrato().getId() : null;
-        this.fechaAumento = aumentoAlquiler.getFechaAumento();
+        this.fechaAumento = FechaUtil.formatearISO(aumentoAlquiler.getFechaAumento());
         this.montoAnterior = aumentoAlquiler.getMontoAnterior();
         this.montoNuevo = aumentoAlquiler.getMontoNuevo();
         this.porcentajeAumento = aumentoAlquiler.getPorcentajeAumento();
@@ -0,0 +1,44 @@
+package com.alquileres.dto;
+
+import org.springframework.core.io.Resource;
+
+public class ContenidoPDFDTO {
+
+    private String sha256;
+    private Long tamano;
+    private Resource recurso;
+
+    public ContenidoPDFDTO() {
+    }
+
+    public ContenidoPDFDTO(String sha256, Long tamano, Resource recurso) {
+        this.sha256 = sha256;
+        this.tamano = tamano;
+        this.recurso = recurso;
+    }
+
+    // Getters y Setters
+    public String getSha256() {
+        return sha256;
+    }
+
+    public void setSha256(String sha256) {
+        this.sha256 = sha256;
+    }
+
+    public Long getTamano() {
+        return tamano;
+    }
+
+    public void setTamano(Long tamano) {
+        this.tamano = tamano;
+    }
+
+    public Resource getRecurso() {
+        return recurso;
+    }
+
+    public void setRecurso(Resource recurso) {
+        this.recurso = recurso;
+    }
+}
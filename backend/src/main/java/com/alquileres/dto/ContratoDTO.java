@@ -1,6 +1,7 @@
 package com.alquileres.dto;
 
 import com.alquileres.model.Contrato;
+import com.alquileres.util.FechaUtil;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
@@ -73,8 +74,8 @@ public class ContratoDTO {
         this.id = contrato.getId();
         this.inmuebleId = contrato.getInmueble() != null ? contrato.getInmueble().getId() : null;
         this.inquilinoId = contrato.getInquilino() != null ? contrato.getInquilino().getId() : null;
-        this.fechaInicio = contrato.getFechaInicio();
-        this.fechaFin = contrato.getFechaFin();
+        this.fechaInicio = FechaUtil.formatearISO(contrato.getFechaInicio());
+        this.fechaFin = FechaUtil.formatearISO(contrato.getFechaFin());
         this.monto = contrato.getMonto();
         this.porcentajeAumento = contrato.getPorcentajeAumento();
         this.estadoContratoId = contrato.getEstadoContrato() != null ? contrato.getEstadoContrato().getId().intValue() : null;
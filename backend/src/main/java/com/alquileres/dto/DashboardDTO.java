@@ -0,0 +1,68 @@
+package com.alquileres.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Indicadores de la pantalla principal
+ */
+public class DashboardDTO {
+
+    private String periodo;
+    private Long cantInmueblesActivos;
+    private Long cantContratosVigentes;
+    private Long cantServiciosTotales;
+    private Long cantServiciosNoPagos;
+    private BigDecimal honorariosDelMes;
+
+    public DashboardDTO() {
+    }
+
+    // Getters y Setters
+    public String getPeriodo() {
+        return periodo;
+    }
+
+    public void setPeriodo(String periodo) {
+        this.periodo = periodo;
+    }
+
+    public Long getCantInmueblesActivos() {
+        return cantInmueblesActivos;
+    }
+
+    public void setCantInmueblesActivos(Long cantInmueblesActivos) {
+        this.cantInmueblesActivos = cantInmueblesActivos;
+    }
+
+    public Long getCantContratosVigentes() {
+        return cantContratosVigentes;
+    }
+
+    public void setCantContratosVigentes(Long cantContratosVigentes) {
+        this.cantContratosVigentes = cantContratosVigentes;
+    }
+
+    public Long getCantServiciosTotales() {
+        return cantServiciosTotales;
+    }
+
+    public void setCantServiciosTotales(Long cantServiciosTotales) {
+        this.cantServiciosTotales = cantServiciosTotales;
+    }
+
+    public Long getCantServiciosNoPagos() {
+        return cantServiciosNoPagos;
+    }
+
+    public void setCantServiciosNoPagos(Long cantServiciosNoPagos) {
+        this.cantServiciosNoPagos = cantServiciosNoPagos;
+    }
+
+    public BigDecimal getHonorariosDelMes() {
+        return honorariosDelMes;
+    }
+
+    public void setHonorariosDelMes(BigDecimal honorariosDelMes) {
+        this.honorariosDelMes = honorariosDelMes;
+    }
+}
@@ -0,0 +1,139 @@
+package com.alquileres.dto;
+
+import com.alquileres.model.EjecucionTarea;
+
+public class EjecucionTareaDTO {
+
+    private Long id;
+    private String tipo;
+    private String periodo;
+    private String estado;
+    private Integer totalContratos;
+    private Integer contratosProcesados;
+    private Integer elementosGenerados;
+    private Integer porcentajeAvance;
+    private Long ultimoContratoId;
+    private String mensajeError;
+    private String fechaInicio;
+    private String fechaFin;
+
+    public EjecucionTareaDTO() {
+    }
+
+    public EjecucionTareaDTO(EjecucionTarea ejecucion) {
+        this.id = ejecucion.getId();
+        this.tipo = ejecucion.getTipo().name();
+        this.periodo = ejecucion.getPeriodo();
+        this.estado = ejecucion.getEstado().name();
+        this.totalContratos = ejecucion.getTotalContratos();
+        this.contratosProcesados = ejecucion.getContratosProcesados();
+        this.elementosGenerados = ejecucion.getElementosGenerados();
+        this.ultimoContratoId = ejecucion.getUltimoContratoId();
+        this.mensajeError = ejecucion.getMensajeError();
+        this.fechaInicio = ejecucion.getFechaInicio();
+        this.fechaFin = ejecucion.getFechaFin();
+
+        if (totalContratos != null && totalContratos > 0 && contratosProcesados != null) {
+            this.porcentajeAvance = contratosProcesados * 100 / totalContratos;
+        } else {
+            this.porcentajeAvance = "COMPLETADA".equals(estado) ? 100 : 0;
+        }
+    }
+
+    // Getters y Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTipo() {
+        return tipo;
+    }
+
+    public void setTipo(String tipo) {
+        this.tipo = tipo;
+    }
+
+    public String getPeriodo() {
+        return periodo;
+    }
+
+    public void setPeriodo(String periodo) {
+        this.periodo = periodo;
+    }
+
+    public String getEstado() {
+        return estado;
+    }
+
+    public void setEstado(String estado) {
+        this.estado = estado;
+    }
+
+    public Integer getTotalContratos() {
+        return totalContratos;
+    }
+
+    public void setTotalContratos(Integer totalContratos) {
+        this.totalContratos = totalContratos;
+    }
+
+    public Integer getContratosProcesados() {
+        return contratosProcesados;
+    }
+
+    public void setContratosProcesados(Integer contratosProcesados) {
+        this.contratosProcesados = contratosProcesados;
+    }
+
+    public Integer getElementosGenerados() {
+        return elementosGenerados;
+    }
+
+    public void setElementosGenerados(Integer elementosGenerados) {
+        this.elementosGenerados = elementosGenerados;
+    }
+
+    public Integer getPorcentajeAvance() {
+        return porcentajeAvance;
+    }
+
+    public void setPorcentajeAvance(Integer porcentajeAvance) {
+        this.porcentajeAvance = porcentajeAvance;
+    }
+
+    public Long getUltimoContratoId() {
+        return ultimoContratoId;
+    }
+
+    public void setUltimoContratoId(Long ultimoContratoId) {
+        this.ultimoContratoId = ultimoContratoId;
+    }
+
+    public String getMensajeError() {
+        return mensajeError;
+    }
+
+    public void setMensajeError(String mensajeError) {
+        this.mensajeError = mensajeError;
+    }
+
+    public String getFechaInicio() {
+        return fechaInicio;
+    }
+
+    public void setFechaInicio(String fechaInicio) {
+        this.fechaInicio = fechaInicio;
+    }
+
+    public String getFechaFin() {
+        return fechaFin;
+    }
+
+    public void setFechaFin(String fechaFin) {
+        this.fechaFin = fechaFin;
+    }
+}
@@ -0,0 +1,84 @@
+package com.alquileres.dto;
+
+/**
+ * Estadísticas de uso de un caché: tamaño de la memoria local y aciertos por nivel
+ */
+public class EstadisticasCacheDTO {
+
+    private String nombre;
+    private Integer entradas;
+    private Integer maxEntradas;
+    private Long aciertosLocales;
+    private Long aciertosRemotos;
+    private Long fallos;
+    private Long desalojos;
+    private Double tasaAciertos;
+
+    public EstadisticasCacheDTO() {
+    }
+
+    // Getters y Setters
+    public String getNombre() {
+        return nombre;
+    }
+
+    public void setNombre(String nombre) {
+        this.nombre = nombre;
+    }
+
+    public Integer getEntradas() {
+        return entradas;
+    }
+
+    public void setEntradas(Integer entradas) {
+        this.entradas = entradas;
+    }
+
+    public Integer getMaxEntradas() {
+        return maxEntradas;
+    }
+
+    public void setMaxEntradas(Integer maxEntradas) {
+        this.maxEntradas = maxEntradas;
+    }
+
+    public Long getAciertosLocales() {
+        return aciertosLocales;
+    }
+
+    public void setAciertosLocales(Long aciertosLocales) {
+        this.aciertosLocales = aciertosLocales;
+    }
+
+    public Long getAciertosRemotos() {
+        return aciertosRemotos;
+    }
+
+    public void setAciertosRemotos(Long aciertosRemotos) {
+        this.aciertosRemotos = aciertosRemotos;
+    }
+
+    public Long getFallos() {
+        return fallos;
+    }
+
+    public void setFallos(Long fallos) {
+        this.fallos = fallos;
+    }
+
+    public Long getDesalojos() {
+        return desalojos;
+    }
+
+    public void setDesalojos(Long desalojos) {
+        this.desalojos = desalojos;
+    }
+
+    public Double getTasaAciertos() {
+        return tasaAciertos;
+    }
+
+    public void setTasaAciertos(Double tasaAciertos) {
+        this.tasaAciertos = tasaAciertos;
+    }
+}
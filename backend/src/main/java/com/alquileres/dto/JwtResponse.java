@@ -11,6 +11,7 @@ public class JwtResponse {
     private String email;
     private List<String> roles;
     private Map<String, Boolean> permisos;
+    private boolean procesandoActualizaciones;
 
     public JwtResponse(String accessToken, Long id, String username, String email, List<String> roles) {
         this.token = accessToken;
@@ -84,4 +85,12 @@ public class JwtResponse {
     public void setPermisos(Map<String, Boolean> permisos) {
         this.permisos = permisos;
     }
+
+    public boolean isProcesandoActualizaciones() {
+        return procesandoActualizaciones;
+    }
+
+    public void setProcesandoActualizaciones(boolean procesandoActualizaciones) {
+        this.procesandoActualizaciones = procesandoActualizaciones;
+    }
 }
@@ -0,0 +1,63 @@
+package com.alquileres.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Página de un listado paginado por cursor (keyset)
+ *
+ * Para pedir la página siguiente se envía siguienteCursor como parámetro "cursor";
+ * es null cuando no hay más elementos.
+ */
+public class PaginaDTO<T> {
+
+    private List<T> elementos;
+    private String siguienteCursor;
+    private boolean hayMas;
+    private int tamano;
+
+    // Constructor por defecto
+    public PaginaDTO() {
+        this.elementos = new ArrayList<>();
+    }
+
+    public PaginaDTO(List<T> elementos, String siguienteCursor, int tamano) {
+        this.elementos = elementos;
+        this.siguienteCursor = siguienteCursor;
+        this.hayMas = siguienteCursor != null;
+        this.tamano = tamano;
+    }
+
+    // Getters y Setters
+    public List<T> getElementos() {
+        return elementos;
+    }
+
+    public void setElementos(List<T> elementos) {
+        this.elementos = elementos;
+    }
+
+    public String getSiguienteCursor() {
+        return siguienteCursor;
+    }
+
+    public void setSiguienteCursor(String siguienteCursor) {
+        this.siguienteCursor = siguienteCursor;
+    }
+
+    public boolean isHayMas() {
+        return hayMas;
+    }
+
+    public void setHayMas(boolean hayMas) {
+        this.hayMas = hayMas;
+    }
+
+    public int getTamano() {
+        return tamano;
+    }
+
+    public void setTamano(int tamano) {
+        this.tamano = tamano;
+    }
+}
@@ -0,0 +1,99 @@
+package com.alquileres.dto;
+
+public class ProgresoRestauracionDTO {
+
+    private String estado;
+    private Long bytesProcesados;
+    private Long bytesTotales;
+    private Integer porcentajeAvance;
+    private Long sentenciasEjecutadas;
+    private Long filasRestauradas;
+    private Integer tablasRestauradas;
+    private String mensajeError;
+    private String fechaInicio;
+    private String fechaFin;
+
+    public ProgresoRestauracionDTO() {
+    }
+
+    // Getters y Setters
+    public String getEstado() {
+        return estado;
+    }
+
+    public void setEstado(String estado) {
+        this.estado = estado;
+    }
+
+    public Long getBytesProcesados() {
+        return bytesProcesados;
+    }
+
+    public void setBytesProcesados(Long bytesProcesados) {
+        this.bytesProcesados = bytesProcesados;
+    }
+
+    public Long getBytesTotales() {
+        return bytesTotales;
+    }
+
+    public void setBytesTotales(Long bytesTotales) {
+        this.bytesTotales = bytesTotales;
+    }
+
+    public Integer getPorcentajeAvance() {
+        return porcentajeAvance;
+    }
+
+    public void setPorcentajeAvance(Integer porcentajeAvance) {
+        this.porcentajeAvance = porcentajeAvance;
+    }
+
+    public Long getSentenciasEjecutadas() {
+        return sentenciasEjecutadas;
+    }
+
+    public void setSentenciasEjecutadas(Long sentenciasEjecutadas) {
+        this.sentenciasEjecutadas = sentenciasEjecutadas;
+    }
+
+    public Long getFilasRestauradas() {
+        return filasRestauradas;
+    }
+
+    public void setFilasRestauradas(Long filasRestauradas) {
+        this.filasRestauradas = filasRestauradas;
+    }
+
+    public Integer getTablasRestauradas() {
+        return tablasRestauradas;
+    }
+
+    public void setTablasRestauradas(Integer tablasRestauradas) {
+        this.tablasRestauradas = tablasRestauradas;
+    }
+
+    public String getMensajeError() {
+        return mensajeError;
+    }
+
+    public void setMensajeError(String mensajeError) {
+        this.mensajeError = mensajeError;
+    }
+
+    public String getFechaInicio() {
+        return fechaInicio;
+    }
+
+    public void setFechaInicio(String fechaInicio) {
+        this.fechaInicio = fechaInicio;
+    }
+
+    public String getFechaFin() {
+        return fechaFin;
+    }
+
+    public void setFechaFin(String fechaFin) {
+        this.fechaFin = fechaFin;
+    }
+}
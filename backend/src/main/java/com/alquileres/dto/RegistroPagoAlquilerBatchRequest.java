@@ -0,0 +1,88 @@
+package com.alquileres.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+/**
+ * DTO para registrar el pago de varios alquileres a la vez
+ */
+public class RegistroPagoAlquilerBatchRequest {
+
+    @NotEmpty(message = "La lista de pagos no puede estar vacía")
+    @Valid
+    private List<RegistroPagoAlquilerItem> pagos;
+
+    // Constructor por defecto
+    public RegistroPagoAlquilerBatchRequest() {
+    }
+
+    public RegistroPagoAlquilerBatchRequest(List<RegistroPagoAlquilerItem> pagos) {
+        this.pagos = pagos;
+    }
+
+    // Getters y Setters
+    public List<RegistroPagoAlquilerItem> getPagos() {
+        return pagos;
+    }
+
+    public void setPagos(List<RegistroPagoAlquilerItem> pagos) {
+        this.pagos = pagos;
+    }
+
+    /**
+     * Clase interna que representa el pago de un alquiler dentro del batch
+     */
+    public static class RegistroPagoAlquilerItem {
+
+        @NotNull(message = "El ID del alquiler es obligatorio")
+        private Long alquilerId;
+
+        @Valid
+        @NotNull(message = "Los datos del pago son obligatorios")
+        private RegistroPagoDTO datosPago;
+
+        // Constructor por defecto
+        public RegistroPagoAlquilerItem() {
+        }
+
+        public RegistroPagoAlquilerItem(Long alquilerId, RegistroPagoDTO datosPago) {
+            this.alquilerId = alquilerId;
+            this.datosPago = datosPago;
+        }
+
+        // Getters y Setters
+        public Long getAlquilerId() {
+            return alquilerId;
+        }
+
+        public void setAlquilerId(Long alquilerId) {
+            this.alquilerId = alquilerId;
+        }
+
+        public RegistroPagoDTO getDatosPago() {
+            return datosPago;
+        }
+
+        public void setDatosPago(RegistroPagoDTO datosPago) {
+            this.datosPago = datosPago;
+        }
+
+        @Override
+        public String toString() {
+            return "RegistroPagoAlquilerItem{" +
+                    "alquilerId=" + alquilerId +
+                    ", datosPago=" + datosPago +
+                    '}';
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "RegistroPagoAlquilerBatchRequest{" +
+                "pagos=" + pagos +
+                '}';
+    }
+}
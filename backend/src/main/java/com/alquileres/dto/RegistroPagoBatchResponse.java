@@ -4,7 +4,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 /**
- * DTO de respuesta para el registro de pagos en batch
+ * DTO de respuesta para el registro de pagos en batch (de servicios o de alquileres)
  */
 public class RegistroPagoBatchResponse {
 
@@ -63,7 +63,7 @@ public class RegistroPagoBatchResponse {
      */
     public static class ResultadoPagoItem {
 
-        private Integer pagoId;
+        private Long pagoId; // ID del pago de servicio o del alquiler
         private boolean exitoso;
         private String mensaje;
 
@@ -71,18 +71,18 @@ public class RegistroPagoBatchResponse {
         public ResultadoPagoItem() {
         }
 
-        public ResultadoPagoItem(Integer pagoId, boolean exitoso, String mensaje) {
+        public ResultadoPagoItem(Long pagoId, boolean exitoso, String mensaje) {
             this.pagoId = pagoId;
             this.exitoso = exitoso;
             this.mensaje = mensaje;
         }
 
         // Getters y Setters
-        public Integer getPagoId() {
+        public Long getPagoId() {
             return pagoId;
         }
 
-        public void setPagoId(Integer pagoId) {
+        public void setPagoId(Long pagoId) {
             this.pagoId = pagoId;
         }
 
@@ -0,0 +1,66 @@
+package com.alquileres.dto;
+
+/**
+ * Resultado de la búsqueda unificada de inquilinos, propietarios e inmuebles
+ */
+public class ResultadoBusquedaDTO {
+
+    private String tipo;
+    private Long id;
+    private String titulo;
+    private String detalle;
+    private double puntaje;
+
+    // Constructor por defecto
+    public ResultadoBusquedaDTO() {
+    }
+
+    public ResultadoBusquedaDTO(String tipo, Long id, String titulo, String detalle, double puntaje) {
+        this.tipo = tipo;
+        this.id = id;
+        this.titulo = titulo;
+        this.detalle = detalle;
+        this.puntaje = puntaje;
+    }
+
+    // Getters y Setters
+    public String getTipo() {
+        return tipo;
+    }
+
+    public void setTipo(String tipo) {
+        this.tipo = tipo;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTitulo() {
+        return titulo;
+    }
+
+    public void setTitulo(String titulo) {
+        this.titulo = titulo;
+    }
+
+    public String getDetalle() {
+        return detalle;
+    }
+
+    public void setDetalle(String detalle) {
+        this.detalle = detalle;
+    }
+
+    public double getPuntaje() {
+        return puntaje;
+    }
+
+    public void setPuntaje(double puntaje) {
+        this.puntaje = puntaje;
+    }
+}
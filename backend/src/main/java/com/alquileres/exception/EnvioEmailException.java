@@ -0,0 +1,20 @@
+package com.alquileres.exception;
+
+/**
+ * Error al entregar un email a la API de Resend
+ * reintentable indica si tiene sentido volver a intentarlo (429, 5xx, conexión, timeout) o si el
+ * rechazo es definitivo para ese email (resto de los 4xx)
+ */
+public class EnvioEmailException extends RuntimeException {
+
+    private final boolean reintentable;
+
+    public EnvioEmailException(String message, boolean reintentable, Throwable cause) {
+        super(message, cause);
+        this.reintentable = reintentable;
+    }
+
+    public boolean isReintentable() {
+        return reintentable;
+    }
+}
@@ -54,4 +54,5 @@ public class ErrorCodes {
     public static final String DATOS_INCOMPLETOS = "DATOS_INCOMPLETOS";
     public static final String DATOS_INVALIDOS = "DATOS_INVALIDOS";
     public static final String ERROR_SERVICIO_EXTERNO = "ERROR_SERVICIO_EXTERNO";
+    public static final String OPERACION_EN_CURSO = "OPERACION_EN_CURSO";
 }
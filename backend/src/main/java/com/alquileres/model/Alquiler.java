@@ -4,15 +4,20 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 
 @Entity
-@Table(name = "alquileres")
+@Table(name = "alquileres", indexes = {
+    @Index(name = "idx_alquileres_fecha_vencimiento", columnList = "fecha_vencimiento_pago"),
+    @Index(name = "idx_alquileres_contrato_fecha_vencimiento", columnList = "contrato_id, fecha_vencimiento_pago")
+})
 public class Alquiler {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "alquileres_seq")
+    @SequenceGenerator(name = "alquileres_seq", sequenceName = "alquileres_seq", allocationSize = 50)
     private Long id;
 
     @NotNull(message = "El contrato es obligatorio")
@@ -21,7 +26,7 @@ public class Alquiler {
     private Contrato contrato;
 
     @Column(name = "fecha_vencimiento_pago")
-    private String fechaVencimientoPago;
+    private LocalDate fechaVencimientoPago;
 
     @Positive(message = "El monto debe ser positivo")
     @Column(precision = 12, scale = 2)
@@ -62,7 +67,7 @@ public class Alquiler {
     }
 
     // Constructor para creación automática de alquileres
-    public Alquiler(Contrato contrato, String fechaVencimientoPago, BigDecimal monto) {
+    public Alquiler(Contrato contrato, LocalDate fechaVencimientoPago, BigDecimal monto) {
         this();
         this.contrato = contrato;
         this.fechaVencimientoPago = fechaVencimientoPago;
@@ -86,11 +91,11 @@ public class Alquiler {
         this.contrato = contrato;
     }
 
-    public String getFechaVencimientoPago() {
+    public LocalDate getFechaVencimientoPago() {
         return fechaVencimientoPago;
     }
 
-    public void setFechaVencimientoPago(String fechaVencimientoPago) {
+    public void setFechaVencimientoPago(LocalDate fechaVencimientoPago) {
         this.fechaVencimientoPago = fechaVencimientoPago;
     }
 
@@ -3,14 +3,19 @@ package com.alquileres.model;
 import jakarta.persistence.*;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "aumento_alquiler")
+@Table(name = "aumento_alquiler", indexes = {
+    @Index(name = "idx_aumento_alquiler_fecha", columnList = "fecha_aumento")
+})
 public class AumentoAlquiler {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Secuencia en bloques de 50 en lugar de IDENTITY, para que Hibernate pueda agrupar los INSERT en lotes JDBC
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "aumento_alquiler_seq")
+    @SequenceGenerator(name = "aumento_alquiler_seq", sequenceName = "aumento_alquiler_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -18,7 +23,7 @@ public class AumentoAlquiler {
     private Contrato contrato;
 
     @Column(name = "fecha_aumento", nullable = false)
-    private String fechaAumento;
+    private LocalDate fechaAumento;
 
     @Column(name = "monto_anterior", nullable = false)
     private BigDecimal montoAnterior;
@@ -39,7 +44,7 @@ public class AumentoAlquiler {
     public AumentoAlquiler() {
     }
 
-    public AumentoAlquiler(Contrato contrato, String fechaAumento, BigDecimal montoAnterior,
+    public AumentoAlquiler(Contrato contrato, LocalDate fechaAumento, BigDecimal montoAnterior,
                            BigDecimal montoNuevo, BigDecimal porcentajeAumento) {
         this.contrato = contrato;
         this.fechaAumento = fechaAumento;
@@ -66,11 +71,11 @@ public class AumentoAlquiler {
         this.contrato = contrato;
     }
 
-    public String getFechaAumento() {
+    public LocalDate getFechaAumento() {
         return fechaAumento;
     }
 
-    public void setFechaAumento(String fechaAumento) {
+    public void setFechaAumento(LocalDate fechaAumento) {
         this.fechaAumento = fechaAumento;
     }
 
@@ -5,11 +5,15 @@ import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 
 @Entity
-@Table(name = "contratos")
+@Table(name = "contratos", indexes = {
+    @Index(name = "idx_contratos_fecha_inicio", columnList = "fecha_inicio"),
+    @Index(name = "idx_contratos_fecha_fin", columnList = "fecha_fin")
+})
 public class Contrato {
 
     @Id
@@ -27,10 +31,10 @@ public class Contrato {
     private Inquilino inquilino;
 
     @Column(name = "fecha_inicio")
-    private String fechaInicio;
+    private LocalDate fechaInicio;
 
     @Column(name = "fecha_fin")
-    private String fechaFin;
+    private LocalDate fechaFin;
 
     @Positive(message = "El monto debe ser positivo")
     @Column(precision = 12, scale = 2)
@@ -69,8 +73,8 @@ public class Contrato {
     }
 
     // Constructor con parámetros principales
-    public Contrato(Inmueble inmueble, Inquilino inquilino, String fechaInicio,
-                   String fechaFin, BigDecimal monto, EstadoContrato estadoContrato) {
+    public Contrato(Inmueble inmueble, Inquilino inquilino, LocalDate fechaInicio,
+                   LocalDate fechaFin, BigDecimal monto, EstadoContrato estadoContrato) {
         this.inmueble = inmueble;
         this.inquilino = inquilino;
         this.fechaInicio = fechaInicio;
@@ -111,19 +115,19 @@ public class Contrato {
         this.inquilino = inquilino;
     }
 
-    public String getFechaInicio() {
+    public LocalDate getFechaInicio() {
         return fechaInicio;
     }
 
-    public void setFechaInicio(String fechaInicio) {
+    public void setFechaInicio(LocalDate fechaInicio) {
         this.fechaInicio = fechaInicio;
     }
 
-    public String getFechaFin() {
+    public LocalDate getFechaFin() {
         return fechaFin;
     }
 
-    public void setFechaFin(String fechaFin) {
+    public void setFechaFin(LocalDate fechaFin) {
         this.fechaFin = fechaFin;
     }
 
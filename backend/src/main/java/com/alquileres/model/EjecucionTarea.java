@@ -0,0 +1,233 @@
+package com.alquileres.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Ejecución de un proceso automático (generación de alquileres, facturas, etc.) para un período
+ * Guarda el último contrato procesado para que una ejecución interrumpida se reanude desde ahí.
+ * La restricción única por tipo y período garantiza una sola ejecución aunque haya varias instancias
+ */
+@Entity
+@Table(name = "ejecuciones_tarea",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"tipo", "periodo"}))
+public class EjecucionTarea {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 50)
+    private TipoTarea tipo;
+
+    // MM/yyyy para procesos mensuales, yyyy-MM-dd para procesos diarios
+    @Column(nullable = false, length = 10)
+    private String periodo;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private EstadoTarea estado;
+
+    @Column(name = "total_contratos")
+    private Integer totalContratos = 0;
+
+    @Column(name = "contratos_procesados")
+    private Integer contratosProcesados = 0;
+
+    @Column(name = "elementos_generados")
+    private Integer elementosGenerados = 0;
+
+    // Checkpoint: los contratos se procesan en orden de ID
+    @Column(name = "ultimo_contrato_id")
+    private Long ultimoContratoId;
+
+    @Column(name = "intentos_fallidos")
+    private Integer intentosFallidos = 0;
+
+    // Próximo intento posible: mientras está EN_PROCESO es la reserva de la instancia que la ejecuta,
+    // y después de un fallo es el momento a partir del cual se puede reintentar
+    @Column(name = "proximo_intento")
+    private LocalDateTime proximoIntento;
+
+    @Column(name = "mensaje_error", length = 1000)
+    private String mensajeError;
+
+    @Column(name = "fecha_inicio")
+    private String fechaInicio;
+
+    @Column(name = "fecha_fin")
+    private String fechaFin;
+
+    @Column(name = "created_at")
+    private String createdAt;
+
+    @Column(name = "updated_at")
+    private String updatedAt;
+
+    // Constructor por defecto
+    public EjecucionTarea() {
+    }
+
+    // Constructor con tipo y período
+    public EjecucionTarea(TipoTarea tipo, String periodo) {
+        this.tipo = tipo;
+        this.periodo = periodo;
+        this.estado = EstadoTarea.EN_PROCESO;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        String now = LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        createdAt = now;
+        updatedAt = now;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+    }
+
+    /**
+     * Registra el avance de un lote de contratos ya confirmado
+     */
+    public void registrarLote(Long ultimoContratoId, int contratos, int generados) {
+        this.ultimoContratoId = ultimoContratoId;
+        this.contratosProcesados += contratos;
+        this.elementosGenerados += generados;
+    }
+
+    // Getters y Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public TipoTarea getTipo() {
+        return tipo;
+    }
+
+    public void setTipo(TipoTarea tipo) {
+        this.tipo = tipo;
+    }
+
+    public String getPeriodo() {
+        return periodo;
+    }
+
+    public void setPeriodo(String periodo) {
+        this.periodo = periodo;
+    }
+
+    public EstadoTarea getEstado() {
+        return estado;
+    }
+
+    public void setEstado(EstadoTarea estado) {
+        this.estado = estado;
+    }
+
+    public Integer getTotalContratos() {
+        return totalContratos;
+    }
+
+    public void setTotalContratos(Integer totalContratos) {
+        this.totalContratos = totalContratos;
+    }
+
+    public Integer getContratosProcesados() {
+        return contratosProcesados;
+    }
+
+    public void setContratosProcesados(Integer contratosProcesados) {
+        this.contratosProcesados = contratosProcesados;
+    }
+
+    public Integer getElementosGenerados() {
+        return elementosGenerados;
+    }
+
+    public void setElementosGenerados(Integer elementosGenerados) {
+        this.elementosGenerados = elementosGenerados;
+    }
+
+    public Long getUltimoContratoId() {
+        return ultimoContratoId;
+    }
+
+    public void setUltimoContratoId(Long ultimoContratoId) {
+        this.ultimoContratoId = ultimoContratoId;
+    }
+
+    public Integer getIntentosFallidos() {
+        return intentosFallidos;
+    }
+
+    public void setIntentosFallidos(Integer intentosFallidos) {
+        this.intentosFallidos = intentosFallidos;
+    }
+
+    public LocalDateTime getProximoIntento() {
+        return proximoIntento;
+    }
+
+    public void setProximoIntento(LocalDateTime proximoIntento) {
+        this.proximoIntento = proximoIntento;
+    }
+
+    public String getMensajeError() {
+        return mensajeError;
+    }
+
+    public void setMensajeError(String mensajeError) {
+        this.mensajeError = mensajeError;
+    }
+
+    public String getFechaInicio() {
+        return fechaInicio;
+    }
+
+    public void setFechaInicio(String fechaInicio) {
+        this.fechaInicio = fechaInicio;
+    }
+
+    public String getFechaFin() {
+        return fechaFin;
+    }
+
+    public void setFechaFin(String fechaFin) {
+        this.fechaFin = fechaFin;
+    }
+
+    public String getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(String createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public String getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(String updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "EjecucionTarea{" +
+                "id=" + id +
+                ", tipo=" + tipo +
+                ", periodo='" + periodo + '\'' +
+                ", estado=" + estado +
+                ", contratosProcesados=" + contratosProcesados +
+                ", ultimoContratoId=" + ultimoContratoId +
+                '}';
+    }
+}
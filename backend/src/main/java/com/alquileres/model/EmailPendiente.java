@@ -0,0 +1,142 @@
+package com.alquileres.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Email en la bandeja de salida
+ * Se guarda en la misma transacción que el cambio que lo origina y lo entrega DespachadorEmails,
+ * con reintentos hasta quedar ENVIADO o DESCARTADO
+ */
+@Entity
+@Table(name = "emails_pendientes", indexes = {
+    @Index(name = "idx_emails_pendientes_estado_proximo", columnList = "estado, proximo_intento")
+})
+public class EmailPendiente {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private Long id;
+
+    @Column(nullable = false, length = 320)
+    private String destinatario;
+
+    @Column(nullable = false, length = 255)
+    private String asunto;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String html;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private EstadoEmail estado = EstadoEmail.PENDIENTE;
+
+    @Column(nullable = false)
+    private Integer intentos = 0;
+
+    // Próximo envío posible: también funciona como reserva mientras un despachador lo está enviando
+    @Column(name = "proximo_intento", nullable = false)
+    private LocalDateTime proximoIntento;
+
+    @Column(name = "ultimo_error", length = 1000)
+    private String ultimoError;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "enviado_at")
+    private LocalDateTime enviadoAt;
+
+    // Constructor por defecto
+    public EmailPendiente() {
+    }
+
+    public EmailPendiente(String destinatario, String asunto, String html, LocalDateTime ahora) {
+        this.destinatario = destinatario;
+        this.asunto = asunto;
+        this.html = html;
+        this.proximoIntento = ahora;
+        this.createdAt = ahora;
+    }
+
+    // Getters y Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getDestinatario() {
+        return destinatario;
+    }
+
+    public void setDestinatario(String destinatario) {
+        this.destinatario = destinatario;
+    }
+
+    public String getAsunto() {
+        return asunto;
+    }
+
+    public void setAsunto(String asunto) {
+        this.asunto = asunto;
+    }
+
+    public String getHtml() {
+        return html;
+    }
+
+    public void setHtml(String html) {
+        this.html = html;
+    }
+
+    public EstadoEmail getEstado() {
+        return estado;
+    }
+
+    public void setEstado(EstadoEmail estado) {
+        this.estado = estado;
+    }
+
+    public Integer getIntentos() {
+        return intentos;
+    }
+
+    public void setIntentos(Integer intentos) {
+        this.intentos = intentos;
+    }
+
+    public LocalDateTime getProximoIntento() {
+        return proximoIntento;
+    }
+
+    public void setProximoIntento(LocalDateTime proximoIntento) {
+        this.proximoIntento = proximoIntento;
+    }
+
+    public String getUltimoError() {
+        return ultimoError;
+    }
+
+    public void setUltimoError(String ultimoError) {
+        this.ultimoError = ultimoError;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getEnviadoAt() {
+        return enviadoAt;
+    }
+
+    public void setEnviadoAt(LocalDateTime enviadoAt) {
+        this.enviadoAt = enviadoAt;
+    }
+}
@@ -0,0 +1,11 @@
+package com.alquileres.model;
+
+/**
+ * Estado de un email en la bandeja de salida
+ * DESCARTADO: no se pudo entregar (rechazo definitivo o reintentos agotados); queda guardado para revisarlo
+ */
+public enum EstadoEmail {
+    PENDIENTE,
+    ENVIADO,
+    DESCARTADO
+}
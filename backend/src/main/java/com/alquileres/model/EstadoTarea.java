@@ -0,0 +1,7 @@
+package com.alquileres.model;
+
+public enum EstadoTarea {
+    EN_PROCESO,
+    COMPLETADA,
+    FALLIDA
+}
@@ -0,0 +1,88 @@
+package com.alquileres.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Valor diario del Índice de Contratos de Locación (ICL) publicado por el BCRA (serie 40)
+ * Se persiste localmente para no depender de la API del BCRA en cada cálculo de aumento
+ */
+@Entity
+@Table(name = "indices_icl")
+public class IndiceICL {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private Long id;
+
+    @NotNull(message = "La fecha del índice es obligatoria")
+    @Column(nullable = false, unique = true)
+    private LocalDate fecha;
+
+    @NotNull(message = "El valor del índice es obligatorio")
+    @Column(nullable = false, precision = 18, scale = 6)
+    private BigDecimal valor;
+
+    @Column(name = "created_at")
+    private String createdAt;
+
+    // Constructor por defecto
+    public IndiceICL() {
+    }
+
+    // Constructor con fecha y valor
+    public IndiceICL(LocalDate fecha, BigDecimal valor) {
+        this.fecha = fecha;
+        this.valor = valor;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+    }
+
+    // Getters y Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public LocalDate getFecha() {
+        return fecha;
+    }
+
+    public void setFecha(LocalDate fecha) {
+        this.fecha = fecha;
+    }
+
+    public BigDecimal getValor() {
+        return valor;
+    }
+
+    public void setValor(BigDecimal valor) {
+        this.valor = valor;
+    }
+
+    public String getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(String createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    @Override
+    public String toString() {
+        return "IndiceICL{" +
+                "fecha=" + fecha +
+                ", valor=" + valor +
+                '}';
+    }
+}
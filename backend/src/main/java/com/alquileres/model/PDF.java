@@ -5,7 +5,9 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 
 @Entity
-@Table(name = "pdfs")
+@Table(name = "pdfs", indexes = {
+    @Index(name = "idx_pdfs_sha256", columnList = "sha256")
+})
 public class PDF {
 
     @Id
@@ -15,11 +17,19 @@ public class PDF {
     @Column(name = "ambito", nullable = false)
     private String ambito; // "CONTRATO", "PAGO_SERVICIO", "PAGO_ALQUILER"
 
+    // Contenido heredado de cuando el PDF se guardaba en la base; queda en null una vez migrado al almacén
     @Lob
     @Basic(fetch = FetchType.LAZY)
-    @Column(name = "file", nullable = false)
+    @Column(name = "file")
     private byte[] file;
 
+    // SHA-256 del contenido, clave del archivo en el almacén de PDFs
+    @Column(name = "sha256", length = 64)
+    private String sha256;
+
+    @Column(name = "tamano")
+    private Long tamano;
+
     @Column(name = "nombre_archivo")
     private String nombreArchivo;
 
@@ -34,9 +44,10 @@ public class PDF {
     public PDF() {
     }
 
-    public PDF(String ambito, byte[] file, String nombreArchivo) {
+    public PDF(String ambito, String sha256, Long tamano, String nombreArchivo) {
         this.ambito = ambito;
-        this.file = file;
+        this.sha256 = sha256;
+        this.tamano = tamano;
         this.nombreArchivo = nombreArchivo;
     }
 
@@ -65,6 +76,22 @@ public class PDF {
         this.file = file;
     }
 
+    public String getSha256() {
+        return sha256;
+    }
+
+    public void setSha256(String sha256) {
+        this.sha256 = sha256;
+    }
+
+    public Long getTamano() {
+        return tamano;
+    }
+
+    public void setTamano(Long tamano) {
+        this.tamano = tamano;
+    }
+
     public String getNombreArchivo() {
         return nombreArchivo;
     }
@@ -10,11 +10,14 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 
 @Entity
-@Table(name = "pago_servicio")
+@Table(name = "pago_servicio", indexes = {
+    @Index(name = "idx_pago_servicio_servicio_periodo", columnList = "servicio_contrato_id, periodo")
+})
 public class PagoServicio {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pago_servicio_seq")
+    @SequenceGenerator(name = "pago_servicio_seq", sequenceName = "pago_servicio_seq", allocationSize = 50)
     private Integer id;
 
     @NotNull(message = "El servicio contrato es obligatorio")
@@ -0,0 +1,10 @@
+package com.alquileres.model;
+
+/**
+ * Procesos automáticos que ejecuta el motor de tareas en segundo plano
+ */
+public enum TipoTarea {
+    ACTUALIZACION_CONTRATOS_VENCIDOS,
+    GENERACION_FACTURAS_SERVICIOS,
+    GENERACION_ALQUILERES
+}
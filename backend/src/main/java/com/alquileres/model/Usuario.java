@@ -31,6 +31,12 @@ public class Usuario {
     @Column(name = "password_reset_token_expiry")
     private LocalDateTime passwordResetTokenExpiry;
 
+    // Versión de roles y credenciales que se firma en el JWT; la incrementan los triggers de
+    // TriggersCredenciales al cambiar roles, contraseña o estado (Hibernate no la escribe)
+    @Column(name = "version_credenciales", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "INTEGER DEFAULT 0")
+    private Integer versionCredenciales = 0;
+
     @ManyToMany(fetch = FetchType.EAGER)
     @JoinTable(
         name = "usuario_roles",
@@ -97,6 +103,14 @@ public class Usuario {
         this.roles = roles;
     }
 
+    public Integer getVersionCredenciales() {
+        return versionCredenciales;
+    }
+
+    public void setVersionCredenciales(Integer versionCredenciales) {
+        this.versionCredenciales = versionCredenciales;
+    }
+
     public String getPasswordResetToken() {
         return passwordResetToken;
     }
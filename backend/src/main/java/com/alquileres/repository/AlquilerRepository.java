@@ -2,11 +2,16 @@ package com.alquileres.repository;
 
 import com.alquileres.model.Alquiler;
 import com.alquileres.model.Contrato;
+import com.alquileres.repository.projection.FilaInformeAlquiler;
+import com.alquileres.repository.projection.ResumenDashboard;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
@@ -29,6 +34,28 @@ public interface AlquilerRepository extends JpaRepository<Alquiler, Long> {
     @Query("SELECT a FROM Alquiler a WHERE a.estaPagado = :estaPagado AND a.esActivo = true")
     List<Alquiler> findByEstaPagado(@Param("estaPagado") Boolean estaPagado);
 
+    // Página de alquileres activos con filtros opcionales, ordenada por ID descendente (keyset: siguiente página con id < ultimoId)
+    // desde/hasta filtran por fecha de vencimiento del pago
+    @Query("SELECT a FROM Alquiler a JOIN FETCH a.contrato c JOIN FETCH c.inmueble i JOIN FETCH c.inquilino q " +
+           "WHERE a.esActivo = true " +
+           "AND (:ultimoId IS NULL OR a.id < :ultimoId) " +
+           "AND (:estaPagado IS NULL OR a.estaPagado = :estaPagado) " +
+           "AND (:contratoId IS NULL OR c.id = :contratoId) " +
+           "AND (:propietarioId IS NULL OR i.propietarioId = :propietarioId) " +
+           "AND (:desde IS NULL OR a.fechaVencimientoPago >= :desde) " +
+           "AND (:hasta IS NULL OR a.fechaVencimientoPago <= :hasta) " +
+           "AND (:texto IS NULL OR LOWER(i.direccion) LIKE :texto ESCAPE '\\' " +
+           "     OR LOWER(q.nombre) LIKE :texto ESCAPE '\\' OR LOWER(q.apellido) LIKE :texto ESCAPE '\\') " +
+           "ORDER BY a.id DESC")
+    List<Alquiler> buscarPagina(@Param("ultimoId") Long ultimoId,
+                                @Param("estaPagado") Boolean estaPagado,
+                                @Param("contratoId") Long contratoId,
+                                @Param("propietarioId") Long propietarioId,
+                                @Param("desde") LocalDate desde,
+                                @Param("hasta") LocalDate hasta,
+                                @Param("texto") String texto,
+                                Limit limite);
+
     // Buscar alquileres activos pendientes de pago por contrato
     @Query("SELECT a FROM Alquiler a WHERE a.contrato.id = :contratoId AND a.estaPagado = false AND a.esActivo = true")
     List<Alquiler> findAlquileresPendientesByContratoId(@Param("contratoId") Long contratoId);
@@ -37,9 +64,9 @@ public interface AlquilerRepository extends JpaRepository<Alquiler, Long> {
     @Query("SELECT a FROM Alquiler a WHERE a.contrato.id IN :contratoIds AND a.estaPagado = false AND a.esActivo = true")
     List<Alquiler> findAlquileresPendientesByContratoIds(@Param("contratoIds") List<Long> contratoIds);
 
-    // Buscar alquileres activos pendientes de pago por múltiples contratos (batch query) cuyo mes de vencimiento es el actual
-    @Query("SELECT a FROM Alquiler a WHERE a.contrato.id IN :contratoIds AND a.estaPagado = false AND a.esActivo = true AND MONTH(CAST(a.fechaVencimientoPago AS date)) = :mes AND YEAR(CAST(a.fechaVencimientoPago AS date)) = :anio")
-    List<Alquiler> findAlquileresPendientesByContratoIdsAndMesAnioActual(@Param("contratoIds") List<Long> contratoIds, @Param("mes") int mes, @Param("anio") int anio);
+    // Buscar alquileres activos pendientes de pago por múltiples contratos (batch query) que vencen en [desde, hasta)
+    @Query("SELECT a FROM Alquiler a WHERE a.contrato.id IN :contratoIds AND a.estaPagado = false AND a.esActivo = true AND a.fechaVencimientoPago >= :desde AND a.fechaVencimientoPago < :hasta")
+    List<Alquiler> findAlquileresPendientesByContratoIdsAndVencimientoEntre(@Param("contratoIds") List<Long> contratoIds, @Param("desde") LocalDate desde, @Param("hasta") LocalDate hasta);
 
     // Buscar alquileres activos pagados por contrato
     @Query("SELECT a FROM Alquiler a WHERE a.contrato.id = :contratoId AND a.estaPagado = true AND a.esActivo = true")
@@ -51,59 +78,116 @@ public interface AlquilerRepository extends JpaRepository<Alquiler, Long> {
 
     // Buscar alquileres activos con vencimiento próximo
     @Query("SELECT a FROM Alquiler a WHERE a.estaPagado = false AND a.esActivo = true AND a.fechaVencimientoPago BETWEEN :fechaActual AND :fechaLimite")
-    List<Alquiler> findAlquileresProximosAVencer(@Param("fechaActual") String fechaActual, @Param("fechaLimite") String fechaLimite);
+    List<Alquiler> findAlquileresProximosAVencer(@Param("fechaActual") LocalDate fechaActual, @Param("fechaLimite") LocalDate fechaLimite);
 
     // Contar alquileres activos con vencimiento próximo
     @Query("SELECT COUNT(a) FROM Alquiler a WHERE a.estaPagado = false AND a.esActivo = true AND a.fechaVencimientoPago BETWEEN :fechaActual AND :fechaLimite")
-    Long countAlquileresProximosAVencer(@Param("fechaActual") String fechaActual, @Param("fechaLimite") String fechaLimite);
+    Long countAlquileresProximosAVencer(@Param("fechaActual") LocalDate fechaActual, @Param("fechaLimite") LocalDate fechaLimite);
 
-    // Buscar todos los alquileres pagados del mes actual (independientemente de si están activos o no)
-    @Query("SELECT a FROM Alquiler a WHERE a.estaPagado = true AND YEAR(CAST(a.fechaVencimientoPago AS date)) = YEAR(CURRENT_DATE) AND MONTH(CAST(a.fechaVencimientoPago AS date)) = MONTH(CURRENT_DATE)")
-    List<Alquiler> findAlquileresPagadosDelMes();
+    // Buscar todos los alquileres pagados que vencen en [desde, hasta) (independientemente de si están activos o no)
+    @Query("SELECT a FROM Alquiler a WHERE a.estaPagado = true AND a.fechaVencimientoPago >= :desde AND a.fechaVencimientoPago < :hasta")
+    List<Alquiler> findAlquileresPagadosConVencimientoEntre(@Param("desde") LocalDate desde, @Param("hasta") LocalDate hasta);
 
-    // Buscar alquileres activos no pagados del mes actual con sus datos asociados de contratos vigentes
+    // Buscar alquileres activos no pagados que vencen en [desde, hasta) de contratos vigentes
     @Query("SELECT a FROM Alquiler a " +
            "JOIN a.contrato c " +
            "JOIN c.estadoContrato e " +
            "WHERE a.estaPagado = false " +
            "AND a.esActivo = true " +
            "AND e.nombre = 'Vigente' " +
-           "AND YEAR(CAST(a.fechaVencimientoPago AS date)) = YEAR(CURRENT_DATE) " +
-           "AND MONTH(CAST(a.fechaVencimientoPago AS date)) = MONTH(CURRENT_DATE)")
-    List<Alquiler> findAlquileresNoPagadosDelMes();
+           "AND a.fechaVencimientoPago >= :desde " +
+           "AND a.fechaVencimientoPago < :hasta")
+    List<Alquiler> findAlquileresNoPagadosConVencimientoEntre(@Param("desde") LocalDate desde, @Param("hasta") LocalDate hasta);
 
     // Obtener el último alquiler activo de un contrato (ordenado por fecha de vencimiento descendente)
-    @Query("SELECT a FROM Alquiler a WHERE a.contrato.id = :contratoId AND a.esActivo = true ORDER BY CAST(a.fechaVencimientoPago AS date) DESC LIMIT 1")
+    @Query("SELECT a FROM Alquiler a WHERE a.contrato.id = :contratoId AND a.esActivo = true ORDER BY a.fechaVencimientoPago DESC LIMIT 1")
     Optional<Alquiler> findUltimoAlquilerByContratoId(@Param("contratoId") Long contratoId);
 
+    // Último alquiler activo de cada contrato de la lista (una sola consulta para listados)
+    @Query("SELECT a FROM Alquiler a WHERE a.contrato.id IN :contratoIds AND a.esActivo = true " +
+           "AND a.fechaVencimientoPago = (SELECT MAX(a2.fechaVencimientoPago) FROM Alquiler a2 " +
+           "WHERE a2.contrato.id = a.contrato.id AND a2.esActivo = true)")
+    List<Alquiler> findUltimosAlquileresByContratoIds(@Param("contratoIds") List<Long> contratoIds);
+
     // Obtener el último alquiler activo de un contrato (usando objeto Contrato)
-    @Query("SELECT a FROM Alquiler a WHERE a.contrato = :contrato AND a.esActivo = true ORDER BY CAST(a.fechaVencimientoPago AS date) DESC LIMIT 1")
+    @Query("SELECT a FROM Alquiler a WHERE a.contrato = :contrato AND a.esActivo = true ORDER BY a.fechaVencimientoPago DESC LIMIT 1")
     Optional<Alquiler> findTopByContratoOrderByFechaVencimientoPagoDesc(@Param("contrato") Contrato contrato);
 
     // Buscar alquileres activos que necesitan aumento manual
     @Query("SELECT a FROM Alquiler a WHERE a.necesitaAumentoManual = true AND a.esActivo = true")
     List<Alquiler> findByNecesitaAumentoManualTrueAndEsActivoTrue();
 
-    // Para Informe 1: Alquileres pagados del mes actual de contratos vigentes
-    @Query("SELECT a FROM Alquiler a " +
+    // Para Informe 1: Alquileres pagados de contratos vigentes que vencen en [desde, hasta), con sus partes
+    @Query("SELECT a.id AS alquilerId, c.id AS contratoId, i.id AS inmuebleId, i.direccion AS direccionInmueble, " +
+           "inq.nombre AS nombreInquilino, inq.apellido AS apellidoInquilino, " +
+           "prop.nombre AS nombrePropietario, prop.apellido AS apellidoPropietario, " +
+           "a.monto AS monto, a.fechaPago AS fechaPago, a.fechaVencimientoPago AS fechaVencimientoPago, " +
+           "a.estaPagado AS estaPagado " +
+           "FROM Alquiler a " +
            "JOIN a.contrato c " +
            "JOIN c.estadoContrato e " +
+           "JOIN c.inmueble i " +
+           "JOIN c.inquilino inq " +
+           "JOIN Propietario prop ON prop.id = i.propietarioId " +
            "WHERE a.estaPagado = true " +
-           "AND MONTH(CAST(a.fechaVencimientoPago AS date)) = :mes " +
-           "AND YEAR(CAST(a.fechaVencimientoPago AS date)) = :anio " +
-           "AND e.nombre = 'Vigente'")
-    List<Alquiler> findAlquileresPagadosPorMesYAnio(@Param("mes") int mes, @Param("anio") int anio);
-
-    // Para Informe 2: Todos los alquileres del mes actual de contratos vigentes
-    @Query("SELECT a FROM Alquiler a " +
+           "AND a.fechaVencimientoPago >= :desde " +
+           "AND a.fechaVencimientoPago < :hasta " +
+           "AND e.nombre = 'Vigente' " +
+           "ORDER BY c.id, a.id")
+    List<FilaInformeAlquiler> findFilasInformeHonorarios(@Param("desde") LocalDate desde, @Param("hasta") LocalDate hasta);
+
+    // Para Informe 2: Todos los alquileres que vencen en [desde, hasta) de contratos en el estado indicado, con sus partes
+    @Query("SELECT a.id AS alquilerId, c.id AS contratoId, i.id AS inmuebleId, i.direccion AS direccionInmueble, " +
+           "inq.nombre AS nombreInquilino, inq.apellido AS apellidoInquilino, " +
+           "prop.nombre AS nombrePropietario, prop.apellido AS apellidoPropietario, " +
+           "a.monto AS monto, a.fechaPago AS fechaPago, a.fechaVencimientoPago AS fechaVencimientoPago, " +
+           "a.estaPagado AS estaPagado " +
+           "FROM Alquiler a " +
            "JOIN a.contrato c " +
            "JOIN c.estadoContrato e " +
-           "WHERE MONTH(CAST(a.fechaVencimientoPago AS date)) = :mes " +
-           "AND YEAR(CAST(a.fechaVencimientoPago AS date)) = :anio " +
-           "AND e.nombre = :estadoContrato")
-    List<Alquiler> findAlquileresPorMesYAnioYEstadoContrato(
-        @Param("mes") int mes,
-        @Param("anio") int anio,
+           "JOIN c.inmueble i " +
+           "JOIN c.inquilino inq " +
+           "JOIN Propietario prop ON prop.id = i.propietarioId " +
+           "WHERE a.fechaVencimientoPago >= :desde " +
+           "AND a.fechaVencimientoPago < :hasta " +
+           "AND e.nombre = :estadoContrato " +
+           "ORDER BY c.id, a.id")
+    List<FilaInformeAlquiler> findFilasInformeAlquileres(
+        @Param("desde") LocalDate desde,
+        @Param("hasta") LocalDate hasta,
         @Param("estadoContrato") String estadoContrato
     );
+
+    // Indicadores de la pantalla principal en una sola consulta: inmuebles activos, contratos vigentes,
+    // pagos de servicios del período y honorarios de los alquileres pagados que vencen en [desde, hasta).
+    // El honorario se redondea por alquiler, igual que en calcularHonorarios
+    @Query(value = "SELECT " +
+           "(SELECT COUNT(*) FROM inmuebles i WHERE i.es_activo = true) AS \"inmueblesActivos\", " +
+           "(SELECT COUNT(*) FROM contratos c JOIN estado_contrato e ON e.id = c.estado " +
+           "  WHERE e.nombre = 'Vigente') AS \"contratosVigentes\", " +
+           "s.totales AS \"serviciosTotales\", " +
+           "s.pendientes AS \"serviciosPendientes\", " +
+           "(SELECT COALESCE(SUM(ROUND(a.monto * COALESCE(c.porcentaje_honorario, 10) / 100, 2)), 0) " +
+           "  FROM alquileres a JOIN contratos c ON c.id = a.contrato_id " +
+           "  WHERE a.esta_pagado = true AND a.fecha_vencimiento_pago >= :desde " +
+           "  AND a.fecha_vencimiento_pago < :hasta) AS \"honorariosDelMes\" " +
+           "FROM (SELECT COUNT(*) AS totales, COUNT(*) FILTER (WHERE p.esta_pagado = false) AS pendientes " +
+           "  FROM pago_servicio p " +
+           "  JOIN servicio_contrato sc ON sc.id = p.servicio_contrato_id " +
+           "  JOIN contratos c ON c.id = sc.contrato_id " +
+           "  JOIN estado_contrato e ON e.id = c.estado " +
+           "  WHERE sc.es_activo = true AND p.periodo = :periodo AND e.nombre = 'Vigente') s",
+           nativeQuery = true)
+    ResumenDashboard obtenerResumenDashboard(
+        @Param("periodo") String periodo,
+        @Param("desde") LocalDate desde,
+        @Param("hasta") LocalDate hasta
+    );
+
+    // Anular (borrado lógico) los alquileres activos de los contratos indicados en una sola sentencia
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Alquiler a SET a.esActivo = false, a.updatedAt = :updatedAt " +
+           "WHERE a.contrato.id IN :contratoIds AND a.esActivo = true")
+    int anularAlquileresDeContratos(@Param("updatedAt") String updatedAt,
+                                    @Param("contratoIds") List<Long> contratoIds);
 }
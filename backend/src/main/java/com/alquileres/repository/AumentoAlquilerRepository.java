@@ -2,11 +2,13 @@ package com.alquileres.repository;
 
 import com.alquileres.model.AumentoAlquiler;
 import com.alquileres.model.Contrato;
+import com.alquileres.repository.projection.FilaInformeAumento;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @Repository
@@ -28,10 +30,20 @@ public interface AumentoAlquilerRepository extends JpaRepository<AumentoAlquiler
 
     // Buscar aumentos en un rango de fechas
     @Query("SELECT a FROM AumentoAlquiler a WHERE a.contrato.id = :contratoId AND a.fechaAumento >= :fechaInicio AND a.fechaAumento <= :fechaFin ORDER BY a.fechaAumento DESC")
-    List<AumentoAlquiler> findByContratoIdAndFechaAumentoBetween(@Param("contratoId") Long contratoId, @Param("fechaInicio") String fechaInicio, @Param("fechaFin") String fechaFin);
-
-    // Para Informe 3: Buscar todos los aumentos en un rango de fechas (para todos los contratos)
-    @Query("SELECT a FROM AumentoAlquiler a WHERE a.fechaAumento >= :fechaInicio AND a.fechaAumento <= :fechaFin ORDER BY a.contrato.id, a.fechaAumento DESC")
-    List<AumentoAlquiler> findAumentosPorRangoFecha(@Param("fechaInicio") String fechaInicio, @Param("fechaFin") String fechaFin);
+    List<AumentoAlquiler> findByContratoIdAndFechaAumentoBetween(@Param("contratoId") Long contratoId, @Param("fechaInicio") LocalDate fechaInicio, @Param("fechaFin") LocalDate fechaFin);
+
+    // Para Informe 3: Todos los aumentos en un rango de fechas (para todos los contratos), con sus partes
+    @Query("SELECT a.id AS aumentoId, c.id AS contratoId, i.direccion AS direccionInmueble, " +
+           "inq.nombre AS nombreInquilino, inq.apellido AS apellidoInquilino, " +
+           "prop.nombre AS nombrePropietario, prop.apellido AS apellidoPropietario, " +
+           "a.fechaAumento AS fechaAumento, a.montoAnterior AS montoAnterior, a.montoNuevo AS montoNuevo, " +
+           "a.porcentajeAumento AS porcentajeAumento " +
+           "FROM AumentoAlquiler a " +
+           "JOIN a.contrato c " +
+           "JOIN c.inmueble i " +
+           "JOIN c.inquilino inq " +
+           "JOIN Propietario prop ON prop.id = i.propietarioId " +
+           "WHERE a.fechaAumento >= :fechaInicio AND a.fechaAumento <= :fechaFin " +
+           "ORDER BY c.id, a.fechaAumento DESC")
+    List<FilaInformeAumento> findFilasInformeAumentos(@Param("fechaInicio") LocalDate fechaInicio, @Param("fechaFin") LocalDate fechaFin);
 }
-
@@ -4,31 +4,64 @@ import com.alquileres.model.Contrato;
 import com.alquileres.model.EstadoContrato;
 import com.alquileres.model.Inmueble;
 import com.alquileres.model.Inquilino;
+import com.alquileres.repository.projection.ContratoAfectado;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @Repository
 public interface ContratoRepository extends JpaRepository<Contrato, Long> {
 
+    // Todos los contratos con inmueble, inquilino y estado cargados en la misma consulta (listados)
+    @Query("SELECT c FROM Contrato c JOIN FETCH c.inmueble JOIN FETCH c.inquilino JOIN FETCH c.estadoContrato")
+    List<Contrato> findAllConRelaciones();
+
+    // Página de contratos con filtros opcionales, ordenada por ID descendente (keyset: siguiente página con id < ultimoId)
+    // desde/hasta: contratos cuyo período se superpone con el rango
+    @Query("SELECT c FROM Contrato c JOIN FETCH c.inmueble i JOIN FETCH c.inquilino q JOIN FETCH c.estadoContrato e " +
+           "WHERE (:ultimoId IS NULL OR c.id < :ultimoId) " +
+           "AND (:estado IS NULL OR e.nombre = :estado) " +
+           "AND (:propietarioId IS NULL OR i.propietarioId = :propietarioId) " +
+           "AND (:desde IS NULL OR c.fechaFin IS NULL OR c.fechaFin >= :desde) " +
+           "AND (:hasta IS NULL OR c.fechaInicio <= :hasta) " +
+           "AND (:texto IS NULL OR LOWER(i.direccion) LIKE :texto ESCAPE '\\' " +
+           "     OR LOWER(q.nombre) LIKE :texto ESCAPE '\\' OR LOWER(q.apellido) LIKE :texto ESCAPE '\\') " +
+           "ORDER BY c.id DESC")
+    List<Contrato> buscarPagina(@Param("ultimoId") Long ultimoId,
+                                @Param("estado") String estado,
+                                @Param("propietarioId") Long propietarioId,
+                                @Param("desde") LocalDate desde,
+                                @Param("hasta") LocalDate hasta,
+                                @Param("texto") String texto,
+                                Limit limite);
+
     // Buscar contratos por inmueble
-    List<Contrato> findByInmueble(Inmueble inmueble);
+    @Query("SELECT c FROM Contrato c JOIN FETCH c.inmueble JOIN FETCH c.inquilino JOIN FETCH c.estadoContrato WHERE c.inmueble = :inmueble")
+    List<Contrato> findByInmueble(@Param("inmueble") Inmueble inmueble);
 
     // Buscar contratos por inquilino
-    List<Contrato> findByInquilino(Inquilino inquilino);
+    @Query("SELECT c FROM Contrato c JOIN FETCH c.inmueble JOIN FETCH c.inquilino JOIN FETCH c.estadoContrato WHERE c.inquilino = :inquilino")
+    List<Contrato> findByInquilino(@Param("inquilino") Inquilino inquilino);
 
     // Buscar contratos por estado
     List<Contrato> findByEstadoContrato(EstadoContrato estadoContrato);
 
     // Buscar contratos vigentes (por ejemplo, estado 'Vigente')
-    @Query("SELECT c FROM Contrato c WHERE c.estadoContrato.nombre = 'Vigente'")
+    @Query("SELECT c FROM Contrato c JOIN FETCH c.inmueble JOIN FETCH c.inquilino JOIN FETCH c.estadoContrato e WHERE e.nombre = 'Vigente'")
     List<Contrato> findContratosVigentes();
 
+    // IDs de contratos vigentes ordenados (procesamiento por lotes con checkpoint)
+    @Query("SELECT c.id FROM Contrato c WHERE c.estadoContrato.nombre = 'Vigente' ORDER BY c.id")
+    List<Long> findIdsContratosVigentes();
+
     // Buscar contratos no vigentes (estados 'No Vigente' y 'Cancelado')
-    @Query("SELECT c FROM Contrato c WHERE c.estadoContrato.nombre IN ('No Vigente', 'Cancelado')")
+    @Query("SELECT c FROM Contrato c JOIN FETCH c.inmueble JOIN FETCH c.inquilino JOIN FETCH c.estadoContrato e WHERE e.nombre IN ('No Vigente', 'Cancelado')")
     List<Contrato> findContratosNoVigentes();
 
     // Contar contratos vigentes
@@ -36,27 +69,27 @@ public interface ContratoRepository extends JpaRepository<Contrato, Long> {
     Long countContratosVigentes();
 
     // Buscar contratos que vencen en una fecha específica
-    List<Contrato> findByFechaFin(String fechaFin);
+    List<Contrato> findByFechaFin(LocalDate fechaFin);
 
-    // Buscar contratos que vencen antes de una fecha (comparación de strings)
+    // Buscar contratos que vencen antes de una fecha
     @Query("SELECT c FROM Contrato c WHERE c.fechaFin < :fecha")
-    List<Contrato> findByFechaFinBefore(@Param("fecha") String fecha);
+    List<Contrato> findByFechaFinBefore(@Param("fecha") LocalDate fecha);
 
-    // Buscar contratos vigentes que vencen antes de una fecha (comparación de strings)
-    @Query("SELECT c FROM Contrato c WHERE c.fechaFin >= :fechaActual AND c.fechaFin <= :fechaLimite AND c.estadoContrato.nombre = 'Vigente'")
-    List<Contrato> findContratosVigentesProximosAVencer(@Param("fechaActual") String fechaActual, @Param("fechaLimite") String fechaLimite);
+    // Buscar contratos vigentes que vencen antes de una fecha
+    @Query("SELECT c FROM Contrato c JOIN FETCH c.inmueble JOIN FETCH c.inquilino JOIN FETCH c.estadoContrato e WHERE c.fechaFin >= :fechaActual AND c.fechaFin <= :fechaLimite AND e.nombre = 'Vigente'")
+    List<Contrato> findContratosVigentesProximosAVencer(@Param("fechaActual") LocalDate fechaActual, @Param("fechaLimite") LocalDate fechaLimite);
 
     // Contar contratos vigentes próximos a vencer
     @Query("SELECT COUNT(c) FROM Contrato c WHERE c.fechaFin >= :fechaActual AND c.fechaFin <= :fechaLimite AND c.estadoContrato.nombre = 'Vigente'")
-    Long countContratosVigentesProximosAVencer(@Param("fechaActual") String fechaActual, @Param("fechaLimite") String fechaLimite);
+    Long countContratosVigentesProximosAVencer(@Param("fechaActual") LocalDate fechaActual, @Param("fechaLimite") LocalDate fechaLimite);
 
-    // Buscar contratos que vencen después de una fecha (comparación de strings)
+    // Buscar contratos que vencen después de una fecha
     @Query("SELECT c FROM Contrato c WHERE c.fechaFin > :fecha")
-    List<Contrato> findByFechaFinAfter(@Param("fecha") String fecha);
+    List<Contrato> findByFechaFinAfter(@Param("fecha") LocalDate fecha);
 
-    // Buscar contratos por rango de fechas (comparación de strings)
+    // Buscar contratos por rango de fechas
     @Query("SELECT c FROM Contrato c WHERE c.fechaInicio >= :fechaInicio AND c.fechaInicio <= :fechaFin")
-    List<Contrato> findByFechaInicioBetween(@Param("fechaInicio") String fechaInicio, @Param("fechaFin") String fechaFin);
+    List<Contrato> findByFechaInicioBetween(@Param("fechaInicio") LocalDate fechaInicio, @Param("fechaFin") LocalDate fechaFin);
 
     // Verificar si existe un contrato vigente para un inmueble específico
     @Query("SELECT COUNT(c) > 0 FROM Contrato c WHERE c.inmueble = :inmueble AND c.estadoContrato.nombre = 'Vigente'")
@@ -77,9 +110,31 @@ public interface ContratoRepository extends JpaRepository<Contrato, Long> {
     // Buscar contratos por inmueble y estado
     List<Contrato> findByInmuebleAndEstadoContrato(Inmueble inmueble, EstadoContrato estadoContrato);
 
-    // Buscar contratos vigentes que ya vencieron (fechaFin < fecha actual)
-    @Query("SELECT c FROM Contrato c WHERE c.estadoContrato.nombre = 'Vigente' AND c.fechaFin < :fechaActual")
-    List<Contrato> findContratosVigentesVencidos(@Param("fechaActual") String fechaActual);
+    // Contratos vigentes que ya vencieron (fechaFin < fecha actual), con su inmueble e inquilino
+    @Query("SELECT c.id AS contratoId, c.inmueble.id AS inmuebleId, c.inquilino.id AS inquilinoId " +
+           "FROM Contrato c WHERE c.estadoContrato.nombre = 'Vigente' AND c.fechaFin < :fechaActual")
+    List<ContratoAfectado> findAfectadosVigentesVencidos(@Param("fechaActual") LocalDate fechaActual);
+
+    // Igual que findAfectadosVigentesVencidos, limitado a un lote de contratos
+    @Query("SELECT c.id AS contratoId, c.inmueble.id AS inmuebleId, c.inquilino.id AS inquilinoId " +
+           "FROM Contrato c WHERE c.estadoContrato.nombre = 'Vigente' AND c.fechaFin < :fechaActual " +
+           "AND c.id IN :contratoIds")
+    List<ContratoAfectado> findAfectadosVigentesVencidosByIds(@Param("fechaActual") LocalDate fechaActual,
+                                                              @Param("contratoIds") List<Long> contratoIds);
+
+    // Inmueble e inquilino de los contratos indicados
+    @Query("SELECT c.id AS contratoId, c.inmueble.id AS inmuebleId, c.inquilino.id AS inquilinoId " +
+           "FROM Contrato c WHERE c.id IN :contratoIds")
+    List<ContratoAfectado> findAfectadosByIds(@Param("contratoIds") List<Long> contratoIds);
+
+    // Cambiar el estado de varios contratos en una sola sentencia
+    @Modifying
+    @Query("UPDATE Contrato c SET c.estadoContrato = :estado WHERE c.id IN :contratoIds")
+    int actualizarEstado(@Param("estado") EstadoContrato estado, @Param("contratoIds") List<Long> contratoIds);
+
+    // IDs de contratos vigentes que ya vencieron, ordenados (procesamiento por lotes con checkpoint)
+    @Query("SELECT c.id FROM Contrato c WHERE c.estadoContrato.nombre = 'Vigente' AND c.fechaFin < :fechaActual ORDER BY c.id")
+    List<Long> findIdsContratosVigentesVencidos(@Param("fechaActual") LocalDate fechaActual);
 
     // Buscar contratos vigentes cuya fecha de aumento es menor o igual a la fecha actual
     @Query("SELECT c FROM Contrato c WHERE c.estadoContrato.nombre = 'Vigente' AND c.fechaAumento IS NOT NULL AND c.fechaAumento != 'Sin Aumento' AND c.fechaAumento <= :fechaActual")
@@ -0,0 +1,39 @@
+package com.alquileres.repository;
+
+import com.alquileres.model.EjecucionTarea;
+import com.alquileres.model.EstadoTarea;
+import com.alquileres.model.TipoTarea;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface EjecucionTareaRepository extends JpaRepository<EjecucionTarea, Long> {
+
+    // Ejecución de un proceso para un período (única por tipo y período)
+    Optional<EjecucionTarea> findByTipoAndPeriodo(TipoTarea tipo, String periodo);
+
+    // Reserva una ejecución no completada para la instancia que la va a correr: otra instancia no puede
+    // tomarla hasta que venza la reserva, y una ejecución fallida no se toma hasta que pase la espera
+    @Modifying
+    @Query("UPDATE EjecucionTarea e SET e.estado = :enProceso, e.proximoIntento = :reservaHasta, e.mensajeError = NULL " +
+           "WHERE e.id = :id AND e.estado <> :completada " +
+           "AND (e.proximoIntento IS NULL OR e.proximoIntento <= :ahora)")
+    int reservar(@Param("id") Long id,
+                 @Param("enProceso") EstadoTarea enProceso,
+                 @Param("completada") EstadoTarea completada,
+                 @Param("ahora") LocalDateTime ahora,
+                 @Param("reservaHasta") LocalDateTime reservaHasta);
+
+    // Últimas ejecuciones registradas (más recientes primero)
+    List<EjecucionTarea> findTop20ByOrderByIdDesc();
+
+    // Última ejecución de un tipo de proceso
+    Optional<EjecucionTarea> findTopByTipoOrderByIdDesc(TipoTarea tipo);
+}
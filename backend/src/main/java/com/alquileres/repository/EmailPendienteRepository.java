@@ -0,0 +1,35 @@
+package com.alquileres.repository;
+
+import com.alquileres.model.EmailPendiente;
+import com.alquileres.model.EstadoEmail;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface EmailPendienteRepository extends JpaRepository<EmailPendiente, Long> {
+
+    // Emails listos para enviar, bloqueados para la transacción que los reserva.
+    // lock.timeout = -2 es SKIP LOCKED: si hay varias instancias, cada una toma emails distintos
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM EmailPendiente e WHERE e.estado = :estado AND e.proximoIntento <= :ahora " +
+           "ORDER BY e.proximoIntento, e.id")
+    List<EmailPendiente> findListosParaEnviar(@Param("estado") EstadoEmail estado,
+                                              @Param("ahora") LocalDateTime ahora,
+                                              Limit limite);
+
+    @Modifying
+    @Query("DELETE FROM EmailPendiente e WHERE e.estado = :estado AND e.enviadoAt < :limite")
+    int deleteEnviadosAntesDe(@Param("estado") EstadoEmail estado, @Param("limite") LocalDateTime limite);
+}
@@ -0,0 +1,18 @@
+package com.alquileres.repository;
+
+import com.alquileres.model.IndiceICL;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface IndiceICLRepository extends JpaRepository<IndiceICL, Long> {
+
+    // Todos los índices ordenados por fecha (para cargar el mapa en memoria)
+    List<IndiceICL> findAllByOrderByFechaAsc();
+
+    // Índices de un rango de fechas (para recargar los que guardó otra instancia)
+    List<IndiceICL> findByFechaBetweenOrderByFechaAsc(LocalDate desde, LocalDate hasta);
+}
@@ -1,6 +1,8 @@
 package com.alquileres.repository;
 
 import com.alquileres.model.Inmueble;
+import com.alquileres.repository.projection.CoincidenciaBusqueda;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -34,6 +36,36 @@ public interface InmuebleRepository extends JpaRepository<Inmueble, Long> {
            "WHERE e.nombre = 'Inactivo'")
     List<Inmueble> findInmueblesConEstadoInactivo();
 
+    // Página de inmuebles con filtros opcionales, ordenada por ID descendente (keyset: siguiente página con id < ultimoId)
+    @Query("SELECT i FROM Inmueble i " +
+           "WHERE (:ultimoId IS NULL OR i.id < :ultimoId) " +
+           "AND (:esActivo IS NULL OR i.esActivo = :esActivo) " +
+           "AND (:esAlquilado IS NULL OR i.esAlquilado = :esAlquilado) " +
+           "AND (:estado IS NULL OR i.estado = :estado) " +
+           "AND (:propietarioId IS NULL OR i.propietarioId = :propietarioId) " +
+           "AND (:texto IS NULL OR LOWER(i.direccion) LIKE :texto ESCAPE '\\') " +
+           "ORDER BY i.id DESC")
+    List<Inmueble> buscarPagina(@Param("ultimoId") Long ultimoId,
+                                @Param("esActivo") Boolean esActivo,
+                                @Param("esAlquilado") Boolean esAlquilado,
+                                @Param("estado") Integer estado,
+                                @Param("propietarioId") Long propietarioId,
+                                @Param("texto") String texto,
+                                Limit limite);
+
+    // Texto de búsqueda de cada inmueble, sin acentos y en minúsculas; tiene un índice GIN de trigramas (ver IndicesBusqueda)
+    String TEXTO_BUSQUEDA = "f_unaccent(lower(coalesce(direccion, '')))";
+
+    // Inmuebles activos más parecidos al texto (pg_trgm): tolera errores de tipeo y acentos, ordenados por similitud
+    @Query(value = "SELECT id AS id, direccion AS titulo, CAST(NULL AS varchar) AS detalle, " +
+                   "word_similarity(f_unaccent(lower(:texto)), " + TEXTO_BUSQUEDA + ") AS puntaje " +
+                   "FROM inmuebles " +
+                   "WHERE es_activo = true AND f_unaccent(lower(:texto)) <% " + TEXTO_BUSQUEDA + " " +
+                   "ORDER BY puntaje DESC, id DESC " +
+                   "LIMIT :limite",
+           nativeQuery = true)
+    List<CoincidenciaBusqueda> buscarPorSimilitud(@Param("texto") String texto, @Param("limite") int limite);
+
     // Buscar inmuebles alquilados y activos
     List<Inmueble> findByEsAlquiladoTrueAndEsActivoTrue();
 
@@ -58,4 +90,14 @@ public interface InmuebleRepository extends JpaRepository<Inmueble, Long> {
     @Modifying
     @Query("UPDATE Inmueble i SET i.esActivo = true WHERE i.propietarioId = :propietarioId")
     void activarInmueblesPorPropietario(@Param("propietarioId") Long propietarioId);
+
+    // Marcar como disponibles los inmuebles de los contratos indicados que no tengan otro contrato vigente
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Inmueble i SET i.estado = :estadoDisponible, i.esAlquilado = false, i.updatedAt = :updatedAt " +
+           "WHERE i.id IN (SELECT c.inmueble.id FROM Contrato c WHERE c.id IN :contratoIds) " +
+           "AND NOT EXISTS (SELECT 1 FROM Contrato v JOIN v.estadoContrato e " +
+           "  WHERE v.inmueble.id = i.id AND e.nombre = 'Vigente')")
+    int liberarInmueblesDeContratos(@Param("estadoDisponible") Integer estadoDisponible,
+                                    @Param("updatedAt") String updatedAt,
+                                    @Param("contratoIds") List<Long> contratoIds);
 }
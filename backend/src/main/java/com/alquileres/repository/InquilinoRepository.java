@@ -1,7 +1,12 @@
 package com.alquileres.repository;
 
 import com.alquileres.model.Inquilino;
+import com.alquileres.repository.projection.CoincidenciaBusqueda;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -28,6 +33,33 @@ public interface InquilinoRepository extends JpaRepository<Inquilino, Long> {
     // Buscar inquilinos que no están alquilando
     List<Inquilino> findByEstaAlquilandoFalse();
 
+    // Página de inquilinos con filtros opcionales, ordenada por ID descendente (keyset: siguiente página con id < ultimoId)
+    @Query("SELECT q FROM Inquilino q " +
+           "WHERE (:ultimoId IS NULL OR q.id < :ultimoId) " +
+           "AND (:esActivo IS NULL OR q.esActivo = :esActivo) " +
+           "AND (:estaAlquilando IS NULL OR q.estaAlquilando = :estaAlquilando) " +
+           "AND (:texto IS NULL OR LOWER(q.nombre) LIKE :texto ESCAPE '\\' OR LOWER(q.apellido) LIKE :texto ESCAPE '\\' " +
+           "     OR LOWER(q.cuil) LIKE :texto ESCAPE '\\') " +
+           "ORDER BY q.id DESC")
+    List<Inquilino> buscarPagina(@Param("ultimoId") Long ultimoId,
+                                 @Param("esActivo") Boolean esActivo,
+                                 @Param("estaAlquilando") Boolean estaAlquilando,
+                                 @Param("texto") String texto,
+                                 Limit limite);
+
+    // Texto de búsqueda de cada inquilino, sin acentos y en minúsculas; tiene un índice GIN de trigramas (ver IndicesBusqueda)
+    String TEXTO_BUSQUEDA = "f_unaccent(lower(coalesce(nombre, '') || ' ' || coalesce(apellido, '') || ' ' || coalesce(cuil, '')))";
+
+    // Inquilinos activos más parecidos al texto (pg_trgm): tolera errores de tipeo y acentos, ordenados por similitud
+    @Query(value = "SELECT id AS id, nombre || ' ' || apellido AS titulo, cuil AS detalle, " +
+                   "word_similarity(f_unaccent(lower(:texto)), " + TEXTO_BUSQUEDA + ") AS puntaje " +
+                   "FROM inquilinos " +
+                   "WHERE es_activo = true AND f_unaccent(lower(:texto)) <% " + TEXTO_BUSQUEDA + " " +
+                   "ORDER BY puntaje DESC, id DESC " +
+                   "LIMIT :limite",
+           nativeQuery = true)
+    List<CoincidenciaBusqueda> buscarPorSimilitud(@Param("texto") String texto, @Param("limite") int limite);
+
     // Buscar por nombre (contiene e ignora mayúsculas/minúsculas)
     List<Inquilino> findByNombreContainingIgnoreCase(String nombre);
 
@@ -45,4 +77,13 @@ public interface InquilinoRepository extends JpaRepository<Inquilino, Long> {
 
     // Verificar si existe CUIL excluyendo un ID específico (para actualizaciones)
     boolean existsByCuilAndIdNot(String cuil, Long id);
+
+    // Marcar como no alquilando a los inquilinos de los contratos indicados que no tengan otro contrato vigente
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Inquilino i SET i.estaAlquilando = false, i.updatedAt = :updatedAt " +
+           "WHERE i.id IN (SELECT c.inquilino.id FROM Contrato c WHERE c.id IN :contratoIds) " +
+           "AND NOT EXISTS (SELECT 1 FROM Contrato v JOIN v.estadoContrato e " +
+           "  WHERE v.inquilino.id = i.id AND e.nombre = 'Vigente')")
+    int liberarInquilinosDeContratos(@Param("updatedAt") String updatedAt,
+                                     @Param("contratoIds") List<Long> contratoIds);
 }
@@ -6,5 +6,7 @@ import org.springframework.stereotype.Repository;
 
 @Repository
 public interface PDFRepository extends JpaRepository<PDF, Long> {
-}
 
+    // Cantidad de PDFs que comparten el mismo contenido en el almacén
+    long countBySha256(String sha256);
+}
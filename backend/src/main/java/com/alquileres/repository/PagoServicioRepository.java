@@ -1,11 +1,15 @@
 package com.alquileres.repository;
 
 import com.alquileres.model.PagoServicio;
+import com.alquileres.repository.projection.FilaInformePagoServicio;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 
 @Repository
@@ -19,13 +23,46 @@ public interface PagoServicioRepository extends JpaRepository<PagoServicio, Inte
     @Query("SELECT COUNT(p) > 0 FROM PagoServicio p WHERE p.servicioContrato.id = :servicioContratoId AND p.periodo = :periodo")
     boolean existsByServicioContratoIdAndPeriodo(@Param("servicioContratoId") Integer servicioContratoId, @Param("periodo") String periodo);
 
-    // Buscar pagos no pagados por contrato y tipo de servicio
-    @Query("SELECT p FROM PagoServicio p WHERE p.servicioContrato.contrato.id = :contratoId " +
-           "AND p.servicioContrato.tipoServicio.id = :tipoServicioId " +
-           "AND p.estaPagado = false")
-    List<PagoServicio> findPagosNoPagadosByContratoAndTipoServicio(
+    // Factura sin pagar del período del próximo pago para cada servicio pendiente que todavía no la tiene.
+    // El id sale directo de la secuencia: cada nextval reserva un bloque propio de 50, así no se pisa
+    // con los bloques que Hibernate toma para los INSERT de la aplicación
+    String SQL_INSERTAR_FACTURAS_PENDIENTES =
+        "INSERT INTO pago_servicio (id, servicio_contrato_id, periodo, esta_pagado, esta_vencido, created_at, updated_at) " +
+        "SELECT nextval('pago_servicio_seq'), sc.id, to_char(sc.proximo_pago, 'MM/YYYY'), false, false, :ahora, :ahora " +
+        ServicioContratoRepository.SQL_SERVICIOS_CON_PAGO_PENDIENTE +
+        "AND NOT EXISTS (SELECT 1 FROM pago_servicio p " +
+        "  WHERE p.servicio_contrato_id = sc.id AND p.periodo = to_char(sc.proximo_pago, 'MM/YYYY')) ";
+
+    // Generar en una sola sentencia las facturas de todos los servicios con pago pendiente
+    @Modifying
+    @Query(value = SQL_INSERTAR_FACTURAS_PENDIENTES, nativeQuery = true)
+    int insertarFacturasPendientes(@Param("fechaActual") LocalDate fechaActual, @Param("ahora") String ahora);
+
+    // Igual que insertarFacturasPendientes, limitado a un lote de contratos
+    @Modifying
+    @Query(value = SQL_INSERTAR_FACTURAS_PENDIENTES + "AND c.id IN (:contratoIds)", nativeQuery = true)
+    int insertarFacturasPendientesByContratoIds(@Param("fechaActual") LocalDate fechaActual,
+                                                @Param("ahora") String ahora,
+                                                @Param("contratoIds") List<Long> contratoIds);
+
+    // Igual que insertarFacturasPendientes, limitado a un servicio
+    @Modifying(flushAutomatically = true)
+    @Query(value = SQL_INSERTAR_FACTURAS_PENDIENTES + "AND sc.id = :servicioId", nativeQuery = true)
+    int insertarFacturasPendientesByServicioId(@Param("fechaActual") LocalDate fechaActual,
+                                               @Param("ahora") String ahora,
+                                               @Param("servicioId") Integer servicioId);
+
+    // Actualizar el monto de todos los pagos no pagados de un contrato y tipo de servicio en una sola sentencia
+    @Modifying
+    @Query("UPDATE PagoServicio p SET p.monto = :monto, p.updatedAt = :updatedAt " +
+           "WHERE p.estaPagado = false AND p.servicioContrato.id IN (" +
+           "SELECT sc.id FROM ServicioContrato sc " +
+           "WHERE sc.contrato.id = :contratoId AND sc.tipoServicio.id = :tipoServicioId)")
+    int actualizarMontoPagosNoPagados(
         @Param("contratoId") Long contratoId,
-        @Param("tipoServicioId") Integer tipoServicioId
+        @Param("tipoServicioId") Integer tipoServicioId,
+        @Param("monto") BigDecimal monto,
+        @Param("updatedAt") String updatedAt
     );
 
     // Buscar todos los pagos no pagados por contrato
@@ -81,21 +118,28 @@ public interface PagoServicioRepository extends JpaRepository<PagoServicio, Inte
            "GROUP BY sc.contrato.id")
     List<Object[]> countPagosNoPagadosPorContratoYPeriodo(@Param("periodo") String periodo);
 
-    // Para Informe 4: Obtener pagos de servicios del mes actual con todos los detalles
-    @Query("SELECT p.id, p.fechaPago, p.monto, p.periodo, ts.nombre, p.estaPagado, " +
-           "c.id, i.direccion, i.propietarioId, inq.nombre, inq.apellido, " +
-           "a.id, a.monto, a.fechaVencimientoPago, a.estaPagado " +
+    // Para Informe 4: Pagos de servicios del período con los datos del contrato, sus partes y el alquiler del mes
+    @Query("SELECT p.id AS pagoServicioId, p.fechaPago AS fechaPago, p.monto AS monto, p.periodo AS periodoServicio, " +
+           "ts.nombre AS tipoServicio, p.estaPagado AS estaPagado, " +
+           "c.id AS contratoId, i.direccion AS direccionInmueble, " +
+           "prop.nombre AS nombrePropietario, prop.apellido AS apellidoPropietario, " +
+           "inq.nombre AS nombreInquilino, inq.apellido AS apellidoInquilino, " +
+           "a.id AS alquilerId, a.monto AS montoAlquiler, a.fechaVencimientoPago AS fechaVencimientoAlquiler, " +
+           "a.estaPagado AS alquilerPagado " +
            "FROM PagoServicio p " +
            "JOIN p.servicioContrato sc " +
            "JOIN sc.tipoServicio ts " +
            "JOIN sc.contrato c " +
            "JOIN c.inmueble i " +
            "JOIN c.inquilino inq " +
+           "LEFT JOIN Propietario prop ON prop.id = i.propietarioId " +
            "LEFT JOIN Alquiler a ON a.contrato.id = c.id AND a.esActivo = true " +
-           "AND SUBSTRING(a.fechaVencimientoPago, 4, 7) = :periodo " +
+           "AND a.fechaVencimientoPago >= :desde AND a.fechaVencimientoPago < :hasta " +
            "WHERE p.periodo = :periodo " +
            "ORDER BY c.id, p.id")
-    List<Object[]> findPagosServiciosDelMesActualConDetalle(@Param("periodo") String periodo);
+    List<FilaInformePagoServicio> findFilasInformePagosServicios(@Param("periodo") String periodo,
+                                                                 @Param("desde") LocalDate desde,
+                                                                 @Param("hasta") LocalDate hasta);
 
     // Buscar todos los pagos de un período específico para un contrato (para generar recibos)
     @Query("SELECT p FROM PagoServicio p WHERE p.periodo = :periodo AND p.servicioContrato.contrato.id = :contratoId")
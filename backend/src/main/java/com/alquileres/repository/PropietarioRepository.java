@@ -1,6 +1,8 @@
 package com.alquileres.repository;
 
 import com.alquileres.model.Propietario;
+import com.alquileres.repository.projection.CoincidenciaBusqueda;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -21,6 +23,32 @@ public interface PropietarioRepository extends JpaRepository<Propietario, Long>
     // Contar propietarios activos
     Long countByEsActivoTrue();
 
+    // Página de propietarios con filtros opcionales, ordenada por ID descendente (keyset: siguiente página con id < ultimoId)
+    @Query("SELECT p FROM Propietario p " +
+           "WHERE (:ultimoId IS NULL OR p.id < :ultimoId) " +
+           "AND (:esActivo IS NULL OR p.esActivo = :esActivo) " +
+           "AND (:texto IS NULL OR LOWER(p.nombre) LIKE :texto ESCAPE '\\' OR LOWER(p.apellido) LIKE :texto ESCAPE '\\' " +
+           "     OR LOWER(p.cuil) LIKE :texto ESCAPE '\\' OR LOWER(p.email) LIKE :texto ESCAPE '\\') " +
+           "ORDER BY p.id DESC")
+    List<Propietario> buscarPagina(@Param("ultimoId") Long ultimoId,
+                                   @Param("esActivo") Boolean esActivo,
+                                   @Param("texto") String texto,
+                                   Limit limite);
+
+    // Texto de búsqueda de cada propietario, sin acentos y en minúsculas; tiene un índice GIN de trigramas (ver IndicesBusqueda)
+    String TEXTO_BUSQUEDA = "f_unaccent(lower(coalesce(nombre, '') || ' ' || coalesce(apellido, '') || ' ' || coalesce(cuil, '') " +
+        "|| ' ' || coalesce(email, '')))";
+
+    // Propietarios activos más parecidos al texto (pg_trgm): tolera errores de tipeo y acentos, ordenados por similitud
+    @Query(value = "SELECT id AS id, nombre || ' ' || apellido AS titulo, cuil AS detalle, " +
+                   "word_similarity(f_unaccent(lower(:texto)), " + TEXTO_BUSQUEDA + ") AS puntaje " +
+                   "FROM propietarios " +
+                   "WHERE es_activo = true AND f_unaccent(lower(:texto)) <% " + TEXTO_BUSQUEDA + " " +
+                   "ORDER BY puntaje DESC, id DESC " +
+                   "LIMIT :limite",
+           nativeQuery = true)
+    List<CoincidenciaBusqueda> buscarPorSimilitud(@Param("texto") String texto, @Param("limite") int limite);
+
     // Buscar por CUIL (único)
     Optional<Propietario> findByCuil(String cuil);
 
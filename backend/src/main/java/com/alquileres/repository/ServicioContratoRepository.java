@@ -2,17 +2,37 @@ package com.alquileres.repository;
 
 import com.alquileres.model.ServicioContrato;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ServicioContratoRepository extends JpaRepository<ServicioContrato, Integer> {
 
+    /**
+     * Servicios activos de contratos vigentes cuyo próximo pago ya venció (SQL nativo, alias sc, c y e).
+     * Lo comparten la generación de facturas y el avance de fechas para que ambos tomen el mismo conjunto
+     */
+    String SQL_SERVICIOS_CON_PAGO_PENDIENTE =
+        "FROM servicio_contrato sc " +
+        "JOIN contratos c ON c.id = sc.contrato_id " +
+        "JOIN estado_contrato e ON e.id = c.estado " +
+        "WHERE sc.proximo_pago <= :fechaActual AND sc.es_activo = true AND e.nombre = 'Vigente' ";
+
+    String SQL_AVANZAR_FECHAS_SERVICIOS =
+        "UPDATE servicio_contrato SET " +
+        "ultimo_pago_generado = CAST(date_trunc('month', proximo_pago) AS date), " +
+        "proximo_pago = CASE WHEN es_anual THEN CAST(date_trunc('month', proximo_pago) + INTERVAL '1 year' AS date) " +
+        "ELSE :proximoPagoMensual END, " +
+        "updated_at = :updatedAt " +
+        "WHERE id IN (SELECT sc.id " + SQL_SERVICIOS_CON_PAGO_PENDIENTE;
+
     /**
      * Busca todos los servicios de un contrato específico
      */
@@ -30,6 +50,47 @@ public interface ServicioContratoRepository extends JpaRepository<ServicioContra
     @Query("SELECT sc FROM ServicioContrato sc JOIN sc.contrato c JOIN c.estadoContrato e WHERE sc.proximoPago <= :fechaActual AND sc.esActivo = true AND e.nombre = 'Vigente'")
     List<ServicioContrato> findServiciosConPagosPendientes(@Param("fechaActual") LocalDate fechaActual);
 
+    /**
+     * IDs de los contratos que tienen servicios con pagos pendientes, ordenados
+     * (procesamiento por lotes con checkpoint)
+     */
+    @Query("SELECT DISTINCT c.id FROM ServicioContrato sc JOIN sc.contrato c JOIN c.estadoContrato e WHERE sc.proximoPago <= :fechaActual AND sc.esActivo = true AND e.nombre = 'Vigente' ORDER BY c.id")
+    List<Long> findIdsContratosConPagosPendientes(@Param("fechaActual") LocalDate fechaActual);
+
+    /**
+     * Avanza en una sola sentencia las fechas de todos los servicios con pago pendiente:
+     * el último pago generado pasa a ser el mes del próximo pago, y el próximo pago se corre
+     * un año (servicios anuales) o a la fecha indicada (servicios mensuales)
+     *
+     * @return Cantidad de servicios actualizados
+     */
+    @Modifying
+    @Query(value = SQL_AVANZAR_FECHAS_SERVICIOS + ")", nativeQuery = true)
+    int avanzarFechasServiciosConPagoPendiente(@Param("fechaActual") LocalDate fechaActual,
+                                               @Param("proximoPagoMensual") LocalDate proximoPagoMensual,
+                                               @Param("updatedAt") LocalDateTime updatedAt);
+
+    /**
+     * Igual que avanzarFechasServiciosConPagoPendiente, limitado a un lote de contratos
+     */
+    @Modifying
+    @Query(value = SQL_AVANZAR_FECHAS_SERVICIOS + "AND c.id IN (:contratoIds))", nativeQuery = true)
+    int avanzarFechasServiciosConPagoPendienteByContratoIds(@Param("fechaActual") LocalDate fechaActual,
+                                                            @Param("proximoPagoMensual") LocalDate proximoPagoMensual,
+                                                            @Param("updatedAt") LocalDateTime updatedAt,
+                                                            @Param("contratoIds") List<Long> contratoIds);
+
+    /**
+     * Igual que avanzarFechasServiciosConPagoPendiente, limitado a un servicio
+     * Vacía el contexto de persistencia para que el servicio se vuelva a leer con las fechas nuevas
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = SQL_AVANZAR_FECHAS_SERVICIOS + "AND sc.id = :servicioId)", nativeQuery = true)
+    int avanzarFechasServiciosConPagoPendienteByServicioId(@Param("fechaActual") LocalDate fechaActual,
+                                                           @Param("proximoPagoMensual") LocalDate proximoPagoMensual,
+                                                           @Param("updatedAt") LocalDateTime updatedAt,
+                                                           @Param("servicioId") Integer servicioId);
+
     /**
      * Busca un servicio específico por contrato y tipo de servicio
      */
@@ -44,5 +105,15 @@ public interface ServicioContratoRepository extends JpaRepository<ServicioContra
      * Busca todos los servicios activos
      */
     List<ServicioContrato> findByEsActivoTrue();
-}
 
+    /**
+     * Desactiva en una sola sentencia los servicios activos de los contratos indicados
+     *
+     * @return Cantidad de servicios desactivados
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE ServicioContrato sc SET sc.esActivo = false, sc.updatedAt = :updatedAt " +
+           "WHERE sc.contrato.id IN :contratoIds AND sc.esActivo = true")
+    int desactivarServiciosDeContratos(@Param("updatedAt") LocalDateTime updatedAt,
+                                       @Param("contratoIds") List<Long> contratoIds);
+}
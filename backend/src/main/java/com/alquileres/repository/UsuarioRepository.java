@@ -2,6 +2,8 @@ package com.alquileres.repository;
 
 import com.alquileres.model.Usuario;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -18,4 +20,8 @@ public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
     Boolean existsByUsername(String username);
 
     Boolean existsByEmail(String email);
+
+    // Solo la versión de credenciales, para validar los tokens sin cargar el usuario y sus roles
+    @Query("SELECT u.versionCredenciales FROM Usuario u WHERE u.username = :username")
+    Optional<Integer> findVersionCredencialesByUsername(@Param("username") String username);
 }
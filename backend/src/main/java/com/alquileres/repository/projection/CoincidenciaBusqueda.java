@@ -0,0 +1,16 @@
+package com.alquileres.repository.projection;
+
+/**
+ * Resultado de la búsqueda por similitud de texto (pg_trgm)
+ */
+public interface CoincidenciaBusqueda {
+
+    Long getId();
+
+    String getTitulo();
+
+    String getDetalle();
+
+    // word_similarity entre el texto buscado y el registro, de 0 a 1
+    Double getPuntaje();
+}
@@ -0,0 +1,13 @@
+package com.alquileres.repository.projection;
+
+/**
+ * Contrato alcanzado por un cambio de estado masivo, con los IDs que usan las claves de caché
+ */
+public interface ContratoAfectado {
+
+    Long getContratoId();
+
+    Long getInmuebleId();
+
+    Long getInquilinoId();
+}
@@ -0,0 +1,35 @@
+package com.alquileres.repository.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Fila de los informes de honorarios y de alquileres: un alquiler con los datos de su contrato,
+ * inmueble, inquilino y propietario, resuelta en una sola consulta sin cargar entidades
+ */
+public interface FilaInformeAlquiler {
+
+    Long getAlquilerId();
+
+    Long getContratoId();
+
+    Long getInmuebleId();
+
+    String getDireccionInmueble();
+
+    String getNombreInquilino();
+
+    String getApellidoInquilino();
+
+    String getNombrePropietario();
+
+    String getApellidoPropietario();
+
+    BigDecimal getMonto();
+
+    String getFechaPago();
+
+    LocalDate getFechaVencimientoPago();
+
+    Boolean getEstaPagado();
+}
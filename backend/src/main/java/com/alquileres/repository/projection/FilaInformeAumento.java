@@ -0,0 +1,32 @@
+package com.alquileres.repository.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Fila del informe de aumentos: un aumento con los datos de su contrato, inmueble, inquilino y propietario
+ */
+public interface FilaInformeAumento {
+
+    Long getAumentoId();
+
+    Long getContratoId();
+
+    String getDireccionInmueble();
+
+    String getNombreInquilino();
+
+    String getApellidoInquilino();
+
+    String getNombrePropietario();
+
+    String getApellidoPropietario();
+
+    LocalDate getFechaAumento();
+
+    BigDecimal getMontoAnterior();
+
+    BigDecimal getMontoNuevo();
+
+    BigDecimal getPorcentajeAumento();
+}
@@ -0,0 +1,43 @@
+package com.alquileres.repository.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Fila del informe de pagos de servicios: un pago con los datos de su contrato y el alquiler
+ * del mismo mes (los campos del alquiler son null si el contrato no tiene alquiler en el período)
+ */
+public interface FilaInformePagoServicio {
+
+    Integer getPagoServicioId();
+
+    String getFechaPago();
+
+    BigDecimal getMonto();
+
+    String getPeriodoServicio();
+
+    String getTipoServicio();
+
+    Boolean getEstaPagado();
+
+    Long getContratoId();
+
+    String getDireccionInmueble();
+
+    String getNombrePropietario();
+
+    String getApellidoPropietario();
+
+    String getNombreInquilino();
+
+    String getApellidoInquilino();
+
+    Long getAlquilerId();
+
+    BigDecimal getMontoAlquiler();
+
+    LocalDate getFechaVencimientoAlquiler();
+
+    Boolean getAlquilerPagado();
+}
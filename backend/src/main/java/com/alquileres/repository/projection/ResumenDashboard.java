@@ -0,0 +1,19 @@
+package com.alquileres.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Indicadores de la pantalla principal calculados en una sola consulta
+ */
+public interface ResumenDashboard {
+
+    Long getInmueblesActivos();
+
+    Long getContratosVigentes();
+
+    Long getServiciosTotales();
+
+    Long getServiciosPendientes();
+
+    BigDecimal getHonorariosDelMes();
+}
@@ -1,8 +1,10 @@
 package com.alquileres.scheduler;
 
-import com.alquileres.service.ContratoActualizacionService;
-import com.alquileres.service.ServicioActualizacionService;
-import com.alquileres.service.AlquilerActualizacionService;
+import com.alquileres.model.EjecucionTarea;
+import com.alquileres.model.TipoTarea;
+import com.alquileres.service.ICLService;
+import com.alquileres.service.PDFService;
+import com.alquileres.service.TareaAutomaticaService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,47 +20,72 @@ public class ContratoScheduler {
     private static final Logger logger = LoggerFactory.getLogger(ContratoScheduler.class);
 
     @Autowired
-    private ContratoActualizacionService contratoActualizacionService;
+    private TareaAutomaticaService tareaAutomaticaService;
 
     @Autowired
-    private ServicioActualizacionService servicioActualizacionService;
+    private ICLService iclService;
 
     @Autowired
-    private AlquilerActualizacionService alquilerActualizacionService;
+    private PDFService pdfService;
 
     /**
      * Actualiza automáticamente los contratos vencidos todos los días a las 00:01
-     * Utiliza el mismo método que se ejecuta al iniciar sesión
+     * Utiliza el mismo motor de tareas que se lanza al iniciar sesión
      */
     @Scheduled(cron = "0 1 0 * * *")
     public void actualizarContratosVencidosProgramado() {
         logger.info("Ejecutando tarea programada: actualización de contratos vencidos");
 
-        int contratosActualizados = contratoActualizacionService.actualizarContratosVencidos();
+        EjecucionTarea ejecucion = tareaAutomaticaService.ejecutarTarea(TipoTarea.ACTUALIZACION_CONTRATOS_VENCIDOS);
 
-        logger.info("Tarea programada finalizada. Contratos actualizados: {}", contratosActualizados);
+        logger.info("Tarea programada finalizada ({}). Contratos actualizados: {}",
+                   ejecucion.getEstado(), ejecucion.getElementosGenerados());
+    }
+
+    /**
+     * Descarga todos los días a las 00:02 los valores nuevos del ICL publicados por el BCRA
+     * Así la generación mensual de alquileres calcula los aumentos sin consultar la API
+     */
+    @Scheduled(cron = "0 2 0 * * *")
+    public void sincronizarICLProgramado() {
+        logger.info("Ejecutando tarea programada: sincronización del ICL con el BCRA");
+
+        int valoresNuevos = iclService.sincronizar();
+
+        logger.info("Tarea programada finalizada. Valores ICL nuevos: {}", valoresNuevos);
     }
 
     @Scheduled(cron = "0 3 0 1 * *")
     public void procesarPagosServiciosProgramado() {
         logger.info("Ejecutando tarea programada: generación de facturas de servicios (primer día del mes)");
 
-        int facturasGeneradas = servicioActualizacionService.procesarPagosPendientes();
+        EjecucionTarea ejecucion = tareaAutomaticaService.ejecutarTarea(TipoTarea.GENERACION_FACTURAS_SERVICIOS);
 
-        logger.info("Tarea programada finalizada. Facturas generadas: {}", facturasGeneradas);
+        logger.info("Tarea programada finalizada ({}). Facturas generadas: {}",
+                   ejecucion.getEstado(), ejecucion.getElementosGenerados());
     }
 
     /**
      * Genera los alquileres pendientes el primer día de cada mes a las 00:04
      * Crea nuevos objetos Alquiler para contratos vigentes que no tengan alquileres pendientes
-     * La lógica interna verifica que solo se procese una vez por mes
+     * El motor de tareas registra la ejecución del mes y la reanuda si quedó interrumpida
      */
     @Scheduled(cron = "0 4 0 1 * *")
     public void procesarAlquileresProgramado() {
         logger.info("Ejecutando tarea programada: generación de alquileres (primer día del mes)");
 
-        int alquileresGenerados = alquilerActualizacionService.procesarAlquileresPendientes();
+        EjecucionTarea ejecucion = tareaAutomaticaService.ejecutarTarea(TipoTarea.GENERACION_ALQUILERES);
+
+        logger.info("Tarea programada finalizada ({}). Alquileres generados: {}",
+                   ejecucion.getEstado(), ejecucion.getElementosGenerados());
+    }
 
-        logger.info("Tarea programada finalizada. Alquileres generados: {}", alquileresGenerados);
+    /**
+     * Borra todos los días a las 04:00 los archivos del almacén de PDFs que ya no usa ningún PDF
+     */
+    @Scheduled(cron = "0 0 4 * * *")
+    public void limpiarAlmacenPDFProgramado() {
+        int borrados = pdfService.limpiarAlmacen();
+        logger.info("Archivos sin uso eliminados del almacén de PDFs: {}", borrados);
     }
 }
@@ -0,0 +1,293 @@
+package com.alquileres.scheduler;
+
+import com.alquileres.exception.EnvioEmailException;
+import com.alquileres.model.EmailPendiente;
+import com.alquileres.service.BandejaSalidaEmailService;
+import com.alquileres.service.ResendEmailService;
+import com.alquileres.util.CortaCircuitos;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Entrega los emails de la bandeja de salida a Resend
+ *
+ * Cada pocos segundos reserva lotes de emails pendientes y los envía en hilos propios (no usa los hilos
+ * de los requests ni el taskExecutor de @Async), con un máximo de envíos simultáneos y de envíos por
+ * segundo para respetar el límite de la API.
+ *
+ * Si Resend falla seguido (caído, 429, 5xx) el corta circuitos se abre y se deja de llamar hasta que pasa
+ * la espera; después se prueba con un solo email. Los emails que quedan sin enviar mantienen la reserva
+ * y se vuelven a tomar cuando vence.
+ *
+ * Cada ejecución dura como máximo app.email.duracion-maxima-segundos, para no retener el hilo de @Scheduled
+ * (compartido con los demás jobs) mientras Resend responde lento: los envíos que no terminan a tiempo se
+ * cancelan y sus emails se retoman al vencer la reserva.
+ */
+@Component
+public class DespachadorEmails {
+
+    private static final Logger logger = LoggerFactory.getLogger(DespachadorEmails.class);
+
+    private static final int DIAS_RETENCION_ENVIADOS = 30;
+
+    private final BandejaSalidaEmailService bandejaSalidaEmailService;
+    private final ResendEmailService resendEmailService;
+    private final CortaCircuitos cortaCircuitos;
+    private final LimitadorEnvios limitador;
+    private final ExecutorService executor;
+    private final int tamanoLote;
+    private final Duration duracionMaxima;
+
+    private final Counter enviados;
+    private final Counter reintentos;
+    private final Counter descartados;
+
+    public DespachadorEmails(
+            BandejaSalidaEmailService bandejaSalidaEmailService,
+            ResendEmailService resendEmailService,
+            MeterRegistry meterRegistry,
+            @Value("${app.email.concurrencia:2}") int concurrencia,
+            @Value("${app.email.envios-por-segundo:2}") double enviosPorSegundo,
+            @Value("${app.email.tamano-lote:20}") int tamanoLote,
+            @Value("${app.email.circuito.umbral-fallos:5}") int umbralFallos,
+            @Value("${app.email.circuito.espera-segundos:60}") long esperaSegundos,
+            @Value("${app.email.duracion-maxima-segundos:30}") long duracionMaximaSegundos) {
+        this.bandejaSalidaEmailService = bandejaSalidaEmailService;
+        this.resendEmailService = resendEmailService;
+        this.cortaCircuitos = new CortaCircuitos(umbralFallos, Duration.ofSeconds(esperaSegundos));
+        this.limitador = new LimitadorEnvios(enviosPorSegundo);
+        this.tamanoLote = tamanoLote;
+        this.duracionMaxima = Duration.ofSeconds(duracionMaximaSegundos);
+
+        AtomicInteger numeroHilo = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(concurrencia, tarea -> {
+            Thread hilo = new Thread(tarea, "email-" + numeroHilo.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        });
+
+        this.enviados = Counter.builder("alquigest.email.enviados")
+                .description("Emails entregados a Resend")
+                .register(meterRegistry);
+        this.reintentos = Counter.builder("alquigest.email.reintentos")
+                .description("Envíos de email fallidos que se van a reintentar")
+                .register(meterRegistry);
+        this.descartados = Counter.builder("alquigest.email.descartados")
+                .description("Emails descartados por rechazo definitivo o por agotar los reintentos")
+                .register(meterRegistry);
+        for (CortaCircuitos.Estado estado : CortaCircuitos.Estado.values()) {
+            Gauge.builder("alquigest.email.circuito.estado", cortaCircuitos, c -> c.getEstado() == estado ? 1 : 0)
+                    .description("Estado del corta circuitos de Resend (1 en el estado actual)")
+                    .tag("estado", estado.name())
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Envía los emails pendientes, lote por lote, hasta vaciar la bandeja, abrir el circuito o agotar
+     * la duración máxima
+     *
+     * @return Cantidad de emails enviados
+     */
+    @Scheduled(fixedDelayString = "${app.email.intervalo-ms:5000}")
+    public int despachar() {
+        long limite = System.nanoTime() + duracionMaxima.toNanos();
+        int total = 0;
+        while (true) {
+            CortaCircuitos.Estado estado = cortaCircuitos.getEstado();
+            if (estado == CortaCircuitos.Estado.ABIERTO) {
+                break;
+            }
+            long restante = limite - System.nanoTime();
+            if (restante <= 0) {
+                break;
+            }
+
+            // Con el circuito a prueba se reserva un solo email, para no retener el resto
+            int cantidad = estado == CortaCircuitos.Estado.CERRADO ? tamanoLote : 1;
+            List<EmailPendiente> lote = bandejaSalidaEmailService.reservarLote(cantidad);
+            if (lote.isEmpty()) {
+                break;
+            }
+
+            ResultadoLote resultado = enviarLote(lote, restante);
+            total += resultado.enviados;
+            if (resultado.incompleto || lote.size() < cantidad) {
+                break;
+            }
+        }
+
+        if (total > 0) {
+            logger.info("📧 Emails enviados: {}", total);
+        }
+        return total;
+    }
+
+    /**
+     * Elimina todos los días a las 03:30 los emails enviados hace más de 30 días
+     */
+    @Scheduled(cron = "0 30 3 * * *")
+    public void limpiarEnviados() {
+        int eliminados = bandejaSalidaEmailService.eliminarEnviadosAntesDe(
+                LocalDateTime.now().minusDays(DIAS_RETENCION_ENVIADOS));
+        logger.info("Emails enviados eliminados de la bandeja de salida: {}", eliminados);
+    }
+
+    public CortaCircuitos.Estado getEstadoCircuito() {
+        return cortaCircuitos.getEstado();
+    }
+
+    @PreDestroy
+    public void detener() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Envía el lote esperando como máximo esperaNanos; los envíos pendientes al vencer se cancelan
+     */
+    private ResultadoLote enviarLote(List<EmailPendiente> lote, long esperaNanos) {
+        List<Callable<Boolean>> tareas = new ArrayList<>(lote.size());
+        for (EmailPendiente email : lote) {
+            tareas.add(() -> enviar(email));
+        }
+
+        List<Future<Boolean>> resultados;
+        try {
+            resultados = executor.invokeAll(tareas, esperaNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new ResultadoLote(0, true);
+        }
+
+        int total = 0;
+        int cancelados = 0;
+        for (Future<Boolean> resultado : resultados) {
+            if (resultado.isCancelled()) {
+                cancelados++;
+                continue;
+            }
+            try {
+                if (resultado.get()) {
+                    total++;
+                }
+            } catch (ExecutionException e) {
+                // Por ejemplo, la base no respondió al registrar el resultado: el email se retoma al vencer la reserva
+                logger.error("Error inesperado al enviar un email: {}", e.getCause().getMessage(), e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        if (cancelados > 0) {
+            logger.warn("📧 {} envíos cancelados por superar {} s; se retoman al vencer la reserva",
+                       cancelados, duracionMaxima.toSeconds());
+        }
+        return new ResultadoLote(total, cancelados > 0 || Thread.currentThread().isInterrupted());
+    }
+
+    private boolean enviar(EmailPendiente email) {
+        if (!cortaCircuitos.permiteIntento()) {
+            return false;
+        }
+        if (!limitador.esperarTurno()) {
+            // Envío cancelado mientras esperaba: el email conserva la reserva
+            return false;
+        }
+
+        try {
+            resendEmailService.enviar(email.getDestinatario(), email.getAsunto(), email.getHtml());
+        } catch (EnvioEmailException e) {
+            // Un rechazo definitivo muestra que Resend responde: no cuenta para el circuito
+            if (e.isReintentable()) {
+                cortaCircuitos.registrarFallo();
+            } else {
+                cortaCircuitos.registrarExito();
+            }
+            boolean descartado = bandejaSalidaEmailService.registrarFallo(
+                    email.getId(), e.getMessage(), e.isReintentable());
+            (descartado ? descartados : reintentos).increment();
+            return false;
+        }
+
+        cortaCircuitos.registrarExito();
+        bandejaSalidaEmailService.marcarEnviado(email.getId());
+        enviados.increment();
+        return true;
+    }
+
+    private static final class ResultadoLote {
+
+        private final int enviados;
+        private final boolean incompleto;
+
+        ResultadoLote(int enviados, boolean incompleto) {
+            this.enviados = enviados;
+            this.incompleto = incompleto;
+        }
+    }
+
+    /**
+     * Reparte los envíos en turnos separados por 1 / enviosPorSegundo; 0 o menos es sin límite
+     */
+    private static final class LimitadorEnvios {
+
+        private final long intervaloNanos;
+        private long proximoTurno = System.nanoTime();
+
+        LimitadorEnvios(double enviosPorSegundo) {
+            this.intervaloNanos = enviosPorSegundo > 0 ? (long) (1_000_000_000L / enviosPorSegundo) : 0;
+        }
+
+        /**
+         * @return false si el hilo se interrumpió antes de llegar al turno
+         */
+        boolean esperarTurno() {
+            if (intervaloNanos == 0) {
+                return true;
+            }
+            long turno;
+            synchronized (this) {
+                turno = Math.max(System.nanoTime(), proximoTurno);
+                proximoTurno = turno + intervaloNanos;
+            }
+            // parkNanos puede volver antes de tiempo
+            long espera;
+            while ((espera = turno - System.nanoTime()) > 0) {
+                if (Thread.currentThread().isInterrupted()) {
+                    return false;
+                }
+                LockSupport.parkNanos(espera);
+            }
+            return true;
+        }
+    }
+}
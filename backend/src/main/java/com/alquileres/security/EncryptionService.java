@@ -1,57 +1,150 @@
 package com.alquileres.security;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
 import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Servicio de encriptación AES para datos sensibles
  * Permite encriptar y desencriptar valores de manera reversible
+ *
+ * Los valores nuevos se encriptan con AES-GCM (autenticado, IV aleatorio por valor) y llevan el
+ * prefijo "v2:". Los valores anteriores, en AES/ECB sin prefijo, se siguen pudiendo desencriptar y
+ * se reencriptan al modificarse (ver reencriptarSiEsLegado).
+ *
+ * La clave se decodifica una sola vez al crear el servicio y cada hilo reutiliza sus instancias de Cipher.
  */
 @Component
 public class EncryptionService {
 
-    @Value("${encryption.key}")
-    private String encryptionKey;
+    private static final Logger logger = LoggerFactory.getLogger(EncryptionService.class);
 
     private static final String ALGORITHM = "AES";
+    private static final String TRANSFORMACION_GCM = "AES/GCM/NoPadding";
+    private static final String TRANSFORMACION_LEGADO = "AES/ECB/PKCS5Padding";
+    private static final String PREFIJO_GCM = "v2:";
+    private static final int LONGITUD_IV = 12;
+    private static final int LONGITUD_TAG_BITS = 128;
+
+    private final SecretKeySpec clave;
+    private final SecureRandom random = new SecureRandom();
+
+    // Cipher no es thread-safe: una instancia por hilo evita la búsqueda del proveedor en cada llamada
+    private final ThreadLocal<Cipher> cipherGcm = ThreadLocal.withInitial(() -> crearCipher(TRANSFORMACION_GCM));
+    private final ThreadLocal<Cipher> cipherLegado = ThreadLocal.withInitial(() -> crearCipher(TRANSFORMACION_LEGADO));
+
+    public EncryptionService(@Value("${encryption.key}") String encryptionKey) {
+        this.clave = obtenerClave(encryptionKey);
+    }
 
     /**
-     * Encripta un valor usando AES
+     * Encripta un valor usando AES-GCM
      *
      * @param valor El valor a encriptar
-     * @return El valor encriptado en Base64
+     * @return "v2:" seguido del IV y el texto cifrado (con el tag de autenticación) en Base64
      * @throws Exception Si ocurre un error durante la encriptación
      */
     public String encriptar(String valor) throws Exception {
         if (valor == null || valor.isEmpty()) {
             return null;
         }
-        SecretKeySpec key = obtenerClave();
-        Cipher cipher = Cipher.getInstance(ALGORITHM);
-        cipher.init(Cipher.ENCRYPT_MODE, key);
-        byte[] encriptado = cipher.doFinal(valor.getBytes());
-        return Base64.getEncoder().encodeToString(encriptado);
+        byte[] iv = new byte[LONGITUD_IV];
+        random.nextBytes(iv);
+
+        Cipher cipher = cipherGcm.get();
+        cipher.init(Cipher.ENCRYPT_MODE, clave, new GCMParameterSpec(LONGITUD_TAG_BITS, iv));
+        byte[] encriptado = cipher.doFinal(valor.getBytes(StandardCharsets.UTF_8));
+
+        byte[] resultado = ByteBuffer.allocate(LONGITUD_IV + encriptado.length)
+                .put(iv)
+                .put(encriptado)
+                .array();
+        return PREFIJO_GCM + Base64.getEncoder().encodeToString(resultado);
     }
 
     /**
-     * Desencripta un valor usando AES
+     * Desencripta un valor en formato AES-GCM o en el formato AES/ECB anterior
      *
-     * @param valorEncriptado El valor encriptado en Base64
+     * @param valorEncriptado El valor encriptado
      * @return El valor desencriptado
-     * @throws Exception Si ocurre un error durante la desencriptación
+     * @throws Exception Si el valor no se puede desencriptar o fue alterado (falla la autenticación GCM)
      */
     public String desencriptar(String valorEncriptado) throws Exception {
         if (valorEncriptado == null || valorEncriptado.isEmpty()) {
             return null;
         }
-        SecretKeySpec key = obtenerClave();
-        Cipher cipher = Cipher.getInstance(ALGORITHM);
-        cipher.init(Cipher.DECRYPT_MODE, key);
+        if (!esFormatoLegado(valorEncriptado)) {
+            byte[] datos = Base64.getDecoder().decode(valorEncriptado.substring(PREFIJO_GCM.length()));
+            if (datos.length <= LONGITUD_IV) {
+                throw new GeneralSecurityException("Valor encriptado demasiado corto");
+            }
+            Cipher cipher = cipherGcm.get();
+            cipher.init(Cipher.DECRYPT_MODE, clave, new GCMParameterSpec(LONGITUD_TAG_BITS, datos, 0, LONGITUD_IV));
+            byte[] desencriptado = cipher.doFinal(datos, LONGITUD_IV, datos.length - LONGITUD_IV);
+            return new String(desencriptado, StandardCharsets.UTF_8);
+        }
+
+        Cipher cipher = cipherLegado.get();
+        cipher.init(Cipher.DECRYPT_MODE, clave);
         byte[] desencriptado = cipher.doFinal(Base64.getDecoder().decode(valorEncriptado));
-        return new String(desencriptado);
+        return new String(desencriptado, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Desencripta varios valores de una vez, para los listados
+     *
+     * Los valores repetidos se desencriptan una sola vez. Los que no se pueden desencriptar se
+     * registran en el log y quedan fuera del resultado, así un valor dañado no impide el listado.
+     *
+     * @param valoresEncriptados Valores encriptados (se ignoran null y vacíos)
+     * @return Mapa de valor encriptado a valor desencriptado
+     */
+    public Map<String, String> desencriptarTodos(Collection<String> valoresEncriptados) {
+        Map<String, String> desencriptados = new HashMap<>();
+        for (String valorEncriptado : valoresEncriptados) {
+            if (valorEncriptado == null || valorEncriptado.isEmpty() || desencriptados.containsKey(valorEncriptado)) {
+                continue;
+            }
+            try {
+                desencriptados.put(valorEncriptado, desencriptar(valorEncriptado));
+            } catch (Exception e) {
+                logger.error("Error desencriptando valor en lote", e);
+            }
+        }
+        return desencriptados;
+    }
+
+    /**
+     * Indica si el valor está en el formato AES/ECB anterior a AES-GCM
+     */
+    public boolean esFormatoLegado(String valorEncriptado) {
+        return valorEncriptado != null && !valorEncriptado.isEmpty() && !valorEncriptado.startsWith(PREFIJO_GCM);
+    }
+
+    /**
+     * Migra un valor del formato anterior a AES-GCM; los valores ya migrados se devuelven sin cambios
+     *
+     * @param valorEncriptado El valor encriptado guardado
+     * @return El valor encriptado con AES-GCM
+     * @throws Exception Si el valor anterior no se puede desencriptar
+     */
+    public String reencriptarSiEsLegado(String valorEncriptado) throws Exception {
+        if (!esFormatoLegado(valorEncriptado)) {
+            return valorEncriptado;
+        }
+        return encriptar(desencriptar(valorEncriptado));
     }
 
     /**
@@ -60,10 +153,24 @@ public class EncryptionService {
      *
      * @return La clave AES como SecretKeySpec
      */
-    private SecretKeySpec obtenerClave() {
+    private static SecretKeySpec obtenerClave(String encryptionKey) {
+        if (encryptionKey == null || encryptionKey.length() % 2 != 0) {
+            throw new IllegalStateException("encryption.key debe ser una cadena hexadecimal de 32, 48 o 64 caracteres");
+        }
         // Convertir clave hexadecimal a bytes
         byte[] keyBytes = hexStringToByteArray(encryptionKey);
-        return new SecretKeySpec(keyBytes, 0, keyBytes.length, ALGORITHM);
+        if (keyBytes.length != 16 && keyBytes.length != 24 && keyBytes.length != 32) {
+            throw new IllegalStateException("encryption.key debe ser una cadena hexadecimal de 32, 48 o 64 caracteres");
+        }
+        return new SecretKeySpec(keyBytes, ALGORITHM);
+    }
+
+    private static Cipher crearCipher(String transformacion) {
+        try {
+            return Cipher.getInstance(transformacion);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Transformación de cifrado no disponible: " + transformacion, e);
+        }
     }
 
     /**
@@ -72,7 +179,7 @@ public class EncryptionService {
      * @param hexString Cadena hexadecimal
      * @return Array de bytes
      */
-    private byte[] hexStringToByteArray(String hexString) {
+    private static byte[] hexStringToByteArray(String hexString) {
         int len = hexString.length();
         byte[] data = new byte[len / 2];
         for (int i = 0; i < len; i += 2) {
@@ -82,4 +189,3 @@ public class EncryptionService {
         return data;
     }
 }
-
@@ -1,5 +1,6 @@
 package com.alquileres.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.Cookie;
@@ -16,6 +17,14 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 
+/**
+ * Autentica cada request con el JWT de la cookie (o del header Authorization)
+ *
+ * El usuario, los roles y los permisos salen de los claims firmados del token; la base solo se consulta
+ * para los tokens sin esos claims (emitidos antes de incluirlos) o cuya versión de credenciales ya no es
+ * la del usuario. En ese caso se carga el usuario como antes y se emite enseguida un token nuevo con los
+ * datos actuales, para que los requests siguientes vuelvan a resolverse solo con los claims.
+ */
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     @Value("${app.jwt.cookieName:accessToken}")
@@ -27,6 +36,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsServiceImpl userDetailsService;
 
+    @Autowired
+    private VersionesCredenciales versionesCredenciales;
+
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) {
         String path = request.getRequestURI();
@@ -40,18 +52,29 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                                   FilterChain filterChain) throws ServletException, IOException {
         try {
             String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
-
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            Claims claims = jwt != null ? jwtUtils.obtenerClaims(jwt) : null;
+            if (claims != null) {
+                String username = claims.getSubject();
+
+                UserDetails userDetails;
+                boolean cargadoDesdeBase;
+                if (jwtUtils.tieneDatosDeUsuario(claims)
+                        && versionesCredenciales.esVigente(username, jwtUtils.getVersionCredenciales(claims))) {
+                    userDetails = jwtUtils.construirUsuario(claims);
+                    cargadoDesdeBase = false;
+                } else {
+                    // Token anterior a los claims o con roles desactualizados: cargar desde la base
+                    userDetails = userDetailsService.loadUserByUsername(username);
+                    cargadoDesdeBase = true;
+                }
                 UsernamePasswordAuthenticationToken authentication =
                     new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
                 SecurityContextHolder.getContext().setAuthentication(authentication);
 
-                // Verificar si el token necesita refresh automático
-                if (jwtUtils.shouldRefreshToken(jwt)) {
+                // Refresh automático: por vencimiento próximo o porque los claims del token quedaron desactualizados
+                if (cargadoDesdeBase || jwtUtils.shouldRefreshToken(claims)) {
                     try {
                         // Generar nuevo token
                         String newToken = jwtUtils.generateJwtToken(authentication);
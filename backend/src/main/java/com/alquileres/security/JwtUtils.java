@@ -1,5 +1,7 @@
 package com.alquileres.security;
 
+import com.alquileres.model.RolNombre;
+import com.alquileres.service.PermisosService;
 import com.alquileres.service.TokenBlacklistService;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
@@ -7,29 +9,65 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.util.Date;
-
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Emisión y validación de los JWT
+ *
+ * Además del usuario, el token lleva firmados el ID, el email, los roles, los permisos (bitset, ver
+ * PermisosService.PERMISOS) y la versión de credenciales. Con eso el filtro arma la autenticación sin
+ * consultar la base; la versión se compara con la guardada (VersionesCredenciales) para que los
+ * cambios de roles se apliquen aunque el token siga vigente.
+ */
 @Component
 public class JwtUtils {
 
+    static final String CLAIM_ID = "uid";
+    static final String CLAIM_EMAIL = "email";
+    static final String CLAIM_ROLES = "roles";
+    static final String CLAIM_PERMISOS = "perm";
+    static final String CLAIM_VERSION = "ver";
+
     @Autowired
     @Lazy
     private TokenBlacklistService tokenBlacklistService;
 
+    @Autowired
+    private PermisosService permisosService;
+
     @Value("${app.jwt-secret:mySecretKey}")
     private String jwtSecret;
 
     @Value("${app.jwt-expiration-ms:86400000}")
     private int jwtExpirationMs;
 
+    // La clave y el parser no cambian: se crean en el primer uso y se reutilizan
+    private volatile JwtParser parser;
+
     public String generateJwtToken(Authentication authentication) {
         UserDetailsImpl userPrincipal = (UserDetailsImpl) authentication.getPrincipal();
 
+        List<String> roles = userPrincipal.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList();
+        long permisos = permisosService.obtenerBitsPermisos(roles.stream()
+                .map(RolNombre::valueOf)
+                .toList());
+
         return Jwts.builder()
                 .setSubject(userPrincipal.getUsername())
+                .claim(CLAIM_ID, userPrincipal.getId())
+                .claim(CLAIM_EMAIL, userPrincipal.getEmail())
+                .claim(CLAIM_ROLES, roles)
+                .claim(CLAIM_PERMISOS, permisos)
+                .claim(CLAIM_VERSION, userPrincipal.getVersionCredenciales())
                 .setIssuedAt(new Date())
                 .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
                 .signWith(getSigningKey(), SignatureAlgorithm.HS512)
@@ -37,27 +75,32 @@ public class JwtUtils {
     }
 
     public String getUserNameFromJwtToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
+        return getParser()
                 .parseClaimsJws(token)
                 .getBody()
                 .getSubject();
     }
 
     public boolean validateJwtToken(String authToken) {
+        return obtenerClaims(authToken) != null;
+    }
+
+    /**
+     * Valida el token (blacklist, firma y vencimiento) y devuelve sus claims, parseándolo una sola vez
+     *
+     * @return Los claims del token, o null si no es válido
+     */
+    public Claims obtenerClaims(String authToken) {
         // Primero verificar si el token está en la blacklist
         if (tokenBlacklistService.isTokenBlacklisted(authToken)) {
             System.err.println("JWT token is blacklisted");
-            return false;
+            return null;
         }
 
         try {
-            Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(authToken);
-            return true;
+            return getParser()
+                .parseClaimsJws(authToken)
+                .getBody();
         } catch (MalformedJwtException e) {
             System.err.println("Invalid JWT token: " + e.getMessage());
         } catch (ExpiredJwtException e) {
@@ -68,7 +111,44 @@ public class JwtUtils {
             System.err.println("JWT claims string is empty: " + e.getMessage());
         }
 
-        return false;
+        return null;
+    }
+
+    /**
+     * Indica si el token trae los datos del usuario firmados
+     * Los tokens emitidos antes de incluirlos solo traen el nombre de usuario
+     */
+    public boolean tieneDatosDeUsuario(Claims claims) {
+        return claims.get(CLAIM_VERSION) != null && claims.get(CLAIM_ROLES) != null;
+    }
+
+    public int getVersionCredenciales(Claims claims) {
+        return claims.get(CLAIM_VERSION, Integer.class);
+    }
+
+    /**
+     * Arma el usuario autenticado con los datos firmados en el token, sin consultar la base
+     */
+    public UserDetailsImpl construirUsuario(Claims claims) {
+        List<?> roles = claims.get(CLAIM_ROLES, List.class);
+        List<GrantedAuthority> authorities = roles.stream()
+                .map(rol -> (GrantedAuthority) new SimpleGrantedAuthority(rol.toString()))
+                .toList();
+
+        return new UserDetailsImpl(
+                claims.get(CLAIM_ID, Long.class),
+                claims.getSubject(),
+                claims.get(CLAIM_EMAIL, String.class),
+                null,
+                authorities,
+                getVersionCredenciales(claims));
+    }
+
+    /**
+     * Permisos firmados en el token, en el formato que devuelve la API
+     */
+    public Map<String, Boolean> obtenerPermisos(Claims claims) {
+        return permisosService.decodificarPermisos(claims.get(CLAIM_PERMISOS, Long.class));
     }
 
     /**
@@ -82,9 +162,7 @@ public class JwtUtils {
      * Obtiene la fecha de expiración de un token
      */
     public Date getExpirationDateFromToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
+        return getParser()
                 .parseClaimsJws(token)
                 .getBody()
                 .getExpiration();
@@ -95,15 +173,33 @@ public class JwtUtils {
      */
     public boolean shouldRefreshToken(String token) {
         try {
-            Date expiration = getExpirationDateFromToken(token);
-            Date now = new Date();
-            // Refresh si expira en menos de 5 minutos (300000 ms)
-            return expiration.getTime() - now.getTime() < 300000;
+            return shouldRefreshToken(getParser().parseClaimsJws(token).getBody());
         } catch (Exception e) {
             return false;
         }
     }
 
+    /**
+     * Igual que shouldRefreshToken(String), con los claims ya validados
+     */
+    public boolean shouldRefreshToken(Claims claims) {
+        Date expiration = claims.getExpiration();
+        Date now = new Date();
+        // Refresh si expira en menos de 5 minutos (300000 ms)
+        return expiration.getTime() - now.getTime() < 300000;
+    }
+
+    private JwtParser getParser() {
+        JwtParser actual = parser;
+        if (actual == null) {
+            actual = Jwts.parserBuilder()
+                    .setSigningKey(getSigningKey())
+                    .build();
+            parser = actual;
+        }
+        return actual;
+    }
+
     private SecretKey getSigningKey() {
         byte[] keyBytes = jwtSecret.getBytes();
         return Keys.hmacShaKeyFor(keyBytes);
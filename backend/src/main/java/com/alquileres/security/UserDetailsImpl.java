@@ -16,14 +16,21 @@ public class UserDetailsImpl implements UserDetails {
     private String email;
     private String password;
     private Collection<? extends GrantedAuthority> authorities;
+    private int versionCredenciales;
 
     public UserDetailsImpl(Long id, String username, String email, String password,
                           Collection<? extends GrantedAuthority> authorities) {
+        this(id, username, email, password, authorities, 0);
+    }
+
+    public UserDetailsImpl(Long id, String username, String email, String password,
+                          Collection<? extends GrantedAuthority> authorities, int versionCredenciales) {
         this.id = id;
         this.username = username;
         this.email = email;
         this.password = password;
         this.authorities = authorities;
+        this.versionCredenciales = versionCredenciales;
     }
 
     public static UserDetailsImpl build(Usuario usuario) {
@@ -36,7 +43,8 @@ public class UserDetailsImpl implements UserDetails {
                 usuario.getUsername(),
                 usuario.getEmail(),
                 usuario.getPassword(),
-                authorities);
+                authorities,
+                usuario.getVersionCredenciales() != null ? usuario.getVersionCredenciales() : 0);
     }
 
     @Override
@@ -52,6 +60,10 @@ public class UserDetailsImpl implements UserDetails {
         return email;
     }
 
+    public int getVersionCredenciales() {
+        return versionCredenciales;
+    }
+
     @Override
     public String getPassword() {
         return password;
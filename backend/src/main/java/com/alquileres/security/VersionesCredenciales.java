@@ -0,0 +1,54 @@
+package com.alquileres.security;
+
+import com.alquileres.config.CacheLocalAcotada;
+import com.alquileres.repository.UsuarioRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Valida la versión de credenciales firmada en un JWT contra la guardada en el usuario
+ *
+ * Las versiones se guardan en una caché local acotada por nombre de usuario, así el filtro no consulta
+ * la base en cada request: a lo sumo una consulta de una columna por usuario cada tiempo de vida.
+ * Si el token trae una versión distinta a la cacheada se vuelve a consultar antes de rechazarlo,
+ * para no depender de una entrada vieja. Un cambio de roles tarda como máximo el tiempo de vida en verse.
+ */
+@Component
+public class VersionesCredenciales {
+
+    private static final String NOMBRE_CACHE = "versionesCredenciales";
+
+    // Versión para usuarios que ya no existen: no coincide con ningún token
+    private static final int SIN_USUARIO = -1;
+
+    private final UsuarioRepository usuarioRepository;
+    private final CacheLocalAcotada versiones;
+
+    public VersionesCredenciales(
+            UsuarioRepository usuarioRepository,
+            @Value("${app.jwt.versiones.max-entradas:1000}") int maxEntradas,
+            @Value("${app.jwt.versiones.ttl-segundos:30}") long ttlSegundos) {
+        this.usuarioRepository = usuarioRepository;
+        this.versiones = new CacheLocalAcotada(NOMBRE_CACHE, maxEntradas, Duration.ofSeconds(ttlSegundos));
+    }
+
+    /**
+     * Indica si la versión del token sigue siendo la del usuario
+     */
+    public boolean esVigente(String username, int versionToken) {
+        Integer actual = versiones.get(username, () -> consultar(username));
+        if (actual != null && actual == versionToken) {
+            return true;
+        }
+        // La entrada cacheada puede ser anterior al token (por ejemplo, recién emitido en otra instancia)
+        actual = consultar(username);
+        versiones.put(username, actual);
+        return actual == versionToken;
+    }
+
+    private int consultar(String username) {
+        return usuarioRepository.findVersionCredencialesByUsername(username).orElse(SIN_USUARIO);
+    }
+}
@@ -0,0 +1,45 @@
+package com.alquileres.service;
+
+import com.alquileres.dto.ContenidoPDFDTO;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Almacén de contenido de los PDFs, direccionado por el SHA-256 del archivo
+ *
+ * La tabla pdfs solo guarda los metadatos y el hash; el contenido vive en el almacén.
+ * Dos archivos con el mismo contenido se guardan una sola vez.
+ */
+public interface AlmacenPDF {
+
+    /**
+     * Guarda el contenido leyéndolo como stream, sin cargarlo completo en memoria
+     *
+     * @param contenido Stream con el contenido del archivo (no se cierra)
+     * @return Hash, tamaño y recurso del archivo guardado
+     */
+    ContenidoPDFDTO guardar(InputStream contenido) throws IOException;
+
+    /**
+     * @param sha256 Hash en hexadecimal del contenido
+     * @return El contenido guardado con ese hash, si existe
+     */
+    Optional<ContenidoPDFDTO> obtener(String sha256);
+
+    /**
+     * Hashes de los archivos guardados o reutilizados por última vez antes de limite
+     */
+    List<String> listarAnterioresA(Instant limite) throws IOException;
+
+    /**
+     * Elimina el contenido con ese hash solo si no se guardó ni se reutilizó desde limite;
+     * no falla si no existe
+     *
+     * @return true si se eliminó el archivo
+     */
+    boolean eliminarSiEsAnteriorA(String sha256, Instant limite) throws IOException;
+}
@@ -0,0 +1,195 @@
+package com.alquileres.service;
+
+import com.alquileres.dto.ContenidoPDFDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.nio.file.attribute.FileTime;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Almacén de PDFs en el sistema de archivos local
+ *
+ * Cada archivo se guarda en {directorio}/{2 primeros caracteres del hash}/{hash}.pdf.
+ * La escritura va primero a un archivo temporal y se mueve al destino cuando el hash está calculado,
+ * así nunca queda visible un archivo a medio escribir. Si el destino ya existe el temporal se descarta
+ * y se actualiza la fecha de modificación del existente.
+ *
+ * La fecha de modificación indica el último guardado de ese contenido: la limpieza de archivos sin
+ * referencias (PDFService) solo borra los que no se guardaron desde hace un rato, y lo hace con el
+ * mismo cerrojo por hash que el guardado, así un archivo recién subido nunca se borra.
+ *
+ * El directorio (app.pdf.directorio) tiene que estar en un disco persistente: en un contenedor sin
+ * disco los archivos se pierden en cada deploy.
+ */
+@Service
+public class AlmacenPDFLocal implements AlmacenPDF {
+
+    private static final Logger logger = LoggerFactory.getLogger(AlmacenPDFLocal.class);
+
+    private static final Pattern PATRON_SHA256 = Pattern.compile("^[0-9a-f]{64}$");
+
+    // Cerrojos repartidos por los 2 primeros caracteres del hash (256 subdirectorios)
+    private static final int CANTIDAD_CERROJOS = 64;
+
+    private final Path directorio;
+    private final Object[] cerrojos = new Object[CANTIDAD_CERROJOS];
+
+    public AlmacenPDFLocal(@Value("${app.pdf.directorio:./data/pdfs}") String directorio) {
+        this.directorio = Paths.get(directorio).toAbsolutePath().normalize();
+        // Sin permiso de escritura fallarían todas las subidas: mejor detener el inicio
+        try {
+            Files.createDirectories(this.directorio);
+        } catch (IOException e) {
+            throw new IllegalStateException("No se pudo crear el almacén de PDFs en " + this.directorio, e);
+        }
+        if (!Files.isWritable(this.directorio)) {
+            throw new IllegalStateException("El almacén de PDFs en " + this.directorio + " no tiene permiso de escritura");
+        }
+        for (int i = 0; i < cerrojos.length; i++) {
+            cerrojos[i] = new Object();
+        }
+    }
+
+    @Override
+    public ContenidoPDFDTO guardar(InputStream contenido) throws IOException {
+        Path temporales = directorio.resolve(".tmp");
+        Files.createDirectories(temporales);
+        Path temporal = Files.createTempFile(temporales, "pdf-", ".part");
+
+        try {
+            MessageDigest digest = nuevoDigest();
+            long tamano;
+            try (OutputStream salida = new DigestOutputStream(Files.newOutputStream(temporal), digest)) {
+                tamano = contenido.transferTo(salida);
+            }
+            String sha256 = HexFormat.of().formatHex(digest.digest());
+
+            Path destino = rutaDe(sha256);
+            synchronized (cerrojoDe(sha256)) {
+                if (Files.exists(destino)) {
+                    logger.debug("PDF {} ya existe en el almacén, se reutiliza", sha256);
+                    Files.setLastModifiedTime(destino, FileTime.from(Instant.now()));
+                } else {
+                    Files.createDirectories(destino.getParent());
+                    mover(temporal, destino);
+                }
+            }
+
+            return new ContenidoPDFDTO(sha256, tamano, new FileSystemResource(destino));
+        } finally {
+            Files.deleteIfExists(temporal);
+        }
+    }
+
+    @Override
+    public Optional<ContenidoPDFDTO> obtener(String sha256) {
+        if (!esHashValido(sha256)) {
+            return Optional.empty();
+        }
+
+        Path archivo = rutaDe(sha256);
+        if (!Files.isRegularFile(archivo)) {
+            return Optional.empty();
+        }
+
+        FileSystemResource recurso = new FileSystemResource(archivo);
+        try {
+            return Optional.of(new ContenidoPDFDTO(sha256, recurso.contentLength(), recurso));
+        } catch (IOException e) {
+            logger.warn("No se pudo leer el PDF {} del almacén: {}", sha256, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public List<String> listarAnterioresA(Instant limite) throws IOException {
+        if (!Files.isDirectory(directorio)) {
+            return List.of();
+        }
+        List<String> hashes = new ArrayList<>();
+        try (Stream<Path> archivos = Files.find(directorio, 2, (ruta, atributos) -> atributos.isRegularFile()
+                && atributos.lastModifiedTime().toInstant().isBefore(limite))) {
+            archivos.map(ruta -> ruta.getFileName().toString())
+                    .filter(nombre -> nombre.endsWith(".pdf"))
+                    .map(nombre -> nombre.substring(0, nombre.length() - ".pdf".length()))
+                    .filter(this::esHashValido)
+                    .forEach(hashes::add);
+        }
+        return hashes;
+    }
+
+    @Override
+    public boolean eliminarSiEsAnteriorA(String sha256, Instant limite) throws IOException {
+        if (!esHashValido(sha256)) {
+            return false;
+        }
+        Path archivo = rutaDe(sha256);
+        synchronized (cerrojoDe(sha256)) {
+            if (!Files.isRegularFile(archivo)
+                    || !Files.getLastModifiedTime(archivo).toInstant().isBefore(limite)) {
+                return false;
+            }
+            return Files.deleteIfExists(archivo);
+        }
+    }
+
+    private Object cerrojoDe(String sha256) {
+        return cerrojos[Integer.parseInt(sha256.substring(0, 2), 16) % CANTIDAD_CERROJOS];
+    }
+
+    private Path rutaDe(String sha256) {
+        return directorio.resolve(sha256.substring(0, 2)).resolve(sha256 + ".pdf");
+    }
+
+    private boolean esHashValido(String sha256) {
+        return sha256 != null && PATRON_SHA256.matcher(sha256).matches();
+    }
+
+    /**
+     * Mueve el temporal al destino de forma atómica; si otra subida con el mismo contenido
+     * llegó primero, el archivo ya existente es idéntico y se conserva
+     */
+    private void mover(Path temporal, Path destino) throws IOException {
+        try {
+            Files.move(temporal, destino, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            try {
+                Files.move(temporal, destino);
+            } catch (FileAlreadyExistsException yaExiste) {
+                // Mismo hash, mismo contenido
+            }
+        } catch (FileAlreadyExistsException e) {
+            // Mismo hash, mismo contenido
+        }
+    }
+
+    private MessageDigest nuevoDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+}
@@ -6,7 +6,6 @@ import com.alquileres.model.ConfiguracionSistema;
 import com.alquileres.repository.AlquilerRepository;
 import com.alquileres.repository.ContratoRepository;
 import com.alquileres.repository.ConfiguracionSistemaRepository;
-import com.alquileres.util.BCRAApiClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,7 +16,9 @@ import org.springframework.transaction.annotation.Propagation;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -30,7 +31,6 @@ public class AlquilerActualizacionService {
 
     private static final Logger logger = LoggerFactory.getLogger(AlquilerActualizacionService.class);
     private static final DateTimeFormatter FORMATO_FECHA = DateTimeFormatter.ISO_LOCAL_DATE;
-    private static final DateTimeFormatter FORMATO_PERIODO = DateTimeFormatter.ofPattern("MM/yyyy");
 
     /**
      * Clave para almacenar el último mes procesado en la base de datos
@@ -40,7 +40,7 @@ public class AlquilerActualizacionService {
     private final AlquilerRepository alquilerRepository;
     private final ContratoRepository contratoRepository;
     private final ConfiguracionSistemaRepository configuracionSistemaRepository;
-    private final BCRAApiClient bcraApiClient;
+    private final ICLService iclService;
     private final AumentoAlquilerService aumentoAlquilerService;
 
     @Autowired
@@ -50,53 +50,15 @@ public class AlquilerActualizacionService {
             AlquilerRepository alquilerRepository,
             ContratoRepository contratoRepository,
             ConfiguracionSistemaRepository configuracionSistemaRepository,
-            BCRAApiClient bcraApiClient,
+            ICLService iclService,
             AumentoAlquilerService aumentoAlquilerService) {
         this.alquilerRepository = alquilerRepository;
         this.contratoRepository = contratoRepository;
         this.configuracionSistemaRepository = configuracionSistemaRepository;
-        this.bcraApiClient = bcraApiClient;
+        this.iclService = iclService;
         this.aumentoAlquilerService = aumentoAlquilerService;
     }
 
-    /**
-     * Procesa la creación de alquileres pendientes
-     * Solo procesa si el mes actual es diferente al último mes procesado
-     *
-     * @return Cantidad de alquileres creados
-     */
-    @Transactional
-    public int procesarAlquileresPendientes() {
-        try {
-            String mesActual = clockService.getCurrentDate().format(FORMATO_PERIODO);
-            String ultimoMesProcesado = obtenerUltimoMesProcesado();
-
-            logger.info("Verificando procesamiento de alquileres. Mes actual: {}, Último procesado: {}",
-                       mesActual, ultimoMesProcesado);
-
-            // Si ya procesamos este mes, no hacer nada
-            if (mesActual.equals(ultimoMesProcesado)) {
-                logger.info("Los alquileres del mes {} ya fueron procesados. No se requiere acción.", mesActual);
-                return 0;
-            }
-
-            logger.info("Iniciando procesamiento de alquileres para el mes {}", mesActual);
-
-            // Crear alquileres para todos los contratos vigentes
-            int alquileresCreados = crearAlquileresParaContratosVigentes();
-
-            // Actualizar el último mes procesado
-            actualizarUltimoMesProcesado(mesActual);
-
-            logger.info("Procesamiento de alquileres completado. Total creados: {}", alquileresCreados);
-            return alquileresCreados;
-
-        } catch (Exception e) {
-            logger.error("Error en procesamiento de alquileres: {}", e.getMessage(), e);
-            return 0;
-        }
-    }
-
     /**
      * Obtiene el último mes procesado desde la base de datos
      *
@@ -155,309 +117,192 @@ public class AlquilerActualizacionService {
     }
 
     /**
-     * Crea alquileres para todos los contratos vigentes que no tengan alquileres pendientes
-     * Optimizado para procesar en batch y reducir transacciones
+     * Obtiene los IDs de los contratos vigentes, ordenados
+     * Usado por el motor de tareas para procesar por lotes
+     *
+     * @return IDs de contratos vigentes
+     */
+    public List<Long> obtenerIdsContratosVigentes() {
+        return contratoRepository.findIdsContratosVigentes();
+    }
+
+    /**
+     * Crea los alquileres del mes para un lote de contratos
+     * No verifica el último mes procesado ni sincroniza el ICL: de eso se encarga el motor de tareas
      *
+     * @param contratoIds IDs de los contratos del lote
      * @return Cantidad de alquileres creados
      */
     @Transactional
-    public int crearAlquileresParaContratosVigentes() {
-        try {
-            logger.info("Iniciando creacion automatica de alquileres para contratos vigentes");
-
-            // Obtener todos los contratos vigentes
-            List<Contrato> contratosVigentes = contratoRepository.findContratosVigentes();
-
-            logger.info("Encontrados {} contratos vigentes para verificar alquileres", contratosVigentes.size());
+    public int crearAlquileresParaLote(List<Long> contratoIds) {
+        List<Contrato> contratos = contratoRepository.findAllById(contratoIds).stream()
+            .filter(c -> "Vigente".equals(c.getEstadoContrato().getNombre()))
+            .toList();
 
-            if (contratosVigentes.isEmpty()) {
-                logger.info("No hay contratos vigentes para procesar");
-                return 0;
-            }
+        if (contratos.isEmpty()) {
+            return 0;
+        }
+        return crearAlquileresParaContratos(contratos);
+    }
 
-            // Obtener IDs de contratos que ya tienen alquileres pendientes
-            List<Long> contratoIds = contratosVigentes.stream()
-                .map(Contrato::getId)
-                .collect(Collectors.toList());
+    /**
+     * Crea alquileres para los contratos indicados que no tengan alquileres pendientes en el mes
+     * Optimizado para procesar en batch y reducir transacciones
+     */
+    private int crearAlquileresParaContratos(List<Contrato> contratos) {
+        // Obtener IDs de contratos que ya tienen alquileres pendientes
+        List<Long> contratoIds = contratos.stream()
+            .map(Contrato::getId)
+            .collect(Collectors.toList());
+
+        // Buscar alquileres pendientes en batch
+        LocalDate fechaActual = clockService.getCurrentDate();
+        LocalDate inicioMes = fechaActual.withDayOfMonth(1);
+        List<Alquiler> alquileresPendientes = alquilerRepository.findAlquileresPendientesByContratoIdsAndVencimientoEntre(
+            contratoIds, inicioMes, inicioMes.plusMonths(1));
+
+        // Crear un Set de IDs de contratos que ya tienen alquileres
+        java.util.Set<Long> contratosConAlquileres = alquileresPendientes.stream()
+            .map(a -> a.getContrato().getId())
+            .collect(Collectors.toSet());
+
+        // Filtrar contratos que necesitan alquileres
+        List<Contrato> contratosSinAlquileres = contratos.stream()
+            .filter(c -> !contratosConAlquileres.contains(c.getId()))
+            .toList();
+
+        if (contratosSinAlquileres.isEmpty()) {
+            logger.info("Todos los contratos vigentes ya tienen alquileres pendientes");
+            return 0;
+        }
 
-            // Buscar alquileres pendientes en batch
-            LocalDate fechaActual = clockService.getCurrentDate();
-            int mesActual = fechaActual.getMonthValue();
-            int anioActual = fechaActual.getYear();
-            List<Alquiler> alquileresPendientes = alquilerRepository.findAlquileresPendientesByContratoIdsAndMesAnioActual(contratoIds, mesActual, anioActual);
-
-            // Crear un Set de IDs de contratos que ya tienen alquileres
-            java.util.Set<Long> contratosConAlquileres = alquileresPendientes.stream()
-                .map(a -> a.getContrato().getId())
-                .collect(Collectors.toSet());
-
-            // Filtrar contratos que necesitan alquileres
-            List<Contrato> contratosSinAlquileres = contratosVigentes.stream()
-                .filter(c -> !contratosConAlquileres.contains(c.getId()))
-                .toList();
-
-            if (contratosSinAlquileres.isEmpty()) {
-                logger.info("Todos los contratos vigentes ya tienen alquileres pendientes");
-                return 0;
-            }
+        logger.info("Procesando {} contratos que necesitan alquileres", contratosSinAlquileres.size());
 
-            logger.info("Procesando {} contratos que necesitan alquileres", contratosSinAlquileres.size());
+        // Calcular fecha de vencimiento una sola vez
+        LocalDate fechaVencimiento = LocalDate.of(fechaActual.getYear(), fechaActual.getMonth(), 10);
 
-            // Calcular fecha de vencimiento una sola vez
-            LocalDate fechaVencimiento = LocalDate.of(fechaActual.getYear(), fechaActual.getMonth(), 10);
-            String fechaVencimientoISO = fechaVencimiento.format(FORMATO_FECHA);
-
-            // Colección para batch insert
-            List<Alquiler> nuevosAlquileres = new java.util.ArrayList<>();
-            List<com.alquileres.model.AumentoAlquiler> nuevosAumentos = new java.util.ArrayList<>();
-
-            // Procesar cada contrato
-            for (Contrato contrato : contratosSinAlquileres) {
-                try {
-                    BigDecimal montoOriginal = contrato.getMonto();
-                    BigDecimal montoNuevo = montoOriginal;
-                    boolean aplicoAumento = false;
-
-                    // Obtener el último alquiler para determinar el monto
-                    Optional<Alquiler> ultimoAlquilerOpt =
-                        alquilerRepository.findTopByContratoOrderByFechaVencimientoPagoDesc(contrato);
-
-                    // Verificar si debe aplicar aumento
-                    if (debeAplicarAumento(contrato)) {
-                        BigDecimal montoBase = ultimoAlquilerOpt.isPresent()
-                            ? ultimoAlquilerOpt.get().getMonto()
-                            : montoOriginal;
-
-                        // Calcular nuevo monto según tipo de aumento
-                        if (Boolean.TRUE.equals(contrato.getAumentaConIcl())) {
-                            try {
-                                String fechaInicio = contrato.getFechaAumento();
-                                String fechaFin = clockService.getCurrentDate().withDayOfMonth(1).format(FORMATO_FECHA);
-
-                                BigDecimal tasaAumento = bcraApiClient.obtenerTasaAumentoICL(fechaInicio, fechaFin);
-                                montoNuevo = montoBase.multiply(tasaAumento).setScale(2, BigDecimal.ROUND_HALF_UP);
-                                aplicoAumento = true;
-
-                                // Preparar registro de aumento
-                                BigDecimal porcentajeAumento = tasaAumento.subtract(BigDecimal.ONE)
-                                    .multiply(new BigDecimal("100"))
-                                    .setScale(2, BigDecimal.ROUND_HALF_UP);
-
-                                com.alquileres.model.AumentoAlquiler aumento =
-                                aumentoAlquilerService.crearAumentoSinGuardar(
-                                    contrato, montoBase, montoNuevo, porcentajeAumento);
-                                nuevosAumentos.add(aumento);
-
-                                // ✅ ACTUALIZAR fechaAumento: sumar periodoAumento a la fechaAumento actual
-                                actualizarFechaAumentoContrato(contrato);
-
-                            } catch (Exception e) {
-                                logger.error("Error al consultar ICL para contrato ID {}: {}. Se marcara para aumento manual.",
-                                           contrato.getId(), e.getMessage());
-                                // ❌ Fallo la API - crear alquiler con monto base y marcar para aumento manual
-                                montoNuevo = montoBase;
-
-                                // Crear el alquiler pero marcado para aumento manual
-                                Alquiler alquilerConError = new Alquiler(contrato, fechaVencimientoISO, montoNuevo);
-                                alquilerConError.setNecesitaAumentoManual(true);
-                                nuevosAlquileres.add(alquilerConError);
-
-                                logger.warn("Alquiler para contrato ID {} creado con necesitaAumentoManual=true", contrato.getId());
-                                continue; // Saltar al siguiente contrato
-                            }
-                        } else {
-                            // Aumento fijo
-                            BigDecimal porcentajeAumento = contrato.getPorcentajeAumento() != null
-                                ? contrato.getPorcentajeAumento()
-                                : BigDecimal.ZERO;
-
-                            BigDecimal tasaAumento = BigDecimal.ONE.add(
-                                porcentajeAumento.divide(new BigDecimal("100"), 10, BigDecimal.ROUND_HALF_UP)
-                            );
+        // Último alquiler de cada contrato, leído de una vez: dentro del bucle no se consulta la base
+        // y los INSERT quedan todos para el final, donde Hibernate los agrupa en lotes JDBC
+        Map<Long, Alquiler> ultimoAlquilerPorContrato = new HashMap<>();
+        for (Alquiler alquiler : alquilerRepository.findUltimosAlquileresByContratoIds(
+                contratosSinAlquileres.stream().map(Contrato::getId).toList())) {
+            ultimoAlquilerPorContrato.putIfAbsent(alquiler.getContrato().getId(), alquiler);
+        }
 
+        // Colección para batch insert
+        List<Alquiler> nuevosAlquileres = new java.util.ArrayList<>();
+        List<com.alquileres.model.AumentoAlquiler> nuevosAumentos = new java.util.ArrayList<>();
+
+        // Procesar cada contrato
+        for (Contrato contrato : contratosSinAlquileres) {
+            try {
+                BigDecimal montoOriginal = contrato.getMonto();
+                BigDecimal montoNuevo = montoOriginal;
+                boolean aplicoAumento = false;
+
+                // Obtener el último alquiler para determinar el monto
+                Optional<Alquiler> ultimoAlquilerOpt =
+                    Optional.ofNullable(ultimoAlquilerPorContrato.get(contrato.getId()));
+
+                // Verificar si debe aplicar aumento
+                if (debeAplicarAumento(contrato)) {
+                    BigDecimal montoBase = ultimoAlquilerOpt.isPresent()
+                        ? ultimoAlquilerOpt.get().getMonto()
+                        : montoOriginal;
+
+                    // Calcular nuevo monto según tipo de aumento
+                    if (Boolean.TRUE.equals(contrato.getAumentaConIcl())) {
+                        try {
+                            String fechaInicio = contrato.getFechaAumento();
+                            String fechaFin = clockService.getCurrentDate().withDayOfMonth(1).format(FORMATO_FECHA);
+
+                            BigDecimal tasaAumento = iclService.obtenerTasaAumentoICL(fechaInicio, fechaFin);
                             montoNuevo = montoBase.multiply(tasaAumento).setScale(2, BigDecimal.ROUND_HALF_UP);
                             aplicoAumento = true;
 
                             // Preparar registro de aumento
+                            BigDecimal porcentajeAumento = tasaAumento.subtract(BigDecimal.ONE)
+                                .multiply(new BigDecimal("100"))
+                                .setScale(2, BigDecimal.ROUND_HALF_UP);
+
                             com.alquileres.model.AumentoAlquiler aumento =
-                                aumentoAlquilerService.crearAumentoSinGuardar(
-                                    contrato, montoBase, montoNuevo, porcentajeAumento);
+                            aumentoAlquilerService.crearAumentoSinGuardar(
+                                contrato, montoBase, montoNuevo, porcentajeAumento);
                             nuevosAumentos.add(aumento);
 
                             // ✅ ACTUALIZAR fechaAumento: sumar periodoAumento a la fechaAumento actual
                             actualizarFechaAumentoContrato(contrato);
-                        }
-                    } else {
-                        montoNuevo = ultimoAlquilerOpt.isPresent()
-                            ? ultimoAlquilerOpt.get().getMonto()
-                            : montoOriginal;
-                    }
-
-                    // Crear alquiler
-                    Alquiler nuevoAlquiler = new Alquiler(contrato, fechaVencimientoISO, montoNuevo);
-                    nuevoAlquiler.setEsActivo(true);
-                    nuevosAlquileres.add(nuevoAlquiler);
-
-                    logger.debug("Alquiler preparado para contrato ID: {} - Monto: {} (Aumento: {})",
-                               contrato.getId(), montoNuevo, aplicoAumento);
-
-                } catch (Exception e) {
-                    logger.error("Error al preparar alquiler para contrato ID {}: {}",
-                                contrato.getId(), e.getMessage());
-                }
-            }
-
-            // Guardar todos los alquileres en batch
-            if (!nuevosAlquileres.isEmpty()) {
-                alquilerRepository.saveAll(nuevosAlquileres);
-                logger.info("Guardados {} alquileres en batch", nuevosAlquileres.size());
-            }
-
-            // Guardar todos los aumentos en batch
-            if (!nuevosAumentos.isEmpty()) {
-                aumentoAlquilerService.guardarAumentosEnBatch(nuevosAumentos);
-                logger.info("Guardados {} aumentos en batch", nuevosAumentos.size());
-            }
-
-            logger.info("Creación automatica de alquileres completada. Total: {}", nuevosAlquileres.size());
-            return nuevosAlquileres.size();
-
-        } catch (Exception e) {
-            logger.error("Error en creación automatica de alquileres: {}", e.getMessage(), e);
-            return 0;
-        }
-    }
-
-    /**
-     * Crea un alquiler para un contrato específico si no tiene alquileres pendientes
-     * Aplica aumento por ICL si corresponde
-     * Usa una transacción independiente para evitar bloqueos
-     *
-     * @param contrato El contrato para el cual crear el alquiler
-     * @return true si se creó el alquiler, false en caso contrario
-     */
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
-    protected boolean crearAlquilerParaContrato(Contrato contrato) {
-        try {
-            // Verificar si el contrato ya tiene alquileres pendientes
-            List<Alquiler> alquileresPendientes =
-                alquilerRepository.findAlquileresPendientesByContratoId(contrato.getId());
-
-            if (!alquileresPendientes.isEmpty()) {
-                logger.debug("Contrato ID {} ya tiene alquileres pendientes, se omite creacion",
-                           contrato.getId());
-                return false;
-            }
-
-            // Obtener el último alquiler para determinar el monto
-            Optional<Alquiler> ultimoAlquilerOpt =
-                alquilerRepository.findTopByContratoOrderByFechaVencimientoPagoDesc(contrato);
 
-            BigDecimal montoOriginal = contrato.getMonto();
-            BigDecimal montoNuevo = montoOriginal;
-            boolean aplicoAumento = false;
+                        } catch (Exception e) {
+                            logger.error("Error al consultar ICL para contrato ID {}: {}. Se marcara para aumento manual.",
+                                       contrato.getId(), e.getMessage());
+                            // ❌ Fallo la API - crear alquiler con monto base y marcar para aumento manual
+                            montoNuevo = montoBase;
 
-            // Verificar si debe aplicar aumento
-            if (debeAplicarAumento(contrato)) {
-                logger.info("Contrato ID {} requiere aumento. Aumenta con ICL: {}",
-                           contrato.getId(), contrato.getAumentaConIcl());
+                            // Crear el alquiler pero marcado para aumento manual
+                            Alquiler alquilerConError = new Alquiler(contrato, fechaVencimiento, montoNuevo);
+                            alquilerConError.setNecesitaAumentoManual(true);
+                            nuevosAlquileres.add(alquilerConError);
 
-                BigDecimal montoBase = ultimoAlquilerOpt.isPresent()
-                    ? ultimoAlquilerOpt.get().getMonto()
-                    : montoOriginal;
-
-                // Si aumenta con ICL, consultar la API del BCRA
-                if (contrato.getAumentaConIcl() != null && contrato.getAumentaConIcl()) {
-                    try {
-                        // Obtener fechas para consultar ICL
-                        String fechaInicio = contrato.getFechaAumento();
-                        String fechaFin = clockService.getCurrentDate().withDayOfMonth(1).format(FORMATO_FECHA);
+                            logger.warn("Alquiler para contrato ID {} creado con necesitaAumentoManual=true", contrato.getId());
+                            continue; // Saltar al siguiente contrato
+                        }
+                    } else {
+                        // Aumento fijo
+                        BigDecimal porcentajeAumento = contrato.getPorcentajeAumento() != null
+                            ? contrato.getPorcentajeAumento()
+                            : BigDecimal.ZERO;
 
-                        logger.info("Consultando ICL del BCRA para contrato ID {} - Desde: {} hasta: {}",
-                                   contrato.getId(), fechaInicio, fechaFin);
+                        BigDecimal tasaAumento = BigDecimal.ONE.add(
+                            porcentajeAumento.divide(new BigDecimal("100"), 10, BigDecimal.ROUND_HALF_UP)
+                        );
 
-                        // Consultar tasa de aumento del BCRA
-                        BigDecimal tasaAumento = bcraApiClient.obtenerTasaAumentoICL(fechaInicio, fechaFin);
                         montoNuevo = montoBase.multiply(tasaAumento).setScale(2, BigDecimal.ROUND_HALF_UP);
                         aplicoAumento = true;
 
-                        logger.info("ICL aplicado al contrato ID {} - Monto anterior: {}, Monto nuevo: {}, Tasa: {}",
-                                   contrato.getId(), montoBase, montoNuevo, tasaAumento);
-
-                        // Registrar el aumento en el historial
-                        BigDecimal porcentajeAumento = tasaAumento.subtract(BigDecimal.ONE)
-                            .multiply(new BigDecimal("100"))
-                            .setScale(2, BigDecimal.ROUND_HALF_UP);
-
-                        aumentoAlquilerService.registrarAumentoAutomatico(
-                            contrato,
-                            montoBase,
-                            montoNuevo,
-                            porcentajeAumento
-                        );
+                        // Preparar registro de aumento
+                        com.alquileres.model.AumentoAlquiler aumento =
+                            aumentoAlquilerService.crearAumentoSinGuardar(
+                                contrato, montoBase, montoNuevo, porcentajeAumento);
+                        nuevosAumentos.add(aumento);
 
                         // ✅ ACTUALIZAR fechaAumento: sumar periodoAumento a la fechaAumento actual
                         actualizarFechaAumentoContrato(contrato);
-
-                    } catch (Exception e) {
-                        logger.error("Error al consultar ICL para contrato ID {}: {}. Se usara el monto sin aumento.",
-                                   contrato.getId(), e.getMessage());
-                        // Si falla la consulta, usar el monto original
-                        montoNuevo = montoBase;
                     }
                 } else {
-                    // Aumenta sin ICL - Aplicar porcentaje fijo: monto × (1 + (porcentajeAumento / 100)) ✅
-                    BigDecimal porcentajeAumento = contrato.getPorcentajeAumento() != null
-                        ? contrato.getPorcentajeAumento()
-                        : BigDecimal.ZERO;
-
-                    // Calcular: 1 + (porcentajeAumento / 100)
-                    BigDecimal tasaAumento = BigDecimal.ONE.add(
-                        porcentajeAumento.divide(new BigDecimal("100"), 10, BigDecimal.ROUND_HALF_UP)
-                    );
-
-                    montoNuevo = montoBase.multiply(tasaAumento).setScale(2, BigDecimal.ROUND_HALF_UP);
-                    aplicoAumento = true;
-
-                    logger.info("Aumento fijo aplicado al contrato ID {} - Monto anterior: {}, Monto nuevo: {}, Porcentaje: {}%",
-                               contrato.getId(), montoBase, montoNuevo, porcentajeAumento);
-
-                    // Registrar el aumento en el historial
-                    aumentoAlquilerService.registrarAumentoAutomatico(
-                        contrato,
-                        montoBase,
-                        montoNuevo,
-                        porcentajeAumento
-                    );
-
-                    // ✅ ACTUALIZAR fechaAumento: sumar periodoAumento a la fechaAumento actual
-                    actualizarFechaAumentoContrato(contrato);
+                    montoNuevo = ultimoAlquilerOpt.isPresent()
+                        ? ultimoAlquilerOpt.get().getMonto()
+                        : montoOriginal;
                 }
-            } else {
-                // No aplica aumento, usar el monto del último alquiler o del contrato
-                montoNuevo = ultimoAlquilerOpt.isPresent()
-                    ? ultimoAlquilerOpt.get().getMonto()
-                    : montoOriginal;
-            }
 
-            // Crear nuevo alquiler con vencimiento el día 10 del mes actual
-            LocalDate fechaActual = clockService.getCurrentDate();
-            LocalDate fechaVencimiento = LocalDate.of(fechaActual.getYear(), fechaActual.getMonth(), 10);
-            String fechaVencimientoISO = fechaVencimiento.format(FORMATO_FECHA);
+                // Crear alquiler
+                Alquiler nuevoAlquiler = new Alquiler(contrato, fechaVencimiento, montoNuevo);
+                nuevoAlquiler.setEsActivo(true);
+                nuevosAlquileres.add(nuevoAlquiler);
 
-            Alquiler nuevoAlquiler = new Alquiler(contrato, fechaVencimientoISO, montoNuevo);
-            nuevoAlquiler.setEsActivo(true);
-            alquilerRepository.save(nuevoAlquiler);
+                logger.debug("Alquiler preparado para contrato ID: {} - Monto: {} (Aumento: {})",
+                           contrato.getId(), montoNuevo, aplicoAumento);
 
-            logger.info("Alquiler creado automaticamente para contrato ID: {} - Monto: {} (Aumento aplicado: {})",
-                       contrato.getId(), montoNuevo, aplicoAumento);
-            return true;
+            } catch (Exception e) {
+                logger.error("Error al preparar alquiler para contrato ID {}: {}",
+                            contrato.getId(), e.getMessage());
+            }
+        }
 
-        } catch (Exception e) {
-            logger.error("Error al crear alquiler para contrato ID {}: {}",
-                        contrato.getId(), e.getMessage(), e);
-            return false;
+        // Guardar todos los alquileres en batch
+        if (!nuevosAlquileres.isEmpty()) {
+            alquilerRepository.saveAll(nuevosAlquileres);
+            logger.info("Guardados {} alquileres en batch", nuevosAlquileres.size());
         }
+
+        // Guardar todos los aumentos en batch
+        if (!nuevosAumentos.isEmpty()) {
+            aumentoAlquilerService.guardarAumentosEnBatch(nuevosAumentos);
+            logger.info("Guardados {} aumentos en batch", nuevosAumentos.size());
+        }
+
+        logger.info("Creación automatica de alquileres completada. Total: {}", nuevosAlquileres.size());
+        return nuevosAlquileres.size();
     }
 
     /**
@@ -493,8 +338,8 @@ public class AlquilerActualizacionService {
                 .withDayOfMonth(1);
 
             // Verificar si supera la fechaFin
-            if (contrato.getFechaFin() != null && !contrato.getFechaFin().isEmpty()) {
-                LocalDate fechaFin = LocalDate.parse(contrato.getFechaFin(), FORMATO_FECHA);
+            if (contrato.getFechaFin() != null) {
+                LocalDate fechaFin = contrato.getFechaFin();
 
                 if (nuevaFechaAumento.isAfter(fechaFin)) {
                     // Si la nueva fechaAumento supera la fechaFin, marcar como "No aumenta más"
@@ -609,9 +454,8 @@ public class AlquilerActualizacionService {
             // Crear nuevo alquiler con vencimiento el día 10 del mes actual
             LocalDate fechaActual = clockService.getCurrentDate();
             LocalDate fechaVencimiento = LocalDate.of(fechaActual.getYear(), fechaActual.getMonth(), 10);
-            String fechaVencimientoISO = fechaVencimiento.format(FORMATO_FECHA);
 
-            Alquiler nuevoAlquiler = new Alquiler(contrato, fechaVencimientoISO, contrato.getMonto());
+            Alquiler nuevoAlquiler = new Alquiler(contrato, fechaVencimiento, contrato.getMonto());
             nuevoAlquiler.setEsActivo(true);
             alquilerRepository.save(nuevoAlquiler);
 
@@ -1,5 +1,6 @@
 package com.alquileres.service;
 
+import com.alquileres.config.CacheNames;
 import com.alquileres.dto.*;
 import com.alquileres.model.*;
 import com.alquileres.repository.AlquilerRepository;
@@ -7,17 +8,26 @@ import com.alquileres.repository.ContratoRepository;
 import com.alquileres.exception.BusinessException;
 import com.alquileres.exception.ErrorCodes;
 import com.alquileres.util.FechaUtil;
+import com.alquileres.util.Paginacion;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -30,7 +40,7 @@ public class AlquilerService {
     private final com.alquileres.repository.PropietarioRepository propietarioRepository;
     private final AumentoAlquilerService aumentoAlquilerService;
     private final AlquilerActualizacionService alquilerActualizacionService;
-    private final com.alquileres.util.BCRAApiClient bcraApiClient;
+    private final ICLService iclService;
 
     @Autowired
     ClockService clockService;
@@ -41,13 +51,13 @@ public class AlquilerService {
             com.alquileres.repository.PropietarioRepository propietarioRepository,
             AumentoAlquilerService aumentoAlquilerService,
             AlquilerActualizacionService alquilerActualizacionService,
-            com.alquileres.util.BCRAApiClient bcraApiClient) {
+            ICLService iclService) {
         this.alquilerRepository = alquilerRepository;
         this.contratoRepository = contratoRepository;
         this.propietarioRepository = propietarioRepository;
         this.aumentoAlquilerService = aumentoAlquilerService;
         this.alquilerActualizacionService = alquilerActualizacionService;
-        this.bcraApiClient = bcraApiClient;
+        this.iclService = iclService;
     }
 
     // Obtener todos los alquileres
@@ -58,6 +68,27 @@ public class AlquilerService {
                 .collect(Collectors.toList());
     }
 
+    // Obtener una página de alquileres activos (ID descendente) con filtros opcionales;
+    // desde/hasta filtran por fecha de vencimiento y texto busca en la dirección y el inquilino
+    public PaginaDTO<AlquilerDTO> obtenerPaginaAlquileres(String cursor, Integer tamano, Boolean estaPagado,
+                                                          Long contratoId, Long propietarioId,
+                                                          LocalDate desde, LocalDate hasta, String texto) {
+        Paginacion.validarRango(desde, hasta);
+        int tamanoPagina = Paginacion.tamanoValido(tamano);
+
+        List<Alquiler> alquileres = alquilerRepository.buscarPagina(
+                Paginacion.decodificarCursor(cursor),
+                estaPagado,
+                contratoId,
+                propietarioId,
+                desde,
+                hasta,
+                Paginacion.patronBusqueda(texto),
+                Paginacion.limiteConsulta(tamanoPagina));
+        return Paginacion.armarPagina(alquileres, tamanoPagina, Alquiler::getId,
+                pagina -> pagina.stream().map(AlquilerDTO::new).collect(Collectors.toList()));
+    }
+
     // Obtener alquiler por ID
     public AlquilerDTO obtenerAlquilerPorId(Long id) {
         Optional<Alquiler> alquiler = alquilerRepository.findById(id);
@@ -112,8 +143,8 @@ public class AlquilerService {
 
     // Obtener alquileres próximos a vencer
     public List<AlquilerDTO> obtenerAlquileresProximosAVencer(int diasAntes) {
-        String fechaActual = clockService.getCurrentDate().format(DateTimeFormatter.ISO_LOCAL_DATE);
-        String fechaLimite = clockService.getCurrentDate().plusDays(diasAntes).format(DateTimeFormatter.ISO_LOCAL_DATE);
+        LocalDate fechaActual = clockService.getCurrentDate();
+        LocalDate fechaLimite = fechaActual.plusDays(diasAntes);
 
         List<Alquiler> alquileres = alquilerRepository.findAlquileresProximosAVencer(fechaActual, fechaLimite);
         return alquileres.stream()
@@ -128,12 +159,13 @@ public class AlquilerService {
 
     // Contar alquileres próximos a vencer
     public Long contarAlquileresProximosAVencer(int diasAntes) {
-        String fechaActual = clockService.getCurrentDate().format(DateTimeFormatter.ISO_LOCAL_DATE);
-        String fechaLimite = clockService.getCurrentDate().plusDays(diasAntes).format(DateTimeFormatter.ISO_LOCAL_DATE);
+        LocalDate fechaActual = clockService.getCurrentDate();
+        LocalDate fechaLimite = fechaActual.plusDays(diasAntes);
         return alquilerRepository.countAlquileresProximosAVencer(fechaActual, fechaLimite);
     }
 
     // Crear nuevo alquiler
+    @CacheEvict(value = CacheNames.DASHBOARD, allEntries = true)
     public AlquilerDTO crearAlquiler(AlquilerCreateDTO alquilerDTO) {
         // Validar que existe el contrato
         Optional<Contrato> contrato = contratoRepository.findById(alquilerDTO.getContratoId());
@@ -147,7 +179,7 @@ public class AlquilerService {
         }
 
         // Validar y convertir fecha de vencimiento
-        String fechaVencimientoISO = null;
+        LocalDate fechaVencimiento = null;
         if (alquilerDTO.getFechaVencimientoPago() != null && !alquilerDTO.getFechaVencimientoPago().trim().isEmpty()) {
             // Si se proporciona una fecha, validarla y convertirla
             if (!FechaUtil.esFechaValidaUsuario(alquilerDTO.getFechaVencimientoPago())) {
@@ -155,21 +187,20 @@ public class AlquilerService {
                     "Formato de fecha de vencimiento inválido. Use dd/MM/yyyy (ej: 25/12/2024)", HttpStatus.BAD_REQUEST);
             }
             try {
-                fechaVencimientoISO = FechaUtil.convertirFechaUsuarioToISODate(alquilerDTO.getFechaVencimientoPago());
+                fechaVencimiento = FechaUtil.parsearFecha(alquilerDTO.getFechaVencimientoPago());
             } catch (IllegalArgumentException e) {
                 throw new BusinessException(ErrorCodes.FORMATO_FECHA_INVALIDO, e.getMessage(), HttpStatus.BAD_REQUEST);
             }
         } else {
             // Si no se proporciona fecha, usar el día 10 del mes actual
             LocalDate fechaActual = clockService.getCurrentDate();
-            LocalDate fechaConDia10 = fechaActual.withDayOfMonth(10);
-            fechaVencimientoISO = fechaConDia10.format(DateTimeFormatter.ISO_LOCAL_DATE);
+            fechaVencimiento = fechaActual.withDayOfMonth(10);
         }
 
         // Crear el alquiler usando el constructor optimizado
         // Solo se setean: contrato, fechaVencimientoPago, monto (del contrato) y estaPagado=false
         // Los campos de pago (cuentaBanco, titularDePago, metodo) quedan null hasta que se registre el pago
-        Alquiler alquiler = new Alquiler(contrato.get(), fechaVencimientoISO, contrato.get().getMonto());
+        Alquiler alquiler = new Alquiler(contrato.get(), fechaVencimiento, contrato.get().getMonto());
         alquiler.setEsActivo(true);
 
         // Guardar el alquiler
@@ -179,6 +210,7 @@ public class AlquilerService {
     }
 
     // Actualizar alquiler
+    @CacheEvict(value = CacheNames.DASHBOARD, allEntries = true)
     public AlquilerDTO actualizarAlquiler(Long id, AlquilerCreateDTO alquilerDTO) {
         // Verificar que existe el alquiler
         Optional<Alquiler> alquilerExistente = alquilerRepository.findById(id);
@@ -195,8 +227,7 @@ public class AlquilerService {
                     "Formato de fecha de vencimiento inválido. Use dd/MM/yyyy (ej: 25/12/2024)", HttpStatus.BAD_REQUEST);
             }
             try {
-                String fechaVencimientoISO = FechaUtil.convertirFechaUsuarioToISODate(alquilerDTO.getFechaVencimientoPago());
-                alquiler.setFechaVencimientoPago(fechaVencimientoISO);
+                alquiler.setFechaVencimientoPago(FechaUtil.parsearFecha(alquilerDTO.getFechaVencimientoPago()));
             } catch (IllegalArgumentException e) {
                 throw new BusinessException(ErrorCodes.FORMATO_FECHA_INVALIDO, e.getMessage(), HttpStatus.BAD_REQUEST);
             }
@@ -208,6 +239,7 @@ public class AlquilerService {
         return new AlquilerDTO(alquilerActualizado);
     }
     // Marcar alquiler como pagado
+    @CacheEvict(value = CacheNames.DASHBOARD, allEntries = true)
     public AlquilerDTO marcarComoPagado(Long id, RegistroPagoDTO registroPagoDTO) {
         // Verificar que existe el alquiler
         Optional<Alquiler> alquilerExistente = alquilerRepository.findById(id);
@@ -216,20 +248,103 @@ public class AlquilerService {
         }
 
         Alquiler alquiler = alquilerExistente.get();
+        registrarPago(alquiler, registroPagoDTO);
 
-        // Marcar como pagado
-        alquiler.setEstaPagado(true);
+        // Guardar cambios
+        Alquiler alquilerActualizado = alquilerRepository.save(alquiler);
+
+        return new AlquilerDTO(alquilerActualizado);
+    }
+
+    /**
+     * Registra el pago de varios alquileres en una sola transacción
+     *
+     * Los alquileres se cargan con una sola consulta IN y se validan en memoria; cada ítem informa
+     * su propio resultado (alquiler inexistente, ya pagado, repetido o con fecha inválida) sin
+     * afectar a los demás. Los válidos se guardan juntos, en lotes JDBC.
+     *
+     * @param request Solicitud con la lista de alquileres a pagar
+     * @return Respuesta con resumen de procesamiento y detalle de cada pago
+     */
+    @Transactional
+    @CacheEvict(value = CacheNames.DASHBOARD, allEntries = true)
+    public RegistroPagoBatchResponse registrarPagosBatch(RegistroPagoAlquilerBatchRequest request) {
+        logger.info("Iniciando registro de pagos de alquileres en batch. Total a procesar: {}",
+                   request.getPagos().size());
+
+        // Cargar todos los alquileres de la solicitud con una sola consulta
+        Set<Long> ids = new HashSet<>();
+        for (RegistroPagoAlquilerBatchRequest.RegistroPagoAlquilerItem item : request.getPagos()) {
+            if (item.getAlquilerId() != null) {
+                ids.add(item.getAlquilerId());
+            }
+        }
+        Map<Long, Alquiler> alquileresPorId = new HashMap<>();
+        for (Alquiler alquiler : alquilerRepository.findAllById(ids)) {
+            alquileresPorId.put(alquiler.getId(), alquiler);
+        }
 
-        // Setear la fecha de pago desde el DTO (formato YYYY-MM-DD)
+        List<RegistroPagoBatchResponse.ResultadoPagoItem> resultados = new ArrayList<>();
+        List<Alquiler> pagados = new ArrayList<>();
+        Set<Long> procesados = new HashSet<>();
+        int exitosos = 0;
+        int fallidos = 0;
+
+        for (RegistroPagoAlquilerBatchRequest.RegistroPagoAlquilerItem item : request.getPagos()) {
+            Long alquilerId = item.getAlquilerId();
+            Alquiler alquiler = alquileresPorId.get(alquilerId);
+
+            String error = null;
+            if (alquiler == null) {
+                error = "Alquiler no encontrado con ID: " + alquilerId;
+            } else if (!procesados.add(alquilerId)) {
+                error = "El alquiler con ID " + alquilerId + " está repetido en la solicitud";
+            } else if (Boolean.TRUE.equals(alquiler.getEstaPagado())) {
+                error = "El alquiler con ID " + alquilerId + " ya está pagado";
+            } else {
+                try {
+                    registrarPago(alquiler, item.getDatosPago());
+                    pagados.add(alquiler);
+                } catch (DateTimeParseException e) {
+                    error = "Fecha de pago inválida: " + item.getDatosPago().getFechaPago();
+                }
+            }
+
+            if (error == null) {
+                resultados.add(new RegistroPagoBatchResponse.ResultadoPagoItem(
+                    alquilerId, true, "Pago registrado exitosamente"));
+                exitosos++;
+            } else {
+                resultados.add(new RegistroPagoBatchResponse.ResultadoPagoItem(
+                    alquilerId, false, "Error: " + error));
+                fallidos++;
+                logger.error("Error al registrar el pago del alquiler ID {} en batch: {}", alquilerId, error);
+            }
+        }
+
+        alquilerRepository.saveAll(pagados);
+
+        logger.info("Pagos de alquileres en batch completados. Exitosos: {}, Fallidos: {}, Total: {}",
+                   exitosos, fallidos, request.getPagos().size());
+
+        return new RegistroPagoBatchResponse(request.getPagos().size(), exitosos, fallidos, resultados);
+    }
+
+    // Marca el alquiler como pagado con los datos del pago; no guarda
+    private void registrarPago(Alquiler alquiler, RegistroPagoDTO registroPagoDTO) {
+        // Fecha de pago desde el DTO (formato YYYY-MM-DD); se interpreta antes de modificar el alquiler
+        LocalDate fechaPagoDate;
         if (registroPagoDTO.getFechaPago() != null && !registroPagoDTO.getFechaPago().isEmpty()) {
-            // Convertir de YYYY-MM-DD a dd/MM/yyyy
-            LocalDate fechaPagoDate = LocalDate.parse(registroPagoDTO.getFechaPago());
-            alquiler.setFechaPago(fechaPagoDate.format(DateTimeFormatter.ofPattern("dd/MM/yyyy")));
+            fechaPagoDate = LocalDate.parse(registroPagoDTO.getFechaPago());
         } else {
             // Si no viene fecha, usar la fecha actual
-            alquiler.setFechaPago(clockService.getCurrentDate().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")));
+            fechaPagoDate = clockService.getCurrentDate();
         }
 
+        // Marcar como pagado, con la fecha en formato dd/MM/yyyy
+        alquiler.setEstaPagado(true);
+        alquiler.setFechaPago(fechaPagoDate.format(DateTimeFormatter.ofPattern("dd/MM/yyyy")));
+
         // Actualizar información de pago
         if (registroPagoDTO.getCuentaBanco() != null) {
             alquiler.setCuentaBanco(registroPagoDTO.getCuentaBanco());
@@ -240,11 +355,6 @@ public class AlquilerService {
         if (registroPagoDTO.getMetodo() != null) {
             alquiler.setMetodo(registroPagoDTO.getMetodo());
         }
-
-        // Guardar cambios
-        Alquiler alquilerActualizado = alquilerRepository.save(alquiler);
-
-        return new AlquilerDTO(alquilerActualizado);
     }
 
     // Verificar si existe un alquiler
@@ -253,7 +363,9 @@ public class AlquilerService {
     }
     // Calcular honorarios (suma de porcentajes específicos de cada contrato para alquileres pagados del mes actual)
     public BigDecimal calcularHonorarios() {
-        List<Alquiler> alquileresPagados = alquilerRepository.findAlquileresPagadosDelMes();
+        LocalDate inicioMes = clockService.getCurrentDate().withDayOfMonth(1);
+        List<Alquiler> alquileresPagados = alquilerRepository.findAlquileresPagadosConVencimientoEntre(
+                inicioMes, inicioMes.plusMonths(1));
 
         BigDecimal honorariosTotales = alquileresPagados.stream()
                 .map(alquiler -> {
@@ -347,7 +459,9 @@ public class AlquilerService {
 
     // Obtener notificaciones de pago de alquileres no pagados del mes actual
     public List<NotificacionPagoAlquilerDTO> obtenerNotificacionesPagoAlquileresMes() {
-        List<Alquiler> alquileresNoPagados = alquilerRepository.findAlquileresNoPagadosDelMes();
+        LocalDate inicioMes = clockService.getCurrentDate().withDayOfMonth(1);
+        List<Alquiler> alquileresNoPagados = alquilerRepository.findAlquileresNoPagadosConVencimientoEntre(
+                inicioMes, inicioMes.plusMonths(1));
 
         return alquileresNoPagados.stream()
                 .map(alquiler -> new NotificacionPagoAlquilerDTO(
@@ -371,6 +485,7 @@ public class AlquilerService {
      * @return DTO del alquiler actualizado
      * @throws BusinessException si el alquiler no existe o no necesita aumento manual
      */
+    @CacheEvict(value = CacheNames.DASHBOARD, allEntries = true)
     public AlquilerDTO aplicarAumentoManual(Long alquilerId, BigDecimal indiceInicial, BigDecimal indiceFinal) {
         logger.info("Aplicando aumento manual al alquiler ID: {}", alquilerId);
 
@@ -460,6 +575,11 @@ public class AlquilerService {
         List<Alquiler> alquileresPendientes = new java.util.ArrayList<>();
         int actualizadosExitosamente = 0;
 
+        // Una sola descarga incremental del ICL para todos los reintentos
+        if (!alquileres.isEmpty()) {
+            iclService.sincronizar();
+        }
+
         for (Alquiler alquiler : alquileres) {
             try {
                 Contrato contrato = alquiler.getContrato();
@@ -481,13 +601,13 @@ public class AlquilerService {
                 // fechaInicio es la fecha del aumento anterior si existiera
                 String fechaInicio = aumentoAnterior.getFechaAumento();
                 // fechaFin es la fecha del alquiler actual
-                String fechaFin = alquiler.getFechaVencimientoPago();
+                String fechaFin = FechaUtil.formatearISO(alquiler.getFechaVencimientoPago());
 
                 logger.debug("Reintentando consulta API del BCRA para alquiler ID {}: fechaInicio={}, fechaFin={}",
                             alquiler.getId(), fechaInicio, fechaFin);
 
-                // Intentar obtener tasa de aumento de la API del BCRA
-                BigDecimal tasaAumento = bcraApiClient.obtenerTasaAumentoICL(fechaInicio, fechaFin);
+                // Intentar obtener tasa de aumento de la serie ICL local
+                BigDecimal tasaAumento = iclService.obtenerTasaAumentoICL(fechaInicio, fechaFin);
 
                 // Si llegamos aquí, la consulta fue exitosa
                 logger.info("✅ Consulta API exitosa para alquiler ID {}. Tasa obtenida: {}",
@@ -4,9 +4,13 @@ import com.alquileres.model.Usuario;
 import com.alquileres.repository.UsuarioRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.Optional;
 import java.util.Random;
@@ -23,14 +27,20 @@ public class AsyncPasswordResetProcessor {
 
     private final UsuarioRepository usuarioRepository;
     private final ResendEmailService resendEmailService;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskScheduler taskScheduler;
     private final Random random;
     private final long tokenExpirationTime;
 
     public AsyncPasswordResetProcessor(
             UsuarioRepository usuarioRepository,
-            ResendEmailService resendEmailService) {
+            ResendEmailService resendEmailService,
+            PlatformTransactionManager transactionManager,
+            TaskScheduler taskScheduler) {
         this.usuarioRepository = usuarioRepository;
         this.resendEmailService = resendEmailService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.taskScheduler = taskScheduler;
         this.random = new Random();
         this.tokenExpirationTime = 3600000; // 1 hora por defecto
     }
@@ -53,13 +63,10 @@ public class AsyncPasswordResetProcessor {
                 // Genera un número aleatorio entre 3000 y 5000 milisegundos (3-5 segundos)
                 int delayMs = 3000 + random.nextInt(2001); // 3000 + [0, 2000]
 
-                try {
-                    Thread.sleep(delayMs);
-                    logger.debug("Delay aplicado de {} ms para email no encontrado", delayMs);
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    logger.warn("Delay interrumpido: {}", e.getMessage());
-                }
+                // Se programa en el TaskScheduler en lugar de dormir el hilo del taskExecutor compartido
+                taskScheduler.schedule(
+                    () -> logger.debug("Delay aplicado de {} ms para email no encontrado", delayMs),
+                    Instant.now().plusMillis(delayMs));
 
                 // No hacer nada más, pero tampoco revelar que el email no existe
                 return;
@@ -69,36 +76,18 @@ public class AsyncPasswordResetProcessor {
             String token = UUID.randomUUID().toString();
             LocalDateTime expiryDate = LocalDateTime.now().plusNanos(tokenExpirationTime * 1_000_000L);
 
-            u.setPasswordResetToken(token);
-            u.setPasswordResetTokenExpiry(expiryDate);
-            usuarioRepository.save(u);
+            // El token y el email se guardan juntos: si falla uno no queda el otro
+            transactionTemplate.executeWithoutResult(status -> {
+                u.setPasswordResetToken(token);
+                u.setPasswordResetTokenExpiry(expiryDate);
+                usuarioRepository.save(u);
+                resendEmailService.encolarEmailRecuperacionContrasena(email, u.getUsername(), token);
+            });
 
             logger.info("Proceso de recuperación iniciado para: {}", email);
 
-            // Enviar email de forma asíncrona en otro hilo
-            enviarEmailAsync(email, u.getUsername(), token);
-
         } catch (Exception e) {
             logger.error("Error al procesar recuperación de contraseña para {}: {}", email, e.getMessage(), e);
         }
     }
-
-    /**
-     * Envía el email de recuperación de forma asíncrona.
-     * Esto permite que el proceso de recuperación retorne más rápido.
-     *
-     * @param email Email del destinatario
-     * @param username Nombre de usuario
-     * @param token Token de recuperación
-     */
-    @Async
-    public void enviarEmailAsync(String email, String username, String token) {
-        try {
-            resendEmailService.enviarEmailRecuperacionContrasena(email, username, token);
-            logger.info("Email de recuperación de contraseña enviado a: {}", email);
-        } catch (Exception e) {
-            logger.error("Error al enviar email de recuperación a {}: {}", email, e.getMessage(), e);
-        }
-    }
 }
-
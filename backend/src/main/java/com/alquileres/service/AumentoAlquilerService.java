@@ -124,7 +124,7 @@ public class AumentoAlquilerService {
         // Crear el aumento
         AumentoAlquiler aumento = new AumentoAlquiler();
         aumento.setContrato(contrato);
-        aumento.setFechaAumento(aumentoDTO.getFechaAumento());
+        aumento.setFechaAumento(parsearFecha(aumentoDTO.getFechaAumento()));
         aumento.setMontoAnterior(aumentoDTO.getMontoAnterior());
         aumento.setMontoNuevo(aumentoDTO.getMontoNuevo());
         aumento.setPorcentajeAumento(porcentajeAumento);
@@ -151,7 +151,7 @@ public class AumentoAlquilerService {
 
         AumentoAlquiler aumento = new AumentoAlquiler();
         aumento.setContrato(contrato);
-        aumento.setFechaAumento(clockService.getCurrentDate().toString());
+        aumento.setFechaAumento(clockService.getCurrentDate());
         aumento.setMontoAnterior(montoAnterior);
         aumento.setMontoNuevo(montoNuevo);
         aumento.setPorcentajeAumento(porcentajeAumento != null ? porcentajeAumento : BigDecimal.ZERO);
@@ -176,7 +176,7 @@ public class AumentoAlquilerService {
         }
 
         List<AumentoAlquiler> aumentos = aumentoAlquilerRepository
-                .findByContratoIdAndFechaAumentoBetween(contratoId, fechaInicio, fechaFin);
+                .findByContratoIdAndFechaAumentoBetween(contratoId, parsearFecha(fechaInicio), parsearFecha(fechaFin));
         return aumentos.stream()
                 .map(AumentoAlquilerDTO::new)
                 .collect(Collectors.toList());
@@ -220,7 +220,7 @@ public class AumentoAlquilerService {
                                                    BigDecimal montoNuevo, BigDecimal porcentajeAumento) {
         AumentoAlquiler aumento = new AumentoAlquiler();
         aumento.setContrato(contrato);
-        aumento.setFechaAumento(clockService.getCurrentDate().toString());
+        aumento.setFechaAumento(clockService.getCurrentDate());
         aumento.setMontoAnterior(montoAnterior);
         aumento.setMontoNuevo(montoNuevo);
         aumento.setPorcentajeAumento(porcentajeAumento != null ? porcentajeAumento : BigDecimal.ZERO);
@@ -257,4 +257,11 @@ public class AumentoAlquilerService {
         return aumentoAlquilerRepository.save(aumento);
     }
 
+    private LocalDate parsearFecha(String fecha) {
+        try {
+            return FechaUtil.parsearFecha(fecha);
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException(ErrorCodes.FORMATO_FECHA_INVALIDO, e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
 }
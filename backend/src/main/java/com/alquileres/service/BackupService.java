@@ -1,113 +1,384 @@
 package com.alquileres.service;
 
-import org.springframework.jdbc.core.JdbcTemplate;
+import com.alquileres.dto.ContenidoPDFDTO;
+import com.alquileres.dto.ProgresoRestauracionDTO;
+import com.alquileres.exception.BusinessException;
+import com.alquileres.exception.ErrorCodes;
+import com.alquileres.util.LectorSentenciasSQL;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
+import java.sql.Blob;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 @Service
 public class BackupService {
 
     private static final Logger logger = LoggerFactory.getLogger(BackupService.class);
 
-    private final JdbcTemplate jdbcTemplate;
+    // Filas que el driver trae por cada viaje al servidor
+    private static final int FETCH_SIZE = 500;
+
+    // Filas por cada sentencia INSERT del backup
+    private static final int FILAS_POR_INSERT = 100;
+
+    private static final int TAMANO_BUFFER = 8192;
+
+    private static final char[] DIGITOS_HEX = "0123456789abcdef".toCharArray();
+
+    // Sentencias INSERT por cada executeBatch de la restauración
+    private static final int SENTENCIAS_POR_LOTE = 50;
+
+    // Tope de texto por lote, para no acumular en memoria muchos INSERTs con PDFs
+    private static final long CARACTERES_POR_LOTE = 8L * 1024 * 1024;
+
+    private static final Pattern PATRON_INSERT =
+        Pattern.compile("^INSERT\\s+INTO\\s+(\"(?:[^\"]|\"\")+\"|[\\w.]+)", Pattern.CASE_INSENSITIVE);
+
+    /**
+     * Pseudo tabla con el contenido de los PDFs del almacén: sus INSERTs no se ejecutan en la base,
+     * la restauración los vuelve a guardar en el almacén
+     */
+    static final String TABLA_ALMACEN_PDFS = "almacen_pdfs";
 
-    public BackupService(JdbcTemplate jdbcTemplate) {
-        this.jdbcTemplate = jdbcTemplate;
+    private static final Pattern PATRON_PDF_ALMACEN = Pattern.compile(
+        "VALUES\\s*\\('([0-9a-f]{64})',\\s*decode\\('([0-9a-f]*)',\\s*'hex'\\)\\)\\s*$");
+
+    private final DataSource dataSource;
+    private final AlmacenPDF almacenPDF;
+
+    private final AtomicBoolean restaurando = new AtomicBoolean(false);
+    private volatile ProgresoRestauracion progresoActual;
+
+    public BackupService(DataSource dataSource, AlmacenPDF almacenPDF) {
+        this.dataSource = dataSource;
+        this.almacenPDF = almacenPDF;
     }
 
     /**
-     * Genera un backup SQL de la base de datos usando JDBC
-     * @return Contenido del archivo SQL como byte[]
+     * Escribe un backup SQL comprimido con gzip de la base de datos en el stream indicado
+     *
+     * Cada tabla se lee con un cursor de solo avance (fetch size acotado) dentro de una única
+     * transacción de solo lectura, y las filas se escriben directamente al stream como INSERTs
+     * de varias filas. La memoria usada no depende del tamaño de la base de datos.
+     * Al final se agrega el contenido de los PDFs referenciados por la tabla pdfs, que vive en el
+     * almacén y no en la base, para que el backup alcance para restaurarlos.
+     *
+     * @param salida Stream de destino (no se cierra)
      * @throws Exception Si ocurre un error durante el backup
      */
-    public byte[] generarBackupSQL() throws Exception {
-        try {
-            logger.info("Iniciando backup de base de datos via JDBC");
+    public void generarBackupSQL(OutputStream salida) throws Exception {
+        logger.info("Iniciando backup de base de datos via JDBC");
+
+        GZIPOutputStream gzip = new GZIPOutputStream(salida, TAMANO_BUFFER);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(gzip, StandardCharsets.UTF_8), TAMANO_BUFFER);
+
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommitOriginal = connection.getAutoCommit();
+            int aislamientoOriginal = connection.getTransactionIsolation();
+            // Sin autocommit el driver usa un cursor y trae las filas de a FETCH_SIZE;
+            // REPEATABLE READ da una foto consistente de todas las tablas
+            connection.setAutoCommit(false);
+            connection.setReadOnly(true);
+            connection.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            try {
+                escribirBackup(connection, writer);
+                connection.commit();
+            } catch (Exception e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setTransactionIsolation(aislamientoOriginal);
+                connection.setReadOnly(false);
+                connection.setAutoCommit(autoCommitOriginal);
+            }
+        } catch (Exception e) {
+            logger.error("Error generando backup SQL", e);
+            throw new Exception("Error al generar el backup: " + e.getMessage(), e);
+        }
 
-            StringBuilder backup = new StringBuilder();
+        writer.flush();
+        gzip.finish();
+    }
 
-            // Header del backup
-            backup.append("-- Backup Alquigest\n");
-            backup.append("-- Fecha: ").append(LocalDateTime.now()).append("\n");
-            backup.append("-- Generado automáticamente\n\n");
-            backup.append("SET client_encoding = 'UTF8';\n");
-            backup.append("SET standard_conforming_strings = on;\n\n");
+    private void escribirBackup(Connection connection, Writer writer) throws Exception {
+        // Header del backup
+        writer.write("-- Backup Alquigest\n");
+        writer.write("-- Fecha: " + LocalDateTime.now() + "\n");
+        writer.write("-- Generado automáticamente\n\n");
+        writer.write("SET client_encoding = 'UTF8';\n");
+        writer.write("SET standard_conforming_strings = on;\n\n");
 
-            // Obtener todas las tablas del esquema public
-            List<String> tablas = jdbcTemplate.queryForList(
-                "SELECT tablename FROM pg_tables WHERE schemaname = 'public' ORDER BY tablename",
-                String.class
-            );
+        // Obtener todas las tablas del esquema public, las referenciadas antes que las que las referencian
+        List<String> tablas = ordenarPorDependencias(connection, tablasDeLaBase(connection));
 
-            logger.info("Exportando {} tablas", tablas.size());
+        logger.info("Exportando {} tablas", tablas.size());
 
-            // Exportar cada tabla
-            for (String tabla : tablas) {
-                try {
-                    backup.append("\n-- ================================================\n");
-                    backup.append("-- Tabla: ").append(tabla).append("\n");
-                    backup.append("-- ================================================\n\n");
+        long totalFilas = 0;
+        for (String tabla : tablas) {
+            writer.write("\n-- ================================================\n");
+            writer.write("-- Tabla: " + tabla + "\n");
+            writer.write("-- ================================================\n\n");
 
-                    // Obtener datos de la tabla
-                    List<Map<String, Object>> rows = jdbcTemplate.queryForList("SELECT * FROM " + tabla);
+            long filas = exportarTabla(connection, tabla, writer);
+            if (filas == 0) {
+                writer.write("-- Tabla vacía\n");
+            }
+            totalFilas += filas;
+            logger.info("Exportando tabla '{}': {} registros", tabla, filas);
+        }
 
-                    logger.info("Exportando tabla '{}': {} registros", tabla, rows.size());
+        if (tablas.contains("pdfs")) {
+            exportarAlmacenPDF(connection, writer);
+        }
 
-                    if (!rows.isEmpty()) {
-                        // Generar INSERTs
-                        for (Map<String, Object> row : rows) {
-                            backup.append(generarInsert(tabla, row)).append("\n");
-                        }
-                    } else {
-                        backup.append("-- Tabla vacía\n");
-                    }
+        writer.write("\n-- Backup completado exitosamente\n");
+        logger.info("Backup completado exitosamente. Registros exportados: {}", totalFilas);
+    }
+
+    /**
+     * Tablas del esquema public, en orden alfabético
+     */
+    private List<String> tablasDeLaBase(Connection connection) throws Exception {
+        List<String> tablas = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(
+                 "SELECT tablename FROM pg_tables WHERE schemaname = 'public' ORDER BY tablename")) {
+            while (rs.next()) {
+                tablas.add(rs.getString(1));
+            }
+        }
+        return tablas;
+    }
+
+    /**
+     * Ordena las tablas para que cada una quede después de las tablas a las que referencia por FK
+     * Las tablas en un ciclo de FKs quedan al final, en orden alfabético
+     */
+    private List<String> ordenarPorDependencias(Connection connection, List<String> tablas) throws Exception {
+        Map<String, Set<String>> padres = new HashMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(
+                 "SELECT hija.relname, padre.relname FROM pg_constraint c " +
+                 "JOIN pg_class hija ON hija.oid = c.conrelid " +
+                 "JOIN pg_class padre ON padre.oid = c.confrelid " +
+                 "JOIN pg_namespace n ON n.oid = hija.relnamespace " +
+                 "WHERE c.contype = 'f' AND n.nspname = 'public'")) {
+            while (rs.next()) {
+                String hija = rs.getString(1);
+                String padre = rs.getString(2);
+                if (!hija.equals(padre)) {
+                    padres.computeIfAbsent(hija, k -> new HashSet<>()).add(padre);
+                }
+            }
+        }
 
-                } catch (Exception e) {
-                    logger.warn("Error exportando tabla '{}': {}", tabla, e.getMessage());
-                    backup.append("-- Error exportando tabla: ").append(e.getMessage()).append("\n");
+        List<String> ordenadas = new ArrayList<>();
+        Set<String> pendientes = new LinkedHashSet<>(tablas);
+        boolean avanzo = true;
+        while (!pendientes.isEmpty() && avanzo) {
+            avanzo = false;
+            for (Iterator<String> it = pendientes.iterator(); it.hasNext(); ) {
+                String tabla = it.next();
+                Set<String> requeridas = padres.getOrDefault(tabla, Set.of());
+                if (requeridas.stream().noneMatch(pendientes::contains)) {
+                    ordenadas.add(tabla);
+                    it.remove();
+                    avanzo = true;
                 }
             }
+        }
+        ordenadas.addAll(pendientes);
+        return ordenadas;
+    }
 
-            backup.append("\n-- Backup completado exitosamente\n");
+    /**
+     * Exporta una tabla como INSERTs de hasta FILAS_POR_INSERT filas cada uno
+     *
+     * @return Cantidad de filas exportadas
+     */
+    private long exportarTabla(Connection connection, String tabla, Writer writer) throws Exception {
+        try (Statement statement = connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            statement.setFetchSize(FETCH_SIZE);
+
+            try (ResultSet rs = statement.executeQuery("SELECT * FROM " + citarIdentificador(tabla))) {
+                ResultSetMetaData metaData = rs.getMetaData();
+                int columnas = metaData.getColumnCount();
+
+                StringBuilder encabezado = new StringBuilder("INSERT INTO ").append(citarIdentificador(tabla)).append(" (");
+                for (int i = 1; i <= columnas; i++) {
+                    if (i > 1) {
+                        encabezado.append(", ");
+                    }
+                    encabezado.append(citarIdentificador(metaData.getColumnName(i)));
+                }
+                encabezado.append(") VALUES\n");
+
+                long filas = 0;
+                int filasEnSentencia = 0;
+                while (rs.next()) {
+                    writer.write(filasEnSentencia == 0 ? encabezado.toString() : ",\n");
+                    escribirFila(rs, metaData, columnas, writer);
+                    filas++;
+                    filasEnSentencia++;
+
+                    if (filasEnSentencia == FILAS_POR_INSERT) {
+                        writer.write(";\n");
+                        filasEnSentencia = 0;
+                    }
+                }
+                if (filasEnSentencia > 0) {
+                    writer.write(";\n");
+                }
+                return filas;
+            }
+        }
+    }
 
-            byte[] backupBytes = backup.toString().getBytes(StandardCharsets.UTF_8);
-            logger.info("Backup completado exitosamente. Tamaño: {} bytes", backupBytes.length);
+    /**
+     * Exporta el contenido de cada PDF del almacén como INSERT INTO almacen_pdfs (sha256, contenido)
+     */
+    private void exportarAlmacenPDF(Connection connection, Writer writer) throws Exception {
+        writer.write("\n-- ================================================\n");
+        writer.write("-- Almacén de PDFs (se restaura en el almacén, no en la base)\n");
+        writer.write("-- ================================================\n\n");
+
+        long exportados = 0;
+        long faltantes = 0;
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(
+                 "SELECT DISTINCT sha256 FROM pdfs WHERE sha256 IS NOT NULL ORDER BY sha256")) {
+            while (rs.next()) {
+                String sha256 = rs.getString(1);
+                Optional<ContenidoPDFDTO> contenido = almacenPDF.obtener(sha256);
+                if (contenido.isEmpty()) {
+                    logger.warn("El PDF {} no está en el almacén, el backup no lo incluye", sha256);
+                    faltantes++;
+                    continue;
+                }
+                writer.write("INSERT INTO " + TABLA_ALMACEN_PDFS + " (sha256, contenido) VALUES ('" + sha256 + "', ");
+                try (InputStream datos = contenido.get().getRecurso().getInputStream()) {
+                    escribirHex(datos, writer);
+                }
+                writer.write(");\n");
+                exportados++;
+            }
+        }
+        logger.info("Exportando almacén de PDFs: {} archivos ({} faltantes)", exportados, faltantes);
+    }
 
-            return backupBytes;
+    private void escribirFila(ResultSet rs, ResultSetMetaData metaData, int columnas, Writer writer) throws Exception {
+        writer.write('(');
+        for (int i = 1; i <= columnas; i++) {
+            if (i > 1) {
+                writer.write(", ");
+            }
 
-        } catch (Exception e) {
-            logger.error("Error generando backup SQL", e);
-            throw new Exception("Error al generar el backup: " + e.getMessage(), e);
+            if (esLargeObject(metaData, i)) {
+                escribirLargeObject(rs.getBlob(i), writer);
+            } else if (esBinario(metaData.getColumnType(i))) {
+                escribirBytea(rs.getBinaryStream(i), writer);
+            } else {
+                writer.write(formatearValor(rs.getObject(i)));
+            }
         }
+        writer.write(')');
     }
 
     /**
-     * Genera una sentencia INSERT para una fila
+     * Columnas oid (las que Hibernate crea para @Lob byte[], como pdfs.file)
      */
-    private String generarInsert(String tabla, Map<String, Object> row) {
-        StringBuilder cols = new StringBuilder();
-        StringBuilder vals = new StringBuilder();
+    private boolean esLargeObject(ResultSetMetaData metaData, int columna) throws Exception {
+        return metaData.getColumnType(columna) == Types.BLOB || "oid".equalsIgnoreCase(metaData.getColumnTypeName(columna));
+    }
 
-        boolean first = true;
-        for (Map.Entry<String, Object> entry : row.entrySet()) {
-            if (!first) {
-                cols.append(", ");
-                vals.append(", ");
-            }
+    private boolean esBinario(int tipo) {
+        return tipo == Types.BINARY || tipo == Types.VARBINARY || tipo == Types.LONGVARBINARY;
+    }
 
-            cols.append(entry.getKey());
-            vals.append(formatearValor(entry.getValue()));
+    private void escribirLargeObject(Blob blob, Writer writer) throws Exception {
+        if (blob == null) {
+            writer.write("NULL");
+            return;
+        }
+        try (InputStream datos = blob.getBinaryStream()) {
+            writer.write("lo_from_bytea(0, ");
+            escribirHex(datos, writer);
+            writer.write(')');
+        } finally {
+            blob.free();
+        }
+    }
+
+    private void escribirBytea(InputStream datos, Writer writer) throws Exception {
+        if (datos == null) {
+            writer.write("NULL");
+            return;
+        }
+        try (datos) {
+            escribirHex(datos, writer);
+        }
+    }
 
-            first = false;
+    /**
+     * Escribe el contenido binario como decode('...', 'hex') leyendo de a TAMANO_BUFFER bytes
+     */
+    private void escribirHex(InputStream datos, Writer writer) throws Exception {
+        byte[] buffer = new byte[TAMANO_BUFFER];
+        char[] hex = new char[TAMANO_BUFFER * 2];
+
+        writer.write("decode('");
+        int leidos;
+        while ((leidos = datos.read(buffer)) != -1) {
+            for (int i = 0; i < leidos; i++) {
+                hex[i * 2] = DIGITOS_HEX[(buffer[i] >> 4) & 0x0F];
+                hex[i * 2 + 1] = DIGITOS_HEX[buffer[i] & 0x0F];
+            }
+            writer.write(hex, 0, leidos * 2);
         }
+        writer.write("', 'hex')");
+    }
 
-        return String.format("INSERT INTO %s (%s) VALUES (%s);", tabla, cols, vals);
+    private String citarIdentificador(String identificador) {
+        return "\"" + identificador.replace("\"", "\"\"") + "\"";
     }
 
     /**
@@ -140,62 +411,287 @@ public class BackupService {
     }
 
     /**
-     * Genera el nombre del archivo de backup con formato: dd-MM-yyyy--hh-mm-Backup-Alquigest.sql
+     * Genera el nombre del archivo de backup con formato: dd-MM-yyyy--hh-mm-Backup-Alquigest.sql.gz
      * @return Nombre del archivo
      */
     public String generarNombreArchivo() {
         LocalDateTime ahora = LocalDateTime.now();
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd-MM-yyyy--HH-mm");
-        return ahora.format(formatter) + "-Backup-Alquigest.sql";
+        return ahora.format(formatter) + "-Backup-Alquigest.sql.gz";
     }
 
     /**
-     * Carga un backup SQL a la base de datos
-     * @param backupContent Contenido del archivo SQL
+     * Restaura un backup SQL (plano o comprimido con gzip) en una única transacción
+     *
+     * El archivo se lee dos veces como stream: la primera para conocer las tablas incluidas y
+     * la segunda para ejecutar los INSERTs en lotes JDBC. Antes de insertar se vacían todas las tablas
+     * de la base, no solo las del backup: una tabla vacía en el backup no tiene INSERTs, y dejarla con
+     * filas impediría vaciar las tablas a las que referencia. Si cualquier sentencia
+     * falla se hace rollback de todo, por lo que la base nunca queda restaurada a medias.
+     * El contenido de los PDFs (INSERT INTO almacen_pdfs) se vuelve a guardar en el almacén.
+     *
+     * @param origen Origen del archivo (se abre una vez por cada lectura)
+     * @param comprimido Si el archivo está comprimido con gzip
+     * @param tamano Tamaño del archivo en bytes, para informar el avance
+     * @return Resumen final de la restauración
+     * @throws BusinessException si ya hay una restauración en curso
      * @throws Exception Si ocurre un error durante la restauración
      */
-    public void cargarBackupSQL(byte[] backupContent) throws Exception {
+    public ProgresoRestauracionDTO cargarBackupSQL(InputStreamSource origen, boolean comprimido, long tamano) throws Exception {
+        if (!restaurando.compareAndSet(false, true)) {
+            throw new BusinessException(
+                ErrorCodes.OPERACION_EN_CURSO,
+                "Ya hay una restauración de backup en curso",
+                HttpStatus.CONFLICT
+            );
+        }
+
+        ProgresoRestauracion progreso = new ProgresoRestauracion(tamano);
+        progresoActual = progreso;
+
         try {
-            logger.info("Iniciando carga de backup SQL");
+            logger.info("Iniciando carga de backup SQL ({} bytes)", tamano);
 
-            String backupSQL = new String(backupContent, StandardCharsets.UTF_8);
+            progreso.tablas = leerTablasDelBackup(origen, comprimido).size();
+            progreso.estado = "RESTAURANDO";
 
-            // Dividir el archivo en sentencias SQL individuales
-            String[] sentencias = backupSQL.split(";");
+            restaurar(origen, comprimido, progreso);
 
-            int ejecutadas = 0;
-            int errores = 0;
+            progreso.estado = "COMPLETADA";
+            progreso.fechaFin = LocalDateTime.now();
+            logger.info("Backup cargado. Sentencias ejecutadas: {}, Filas restauradas: {}, Tablas: {}",
+                progreso.sentencias, progreso.filas, progreso.tablas);
+            return progreso.toDTO();
 
-            for (String sentencia : sentencias) {
-                String sql = sentencia.trim();
+        } catch (Exception e) {
+            progreso.estado = "FALLIDA";
+            progreso.mensajeError = e.getMessage();
+            progreso.fechaFin = LocalDateTime.now();
+            logger.error("Error cargando backup SQL", e);
+            throw new Exception("Error al cargar el backup: " + e.getMessage(), e);
+        } finally {
+            restaurando.set(false);
+        }
+    }
 
-                // Ignorar comentarios y líneas vacías
-                if (sql.isEmpty() || sql.startsWith("--") || sql.startsWith("SET ")) {
-                    continue;
+    /**
+     * Obtiene el avance de la restauración en curso o de la última ejecutada
+     *
+     * @return Avance de la restauración, o null si no se ejecutó ninguna desde que inició la aplicación
+     */
+    public ProgresoRestauracionDTO obtenerProgresoRestauracion() {
+        ProgresoRestauracion progreso = progresoActual;
+        return progreso != null ? progreso.toDTO() : null;
+    }
+
+    /**
+     * Primera lectura: tablas con INSERTs en el backup (sin comillas), para informar el avance
+     */
+    private Set<String> leerTablasDelBackup(InputStreamSource origen, boolean comprimido) throws Exception {
+        Set<String> tablas = new LinkedHashSet<>();
+        try (Reader reader = abrir(origen, comprimido, null)) {
+            LectorSentenciasSQL lector = new LectorSentenciasSQL(reader);
+            String sql;
+            while ((sql = lector.leerSentencia()) != null) {
+                Matcher matcher = PATRON_INSERT.matcher(sql);
+                if (matcher.find()) {
+                    String tabla = matcher.group(1).replace("\"", "").toLowerCase();
+                    if (!TABLA_ALMACEN_PDFS.equals(tabla)) {
+                        tablas.add(tabla);
+                    }
+                }
+            }
+        }
+        return tablas;
+    }
+
+    /**
+     * Segunda lectura: vacía todas las tablas y ejecuta las sentencias en lotes dentro de una transacción
+     */
+    private void restaurar(InputStreamSource origen, boolean comprimido, ProgresoRestauracion progreso)
+            throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommitOriginal = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+
+            try (Statement statement = connection.createStatement();
+                 Reader reader = abrir(origen, comprimido, progreso)) {
+
+                // Un solo TRUNCATE con todas las tablas: PostgreSQL no valida FKs entre tablas que vacía juntas
+                List<String> tablas = tablasDeLaBase(connection);
+                if (!tablas.isEmpty()) {
+                    statement.execute("TRUNCATE TABLE " + String.join(", ",
+                        tablas.stream().map(this::citarIdentificador).toList()));
                 }
 
-                try {
-                    jdbcTemplate.execute(sql);
-                    ejecutadas++;
-                } catch (Exception e) {
-                    errores++;
-                    logger.warn("Error ejecutando sentencia SQL: {}. Error: {}",
-                        sql.substring(0, Math.min(50, sql.length())), e.getMessage());
+                LectorSentenciasSQL lector = new LectorSentenciasSQL(reader);
+                int sentenciasEnLote = 0;
+                long caracteresEnLote = 0;
+                String sql;
+                while ((sql = lector.leerSentencia()) != null) {
+                    if (sql.regionMatches(true, 0, "SET ", 0, 4)) {
+                        continue;
+                    }
+
+                    Matcher insert = PATRON_INSERT.matcher(sql);
+                    boolean esInsert = insert.find();
+                    if (esInsert && TABLA_ALMACEN_PDFS.equalsIgnoreCase(insert.group(1).replace("\"", ""))) {
+                        restaurarPDF(sql);
+                        progreso.sentencias++;
+                    } else if (esInsert) {
+                        statement.addBatch(sql);
+                        sentenciasEnLote++;
+                        caracteresEnLote += sql.length();
+                        if (sentenciasEnLote >= SENTENCIAS_POR_LOTE || caracteresEnLote >= CARACTERES_POR_LOTE) {
+                            ejecutarLote(statement, sentenciasEnLote, progreso);
+                            sentenciasEnLote = 0;
+                            caracteresEnLote = 0;
+                        }
+                    } else {
+                        ejecutarLote(statement, sentenciasEnLote, progreso);
+                        sentenciasEnLote = 0;
+                        caracteresEnLote = 0;
+                        statement.execute(sql);
+                        progreso.sentencias++;
+                    }
                 }
+                ejecutarLote(statement, sentenciasEnLote, progreso);
+
+                connection.commit();
+            } catch (Exception e) {
+                connection.rollback();
+                throw causaReal(e);
+            } finally {
+                connection.setAutoCommit(autoCommitOriginal);
             }
+        }
+    }
 
-            logger.info("Backup cargado. Sentencias ejecutadas: {}, Errores: {}", ejecutadas, errores);
+    /**
+     * Guarda en el almacén el contenido de un INSERT INTO almacen_pdfs
+     *
+     * Si la restauración termina en rollback, los archivos guardados quedan sin referencias y los
+     * borra la limpieza del almacén (PDFService.limpiarAlmacen).
+     */
+    private void restaurarPDF(String sql) throws Exception {
+        Matcher matcher = PATRON_PDF_ALMACEN.matcher(sql);
+        if (!matcher.find()) {
+            throw new IllegalArgumentException("Sentencia de " + TABLA_ALMACEN_PDFS + " inválida en el backup");
+        }
+        String sha256 = matcher.group(1);
+        byte[] contenido = HexFormat.of().parseHex(matcher.group(2));
+        ContenidoPDFDTO guardado = almacenPDF.guardar(new ByteArrayInputStream(contenido));
+        if (!sha256.equals(guardado.getSha256())) {
+            throw new IllegalArgumentException("El contenido del PDF " + sha256 + " en el backup está dañado");
+        }
+    }
 
-            if (errores > ejecutadas / 2) {
-                throw new Exception("Demasiados errores durante la restauración. Ejecutadas: " + ejecutadas + ", Errores: " + errores);
+    private void ejecutarLote(Statement statement, int sentenciasEnLote, ProgresoRestauracion progreso) throws Exception {
+        if (sentenciasEnLote == 0) {
+            return;
+        }
+        for (int filas : statement.executeBatch()) {
+            if (filas > 0) {
+                progreso.filas += filas;
             }
+        }
+        statement.clearBatch();
+        progreso.sentencias += sentenciasEnLote;
+        logger.debug("Restauración: {} sentencias, {} filas, {}/{} bytes",
+            progreso.sentencias, progreso.filas, progreso.bytesProcesados, progreso.bytesTotales);
+    }
 
-        } catch (Exception e) {
-            logger.error("Error cargando backup SQL", e);
-            throw new Exception("Error al cargar el backup: " + e.getMessage(), e);
+    /**
+     * En los lotes el driver informa el error real como siguiente excepción del BatchUpdateException
+     */
+    private Exception causaReal(Exception e) {
+        if (e instanceof SQLException sqlException && sqlException.getNextException() != null) {
+            return sqlException.getNextException();
         }
+        return e;
     }
-}
 
+    private Reader abrir(InputStreamSource origen, boolean comprimido, ProgresoRestauracion progreso) throws Exception {
+        InputStream entrada = new ContadorBytesInputStream(origen.getInputStream(), progreso);
+        if (comprimido) {
+            entrada = new GZIPInputStream(entrada, TAMANO_BUFFER);
+        }
+        return new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8), TAMANO_BUFFER);
+    }
 
+    /**
+     * Avance de una restauración; lo escribe solo el hilo que restaura
+     */
+    private static class ProgresoRestauracion {
+        private final long bytesTotales;
+        private final LocalDateTime fechaInicio = LocalDateTime.now();
+        private volatile String estado = "ANALIZANDO";
+        private volatile long bytesProcesados;
+        private volatile long sentencias;
+        private volatile long filas;
+        private volatile int tablas;
+        private volatile String mensajeError;
+        private volatile LocalDateTime fechaFin;
+
+        ProgresoRestauracion(long bytesTotales) {
+            this.bytesTotales = bytesTotales;
+        }
 
+        ProgresoRestauracionDTO toDTO() {
+            ProgresoRestauracionDTO dto = new ProgresoRestauracionDTO();
+            dto.setEstado(estado);
+            dto.setBytesProcesados(bytesProcesados);
+            dto.setBytesTotales(bytesTotales);
+            if ("COMPLETADA".equals(estado)) {
+                dto.setPorcentajeAvance(100);
+            } else if ("RESTAURANDO".equals(estado) && bytesTotales > 0) {
+                dto.setPorcentajeAvance((int) Math.min(99, bytesProcesados * 100 / bytesTotales));
+            } else {
+                dto.setPorcentajeAvance(0);
+            }
+            dto.setSentenciasEjecutadas(sentencias);
+            dto.setFilasRestauradas(filas);
+            dto.setTablasRestauradas(tablas);
+            dto.setMensajeError(mensajeError);
+            dto.setFechaInicio(fechaInicio.toString());
+            dto.setFechaFin(fechaFin != null ? fechaFin.toString() : null);
+            return dto;
+        }
+    }
+
+    /**
+     * Cuenta los bytes leídos del archivo original (antes de descomprimir)
+     */
+    private static class ContadorBytesInputStream extends FilterInputStream {
+        private final ProgresoRestauracion progreso;
+
+        ContadorBytesInputStream(InputStream entrada, ProgresoRestauracion progreso) {
+            super(entrada);
+            this.progreso = progreso;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int c = super.read();
+            if (c != -1) {
+                sumar(1);
+            }
+            return c;
+        }
+
+        @Override
+        public int read(byte[] buffer, int desde, int cantidad) throws IOException {
+            int leidos = super.read(buffer, desde, cantidad);
+            if (leidos > 0) {
+                sumar(leidos);
+            }
+            return leidos;
+        }
+
+        private void sumar(int cantidad) {
+            if (progreso != null) {
+                progreso.bytesProcesados += cantidad;
+            }
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.alquileres.service;
+
+import com.alquileres.model.EmailPendiente;
+import com.alquileres.model.EstadoEmail;
+import com.alquileres.repository.EmailPendienteRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Bandeja de salida de emails (patrón outbox)
+ *
+ * encolar se une a la transacción del cambio que origina el email: si ese cambio se revierte, el email
+ * tampoco se envía, y si se confirma el email queda guardado aunque Resend no responda. DespachadorEmails
+ * reserva lotes, los envía y registra el resultado acá.
+ *
+ * Reintentos con espera exponencial (30 s, 1 min, 2 min... hasta 1 hora); al agotarlos, o ante un rechazo
+ * definitivo, el email queda DESCARTADO con el último error para revisarlo.
+ */
+@Service
+public class BandejaSalidaEmailService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BandejaSalidaEmailService.class);
+
+    private static final Duration ESPERA_INICIAL = Duration.ofSeconds(30);
+    private static final Duration ESPERA_MAXIMA = Duration.ofHours(1);
+    private static final int LONGITUD_MAXIMA_ERROR = 1000;
+
+    private final EmailPendienteRepository emailPendienteRepository;
+    private final int maxIntentos;
+    private final Duration duracionReserva;
+
+    public BandejaSalidaEmailService(
+            EmailPendienteRepository emailPendienteRepository,
+            @Value("${app.email.max-intentos:8}") int maxIntentos,
+            @Value("${app.email.reserva-segundos:300}") long reservaSegundos) {
+        this.emailPendienteRepository = emailPendienteRepository;
+        this.maxIntentos = maxIntentos;
+        this.duracionReserva = Duration.ofSeconds(reservaSegundos);
+    }
+
+    /**
+     * Guarda un email para enviarlo, dentro de la transacción actual
+     */
+    @Transactional
+    public EmailPendiente encolar(String destinatario, String asunto, String html) {
+        EmailPendiente email = new EmailPendiente(destinatario, asunto, html, LocalDateTime.now());
+        return emailPendienteRepository.save(email);
+    }
+
+    /**
+     * Reserva hasta cantidad emails listos para enviar
+     *
+     * La reserva corre proximoIntento hacia adelante: si el despachador se detiene antes de registrar el
+     * resultado, el email se vuelve a tomar cuando vence la reserva.
+     */
+    @Transactional
+    public List<EmailPendiente> reservarLote(int cantidad) {
+        LocalDateTime ahora = LocalDateTime.now();
+        List<EmailPendiente> lote = emailPendienteRepository.findListosParaEnviar(
+                EstadoEmail.PENDIENTE, ahora, Limit.of(cantidad));
+        for (EmailPendiente email : lote) {
+            email.setProximoIntento(ahora.plus(duracionReserva));
+        }
+        return lote;
+    }
+
+    @Transactional
+    public void marcarEnviado(Long id) {
+        emailPendienteRepository.findById(id).ifPresent(email -> {
+            email.setEstado(EstadoEmail.ENVIADO);
+            email.setIntentos(email.getIntentos() + 1);
+            email.setEnviadoAt(LocalDateTime.now());
+            email.setUltimoError(null);
+        });
+    }
+
+    /**
+     * Registra un envío fallido: programa el reintento o descarta el email
+     *
+     * @param reintentable false si el rechazo es definitivo (por ejemplo, destinatario inválido)
+     * @return true si el email quedó descartado
+     */
+    @Transactional
+    public boolean registrarFallo(Long id, String error, boolean reintentable) {
+        EmailPendiente email = emailPendienteRepository.findById(id).orElse(null);
+        if (email == null) {
+            return false;
+        }
+
+        int intentos = email.getIntentos() + 1;
+        email.setIntentos(intentos);
+        email.setUltimoError(error != null && error.length() > LONGITUD_MAXIMA_ERROR
+                ? error.substring(0, LONGITUD_MAXIMA_ERROR)
+                : error);
+
+        if (!reintentable || intentos >= maxIntentos) {
+            email.setEstado(EstadoEmail.DESCARTADO);
+            logger.error("❌ Email ID {} a {} descartado después de {} intento(s): {}",
+                    id, email.getDestinatario(), intentos, error);
+            return true;
+        }
+
+        email.setProximoIntento(LocalDateTime.now().plus(esperaReintento(intentos)));
+        logger.warn("⚠️ Email ID {} falló (intento {}), se reintenta a las {}: {}",
+                id, intentos, email.getProximoIntento(), error);
+        return false;
+    }
+
+    /**
+     * Elimina los emails enviados antes de la fecha límite
+     */
+    @Transactional
+    public int eliminarEnviadosAntesDe(LocalDateTime limite) {
+        return emailPendienteRepository.deleteEnviadosAntesDe(EstadoEmail.ENVIADO, limite);
+    }
+
+    /**
+     * Espera antes del siguiente intento: 30 s después del primer fallo, duplicándose hasta 1 hora
+     */
+    static Duration esperaReintento(int intentos) {
+        int exponente = Math.min(Math.max(intentos - 1, 0), 20);
+        Duration espera = ESPERA_INICIAL.multipliedBy(1L << exponente);
+        return espera.compareTo(ESPERA_MAXIMA) > 0 ? ESPERA_MAXIMA : espera;
+    }
+}
@@ -0,0 +1,140 @@
+package com.alquileres.service;
+
+import com.alquileres.config.IndicesBusqueda;
+import com.alquileres.dto.ResultadoBusquedaDTO;
+import com.alquileres.exception.BusinessException;
+import com.alquileres.exception.ErrorCodes;
+import com.alquileres.repository.InmuebleRepository;
+import com.alquileres.repository.InquilinoRepository;
+import com.alquileres.repository.PropietarioRepository;
+import com.alquileres.repository.projection.CoincidenciaBusqueda;
+import com.alquileres.util.Paginacion;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Búsqueda unificada de inquilinos, propietarios e inmuebles
+ *
+ * Con los índices de trigramas (ver IndicesBusqueda) la búsqueda ignora acentos y mayúsculas, tolera
+ * errores de tipeo y devuelve los resultados más parecidos primero. Cada tipo se consulta con su índice
+ * y un límite, y se mezclan los mejores puntajes. Si la base no tiene pg_trgm, se busca por "contiene".
+ */
+@Service
+public class BusquedaService {
+
+    public static final String TIPO_INQUILINO = "inquilino";
+    public static final String TIPO_PROPIETARIO = "propietario";
+    public static final String TIPO_INMUEBLE = "inmueble";
+
+    private static final Set<String> TIPOS = Set.of(TIPO_INQUILINO, TIPO_PROPIETARIO, TIPO_INMUEBLE);
+
+    private static final int LIMITE_POR_DEFECTO = 10;
+    private static final int LIMITE_MAXIMO = 50;
+    // Un texto más largo no mejora la búsqueda y agranda la cantidad de trigramas a comparar
+    private static final int LARGO_MAXIMO_TEXTO = 100;
+
+    private final InquilinoRepository inquilinoRepository;
+    private final PropietarioRepository propietarioRepository;
+    private final InmuebleRepository inmuebleRepository;
+    private final IndicesBusqueda indicesBusqueda;
+
+    public BusquedaService(InquilinoRepository inquilinoRepository,
+                           PropietarioRepository propietarioRepository,
+                           InmuebleRepository inmuebleRepository,
+                           IndicesBusqueda indicesBusqueda) {
+        this.inquilinoRepository = inquilinoRepository;
+        this.propietarioRepository = propietarioRepository;
+        this.inmuebleRepository = inmuebleRepository;
+        this.indicesBusqueda = indicesBusqueda;
+    }
+
+    /**
+     * Busca inquilinos, propietarios e inmuebles activos parecidos al texto
+     *
+     * @param texto Texto a buscar
+     * @param tipo "inquilino", "propietario" o "inmueble" para buscar solo ese tipo; null para todos
+     * @param limite Cantidad máxima de resultados
+     * @return Resultados ordenados de mayor a menor puntaje
+     * @throws BusinessException si el tipo no existe
+     */
+    @Transactional(readOnly = true)
+    public List<ResultadoBusquedaDTO> buscar(String texto, String tipo, Integer limite) {
+        if (tipo != null && !TIPOS.contains(tipo)) {
+            throw new BusinessException(
+                ErrorCodes.DATOS_INVALIDOS,
+                "Tipo de búsqueda inválido: " + tipo + ". Valores posibles: " + TIPOS,
+                HttpStatus.BAD_REQUEST
+            );
+        }
+        if (texto == null || texto.isBlank()) {
+            return List.of();
+        }
+
+        String textoBuscado = texto.trim();
+        if (textoBuscado.length() > LARGO_MAXIMO_TEXTO) {
+            textoBuscado = textoBuscado.substring(0, LARGO_MAXIMO_TEXTO);
+        }
+        int limiteResultados = limite == null ? LIMITE_POR_DEFECTO : Math.max(1, Math.min(limite, LIMITE_MAXIMO));
+
+        List<ResultadoBusquedaDTO> resultados = new ArrayList<>();
+        if (tipo == null || TIPO_INQUILINO.equals(tipo)) {
+            resultados.addAll(buscarInquilinos(textoBuscado, limiteResultados));
+        }
+        if (tipo == null || TIPO_PROPIETARIO.equals(tipo)) {
+            resultados.addAll(buscarPropietarios(textoBuscado, limiteResultados));
+        }
+        if (tipo == null || TIPO_INMUEBLE.equals(tipo)) {
+            resultados.addAll(buscarInmuebles(textoBuscado, limiteResultados));
+        }
+
+        return resultados.stream()
+            .sorted(Comparator.comparingDouble(ResultadoBusquedaDTO::getPuntaje).reversed())
+            .limit(limiteResultados)
+            .collect(Collectors.toList());
+    }
+
+    private List<ResultadoBusquedaDTO> buscarInquilinos(String texto, int limite) {
+        if (indicesBusqueda.isDisponible()) {
+            return convertir(TIPO_INQUILINO, inquilinoRepository.buscarPorSimilitud(texto, limite));
+        }
+        return inquilinoRepository.buscarPagina(null, true, null, Paginacion.patronBusqueda(texto), Limit.of(limite))
+            .stream()
+            .map(i -> new ResultadoBusquedaDTO(TIPO_INQUILINO, i.getId(), i.getNombre() + " " + i.getApellido(), i.getCuil(), 1.0))
+            .collect(Collectors.toList());
+    }
+
+    private List<ResultadoBusquedaDTO> buscarPropietarios(String texto, int limite) {
+        if (indicesBusqueda.isDisponible()) {
+            return convertir(TIPO_PROPIETARIO, propietarioRepository.buscarPorSimilitud(texto, limite));
+        }
+        return propietarioRepository.buscarPagina(null, true, Paginacion.patronBusqueda(texto), Limit.of(limite))
+            .stream()
+            .map(p -> new ResultadoBusquedaDTO(TIPO_PROPIETARIO, p.getId(), p.getNombre() + " " + p.getApellido(), p.getCuil(), 1.0))
+            .collect(Collectors.toList());
+    }
+
+    private List<ResultadoBusquedaDTO> buscarInmuebles(String texto, int limite) {
+        if (indicesBusqueda.isDisponible()) {
+            return convertir(TIPO_INMUEBLE, inmuebleRepository.buscarPorSimilitud(texto, limite));
+        }
+        return inmuebleRepository.buscarPagina(null, true, null, null, null, Paginacion.patronBusqueda(texto), Limit.of(limite))
+            .stream()
+            .map(i -> new ResultadoBusquedaDTO(TIPO_INMUEBLE, i.getId(), i.getDireccion(), null, 1.0))
+            .collect(Collectors.toList());
+    }
+
+    private List<ResultadoBusquedaDTO> convertir(String tipo, List<CoincidenciaBusqueda> coincidencias) {
+        return coincidencias.stream()
+            .map(c -> new ResultadoBusquedaDTO(tipo, c.getId(), c.getTitulo(), c.getDetalle(),
+                                               c.getPuntaje() != null ? c.getPuntaje() : 0.0))
+            .collect(Collectors.toList());
+    }
+}
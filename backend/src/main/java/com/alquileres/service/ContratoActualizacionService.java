@@ -1,39 +1,33 @@
 package com.alquileres.service;
 
-import com.alquileres.model.Contrato;
-import com.alquileres.model.EstadoContrato;
-import com.alquileres.model.Inmueble;
 import com.alquileres.repository.ContratoRepository;
-import com.alquileres.repository.EstadoContratoRepository;
+import com.alquileres.repository.projection.ContratoAfectado;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.format.DateTimeFormatter;
+import java.time.LocalDate;
 import java.util.List;
 
 /**
  * Servicio para actualizar automáticamente el estado de contratos vencidos
+ * Los cambios se aplican en bloque con TransicionContratoService
  */
 @Service
 public class ContratoActualizacionService {
 
     private static final Logger logger = LoggerFactory.getLogger(ContratoActualizacionService.class);
-    private static final DateTimeFormatter FORMATO_ISO_DATETIME = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
 
     private final ContratoRepository contratoRepository;
-    private final EstadoContratoRepository estadoContratoRepository;
     private final ClockService clockService;
-    private final InmuebleService inmuebleService;
+    private final TransicionContratoService transicionContratoService;
 
-    public ContratoActualizacionService(ContratoRepository contratoRepository,
-                                        EstadoContratoRepository estadoContratoRepository,
-                                        ClockService clockService, InmuebleService inmuebleService) {
+    public ContratoActualizacionService(ContratoRepository contratoRepository, ClockService clockService,
+                                        TransicionContratoService transicionContratoService) {
         this.contratoRepository = contratoRepository;
-        this.estadoContratoRepository = estadoContratoRepository;
         this.clockService = clockService;
-        this.inmuebleService = inmuebleService;
+        this.transicionContratoService = transicionContratoService;
     }
 
     /**
@@ -46,41 +40,20 @@ public class ContratoActualizacionService {
         try {
             logger.info("Iniciando actualización de contratos vencidos");
 
-            // Obtener la fecha actual en formato ISO desde clockService
-            // Suma un dia porque sino los contratos vencen el dia de vencimiento (y deberian ser vigentes ese dia)
-            String fechaActual = clockService.getCurrentDateTime().minusDays(1).format(FORMATO_ISO_DATETIME);
+            // Obtener la fecha de corte desde clockService
+            LocalDate fechaActual = obtenerFechaCorte();
 
-            logger.info("Fecha Actual (+1 día): {}", fechaActual);
+            logger.info("Fecha de corte: {}", fechaActual);
 
             // Buscar todos los contratos vigentes que ya vencieron
-            List<Contrato> contratosVencidos = contratoRepository.findContratosVigentesVencidos(fechaActual);
+            List<ContratoAfectado> contratosVencidos = contratoRepository.findAfectadosVigentesVencidos(fechaActual);
 
             if (contratosVencidos.isEmpty()) {
                 logger.info("No se encontraron contratos vencidos para actualizar");
                 return 0;
             }
 
-            // Obtener el estado "No Vigente"
-            EstadoContrato estadoNoVigente = estadoContratoRepository.findByNombre("No Vigente")
-                    .orElseThrow(() -> new RuntimeException("Estado 'No Vigente' no encontrado en la base de datos"));
-
-            // Actualizar cada contrato
-            int contratosActualizados = 0;
-            for (Contrato contrato : contratosVencidos) {
-                contrato.setEstadoContrato(estadoNoVigente);
-
-                // Actualizar inquilino
-                Inmueble i = contrato.getInmueble();
-                inmuebleService.actualizarEstadoInmueble(i);
-
-                contratoRepository.save(contrato);
-                contratosActualizados++;
-                logger.debug("Contrato ID {} actualizado a 'No Vigente'. Fecha fin: {}",
-                            contrato.getId(), contrato.getFechaFin());
-            }
-
-            logger.info("Se actualizaron {} contratos de 'Vigente' a 'No Vigente'", contratosActualizados);
-            return contratosActualizados;
+            return transicionContratoService.vencerContratos(contratosVencidos);
 
         } catch (Exception e) {
             logger.error("Error al actualizar contratos vencidos: {}", e.getMessage(), e);
@@ -88,4 +61,37 @@ public class ContratoActualizacionService {
             return 0;
         }
     }
+
+    /**
+     * Obtiene los IDs de los contratos vigentes que ya vencieron, ordenados
+     * Usado por el motor de tareas para procesar por lotes
+     *
+     * @return IDs de contratos a pasar a "No Vigente"
+     */
+    public List<Long> obtenerIdsContratosVencidos() {
+        return contratoRepository.findIdsContratosVigentesVencidos(obtenerFechaCorte());
+    }
+
+    /**
+     * Pasa a "No Vigente" un lote de contratos vencidos
+     * Los contratos que ya no estén vigentes o no hayan vencido se omiten
+     *
+     * @param contratoIds IDs de los contratos del lote
+     * @return Cantidad de contratos actualizados
+     */
+    @Transactional
+    public int actualizarContratosVencidos(List<Long> contratoIds) {
+        if (contratoIds.isEmpty()) {
+            return 0;
+        }
+
+        List<ContratoAfectado> contratosVencidos =
+            contratoRepository.findAfectadosVigentesVencidosByIds(obtenerFechaCorte(), contratoIds);
+        return transicionContratoService.vencerContratos(contratosVencidos);
+    }
+
+    // Un contrato vence recién el día siguiente a su fecha de fin (sigue vigente ese día)
+    private LocalDate obtenerFechaCorte() {
+        return clockService.getCurrentDate();
+    }
 }
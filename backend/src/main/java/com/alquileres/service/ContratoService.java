@@ -1,8 +1,10 @@
 package com.alquileres.service;
 
+import com.alquileres.dto.ContenidoPDFDTO;
 import com.alquileres.dto.ContratoDTO;
 import com.alquileres.dto.ContratoCreateDTO;
 import com.alquileres.dto.EstadoContratoUpdateDTO;
+import com.alquileres.dto.PaginaDTO;
 import com.alquileres.model.Contrato;
 import com.alquileres.model.Inmueble;
 import com.alquileres.model.Inquilino;
@@ -28,7 +30,7 @@ import com.alquileres.repository.AlquilerRepository;
 import com.alquileres.exception.BusinessException;
 import com.alquileres.exception.ErrorCodes;
 import com.alquileres.util.FechaUtil;
-import com.alquileres.util.BCRAApiClient;
+import com.alquileres.util.Paginacion;
 import com.alquileres.security.EncryptionService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -40,12 +42,19 @@ import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CacheConfig;
 import com.alquileres.config.CacheNames;
 
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -56,6 +65,11 @@ public class ContratoService {
 
     private static final Logger logger = LoggerFactory.getLogger(ContratoService.class);
 
+    /**
+     * Cantidad máxima de IDs por consulta IN en los listados
+     */
+    private static final int TAMANO_BLOQUE_CONSULTA = 1000;
+
     private final ContratoRepository contratoRepository;
     private final InmuebleRepository inmuebleRepository;
     private final InquilinoRepository inquilinoRepository;
@@ -66,10 +80,11 @@ public class ContratoService {
     private final CancelacionContratoRepository cancelacionContratoRepository;
     private final MotivoCancelacionRepository motivoCancelacionRepository;
     private final AlquilerRepository alquilerRepository;
-    private final ServicioContratoService servicioContratoService;
+    private final TransicionContratoService transicionContratoService;
+    private final InvalidacionCacheContratos invalidacionCacheContratos;
     private final EncryptionService encryptionService;
     private final PDFService pdfService;
-    private final BCRAApiClient bcraApiClient;
+    private final ICLService iclService;
     private final ClockService clockService;
 
     public ContratoService(
@@ -83,10 +98,11 @@ public class ContratoService {
             CancelacionContratoRepository cancelacionContratoRepository,
             MotivoCancelacionRepository motivoCancelacionRepository,
             AlquilerRepository alquilerRepository,
-            ServicioContratoService servicioContratoService,
+            TransicionContratoService transicionContratoService,
+            InvalidacionCacheContratos invalidacionCacheContratos,
             EncryptionService encryptionService,
             PDFService pdfService,
-            BCRAApiClient bcraApiClient,
+            ICLService iclService,
             ClockService clockService, AumentoAlquilerService aumentoAlquilerService) {
         this.contratoRepository = contratoRepository;
         this.inmuebleRepository = inmuebleRepository;
@@ -98,10 +114,11 @@ public class ContratoService {
         this.cancelacionContratoRepository = cancelacionContratoRepository;
         this.motivoCancelacionRepository = motivoCancelacionRepository;
         this.alquilerRepository = alquilerRepository;
-        this.servicioContratoService = servicioContratoService;
+        this.transicionContratoService = transicionContratoService;
+        this.invalidacionCacheContratos = invalidacionCacheContratos;
         this.encryptionService = encryptionService;
         this.pdfService = pdfService;
-        this.bcraApiClient = bcraApiClient;
+        this.iclService = iclService;
         this.clockService = clockService;
         this.aumentoAlquilerService = aumentoAlquilerService;
     }
@@ -151,10 +168,10 @@ public class ContratoService {
      */
     private void convertirFechasParaRespuesta(Contrato contrato, ContratoDTO contratoDTO) {
         if (contrato.getFechaInicio() != null) {
-            contratoDTO.setFechaInicio(FechaUtil.convertirFechaISOToUsuario(contrato.getFechaInicio()));
+            contratoDTO.setFechaInicio(FechaUtil.formatearUsuario(contrato.getFechaInicio()));
         }
         if (contrato.getFechaFin() != null) {
-            contratoDTO.setFechaFin(FechaUtil.convertirFechaISOToUsuario(contrato.getFechaFin()));
+            contratoDTO.setFechaFin(FechaUtil.formatearUsuario(contrato.getFechaFin()));
         }
         if (contrato.getFechaAumento() != null) {
             contratoDTO.setFechaAumento(FechaUtil.convertirFechaISOToUsuario(contrato.getFechaAumento()));
@@ -185,15 +202,22 @@ public class ContratoService {
         Propietario propietario = propietarioOpt.get();
         
         // Setear datos básicos del propietario
+        copiarDatosPropietario(propietario, contratoDTO);
+
+        // Desencriptar y agregar clave fiscal si existe
+        desencriptarYAgregarClaveFiscal(propietario, contratoDTO);
+    }
+
+    /**
+     * Copia los datos básicos del propietario al DTO (sin la clave fiscal)
+     */
+    private void copiarDatosPropietario(Propietario propietario, ContratoDTO contratoDTO) {
         contratoDTO.setNombrePropietario(propietario.getNombre());
         contratoDTO.setApellidoPropietario(propietario.getApellido());
         contratoDTO.setDniPropietario(propietario.getCuil());
         contratoDTO.setTelefonoPropietario(propietario.getTelefono());
         contratoDTO.setEmailPropietario(propietario.getEmail());
         contratoDTO.setDireccionPropietario(propietario.getDireccion());
-
-        // Desencriptar y agregar clave fiscal si existe
-        desencriptarYAgregarClaveFiscal(propietario, contratoDTO);
     }
 
     /**
@@ -254,6 +278,75 @@ public class ContratoService {
         );
     }
 
+    /**
+     * Enriquece una lista de contratos para los listados
+     * 
+     * Carga propietarios, tipos de inmueble y últimos alquileres con una consulta por tipo de dato
+     * (en lugar de tres consultas por contrato). La clave fiscal del propietario no se incluye:
+     * se obtiene por el detalle del contrato o el endpoint de revelado.
+     * 
+     * @param contratos Contratos a enriquecer (con inmueble, inquilino y estado ya cargados)
+     * @return Lista de ContratoDTO en el mismo orden
+     */
+    private List<ContratoDTO> enrichContratoDTOs(List<Contrato> contratos) {
+        if (contratos.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Set<Long> propietarioIds = contratos.stream()
+            .map(c -> c.getInmueble().getPropietarioId())
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+        Set<Long> tipoInmuebleIds = contratos.stream()
+            .map(c -> c.getInmueble().getTipoInmuebleId())
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+
+        Map<Long, Propietario> propietarios = propietarioRepository.findAllById(propietarioIds).stream()
+            .collect(Collectors.toMap(Propietario::getId, Function.identity()));
+        Map<Long, String> tiposInmueble = tipoInmuebleRepository.findAllById(tipoInmuebleIds).stream()
+            .collect(Collectors.toMap(TipoInmueble::getId, TipoInmueble::getNombre));
+        Map<Long, BigDecimal> montosUltimoAlquiler = obtenerMontosUltimoAlquiler(
+            contratos.stream().map(Contrato::getId).toList()
+        );
+
+        return contratos.stream()
+            .map(contrato -> {
+                ContratoDTO contratoDTO = new ContratoDTO(contrato);
+                convertirFechasParaRespuesta(contrato, contratoDTO);
+
+                Propietario propietario = propietarios.get(contrato.getInmueble().getPropietarioId());
+                if (propietario != null) {
+                    copiarDatosPropietario(propietario, contratoDTO);
+                }
+
+                contratoDTO.setTipoInmueble(tiposInmueble.get(contrato.getInmueble().getTipoInmuebleId()));
+                contratoDTO.setMontoUltimoAlquiler(montosUltimoAlquiler.get(contrato.getId()));
+                return contratoDTO;
+            })
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Obtiene el monto del último alquiler activo de cada contrato
+     * Las consultas se parten en bloques para no superar el límite de parámetros del driver
+     */
+    private Map<Long, BigDecimal> obtenerMontosUltimoAlquiler(List<Long> contratoIds) {
+        Map<Long, Alquiler> ultimos = new HashMap<>();
+        for (int i = 0; i < contratoIds.size(); i += TAMANO_BLOQUE_CONSULTA) {
+            List<Long> bloque = contratoIds.subList(i, Math.min(i + TAMANO_BLOQUE_CONSULTA, contratoIds.size()));
+            for (Alquiler alquiler : alquilerRepository.findUltimosAlquileresByContratoIds(bloque)) {
+                // Ante dos alquileres con la misma fecha de vencimiento se queda con el más reciente
+                ultimos.merge(alquiler.getContrato().getId(), alquiler,
+                    (actual, nuevo) -> nuevo.getId() > actual.getId() ? nuevo : actual);
+            }
+        }
+
+        Map<Long, BigDecimal> montos = new HashMap<>();
+        ultimos.forEach((contratoId, alquiler) -> montos.put(contratoId, alquiler.getMonto()));
+        return montos;
+    }
+
     /**
      * Obtiene todos los contratos del sistema
      * 
@@ -261,10 +354,37 @@ public class ContratoService {
      */
     @Cacheable(CacheNames.CONTRATOS)
     public List<ContratoDTO> obtenerTodosLosContratos() {
-        List<Contrato> contratos = contratoRepository.findAll();
-        return contratos.stream()
-                .map(this::enrichContratoDTO)
-                .collect(Collectors.toList());
+        return enrichContratoDTOs(contratoRepository.findAllConRelaciones());
+    }
+
+    /**
+     * Obtiene una página de contratos ordenada por ID descendente, con filtros opcionales
+     *
+     * @param cursor Cursor devuelto por la página anterior (null para la primera)
+     * @param tamano Cantidad de contratos por página
+     * @param estado Nombre del estado del contrato
+     * @param propietarioId Propietario del inmueble
+     * @param desde Contratos que terminan en o después de esta fecha
+     * @param hasta Contratos que empiezan en o antes de esta fecha
+     * @param texto Texto a buscar en la dirección del inmueble y el nombre o apellido del inquilino
+     * @return Página de contratos con información enriquecida
+     */
+    public PaginaDTO<ContratoDTO> obtenerPaginaContratos(String cursor, Integer tamano, String estado,
+                                                         Long propietarioId, LocalDate desde, LocalDate hasta,
+                                                         String texto) {
+        Paginacion.validarRango(desde, hasta);
+        int tamanoPagina = Paginacion.tamanoValido(tamano);
+
+        List<Contrato> contratos = contratoRepository.buscarPagina(
+            Paginacion.decodificarCursor(cursor),
+            estado,
+            propietarioId,
+            desde,
+            hasta,
+            Paginacion.patronBusqueda(texto),
+            Paginacion.limiteConsulta(tamanoPagina)
+        );
+        return Paginacion.armarPagina(contratos, tamanoPagina, Contrato::getId, this::enrichContratoDTOs);
     }
 
     /**
@@ -303,9 +423,7 @@ public class ContratoService {
             ));
 
         List<Contrato> contratos = contratoRepository.findByInmueble(inmueble);
-        return contratos.stream()
-                .map(this::enrichContratoDTO)
-                .collect(Collectors.toList());
+        return enrichContratoDTOs(contratos);
     }
 
     /**
@@ -325,9 +443,7 @@ public class ContratoService {
             ));
 
         List<Contrato> contratos = contratoRepository.findByInquilino(inquilino);
-        return contratos.stream()
-                .map(this::enrichContratoDTO)
-                .collect(Collectors.toList());
+        return enrichContratoDTOs(contratos);
     }
 
     /**
@@ -340,9 +456,7 @@ public class ContratoService {
     @Cacheable(CacheNames.CONTRATOS_VIGENTES)
     public List<ContratoDTO> obtenerContratosVigentes() {
         List<Contrato> contratos = contratoRepository.findContratosVigentes();
-        return contratos.stream()
-                .map(this::enrichContratoDTO)
-                .collect(Collectors.toList());
+        return enrichContratoDTOs(contratos);
     }
 
     /**
@@ -355,9 +469,7 @@ public class ContratoService {
     @Cacheable(CacheNames.CONTRATOS_NO_VIGENTES)
     public List<ContratoDTO> obtenerContratosNoVigentes() {
         List<Contrato> contratos = contratoRepository.findContratosNoVigentes();
-        return contratos.stream()
-                .map(this::enrichContratoDTO)
-                .collect(Collectors.toList());
+        return enrichContratoDTOs(contratos);
     }
 
     /**
@@ -380,17 +492,15 @@ public class ContratoService {
      */
     @Cacheable(value = CacheNames.CONTRATOS_PROXIMOS_VENCER, key = "#diasAntes")
     public List<ContratoDTO> obtenerContratosProximosAVencer(int diasAntes) {
-        String fechaActual = clockService.getCurrentDate().format(DateTimeFormatter.ISO_LOCAL_DATE);
-        String fechaLimite = clockService.getCurrentDate().plusDays(diasAntes).format(DateTimeFormatter.ISO_LOCAL_DATE);
+        LocalDate fechaActual = clockService.getCurrentDate();
+        LocalDate fechaLimite = fechaActual.plusDays(diasAntes);
 
         List<Contrato> contratos = contratoRepository.findContratosVigentesProximosAVencer(
             fechaActual, 
             fechaLimite
         );
         
-        return contratos.stream()
-                .map(this::enrichContratoDTO)
-                .collect(Collectors.toList());
+        return enrichContratoDTOs(contratos);
     }
 
     /**
@@ -401,8 +511,8 @@ public class ContratoService {
      */
     @Cacheable(value = CacheNames.CONTRATOS_PROXIMOS_VENCER_COUNT, key = "#diasAntes")
     public Long contarContratosProximosAVencer(int diasAntes) {
-        String fechaActual = clockService.getCurrentDate().format(DateTimeFormatter.ISO_LOCAL_DATE);
-        String fechaLimite = clockService.getCurrentDate().plusDays(diasAntes).format(DateTimeFormatter.ISO_LOCAL_DATE);
+        LocalDate fechaActual = clockService.getCurrentDate();
+        LocalDate fechaLimite = fechaActual.plusDays(diasAntes);
 
         return contratoRepository.countContratosVigentesProximosAVencer(fechaActual, fechaLimite);
     }
@@ -423,19 +533,6 @@ public class ContratoService {
      * @throws BusinessException si hay errores de validación
      */
     @Transactional
-    @CacheEvict(
-        allEntries = true,
-        cacheNames = {
-            CacheNames.CONTRATOS,
-            CacheNames.CONTRATOS_VIGENTES,
-            CacheNames.CONTRATOS_VIGENTES_COUNT,
-            CacheNames.CONTRATOS_PROXIMOS_VENCER,
-            CacheNames.CONTRATOS_PROXIMOS_VENCER_COUNT,
-            CacheNames.CONTRATOS_POR_INMUEBLE,
-            CacheNames.CONTRATOS_POR_INQUILINO,
-            CacheNames.INMUEBLE_TIENE_CONTRATO_VIGENTE
-        }
-    )
     public ContratoDTO crearContrato(ContratoCreateDTO contratoDTO) {
         // Paso 1: Validar entidades relacionadas
         Inmueble inmueble = validarYObtenerInmueble(contratoDTO.getInmuebleId());
@@ -484,6 +581,7 @@ public class ContratoService {
             // El frontend envía explícitamente qué servicios crear mediante POST a /api/servicios-contrato
         }
         
+        invalidacionCacheContratos.invalidarContrato(contratoGuardado.getId(), inmueble.getId(), inquilino.getId());
         return enrichContratoDTO(contratoGuardado);
     }
 
@@ -753,8 +851,8 @@ public class ContratoService {
         Contrato contrato = new Contrato();
         contrato.setInmueble(inmueble);
         contrato.setInquilino(inquilino);
-        contrato.setFechaInicio(fechas.fechaInicio);
-        contrato.setFechaFin(fechas.fechaFin);
+        contrato.setFechaInicio(FechaUtil.parsearFecha(fechas.fechaInicio));
+        contrato.setFechaFin(FechaUtil.parsearFecha(fechas.fechaFin));
         contrato.setMonto(contratoDTO.getMonto());
         contrato.setPorcentajeAumento(contratoDTO.getPorcentajeAumento());
         contrato.setEstadoContrato(estadoContrato);
@@ -815,11 +913,10 @@ public class ContratoService {
                 fechaActual.getMonth(), 
                 10
             );
-            String fechaVencimientoISO = fechaVencimiento.format(DateTimeFormatter.ISO_LOCAL_DATE);
             
             com.alquileres.model.Alquiler nuevoAlquiler = new com.alquileres.model.Alquiler(
                 contrato,
-                fechaVencimientoISO,
+                fechaVencimiento,
                 contrato.getMonto()
             );
             nuevoAlquiler.setEsActivo(true);
@@ -861,21 +958,6 @@ public class ContratoService {
      * @throws BusinessException si el contrato no existe o el cambio no es válido
      */
     @Transactional
-    @CacheEvict(
-        allEntries = true,
-        cacheNames = {
-            CacheNames.CONTRATOS,
-            CacheNames.CONTRATO_POR_ID,
-            CacheNames.CONTRATOS_VIGENTES,
-            CacheNames.CONTRATOS_VIGENTES_COUNT,
-            CacheNames.CONTRATOS_NO_VIGENTES,
-            CacheNames.CONTRATOS_PROXIMOS_VENCER,
-            CacheNames.CONTRATOS_PROXIMOS_VENCER_COUNT,
-            CacheNames.CONTRATOS_POR_INMUEBLE,
-            CacheNames.CONTRATOS_POR_INQUILINO,
-            CacheNames.INMUEBLE_TIENE_CONTRATO_VIGENTE
-        }
-    )
     public ContratoDTO terminarContrato(Long id, EstadoContratoUpdateDTO estadoContratoUpdateDTO) {
         // Validar existencia del contrato y nuevo estado
         Contrato contrato = contratoRepository.findById(id)
@@ -912,6 +994,11 @@ public class ContratoService {
         );
 
         Contrato contratoActualizado = contratoRepository.save(contrato);
+        invalidacionCacheContratos.invalidarContrato(
+            contratoActualizado.getId(),
+            contratoActualizado.getInmueble().getId(),
+            contratoActualizado.getInquilino().getId()
+        );
         return enrichContratoDTO(contratoActualizado);
     }
 
@@ -977,30 +1064,13 @@ public class ContratoService {
      * - Anula todos los alquileres del contrato
      * - Desactiva todos los servicios del contrato
      * 
+     * Se hace con una sentencia por tabla (ver TransicionContratoService)
+     * 
      * @param contrato Contrato a finalizar
      */
     public void finalizarContrato(Contrato contrato) {
-        // Actualizar estado del inmueble a "Disponible"
-        Optional<EstadoInmueble> estadoDisponible = 
-            estadoInmuebleRepository.findByNombre("Disponible");
-        
-        if (estadoDisponible.isPresent()) {
-            Inmueble inmueble = contrato.getInmueble();
-            inmueble.setEstado(estadoDisponible.get().getId());
-            inmueble.setEsAlquilado(false);
-            inmuebleRepository.save(inmueble);
-        }
-
-        // Actualizar inquilino como no alquilando
-        Inquilino inquilino = contrato.getInquilino();
-        inquilino.setEstaAlquilando(false);
-        inquilinoRepository.save(inquilino);
-
-        // Anular todos los alquileres del contrato
-        anularAlquileresDelContrato(contrato.getId());
-
-        // Desactivar todos los servicios del contrato
-        desactivarServiciosDelContrato(contrato.getId());
+        transicionContratoService.finalizarContratos(
+            contratoRepository.findAfectadosByIds(List.of(contrato.getId())));
     }
 
     /**
@@ -1118,13 +1188,13 @@ public class ContratoService {
      * Guarda un PDF asociado a un contrato
      * 
      * @param id ID del contrato
-     * @param pdfBytes Contenido del PDF en bytes
+     * @param contenido Contenido del PDF como stream
      * @param nombreArchivo Nombre del archivo PDF
      * @return ContratoDTO con el PDF guardado
      * @throws BusinessException si el contrato no existe
      */
     @CacheEvict(value = CacheNames.CONTRATO_POR_ID, key = "#id")
-    public ContratoDTO guardarPdf(Long id, byte[] pdfBytes, String nombreArchivo) throws Exception {
+    public ContratoDTO guardarPdf(Long id, InputStream contenido, String nombreArchivo) throws Exception {
         Contrato contrato = contratoRepository.findById(id)
             .orElseThrow(() -> new BusinessException(
                 ErrorCodes.CONTRATO_NO_ENCONTRADO,
@@ -1132,9 +1202,8 @@ public class ContratoService {
                 HttpStatus.NOT_FOUND
             ));
         
-        // Crear y guardar el PDF
-        PDF pdf = new PDF("CONTRATO", pdfBytes, nombreArchivo);
-        PDF pdfGuardado = pdfService.guardarPDF(pdf.getAmbito(), pdfBytes, nombreArchivo);
+        // Guardar el contenido en el almacén y registrar el PDF
+        PDF pdfGuardado = pdfService.guardarPDF("CONTRATO", contenido, nombreArchivo);
         
         // Asignar el ID del PDF al contrato
         contrato.setIdPDF(pdfGuardado.getId());
@@ -1150,10 +1219,10 @@ public class ContratoService {
      * Obtiene el PDF asociado a un contrato
      * 
      * @param id ID del contrato
-     * @return Contenido del PDF en bytes
+     * @return Contenido del PDF, listo para enviarse como stream
      * @throws BusinessException si el contrato no existe o no tiene PDF
      */
-    public byte[] obtenerPdf(Long id) {
+    public ContenidoPDFDTO obtenerPdf(Long id) {
         Contrato contrato = contratoRepository.findById(id)
             .orElseThrow(() -> new BusinessException(
                 ErrorCodes.CONTRATO_NO_ENCONTRADO,
@@ -1170,8 +1239,8 @@ public class ContratoService {
             );
         }
         
-        Optional<PDF> pdf = pdfService.obtenerPDF(idPDF);
-        if (pdf.isEmpty()) {
+        Optional<ContenidoPDFDTO> contenido = pdfService.obtenerContenido(idPDF);
+        if (contenido.isEmpty()) {
             throw new BusinessException(
                 ErrorCodes.CONTRATO_NO_ENCONTRADO,
                 "El PDF asociado al contrato ID " + id + " no existe", 
@@ -1179,97 +1248,8 @@ public class ContratoService {
             );
         }
         
-        byte[] pdfBytes = pdf.get().getFile();
-        if (pdfBytes == null || pdfBytes.length == 0) {
-            throw new BusinessException(
-                ErrorCodes.CONTRATO_NO_ENCONTRADO,
-                "El PDF del contrato ID " + id + " está vacío", 
-                HttpStatus.NOT_FOUND
-            );
-        }
-        
         logger.info("PDF obtenido para contrato ID: {}", id);
-        return pdfBytes;
-    }
-
-    /**
-     * Anula todos los alquileres asociados a un contrato (borrado lógico)
-     * 
-     * Se llama cuando el contrato cambia a estado "No Vigente" o "Cancelado"
-     * Los alquileres no se eliminan físicamente, solo se marcan como inactivos
-     * 
-     * @param contratoId ID del contrato cuyos alquileres serán anulados
-     * @throws BusinessException si hay un error al desactivar los alquileres
-     */
-    private void anularAlquileresDelContrato(Long contratoId) {
-        try {
-            // Buscar TODOS los alquileres del contrato (activos e inactivos)
-            List<com.alquileres.model.Alquiler> alquileres =
-                alquilerRepository.findAllByContratoId(contratoId);
-
-            if (alquileres != null && !alquileres.isEmpty()) {
-                // Marcar todos los alquileres como inactivos (borrado lógico)
-                int alquileresDesactivados = 0;
-                for (com.alquileres.model.Alquiler alquiler : alquileres) {
-                    if (alquiler.getEsActivo()) {
-                        alquiler.setEsActivo(false);
-                        alquileresDesactivados++;
-                    }
-                }
-
-                if (alquileresDesactivados > 0) {
-                    alquilerRepository.saveAll(alquileres);
-                    logger.info("Se anularon {} alquileres del contrato ID: {} (borrado lógico)",
-                        alquileresDesactivados, contratoId);
-                } else {
-                    logger.info("Todos los alquileres del contrato ID: {} ya estaban inactivos", contratoId);
-                }
-            } else {
-                logger.info("No hay alquileres para anular en el contrato ID: {}", contratoId);
-            }
-        } catch (Exception e) {
-            logger.error("Error al desactivar alquileres del contrato ID: {}", contratoId, e);
-            throw new BusinessException(
-                ErrorCodes.ERROR_INTERNO,
-                "Error al desactivar los alquileres del contrato",
-                HttpStatus.INTERNAL_SERVER_ERROR
-            );
-        }
-    }
-
-    /**
-     * Desactiva todos los servicios activos asociados a un contrato
-     * 
-     * Se llama cuando el contrato cambia a estado "No Vigente" o "Cancelado"
-     * 
-     * @param contratoId ID del contrato cuyos servicios serán desactivados
-     * @throws BusinessException si hay un error al desactivar los servicios
-     */
-    private void desactivarServiciosDelContrato(Long contratoId) {
-        try {
-            List<com.alquileres.model.ServicioContrato> servicios =
-                servicioContratoService.getServiciosActivosByContrato(contratoId);
-
-            if (servicios != null && !servicios.isEmpty()) {
-                // Desactivar todos los servicios
-                for (com.alquileres.model.ServicioContrato servicio : servicios) {
-                    servicioContratoService.desactivarServicio(servicio.getId());
-                }
-                
-                logger.info("Se desactivaron {} servicios del contrato ID: {}", 
-                    servicios.size(), contratoId);
-            } else {
-                logger.info("No hay servicios activos para desactivar en el contrato ID: {}", 
-                    contratoId);
-            }
-        } catch (Exception e) {
-            logger.error("Error al desactivar servicios del contrato ID: {}", contratoId, e);
-            throw new BusinessException(
-                ErrorCodes.ERROR_INTERNO,
-                "Error al desactivar los servicios del contrato", 
-                HttpStatus.INTERNAL_SERVER_ERROR
-            );
-        }
+        return contenido.get();
     }
 
     /**
@@ -1305,7 +1285,7 @@ public class ContratoService {
             int anioActual = fechaActual.getYear();
 
             Alquiler primerAlquiler = new Alquiler(
-                contrato, fechaVencimientoISO, montoActual
+                contrato, fechaVencimientoPrimerAlquiler, montoActual
             );
 
             // Determinar si el primer alquiler es del mes actual
@@ -1367,7 +1347,7 @@ public class ContratoService {
                 fechaVencimientoISO = fechaVencimiento.format(DateTimeFormatter.ISO_LOCAL_DATE);
 
                 Alquiler alquiler = new Alquiler(
-                    contrato, fechaVencimientoISO, montoActual
+                    contrato, fechaVencimiento, montoActual
                 );
 
                 // Determinar si es el mes actual para marcarlo como NO pagado
@@ -1415,9 +1395,8 @@ public class ContratoService {
                 String nuevaFechaAumento = fechaProximoAumento.format(DateTimeFormatter.ISO_LOCAL_DATE);
                 
                 // Verificar que no supere la fecha de fin del contrato
-                if (contrato.getFechaFin() != null && !contrato.getFechaFin().isEmpty()) {
-                    LocalDate fechaFin = LocalDate.parse(contrato.getFechaFin(), DateTimeFormatter.ISO_LOCAL_DATE);
-                    if (fechaProximoAumento.isAfter(fechaFin)) {
+                if (contrato.getFechaFin() != null) {
+                    if (fechaProximoAumento.isAfter(contrato.getFechaFin())) {
                         nuevaFechaAumento = "No aumenta más";
                     }
                 }
@@ -1454,7 +1433,7 @@ public class ContratoService {
     }
     
     /**
-     * Aplica un aumento basado en ICL consultando la API del BCRA
+     * Aplica un aumento basado en ICL usando la serie local del BCRA
      * 
      * @param contrato Contrato al que se aplica el aumento
      * @param montoAnterior Monto antes del aumento
@@ -1471,11 +1450,11 @@ public class ContratoService {
             String fechaInicioISO = fechaUltimoAumento.withDayOfMonth(1).format(DateTimeFormatter.ISO_LOCAL_DATE);
             String fechaFinISO = fechaSiguienteAumento.withDayOfMonth(1).format(DateTimeFormatter.ISO_LOCAL_DATE);
             
-            logger.debug("Consultando ICL del BCRA para aumento retroactivo: desde {} hasta {}", 
+            logger.debug("Consultando ICL para aumento retroactivo: desde {} hasta {}", 
                         fechaInicioISO, fechaFinISO);
             
-            // Consultar tasa de aumento del BCRA
-            BigDecimal tasaAumento = bcraApiClient.obtenerTasaAumentoICL(fechaInicioISO, fechaFinISO);
+            // Obtener tasa de aumento de la serie ICL local
+            BigDecimal tasaAumento = iclService.obtenerTasaAumentoICL(fechaInicioISO, fechaFinISO);
             BigDecimal montoNuevo = montoAnterior.multiply(tasaAumento).setScale(2, RoundingMode.HALF_UP);
             
             // Calcular porcentaje de aumento
@@ -1488,7 +1467,7 @@ public class ContratoService {
                 aumentoAlquilerService.crearAumentoSinGuardar(
                     contrato, montoAnterior, montoNuevo, porcentajeAumento
                 );
-            aumento.setFechaAumento(fechaSiguienteAumento.format(DateTimeFormatter.ISO_LOCAL_DATE));
+            aumento.setFechaAumento(fechaSiguienteAumento);
             aumento.setDescripcion("Aumento retroactivo por ICL");
             aumentosRetroactivos.add(aumento);
             
@@ -1533,7 +1512,7 @@ public class ContratoService {
             aumentoAlquilerService.crearAumentoSinGuardar(
                 contrato, montoAnterior, montoNuevo, porcentajeAumento
             );
-        aumento.setFechaAumento(fechaAumento.format(DateTimeFormatter.ISO_LOCAL_DATE));
+        aumento.setFechaAumento(fechaAumento);
         aumento.setDescripcion("Aumento retroactivo por porcentaje fijo");
         aumentosRetroactivos.add(aumento);
         
@@ -0,0 +1,69 @@
+package com.alquileres.service;
+
+import com.alquileres.config.CacheNames;
+import com.alquileres.dto.DashboardDTO;
+import com.alquileres.repository.AlquilerRepository;
+import com.alquileres.repository.projection.ResumenDashboard;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+/**
+ * Calcula los indicadores de la pantalla principal
+ *
+ * Todos los contadores salen de una única consulta con agregados SQL, así el costo no depende
+ * de cuántos alquileres o servicios haya. El resultado se guarda en caché con TTL corto
+ * (ver CacheConfig) y se invalida cuando se registran pagos o cambian contratos.
+ */
+@Service
+public class DashboardService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardService.class);
+
+    private final AlquilerRepository alquilerRepository;
+    private final ClockService clockService;
+
+    public DashboardService(AlquilerRepository alquilerRepository, ClockService clockService) {
+        this.alquilerRepository = alquilerRepository;
+        this.clockService = clockService;
+    }
+
+    /**
+     * Obtiene los indicadores del mes actual
+     * La clave de caché es el mes, para que al cambiar de mes no se sirvan datos del anterior
+     */
+    @Cacheable(value = CacheNames.DASHBOARD, key = "@clockService.getCurrentDate().withDayOfMonth(1)")
+    public DashboardDTO obtenerResumen() {
+        YearMonth mes = YearMonth.from(clockService.getCurrentDate());
+        LocalDate desde = mes.atDay(1);
+        String periodo = String.format("%02d/%d", mes.getMonthValue(), mes.getYear());
+
+        ResumenDashboard resumen = alquilerRepository.obtenerResumenDashboard(periodo, desde, desde.plusMonths(1));
+
+        DashboardDTO dto = new DashboardDTO();
+        dto.setPeriodo(periodo);
+        dto.setCantInmueblesActivos(valorOCero(resumen.getInmueblesActivos()));
+        dto.setCantContratosVigentes(valorOCero(resumen.getContratosVigentes()));
+        dto.setCantServiciosTotales(valorOCero(resumen.getServiciosTotales()));
+        dto.setCantServiciosNoPagos(valorOCero(resumen.getServiciosPendientes()));
+        dto.setHonorariosDelMes(resumen.getHonorariosDelMes() != null
+            ? resumen.getHonorariosDelMes().setScale(2, RoundingMode.HALF_UP)
+            : BigDecimal.ZERO.setScale(2));
+
+        logger.debug("Dashboard {}: {} inmuebles activos, {} contratos vigentes, {} servicios pendientes, honorarios {}",
+            periodo, dto.getCantInmueblesActivos(), dto.getCantContratosVigentes(),
+            dto.getCantServiciosNoPagos(), dto.getHonorariosDelMes());
+
+        return dto;
+    }
+
+    private Long valorOCero(Long valor) {
+        return valor != null ? valor : 0L;
+    }
+}
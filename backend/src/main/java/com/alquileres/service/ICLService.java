@@ -0,0 +1,322 @@
+package com.alquileres.service;
+
+import com.alquileres.exception.BusinessException;
+import com.alquileres.exception.ErrorCodes;
+import com.alquileres.model.IndiceICL;
+import com.alquileres.repository.IndiceICLRepository;
+import com.alquileres.util.BCRAApiClient;
+import com.alquileres.util.FechaUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Servicio que mantiene una copia local de la serie diaria del ICL
+ *
+ * Los valores se guardan en la tabla indices_icl y en un mapa en memoria ordenado por fecha.
+ * La sincronización con el BCRA es incremental: solo descarga los días posteriores al último
+ * valor almacenado, en una única consulta por rango. Todos los cálculos de tasa de aumento
+ * se responden desde el mapa, por lo que siguen funcionando aunque la API del BCRA no responda
+ * (siempre que el índice de las fechas pedidas ya se haya descargado).
+ * La descarga no bloquea (BCRAApiClient devuelve un Mono); dentro de una transacción se espera
+ * como máximo ESPERA_EN_TRANSACCION para no retener indefinidamente una conexión del pool.
+ */
+@Service
+public class ICLService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ICLService.class);
+
+    /**
+     * Primer día publicado de la serie ICL (Ley 27.551)
+     */
+    private static final LocalDate INICIO_SERIE_ICL = LocalDate.of(2020, 7, 1);
+
+    /**
+     * Tiempo mínimo entre dos descargas al BCRA disparadas por valores faltantes
+     * Evita repetir la consulta por cada contrato cuando el BCRA aún no publicó un día
+     */
+    private static final Duration INTERVALO_MINIMO_SINCRONIZACION = Duration.ofMinutes(10);
+
+    /**
+     * Espera máxima por la descarga cuando se sincroniza dentro de una transacción
+     */
+    static final Duration ESPERA_EN_TRANSACCION = Duration.ofSeconds(15);
+
+    private final IndiceICLRepository indiceICLRepository;
+    private final BCRAApiClient bcraApiClient;
+
+    private final NavigableMap<LocalDate, BigDecimal> indices = new ConcurrentSkipListMap<>();
+    private volatile boolean indicesCargados = false;
+    private volatile Instant ultimaSincronizacion;
+    private CompletableFuture<Integer> sincronizacionEnCurso;
+    Duration esperaEnTransaccion = ESPERA_EN_TRANSACCION;
+
+    public ICLService(IndiceICLRepository indiceICLRepository, BCRAApiClient bcraApiClient) {
+        this.indiceICLRepository = indiceICLRepository;
+        this.bcraApiClient = bcraApiClient;
+    }
+
+    /**
+     * Obtiene la tasa de aumento del ICL entre dos fechas
+     *
+     * @param fechaInicio Fecha de inicio (yyyy-MM-dd o dd/MM/yyyy)
+     * @param fechaFin Fecha de fin (yyyy-MM-dd o dd/MM/yyyy)
+     * @return Tasa de aumento (cociente valorFin / valorInicio)
+     * @throws BusinessException si no hay valor del ICL para alguna de las fechas
+     */
+    public BigDecimal obtenerTasaAumentoICL(String fechaInicio, String fechaFin) {
+        LocalDate inicio = parsearFecha(fechaInicio);
+        LocalDate fin = parsearFecha(fechaFin);
+
+        BigDecimal valorInicio = obtenerValor(inicio);
+        BigDecimal valorFin = obtenerValor(fin);
+
+        // Validar que existan ambos valores
+        if (valorInicio == null) {
+            logger.error("No se encontró valor de ICL para la fecha de inicio: {}", fechaInicio);
+            throw new BusinessException(
+                ErrorCodes.ERROR_SERVICIO_EXTERNO,
+                "No se encontró el valor del ICL para la fecha de inicio: " + fechaInicio,
+                HttpStatus.BAD_REQUEST
+            );
+        }
+
+        if (valorFin == null) {
+            logger.error("No se encontró valor de ICL para la fecha de fin: {}", fechaFin);
+            throw new BusinessException(
+                ErrorCodes.ERROR_SERVICIO_EXTERNO,
+                "No se encontró el valor del ICL para la fecha de fin: " + fechaFin,
+                HttpStatus.BAD_REQUEST
+            );
+        }
+
+        // Validar que valorInicio no sea cero
+        if (valorInicio.compareTo(BigDecimal.ZERO) == 0) {
+            logger.error("El valor de ICL de inicio es cero");
+            throw new BusinessException(
+                ErrorCodes.ERROR_SERVICIO_EXTERNO,
+                "El valor del ICL de inicio no puede ser cero",
+                HttpStatus.BAD_REQUEST
+            );
+        }
+
+        // Calcular tasa de aumento (cociente)
+        BigDecimal tasaAumento = valorFin.divide(valorInicio, 10, RoundingMode.HALF_UP);
+
+        logger.debug("ICL - Inicio: {} ({}), Fin: {} ({}), Tasa de aumento: {}",
+                    inicio, valorInicio, fin, valorFin, tasaAumento);
+
+        return tasaAumento;
+    }
+
+    /**
+     * Calcula el nuevo monto aplicando la tasa de aumento del ICL
+     *
+     * @param montoOriginal Monto original del alquiler
+     * @param fechaInicio Fecha de inicio del período
+     * @param fechaFin Fecha de fin del período
+     * @return Nuevo monto ajustado por ICL
+     */
+    public BigDecimal calcularNuevoMontoConICL(BigDecimal montoOriginal, String fechaInicio, String fechaFin) {
+        BigDecimal tasaAumento = obtenerTasaAumentoICL(fechaInicio, fechaFin);
+        BigDecimal nuevoMonto = montoOriginal.multiply(tasaAumento).setScale(2, RoundingMode.HALF_UP);
+
+        logger.info("Cálculo de nuevo monto - Original: {}, Tasa: {}, Nuevo: {}",
+                   montoOriginal, tasaAumento, nuevoMonto);
+
+        return nuevoMonto;
+    }
+
+    /**
+     * Descarga del BCRA los valores del ICL posteriores al último almacenado y espera el resultado
+     * Si la API falla, se conserva la serie local y se devuelve 0
+     *
+     * Dentro de una transacción la espera se limita a ESPERA_EN_TRANSACCION, para no retener una conexión
+     * del pool si el BCRA no responde. Pasado ese tiempo se devuelve 0 y la descarga sigue en segundo plano;
+     * los valores quedan para las consultas siguientes.
+     *
+     * @return Cantidad de valores nuevos almacenados
+     */
+    public int sincronizar() {
+        CompletableFuture<Integer> sincronizacion = sincronizarAsync();
+        if (sincronizacion.isDone() || !TransactionSynchronizationManager.isActualTransactionActive()) {
+            return sincronizacion.join();
+        }
+        try {
+            return sincronizacion.get(esperaEnTransaccion.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            logger.warn("El BCRA no respondió en {} s; la sincronización ICL sigue en segundo plano",
+                       esperaEnTransaccion.toSeconds());
+            return 0;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        } catch (ExecutionException e) {
+            // onErrorResume ya convierte los errores de la API en 0
+            return 0;
+        }
+    }
+
+    /**
+     * Inicia la descarga incremental del ICL sin bloquear
+     * Si ya hay una en curso devuelve la misma, así los pedidos simultáneos no repiten la consulta
+     *
+     * @return Futuro con la cantidad de valores nuevos almacenados (0 si la API falla)
+     */
+    public synchronized CompletableFuture<Integer> sincronizarAsync() {
+        if (sincronizacionEnCurso != null) {
+            return sincronizacionEnCurso;
+        }
+
+        cargarIndicesSiEsNecesario();
+
+        LocalDate desde = indices.isEmpty() ? INICIO_SERIE_ICL : indices.lastKey().plusDays(1);
+        LocalDate hasta = LocalDate.now();
+
+        if (desde.isAfter(hasta)) {
+            logger.debug("La serie ICL local ya está actualizada hasta {}", indices.lastKey());
+            ultimaSincronizacion = Instant.now();
+            return CompletableFuture.completedFuture(0);
+        }
+
+        CompletableFuture<Integer> sincronizacion = bcraApiClient.obtenerSerieICLAsync(desde, hasta)
+            // Guardar fuera de los hilos de red de Netty
+            .publishOn(Schedulers.boundedElastic())
+            .map(this::guardarNuevos)
+            .onErrorResume(e -> {
+                logger.warn("No se pudo sincronizar el ICL con el BCRA ({}). Se usan los {} valores almacenados.",
+                           e.getMessage(), indices.size());
+                return Mono.just(0);
+            })
+            .toFuture();
+
+        sincronizacionEnCurso = sincronizacion;
+        sincronizacion.whenComplete((resultado, error) -> finalizarSincronizacion(sincronizacion));
+        return sincronizacion;
+    }
+
+    /**
+     * El intervalo mínimo entre descargas se cuenta desde que termina la anterior, no desde que empieza
+     */
+    private synchronized void finalizarSincronizacion(CompletableFuture<Integer> sincronizacion) {
+        ultimaSincronizacion = Instant.now();
+        if (sincronizacionEnCurso == sincronizacion) {
+            sincronizacionEnCurso = null;
+        }
+    }
+
+    /**
+     * Guarda los valores de la serie que no están en la serie local
+     *
+     * Si otra instancia ya guardó algunas de esas fechas, el INSERT choca con la restricción única de
+     * indices_icl.fecha: se carga el rango desde la base y se guardan solo las fechas que faltan.
+     */
+    private int guardarNuevos(NavigableMap<LocalDate, BigDecimal> serie) {
+        List<IndiceICL> nuevos = nuevosDe(serie);
+        if (!nuevos.isEmpty()) {
+            try {
+                indiceICLRepository.saveAll(nuevos);
+            } catch (DataIntegrityViolationException e) {
+                logger.info("Otra instancia ya guardó valores del ICL entre {} y {}, se cargan desde la base",
+                           serie.firstKey(), serie.lastKey());
+                indiceICLRepository.findByFechaBetweenOrderByFechaAsc(serie.firstKey(), serie.lastKey())
+                    .forEach(indice -> indices.put(indice.getFecha(), indice.getValor()));
+                nuevos = nuevosDe(serie);
+                if (!nuevos.isEmpty()) {
+                    indiceICLRepository.saveAll(nuevos);
+                }
+            }
+            nuevos.forEach(indice -> indices.put(indice.getFecha(), indice.getValor()));
+        }
+
+        logger.info("Sincronización ICL completada: {} valores nuevos (serie local hasta {})",
+                   nuevos.size(), indices.isEmpty() ? "-" : indices.lastKey());
+        return nuevos.size();
+    }
+
+    private List<IndiceICL> nuevosDe(NavigableMap<LocalDate, BigDecimal> serie) {
+        List<IndiceICL> nuevos = new ArrayList<>();
+        for (Map.Entry<LocalDate, BigDecimal> entrada : serie.entrySet()) {
+            if (!indices.containsKey(entrada.getKey())) {
+                nuevos.add(new IndiceICL(entrada.getKey(), entrada.getValue()));
+            }
+        }
+        return nuevos;
+    }
+
+    /**
+     * Obtiene la fecha del último valor del ICL almacenado localmente
+     *
+     * @return Última fecha disponible, o null si la serie está vacía
+     */
+    public LocalDate obtenerUltimaFechaDisponible() {
+        cargarIndicesSiEsNecesario();
+        return indices.isEmpty() ? null : indices.lastKey();
+    }
+
+    /**
+     * Busca el valor del ICL de una fecha; si no está en la serie local y la fecha no es futura,
+     * intenta una sincronización (como máximo una cada INTERVALO_MINIMO_SINCRONIZACION)
+     */
+    private BigDecimal obtenerValor(LocalDate fecha) {
+        cargarIndicesSiEsNecesario();
+
+        BigDecimal valor = indices.get(fecha);
+        if (valor == null && !fecha.isAfter(LocalDate.now()) && puedeSincronizar()) {
+            sincronizar();
+            valor = indices.get(fecha);
+        }
+        return valor;
+    }
+
+    private boolean puedeSincronizar() {
+        Instant ultima = ultimaSincronizacion;
+        return ultima == null || ultima.plus(INTERVALO_MINIMO_SINCRONIZACION).isBefore(Instant.now());
+    }
+
+    private void cargarIndicesSiEsNecesario() {
+        if (indicesCargados) {
+            return;
+        }
+        synchronized (this) {
+            if (!indicesCargados) {
+                indiceICLRepository.findAllByOrderByFechaAsc()
+                    .forEach(indice -> indices.put(indice.getFecha(), indice.getValor()));
+                indicesCargados = true;
+                logger.info("Serie ICL cargada en memoria: {} valores", indices.size());
+            }
+        }
+    }
+
+    private LocalDate parsearFecha(String fecha) {
+        try {
+            return LocalDate.parse(FechaUtil.convertirFechaUsuarioToISODate(fecha));
+        } catch (Exception e) {
+            throw new BusinessException(
+                ErrorCodes.FORMATO_FECHA_INVALIDO,
+                "Fecha inválida para consultar el ICL: " + fecha,
+                HttpStatus.BAD_REQUEST
+            );
+        }
+    }
+}
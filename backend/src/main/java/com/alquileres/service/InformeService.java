@@ -1,8 +1,11 @@
 package com.alquileres.service;
 
 import com.alquileres.dto.*;
-import com.alquileres.model.*;
 import com.alquileres.repository.*;
+import com.alquileres.repository.projection.FilaInformeAlquiler;
+import com.alquileres.repository.projection.FilaInformeAumento;
+import com.alquileres.repository.projection.FilaInformePagoServicio;
+import com.alquileres.util.FechaUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -11,23 +14,31 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
  * Servicio para la generación de informes del sistema
+ *
+ * Cada informe se resuelve con una única consulta que devuelve proyecciones con los datos del
+ * contrato, inmueble, inquilino y propietario ya unidos en SQL: no se cargan entidades ni se hace
+ * una consulta adicional por fila.
  */
 @Service
 public class InformeService {
 
     private static final Logger logger = LoggerFactory.getLogger(InformeService.class);
 
+    private static final DateTimeFormatter FORMATO_PERIODO = DateTimeFormatter.ofPattern("MM/yyyy");
+
     private final AlquilerRepository alquilerRepository;
     private final PagoServicioRepository pagoServicioRepository;
     private final AumentoAlquilerRepository aumentoAlquilerRepository;
-    private final PropietarioRepository propietarioRepository;
     private final ClockService clockService;
 
     /**
@@ -36,67 +47,53 @@ public class InformeService {
      * @param alquilerRepository Repository de alquileres
      * @param pagoServicioRepository Repository de pagos de servicios
      * @param aumentoAlquilerRepository Repository de aumentos de alquileres
-     * @param propietarioRepository Repository de propietarios
      * @param clockService Servicio de reloj para manejo de fechas
      */
     public InformeService(
             AlquilerRepository alquilerRepository,
             PagoServicioRepository pagoServicioRepository,
             AumentoAlquilerRepository aumentoAlquilerRepository,
-            PropietarioRepository propietarioRepository,
             ClockService clockService) {
         this.alquilerRepository = alquilerRepository;
         this.pagoServicioRepository = pagoServicioRepository;
         this.aumentoAlquilerRepository = aumentoAlquilerRepository;
-        this.propietarioRepository = propietarioRepository;
         this.clockService = clockService;
     }
 
     /**
-     * Genera el Informe 1: Honorarios por inmueble del mes actual
+     * Genera el Informe 1: Honorarios por inmueble del mes indicado
      *
+     * @param mes Mes del informe; si es null se usa el mes actual
      * @return InformeHonorariosDTO con honorarios por inmueble y total
      */
     @Transactional(readOnly = true)
-    public InformeHonorariosDTO generarInformeHonorarios() {
-        logger.info("Generando informe de honorarios para el mes actual");
-
-        LocalDate fechaActual = clockService.getCurrentDate();
-        int mes = fechaActual.getMonthValue();
-        int anio = fechaActual.getYear();
-        String periodo = String.format("%02d/%d", mes, anio);
+    public InformeHonorariosDTO generarInformeHonorarios(YearMonth mes) {
+        YearMonth periodoInforme = mesOActual(mes);
+        String periodo = periodoInforme.format(FORMATO_PERIODO);
+        logger.info("Generando informe de honorarios para {}", periodo);
 
-        // Obtener todos los alquileres pagados del mes actual de contratos vigentes
-        List<Alquiler> alquileresPagados = alquilerRepository
-                .findAlquileresPagadosPorMesYAnio(mes, anio);
+        // Alquileres pagados del mes de contratos vigentes, con sus partes
+        List<FilaInformeAlquiler> filas = alquilerRepository.findFilasInformeHonorarios(
+                periodoInforme.atDay(1), periodoInforme.plusMonths(1).atDay(1));
 
         List<InformeHonorariosDTO.HonorarioPorInmuebleDTO> honorarios = new ArrayList<>();
         BigDecimal totalHonorarios = BigDecimal.ZERO;
 
-        for (Alquiler alquiler : alquileresPagados) {
-            Contrato contrato = alquiler.getContrato();
-            Inmueble inmueble = contrato.getInmueble();
-            Inquilino inquilino = contrato.getInquilino();
-
-            // Obtener propietario
-            Propietario propietario = propietarioRepository.findById(inmueble.getPropietarioId())
-                    .orElse(null);
-            if (propietario == null) continue;
-
+        for (FilaInformeAlquiler fila : filas) {
             // Calcular honorario (10% del monto del alquiler)
-            BigDecimal honorario = alquiler.getMonto()
+            BigDecimal honorario = fila.getMonto()
                     .multiply(BigDecimal.valueOf(0.10))
                     .setScale(2, RoundingMode.HALF_UP);
 
             InformeHonorariosDTO.HonorarioPorInmuebleDTO dto = new InformeHonorariosDTO.HonorarioPorInmuebleDTO();
-            dto.setInmuebleId(inmueble.getId());
-            dto.setDireccionInmueble(inmueble.getDireccion());
-            dto.setContratoId(contrato.getId());
-            dto.setNombrePropietario(propietario.getNombre());
-            dto.setApellidoPropietario(propietario.getApellido());
-            dto.setNombreInquilino(inquilino.getNombre());
-            dto.setApellidoInquilino(inquilino.getApellido());
-            dto.setMontoAlquiler(alquiler.getMonto());
+            dto.setInmuebleId(fila.getInmuebleId());
+            dto.setDireccionInmueble(fila.getDireccionInmueble());
+            dto.setContratoId(fila.getContratoId());
+            dto.setNombrePropietario(fila.getNombrePropietario());
+            dto.setApellidoPropietario(fila.getApellidoPropietario());
+            dto.setNombreInquilino(fila.getNombreInquilino());
+            dto.setApellidoInquilino(fila.getApellidoInquilino());
+            dto.setMontoAlquiler(fila.getMonto());
             dto.setHonorario(honorario);
 
             honorarios.add(dto);
@@ -110,56 +107,45 @@ public class InformeService {
     }
 
     /**
-     * Genera el Informe 2: Pagos de alquileres del mes actual
+     * Genera el Informe 2: Pagos de alquileres del mes indicado
      *
+     * @param mes Mes del informe; si es null se usa el mes actual
      * @return InformeAlquileresDTO con detalle de pagos y total
      */
     @Transactional(readOnly = true)
-    public InformeAlquileresDTO generarInformeAlquileres() {
-        logger.info("Generando informe de alquileres para el mes actual");
-
-        LocalDate fechaActual = clockService.getCurrentDate();
-        int mes = fechaActual.getMonthValue();
-        int anio = fechaActual.getYear();
-        String periodo = String.format("%02d/%d", mes, anio);
+    public InformeAlquileresDTO generarInformeAlquileres(YearMonth mes) {
+        YearMonth periodoInforme = mesOActual(mes);
+        String periodo = periodoInforme.format(FORMATO_PERIODO);
+        logger.info("Generando informe de alquileres para {}", periodo);
 
-        // Obtener todos los alquileres del mes actual (pagados y no pagados) de contratos vigentes
-        List<Alquiler> alquileres = alquilerRepository
-                .findAlquileresPorMesYAnioYEstadoContrato(mes, anio, "Vigente");
+        // Todos los alquileres del mes (pagados y no pagados) de contratos vigentes, con sus partes
+        List<FilaInformeAlquiler> filas = alquilerRepository.findFilasInformeAlquileres(
+                periodoInforme.atDay(1), periodoInforme.plusMonths(1).atDay(1), "Vigente");
 
         List<InformeAlquileresDTO.PagoAlquilerDetalleDTO> pagos = new ArrayList<>();
         BigDecimal totalPagado = BigDecimal.ZERO;
         BigDecimal montoPorCobrar = BigDecimal.ZERO;
 
-        for (Alquiler alquiler : alquileres) {
-            Contrato contrato = alquiler.getContrato();
-            Inmueble inmueble = contrato.getInmueble();
-            Inquilino inquilino = contrato.getInquilino();
-
-            // Obtener propietario
-            Propietario propietario = propietarioRepository.findById(inmueble.getPropietarioId())
-                    .orElse(null);
-            if (propietario == null) continue;
-
+        for (FilaInformeAlquiler fila : filas) {
             InformeAlquileresDTO.PagoAlquilerDetalleDTO dto = new InformeAlquileresDTO.PagoAlquilerDetalleDTO();
-            dto.setAlquilerId(alquiler.getId());
-            dto.setContratoId(contrato.getId());
-            dto.setDireccionInmueble(inmueble.getDireccion());
-            dto.setNombreInquilino(inquilino.getNombre());
-            dto.setApellidoInquilino(inquilino.getApellido());
-            dto.setNombrePropietario(propietario.getNombre());
-            dto.setApellidoPropietario(propietario.getApellido());
-            dto.setMonto(alquiler.getMonto());
-            dto.setFechaPago(alquiler.getFechaPago());
-            dto.setFechaVencimiento(alquiler.getFechaVencimientoPago());
-            dto.setEstaPagado(alquiler.getEstaPagado());
+            dto.setAlquilerId(fila.getAlquilerId());
+            dto.setContratoId(fila.getContratoId());
+            dto.setDireccionInmueble(fila.getDireccionInmueble());
+            dto.setNombreInquilino(fila.getNombreInquilino());
+            dto.setApellidoInquilino(fila.getApellidoInquilino());
+            dto.setNombrePropietario(fila.getNombrePropietario());
+            dto.setApellidoPropietario(fila.getApellidoPropietario());
+            dto.setMonto(fila.getMonto());
+            dto.setFechaPago(fila.getFechaPago());
+            dto.setFechaVencimiento(FechaUtil.formatearISO(fila.getFechaVencimientoPago()));
+            dto.setEstaPagado(fila.getEstaPagado());
 
             pagos.add(dto);
 
-            if (Boolean.TRUE.equals(alquiler.getEstaPagado())) {
-                totalPagado = totalPagado.add(alquiler.getMonto());
+            if (Boolean.TRUE.equals(fila.getEstaPagado())) {
+                totalPagado = totalPagado.add(fila.getMonto());
             } else {
-                montoPorCobrar = montoPorCobrar.add(alquiler.getMonto());
+                montoPorCobrar = montoPorCobrar.add(fila.getMonto());
             }
         }
 
@@ -170,64 +156,48 @@ public class InformeService {
     }
 
     /**
-     * Genera el Informe 3: Aumentos de alquiler de los últimos N meses
+     * Genera el Informe 3: Aumentos de alquiler de los N meses anteriores a una fecha
      *
      * @param meses Cantidad de meses hacia atrás para el informe (por defecto 6)
+     * @param hasta Último mes incluido en el informe; si es null el informe llega hasta hoy
      * @return InformeAumentosDTO con aumentos agrupados por contrato
      */
     @Transactional(readOnly = true)
-    public InformeAumentosDTO generarInformeAumentos(Integer meses) {
+    public InformeAumentosDTO generarInformeAumentos(Integer meses, YearMonth hasta) {
         // Si no se especifica meses, usar 6 por defecto
         if (meses == null || meses <= 0) {
             meses = 6;
         }
 
-        logger.info("Generando informe de aumentos de los últimos {} meses", meses);
-
-        LocalDate fechaActual = clockService.getCurrentDate();
-        LocalDate fechaDesde = fechaActual.minusMonths(meses);
+        LocalDate fechaHasta = hasta != null ? hasta.atEndOfMonth() : clockService.getCurrentDate();
+        LocalDate fechaDesde = fechaHasta.minusMonths(meses);
 
-        String fechaDesdeStr = fechaDesde.format(DateTimeFormatter.ISO_LOCAL_DATE);
-        String fechaHastaStr = fechaActual.format(DateTimeFormatter.ISO_LOCAL_DATE);
+        logger.info("Generando informe de aumentos de los {} meses anteriores a {}", meses, fechaHasta);
 
-        // Obtener aumentos del rango de meses especificado
-        List<AumentoAlquiler> aumentos = aumentoAlquilerRepository
-                .findAumentosPorRangoFecha(fechaDesdeStr, fechaHastaStr);
+        List<FilaInformeAumento> filas = aumentoAlquilerRepository.findFilasInformeAumentos(fechaDesde, fechaHasta);
 
-        // Agrupar aumentos por contrato
-        var aumentosPorContrato = aumentos.stream()
-                .collect(Collectors.groupingBy(a -> a.getContrato().getId()));
+        // Agrupar aumentos por contrato (las filas vienen ordenadas por contrato)
+        Map<Long, List<FilaInformeAumento>> aumentosPorContrato = filas.stream()
+                .collect(Collectors.groupingBy(FilaInformeAumento::getContratoId, LinkedHashMap::new, Collectors.toList()));
 
         List<InformeAumentosDTO.AumentoPorContratoDTO> listaAumentos = new ArrayList<>();
 
         for (var entry : aumentosPorContrato.entrySet()) {
-            Long contratoId = entry.getKey();
-            List<AumentoAlquiler> aumentosContrato = entry.getValue();
-
-            if (aumentosContrato.isEmpty()) continue;
-
-            Contrato contrato = aumentosContrato.get(0).getContrato();
-            Inmueble inmueble = contrato.getInmueble();
-            Inquilino inquilino = contrato.getInquilino();
-
-            // Obtener propietario
-            Propietario propietario = propietarioRepository.findById(inmueble.getPropietarioId())
-                    .orElse(null);
-            if (propietario == null) continue;
+            FilaInformeAumento primera = entry.getValue().get(0);
 
             InformeAumentosDTO.AumentoPorContratoDTO contratoDTO = new InformeAumentosDTO.AumentoPorContratoDTO();
-            contratoDTO.setContratoId(contratoId);
-            contratoDTO.setDireccionInmueble(inmueble.getDireccion());
-            contratoDTO.setNombreInquilino(inquilino.getNombre());
-            contratoDTO.setApellidoInquilino(inquilino.getApellido());
-            contratoDTO.setNombrePropietario(propietario.getNombre());
-            contratoDTO.setApellidoPropietario(propietario.getApellido());
-
-            List<InformeAumentosDTO.DetalleAumentoDTO> detalles = aumentosContrato.stream()
+            contratoDTO.setContratoId(entry.getKey());
+            contratoDTO.setDireccionInmueble(primera.getDireccionInmueble());
+            contratoDTO.setNombreInquilino(primera.getNombreInquilino());
+            contratoDTO.setApellidoInquilino(primera.getApellidoInquilino());
+            contratoDTO.setNombrePropietario(primera.getNombrePropietario());
+            contratoDTO.setApellidoPropietario(primera.getApellidoPropietario());
+
+            List<InformeAumentosDTO.DetalleAumentoDTO> detalles = entry.getValue().stream()
                     .map(aumento -> {
                         InformeAumentosDTO.DetalleAumentoDTO detalle = new InformeAumentosDTO.DetalleAumentoDTO();
-                        detalle.setAumentoId(aumento.getId());
-                        detalle.setFechaAumento(aumento.getFechaAumento());
+                        detalle.setAumentoId(aumento.getAumentoId());
+                        detalle.setFechaAumento(FechaUtil.formatearISO(aumento.getFechaAumento()));
                         detalle.setMontoAnterior(aumento.getMontoAnterior());
                         detalle.setMontoNuevo(aumento.getMontoNuevo());
                         detalle.setPorcentajeAumento(aumento.getPorcentajeAumento());
@@ -239,8 +209,8 @@ public class InformeService {
             listaAumentos.add(contratoDTO);
         }
 
-        String periodoDesde = fechaDesde.format(DateTimeFormatter.ofPattern("MM/yyyy"));
-        String periodoHasta = fechaActual.format(DateTimeFormatter.ofPattern("MM/yyyy"));
+        String periodoDesde = fechaDesde.format(FORMATO_PERIODO);
+        String periodoHasta = fechaHasta.format(FORMATO_PERIODO);
 
         logger.info("Informe de aumentos generado: {} contratos con aumentos", listaAumentos.size());
 
@@ -248,68 +218,52 @@ public class InformeService {
     }
 
     /**
-     * Genera el Informe 4: Pagos de servicios del mes actual con detalle completo
+     * Genera el Informe 4: Pagos de servicios del mes indicado con detalle completo
      * Agrupa los pagos por contrato
      *
+     * @param mes Mes del informe; si es null se usa el mes actual
      * @return InformePagosServiciosDTO con detalle completo de pagos de servicios agrupados por contrato
      */
     @Transactional(readOnly = true)
-    public InformePagosServiciosDTO generarInformePagosServicios() {
-        logger.info("Generando informe de pagos de servicios para el mes actual");
-
-        LocalDate fechaActual = clockService.getCurrentDate();
-        int mes = fechaActual.getMonthValue();
-        int anio = fechaActual.getYear();
-        String periodo = String.format("%02d/%d", mes, anio);
+    public InformePagosServiciosDTO generarInformePagosServicios(YearMonth mes) {
+        YearMonth periodoInforme = mesOActual(mes);
+        String periodo = periodoInforme.format(FORMATO_PERIODO);
+        logger.info("Generando informe de pagos de servicios para {}", periodo);
 
-        // Obtener todos los pagos de servicios del mes actual
-        List<Object[]> resultados = pagoServicioRepository
-                .findPagosServiciosDelMesActualConDetalle(periodo);
+        List<FilaInformePagoServicio> filas = pagoServicioRepository.findFilasInformePagosServicios(
+                periodo, periodoInforme.atDay(1), periodoInforme.plusMonths(1).atDay(1));
 
         // Agrupar por contratoId
-        var pagosPorContrato = new java.util.LinkedHashMap<Long, List<Object[]>>();
-        for (Object[] resultado : resultados) {
-            Long contratoId = (Long) resultado[6];
-            pagosPorContrato.computeIfAbsent(contratoId, k -> new ArrayList<>()).add(resultado);
+        Map<Long, List<FilaInformePagoServicio>> pagosPorContrato = new LinkedHashMap<>();
+        for (FilaInformePagoServicio fila : filas) {
+            pagosPorContrato.computeIfAbsent(fila.getContratoId(), k -> new ArrayList<>()).add(fila);
         }
 
         List<InformePagosServiciosDTO.PagosServiciosPorContratoDTO> contratosPagosServicios = new ArrayList<>();
         BigDecimal totalPagado = BigDecimal.ZERO;
 
         for (var entry : pagosPorContrato.entrySet()) {
-            Long contratoId = entry.getKey();
-            List<Object[]> pagosDelContrato = entry.getValue();
-
-            if (pagosDelContrato.isEmpty()) continue;
-
             // Usar el primer pago para obtener datos del contrato
-            Object[] primerPago = pagosDelContrato.get(0);
+            FilaInformePagoServicio primerPago = entry.getValue().get(0);
 
             InformePagosServiciosDTO.PagosServiciosPorContratoDTO contratoDTO =
                     new InformePagosServiciosDTO.PagosServiciosPorContratoDTO();
 
-            contratoDTO.setContratoId(contratoId);
-            contratoDTO.setDireccionInmueble((String) primerPago[7]);
-
-            // Obtener propietario por ID
-            Long propietarioId = (Long) primerPago[8];
-            Propietario propietario = propietarioRepository.findById(propietarioId).orElse(null);
-            if (propietario != null) {
-                contratoDTO.setNombrePropietario(propietario.getNombre());
-                contratoDTO.setApellidoPropietario(propietario.getApellido());
-            }
-
-            contratoDTO.setNombreInquilino((String) primerPago[9]);
-            contratoDTO.setApellidoInquilino((String) primerPago[10]);
+            contratoDTO.setContratoId(entry.getKey());
+            contratoDTO.setDireccionInmueble(primerPago.getDireccionInmueble());
+            contratoDTO.setNombrePropietario(primerPago.getNombrePropietario());
+            contratoDTO.setApellidoPropietario(primerPago.getApellidoPropietario());
+            contratoDTO.setNombreInquilino(primerPago.getNombreInquilino());
+            contratoDTO.setApellidoInquilino(primerPago.getApellidoInquilino());
 
             // Datos del alquiler relacionado (común para todos los pagos del contrato)
-            if (primerPago[11] != null) {
+            if (primerPago.getAlquilerId() != null) {
                 InformePagosServiciosDTO.AlquilerRelacionadoDTO alquilerDTO =
                         new InformePagosServiciosDTO.AlquilerRelacionadoDTO();
-                alquilerDTO.setAlquilerId((Long) primerPago[11]);
-                alquilerDTO.setMontoAlquiler((BigDecimal) primerPago[12]);
-                alquilerDTO.setFechaVencimientoAlquiler((String) primerPago[13]);
-                alquilerDTO.setAlquilerPagado((Boolean) primerPago[14]);
+                alquilerDTO.setAlquilerId(primerPago.getAlquilerId());
+                alquilerDTO.setMontoAlquiler(primerPago.getMontoAlquiler());
+                alquilerDTO.setFechaVencimientoAlquiler(FechaUtil.formatearISO(primerPago.getFechaVencimientoAlquiler()));
+                alquilerDTO.setAlquilerPagado(primerPago.getAlquilerPagado());
                 contratoDTO.setAlquilerRelacionado(alquilerDTO);
             }
 
@@ -317,16 +271,16 @@ public class InformeService {
             List<InformePagosServiciosDTO.PagoServicioDetalleDTO> pagosServicios = new ArrayList<>();
             BigDecimal subtotal = BigDecimal.ZERO;
 
-            for (Object[] pago : pagosDelContrato) {
+            for (FilaInformePagoServicio pago : entry.getValue()) {
                 InformePagosServiciosDTO.PagoServicioDetalleDTO pagoDTO =
                         new InformePagosServiciosDTO.PagoServicioDetalleDTO();
 
-                pagoDTO.setPagoServicioId((Integer) pago[0]);
-                pagoDTO.setFechaPago((String) pago[1]);
-                pagoDTO.setMonto((BigDecimal) pago[2]);
-                pagoDTO.setPeriodoServicio((String) pago[3]);
-                pagoDTO.setTipoServicio((String) pago[4]);
-                pagoDTO.setEstaPagado((Boolean) pago[5]);
+                pagoDTO.setPagoServicioId(pago.getPagoServicioId());
+                pagoDTO.setFechaPago(pago.getFechaPago());
+                pagoDTO.setMonto(pago.getMonto());
+                pagoDTO.setPeriodoServicio(pago.getPeriodoServicio());
+                pagoDTO.setTipoServicio(pago.getTipoServicio());
+                pagoDTO.setEstaPagado(pago.getEstaPagado());
 
                 pagosServicios.add(pagoDTO);
 
@@ -342,9 +296,12 @@ public class InformeService {
         }
 
         logger.info("Informe de pagos de servicios generado: {} contratos, {} pagos totales, total pagado: {}",
-                   contratosPagosServicios.size(), resultados.size(), totalPagado);
+                   contratosPagosServicios.size(), filas.size(), totalPagado);
 
         return new InformePagosServiciosDTO(periodo, contratosPagosServicios, totalPagado);
     }
-}
 
+    private YearMonth mesOActual(YearMonth mes) {
+        return mes != null ? mes : YearMonth.from(clockService.getCurrentDate());
+    }
+}
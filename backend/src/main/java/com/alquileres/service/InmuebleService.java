@@ -1,6 +1,7 @@
 package com.alquileres.service;
 
 import com.alquileres.dto.InmuebleDTO;
+import com.alquileres.dto.PaginaDTO;
 import com.alquileres.model.Inmueble;
 import com.alquileres.model.EstadoInmueble;
 import com.alquileres.model.TipoInmueble;
@@ -11,6 +12,7 @@ import com.alquileres.repository.TipoInmuebleRepository;
 import com.alquileres.repository.ContratoRepository;
 import com.alquileres.exception.BusinessException;
 import com.alquileres.exception.ErrorCodes;
+import com.alquileres.util.Paginacion;
 import com.alquileres.config.CacheNames;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
@@ -96,6 +98,24 @@ public class InmuebleService {
                 .collect(Collectors.toList());
     }
 
+    // Obtener una página de inmuebles (ID descendente) con filtros opcionales; texto busca en la dirección
+    public PaginaDTO<InmuebleDTO> obtenerPaginaInmuebles(String cursor, Integer tamano, Boolean esActivo,
+                                                         Boolean esAlquilado, Integer estado, Long propietarioId,
+                                                         String texto) {
+        int tamanoPagina = Paginacion.tamanoValido(tamano);
+
+        List<Inmueble> inmuebles = inmuebleRepository.buscarPagina(
+                Paginacion.decodificarCursor(cursor),
+                esActivo,
+                esAlquilado,
+                estado,
+                propietarioId,
+                Paginacion.patronBusqueda(texto),
+                Paginacion.limiteConsulta(tamanoPagina));
+        return Paginacion.armarPagina(inmuebles, tamanoPagina, Inmueble::getId,
+                pagina -> pagina.stream().map(InmuebleDTO::new).collect(Collectors.toList()));
+    }
+
     // Obtener inmueble por ID
     public InmuebleDTO obtenerInmueblePorId(Long id) {
         Optional<Inmueble> inmueble = inmuebleRepository.findById(id);
@@ -132,6 +152,7 @@ public class InmuebleService {
     }
 
     // Crear nuevo inmueble
+    @CacheEvict(value = CacheNames.DASHBOARD, allEntries = true)
     public InmuebleDTO crearInmueble(InmuebleDTO inmuebleDTO) {
         // Validar que el propietario exista
         if (inmuebleDTO.getPropietarioId() != null) {
@@ -230,7 +251,8 @@ public class InmuebleService {
             CacheNames.CONTRATOS_NO_VIGENTES,
             CacheNames.CONTRATOS_PROXIMOS_VENCER,
             CacheNames.CONTRATOS_POR_INMUEBLE,
-            CacheNames.INMUEBLE_TIENE_CONTRATO_VIGENTE
+            CacheNames.INMUEBLE_TIENE_CONTRATO_VIGENTE,
+            CacheNames.DASHBOARD
         }
     )
     public void eliminarInmueble(Long id) {
@@ -284,7 +306,8 @@ public class InmuebleService {
             CacheNames.CONTRATOS_NO_VIGENTES,
             CacheNames.CONTRATOS_PROXIMOS_VENCER,
             CacheNames.CONTRATOS_POR_INMUEBLE,
-            CacheNames.INMUEBLE_TIENE_CONTRATO_VIGENTE
+            CacheNames.INMUEBLE_TIENE_CONTRATO_VIGENTE,
+            CacheNames.DASHBOARD
         }
     )
     public int desactivarInmueblesPorPropietario(Long propietarioId) {
@@ -436,6 +459,7 @@ public class InmuebleService {
     }
 
     // Alias para desactivar inmueble (método usado por el controller)
+    @CacheEvict(value = CacheNames.DASHBOARD, allEntries = true)
     public void desactivarInmueble(Long id) {
         eliminarInmueble(id);
     }
@@ -450,7 +474,8 @@ public class InmuebleService {
             CacheNames.CONTRATOS_NO_VIGENTES,
             CacheNames.CONTRATOS_PROXIMOS_VENCER,
             CacheNames.CONTRATOS_POR_INMUEBLE,
-            CacheNames.INMUEBLE_TIENE_CONTRATO_VIGENTE
+            CacheNames.INMUEBLE_TIENE_CONTRATO_VIGENTE,
+            CacheNames.DASHBOARD
         }
     )
     public void activarInmueble(Long id) {
@@ -467,31 +492,4 @@ public class InmuebleService {
         i.setEsActivo(true);
         inmuebleRepository.save(i);
     }
-
-    // Metodo que se usa cuando se da de baja un contrato automaticamente
-    // Cambia el estado del inmueble a Disponible y esAlquilado = false
-    @Transactional
-    @CacheEvict(
-        allEntries = true,
-        cacheNames = {
-            CacheNames.CONTRATOS,
-            CacheNames.CONTRATOS_VIGENTES,
-            CacheNames.CONTRATOS_NO_VIGENTES,
-            CacheNames.CONTRATOS_PROXIMOS_VENCER,
-            CacheNames.CONTRATOS_POR_INMUEBLE,
-            CacheNames.INMUEBLE_TIENE_CONTRATO_VIGENTE
-        }
-    )
-    public void actualizarEstadoInmueble(Inmueble i) {
-        Optional<EstadoInmueble> estadoInmuebleDisponible = estadoInmuebleRepository.findByNombre("Disponible");
-        if (estadoInmuebleDisponible.isEmpty()) {
-            throw new BusinessException(
-                ErrorCodes.ESTADO_INMUEBLE_NO_ENCONTRADO,
-                "Estado 'Disponible' no encontrado en el sistema",
-                HttpStatus.INTERNAL_SERVER_ERROR
-            );
-        }
-        i.setEstado(estadoInmuebleDisponible.get().getId());
-        i.setEsAlquilado(false);
-    }
 }
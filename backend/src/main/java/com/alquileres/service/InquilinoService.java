@@ -1,11 +1,13 @@
 package com.alquileres.service;
 
 import com.alquileres.dto.InquilinoDTO;
+import com.alquileres.dto.PaginaDTO;
 import com.alquileres.model.Inquilino;
 import com.alquileres.repository.InquilinoRepository;
 import com.alquileres.repository.ContratoRepository;
 import com.alquileres.exception.BusinessException;
 import com.alquileres.exception.ErrorCodes;
+import com.alquileres.util.Paginacion;
 import com.alquileres.config.CacheNames;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
@@ -53,6 +55,22 @@ public class InquilinoService {
                 .collect(Collectors.toList());
     }
 
+    // Obtener una página de inquilinos (ID descendente) con filtros opcionales;
+    // texto busca en nombre, apellido y CUIL
+    public PaginaDTO<InquilinoDTO> obtenerPaginaInquilinos(String cursor, Integer tamano, Boolean esActivo,
+                                                           Boolean estaAlquilando, String texto) {
+        int tamanoPagina = Paginacion.tamanoValido(tamano);
+
+        List<Inquilino> inquilinos = inquilinoRepository.buscarPagina(
+                Paginacion.decodificarCursor(cursor),
+                esActivo,
+                estaAlquilando,
+                Paginacion.patronBusqueda(texto),
+                Paginacion.limiteConsulta(tamanoPagina));
+        return Paginacion.armarPagina(inquilinos, tamanoPagina, Inquilino::getId,
+                pagina -> pagina.stream().map(InquilinoDTO::new).collect(Collectors.toList()));
+    }
+
     // Contar inquilinos activos
     public Long contarInquilinosActivos() {
         return inquilinoRepository.countByEsActivoTrue();
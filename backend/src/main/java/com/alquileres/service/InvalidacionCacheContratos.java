@@ -0,0 +1,118 @@
+package com.alquileres.service;
+
+import com.alquileres.config.CacheNames;
+import com.alquileres.repository.projection.ContratoAfectado;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+
+/**
+ * Invalida los cachés de contratos a partir de los contratos que cambiaron
+ *
+ * Las consultas por clave (contrato, inmueble, inquilino, servicios del contrato) se invalidan solo
+ * para las claves afectadas; el resto de los contratos sigue en caché. Los listados y totales tienen
+ * una sola clave (o una por cantidad de días) y se vacían, porque cualquier contrato puede entrar o salir.
+ * Si hay una transacción activa, la invalidación se hace después del commit, así una lectura concurrente
+ * no vuelve a guardar en caché los datos anteriores.
+ */
+@Service
+public class InvalidacionCacheContratos {
+
+    // Cachés con listados o totales de contratos
+    private static final String[] CACHES_DE_LISTADOS = {
+        CacheNames.CONTRATOS,
+        CacheNames.CONTRATOS_VIGENTES,
+        CacheNames.CONTRATOS_VIGENTES_COUNT,
+        CacheNames.CONTRATOS_NO_VIGENTES,
+        CacheNames.CONTRATOS_PROXIMOS_VENCER,
+        CacheNames.CONTRATOS_PROXIMOS_VENCER_COUNT,
+        CacheNames.DASHBOARD
+    };
+
+    private final CacheManager cacheManager;
+
+    public InvalidacionCacheContratos(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * Invalida un contrato que se creó o cambió, junto con las consultas de su inmueble e inquilino
+     */
+    public void invalidarContrato(Long contratoId, Long inmuebleId, Long inquilinoId) {
+        despuesDelCommit(() -> {
+            vaciarListados();
+            evictarClaves(contratoId, inmuebleId, inquilinoId);
+        });
+    }
+
+    /**
+     * Invalida varios contratos que cambiaron en bloque
+     */
+    public void invalidarContratos(Collection<ContratoAfectado> contratos) {
+        despuesDelCommit(() -> {
+            vaciarListados();
+            for (ContratoAfectado contrato : contratos) {
+                evictarClaves(contrato.getContratoId(), contrato.getInmuebleId(), contrato.getInquilinoId());
+            }
+        });
+    }
+
+    /**
+     * Invalida los servicios en caché de un contrato y el dashboard (los datos del contrato no incluyen servicios)
+     */
+    public void invalidarServiciosDeContrato(Long contratoId) {
+        despuesDelCommit(() -> {
+            Cache servicios = cacheManager.getCache(CacheNames.SERVICIOS_POR_CONTRATO);
+            evict(servicios, contratoId);
+            evict(servicios, contratoId + "_activos");
+            vaciar(CacheNames.DASHBOARD);
+        });
+    }
+
+    private void vaciarListados() {
+        for (String nombre : CACHES_DE_LISTADOS) {
+            vaciar(nombre);
+        }
+    }
+
+    private void evictarClaves(Long contratoId, Long inmuebleId, Long inquilinoId) {
+        evict(cacheManager.getCache(CacheNames.CONTRATO_POR_ID), contratoId);
+        evict(cacheManager.getCache(CacheNames.CONTRATO_EXISTE), contratoId);
+        Cache servicios = cacheManager.getCache(CacheNames.SERVICIOS_POR_CONTRATO);
+        evict(servicios, contratoId);
+        evict(servicios, contratoId + "_activos");
+        evict(cacheManager.getCache(CacheNames.CONTRATOS_POR_INMUEBLE), inmuebleId);
+        evict(cacheManager.getCache(CacheNames.INMUEBLE_TIENE_CONTRATO_VIGENTE), inmuebleId);
+        evict(cacheManager.getCache(CacheNames.CONTRATOS_POR_INQUILINO), inquilinoId);
+    }
+
+    private void vaciar(String nombre) {
+        Cache cache = cacheManager.getCache(nombre);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    private void evict(Cache cache, Object clave) {
+        if (cache != null && clave != null) {
+            cache.evict(clave);
+        }
+    }
+
+    private void despuesDelCommit(Runnable invalidacion) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidacion.run();
+                }
+            });
+        } else {
+            invalidacion.run();
+        }
+    }
+}
@@ -1,13 +1,26 @@
 package com.alquileres.service;
 
+import com.alquileres.config.CacheLocalAcotada;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.function.LongSupplier;
+
+/**
+ * Limita los intentos de login fallidos por usuario sin bloquear hilos
+ *
+ * En lugar de demorar la respuesta con Thread.sleep, cada usuario tiene un "no reintentar antes de":
+ * mientras no llegue ese momento el intento se rechaza con 429 y la cantidad de segundos que faltan.
+ * Solo cuentan los fallos dentro de una ventana deslizante de 15 minutos, y por usuario se guardan
+ * como máximo MAX_FALLOS_REGISTRADOS marcas de tiempo. Los intentos se guardan en una caché local
+ * acotada: al superar la cantidad máxima de usuarios se descarta el usado hace más tiempo, así una
+ * ráfaga de nombres inventados no hace crecer la memoria. Cada actualización es atómica.
+ */
 @Service
 public class LoginAttemptService {
 
@@ -17,102 +30,143 @@ public class LoginAttemptService {
     private static final int SHORT_DELAY_SECONDS = 5;
     private static final int LONG_DELAY_SECONDS = 30;
 
-    // Mapa para almacenar los intentos fallidos por usuario
-    private final Map<String, LoginAttemptInfo> loginAttempts = new ConcurrentHashMap<>();
+    private static final long VENTANA_MS = 15 * 60 * 1000L;
+    private static final int MAX_FALLOS_REGISTRADOS = 10;
+    private static final String NOMBRE_CACHE = "intentosLogin";
+
+    // Intentos fallidos recientes por usuario
+    private final CacheLocalAcotada loginAttempts;
+    private final LongSupplier reloj;
+
+    @Autowired
+    public LoginAttemptService(@Value("${app.login.intentos.max-usuarios:10000}") int maxUsuarios) {
+        this(maxUsuarios, System::currentTimeMillis);
+    }
+
+    LoginAttemptService(int maxUsuarios, LongSupplier reloj) {
+        this.loginAttempts = new CacheLocalAcotada(NOMBRE_CACHE, maxUsuarios, Duration.ofMillis(VENTANA_MS));
+        this.reloj = reloj;
+    }
+
+    /**
+     * Estado inmutable de los intentos de un usuario; cada cambio crea una instancia nueva dentro de compute
+     */
+    private static final class LoginAttemptInfo {
+        // Marcas de tiempo de los fallos dentro de la ventana, de la más antigua a la más reciente
+        final long[] fallos;
+        // Antes de este momento no se acepta otro intento
+        final long bloqueadoHasta;
+
+        LoginAttemptInfo(long[] fallos, long bloqueadoHasta) {
+            this.fallos = fallos;
+            this.bloqueadoHasta = bloqueadoHasta;
+        }
+
+        LoginAttemptInfo sinFallosVencidos(long ahora) {
+            int desde = 0;
+            while (desde < fallos.length && fallos[desde] <= ahora - VENTANA_MS) {
+                desde++;
+            }
+            return desde == 0 ? this : new LoginAttemptInfo(Arrays.copyOfRange(fallos, desde, fallos.length), bloqueadoHasta);
+        }
+
+        boolean estaVacio(long ahora) {
+            return fallos.length == 0 && bloqueadoHasta <= ahora;
+        }
+    }
 
     /**
-     * Clase interna para almacenar información de intentos de login
+     * Verifica si el usuario puede intentar el login ahora
+     *
+     * Si puede y ya tiene fallos recientes, reserva el intento: hasta que termine la demora que le
+     * corresponde, otros intentos simultáneos para el mismo usuario se rechazan.
+     *
+     * @return 0 si puede intentar; si no, los segundos que debe esperar (valor para Retry-After)
      */
-    private static class LoginAttemptInfo {
-        int failedAttempts;
-        LocalDateTime lastAttemptTime;
+    public long tryAcquire(String username) {
+        long ahora = reloj.getAsLong();
+        long[] espera = {0};
+
+        loginAttempts.<LoginAttemptInfo>actualizar(username, actual -> {
+            if (actual == null) {
+                return null;
+            }
+            LoginAttemptInfo info = actual.sinFallosVencidos(ahora);
+            if (ahora < info.bloqueadoHasta) {
+                espera[0] = info.bloqueadoHasta - ahora;
+                return info;
+            }
+
+            long demora = demoraMs(info.fallos.length);
+            if (demora == 0) {
+                return info.estaVacio(ahora) ? null : info;
+            }
+            return new LoginAttemptInfo(info.fallos, ahora + demora);
+        });
 
-        LoginAttemptInfo() {
-            this.failedAttempts = 0;
-            this.lastAttemptTime = LocalDateTime.now();
+        if (espera[0] == 0) {
+            return 0;
         }
+
+        long segundos = (espera[0] + 999) / 1000;
+        logger.warn("Intento de login para usuario '{}' rechazado. Debe esperar {} segundos.", username, segundos);
+        return segundos;
     }
 
     /**
      * Registra un intento de login fallido para un usuario
      */
     public void loginFailed(String username) {
-        LoginAttemptInfo info = loginAttempts.getOrDefault(username, new LoginAttemptInfo());
-        info.failedAttempts++;
-        info.lastAttemptTime = LocalDateTime.now();
-        loginAttempts.put(username, info);
+        long ahora = reloj.getAsLong();
+
+        LoginAttemptInfo info = loginAttempts.<LoginAttemptInfo>actualizar(username, actual -> {
+            long[] previos = actual == null ? new long[0] : actual.sinFallosVencidos(ahora).fallos;
+            int conservar = Math.min(previos.length, MAX_FALLOS_REGISTRADOS - 1);
+            long[] fallos = Arrays.copyOfRange(previos, previos.length - conservar, previos.length + 1);
+            fallos[conservar] = ahora;
+            return new LoginAttemptInfo(fallos, ahora + demoraMs(fallos.length));
+        });
 
         logger.warn("Intento de login fallido para usuario '{}'. Total de intentos: {}",
-                    username, info.failedAttempts);
+                    username, info.fallos.length);
     }
 
     /**
      * Registra un login exitoso y limpia los intentos fallidos
      */
     public void loginSucceeded(String username) {
-        loginAttempts.remove(username);
+        loginAttempts.evict(username);
         logger.info("Login exitoso para usuario '{}'. Intentos fallidos reiniciados.", username);
     }
 
     /**
-     * Verifica si el usuario debe esperar antes de intentar de nuevo
-     * y aplica el delay correspondiente
-     */
-    public void checkAndApplyDelay(String username) throws InterruptedException {
-        LoginAttemptInfo info = loginAttempts.get(username);
-
-        if (info == null) {
-            return; // No hay intentos previos
-        }
-
-        int attempts = info.failedAttempts;
-
-        if (attempts >= MAX_ATTEMPTS_BEFORE_SHORT_DELAY) {
-            int delaySeconds;
-
-            if (attempts == MAX_ATTEMPTS_BEFORE_SHORT_DELAY) {
-                // Tercer intento: delay de 5 segundos
-                delaySeconds = SHORT_DELAY_SECONDS;
-                logger.warn("Usuario '{}' ha alcanzado {} intentos fallidos. Aplicando delay de {} segundos.",
-                           username, attempts + 1, delaySeconds);
-            } else {
-                // Cuarto intento en adelante: delay de 30 segundos
-                delaySeconds = LONG_DELAY_SECONDS;
-                logger.warn("Usuario '{}' ha alcanzado {} intentos fallidos. Aplicando delay de {} segundos.",
-                           username, attempts + 1, delaySeconds);
-            }
-
-            // Aplicar el delay
-            Thread.sleep(delaySeconds * 1000L);
-        }
-    }
-
-    /**
-     * Obtiene el número de intentos fallidos de un usuario
+     * Obtiene el número de intentos fallidos de un usuario dentro de la ventana
      */
     public int getFailedAttempts(String username) {
-        LoginAttemptInfo info = loginAttempts.get(username);
-        return info != null ? info.failedAttempts : 0;
+        LoginAttemptInfo info = loginAttempts.get(username, LoginAttemptInfo.class);
+        return info != null ? info.sinFallosVencidos(reloj.getAsLong()).fallos.length : 0;
     }
 
     /**
      * Limpia los intentos fallidos de un usuario manualmente
      */
     public void resetAttempts(String username) {
-        loginAttempts.remove(username);
+        loginAttempts.evict(username);
         logger.info("Intentos fallidos reiniciados manualmente para usuario '{}'", username);
     }
 
     /**
-     * Limpia intentos antiguos (más de 24 horas)
-     * Este método podría ser llamado periódicamente por un scheduler
+     * Demora antes del próximo intento según la cantidad de fallos recientes
      */
-    public void cleanupOldAttempts() {
-        LocalDateTime threshold = LocalDateTime.now().minusHours(24);
-        loginAttempts.entrySet().removeIf(entry ->
-            entry.getValue().lastAttemptTime.isBefore(threshold)
-        );
-        logger.debug("Limpieza de intentos antiguos completada");
+    private long demoraMs(int fallos) {
+        if (fallos > MAX_ATTEMPTS_BEFORE_SHORT_DELAY) {
+            // Cuarto intento en adelante: 30 segundos
+            return LONG_DELAY_SECONDS * 1000L;
+        }
+        if (fallos == MAX_ATTEMPTS_BEFORE_SHORT_DELAY) {
+            // Tercer intento: 5 segundos
+            return SHORT_DELAY_SECONDS * 1000L;
+        }
+        return 0;
     }
 }
-
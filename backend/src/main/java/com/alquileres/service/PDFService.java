@@ -1,26 +1,59 @@
 package com.alquileres.service;
 
+import com.alquileres.dto.ContenidoPDFDTO;
 import com.alquileres.model.PDF;
 import com.alquileres.repository.PDFRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ByteArrayResource;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
+/**
+ * Gestiona los PDFs: la tabla pdfs guarda los metadatos y el SHA-256,
+ * y el contenido se guarda en el AlmacenPDF
+ *
+ * Eliminar un PDF solo borra la fila. Los archivos que ya no referencia ninguna fila se borran en
+ * limpiarAlmacen, respetando un margen desde su último guardado: así no se borra el contenido que una
+ * subida simultánea acaba de reutilizar y todavía no confirmó.
+ */
 @Service
 public class PDFService {
 
+    private static final Logger logger = LoggerFactory.getLogger(PDFService.class);
+
+    /**
+     * Antigüedad mínima del último guardado de un archivo para poder borrarlo
+     */
+    static final Duration MARGEN_LIMPIEZA = Duration.ofHours(1);
+
     private final PDFRepository pdfRepository;
+    private final AlmacenPDF almacenPDF;
 
-    public PDFService(PDFRepository pdfRepository) {
+    public PDFService(PDFRepository pdfRepository, AlmacenPDF almacenPDF) {
         this.pdfRepository = pdfRepository;
+        this.almacenPDF = almacenPDF;
     }
 
+    /**
+     * Guarda el contenido en el almacén leyéndolo como stream y registra el PDF
+     *
+     * @param ambito Ámbito del PDF ("CONTRATO", "PAGO_SERVICIO", "PAGO_ALQUILER")
+     * @param contenido Stream con el contenido del archivo
+     * @param nombreArchivo Nombre original del archivo
+     * @return PDF registrado
+     */
     @Transactional
-    public PDF guardarPDF(String ambito, byte[] file, String nombreArchivo) throws IOException {
-        PDF pdf = new PDF(ambito, file, nombreArchivo);
+    public PDF guardarPDF(String ambito, InputStream contenido, String nombreArchivo) throws IOException {
+        ContenidoPDFDTO guardado = almacenPDF.guardar(contenido);
+        PDF pdf = new PDF(ambito, guardado.getSha256(), guardado.getTamano(), nombreArchivo);
         return pdfRepository.save(pdf);
     }
 
@@ -29,9 +62,74 @@ public class PDFService {
         return pdfRepository.findById(id);
     }
 
+    /**
+     * Obtiene el contenido de un PDF para descargarlo
+     *
+     * Si el PDF todavía no fue migrado al almacén, o el almacén no lo tiene y la base conserva la copia,
+     * devuelve el contenido guardado en la base (sin hash, por lo que esa respuesta no tiene ETag).
+     *
+     * @param id ID del PDF
+     * @return Contenido del PDF, o vacío si el PDF no existe o no tiene contenido
+     */
+    @Transactional(readOnly = true)
+    public Optional<ContenidoPDFDTO> obtenerContenido(Long id) {
+        Optional<PDF> pdf = pdfRepository.findById(id);
+        if (pdf.isEmpty()) {
+            return Optional.empty();
+        }
+
+        if (pdf.get().getSha256() != null) {
+            Optional<ContenidoPDFDTO> contenido = almacenPDF.obtener(pdf.get().getSha256());
+            if (contenido.isPresent() || pdf.get().getFile() == null) {
+                return contenido;
+            }
+            logger.warn("El PDF {} no está en el almacén, se devuelve la copia guardada en la base", id);
+        }
+
+        byte[] file = pdf.get().getFile();
+        if (file == null || file.length == 0) {
+            return Optional.empty();
+        }
+        return Optional.of(new ContenidoPDFDTO(null, (long) file.length, new ByteArrayResource(file)));
+    }
+
+    /**
+     * Elimina el PDF; el archivo del almacén lo borra limpiarAlmacen si ningún otro PDF lo usa
+     */
     @Transactional
     public void eliminarPDF(Long id) {
-        pdfRepository.deleteById(id);
+        pdfRepository.findById(id).ifPresent(pdfRepository::delete);
     }
-}
 
+    /**
+     * Borra del almacén los archivos que ninguna fila de pdfs referencia y que no se guardaron
+     * en el último MARGEN_LIMPIEZA
+     *
+     * @return Cantidad de archivos borrados
+     */
+    public int limpiarAlmacen() {
+        Instant limite = Instant.now().minus(MARGEN_LIMPIEZA);
+        List<String> candidatos;
+        try {
+            candidatos = almacenPDF.listarAnterioresA(limite);
+        } catch (IOException e) {
+            logger.warn("No se pudo recorrer el almacén de PDFs: {}", e.getMessage());
+            return 0;
+        }
+
+        int borrados = 0;
+        for (String sha256 : candidatos) {
+            if (pdfRepository.countBySha256(sha256) > 0) {
+                continue;
+            }
+            try {
+                if (almacenPDF.eliminarSiEsAnteriorA(sha256, limite)) {
+                    borrados++;
+                }
+            } catch (IOException e) {
+                logger.warn("No se pudo eliminar el PDF {} del almacén: {}", sha256, e.getMessage());
+            }
+        }
+        return borrados;
+    }
+}
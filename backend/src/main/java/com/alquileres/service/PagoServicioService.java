@@ -1,5 +1,6 @@
 package com.alquileres.service;
 
+import com.alquileres.config.CacheNames;
 import com.alquileres.dto.ActualizacionMontoServicioDTO;
 import com.alquileres.dto.ActualizacionMontosServiciosRequest;
 import com.alquileres.dto.ActualizarPagoServicioRequest;
@@ -11,6 +12,7 @@ import com.alquileres.repository.PagoServicioRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
@@ -18,7 +20,11 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.HashSet;
+import java.util.Set;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 
 /**
  * Servicio para la gestión de pagos de servicios
@@ -70,25 +76,14 @@ public class PagoServicioService {
                 continue;
             }
 
-            // Buscar todos los pagos no pagados para este contrato y tipo de servicio
-            List<PagoServicio> pagosNoPagados = pagoServicioRepository
-                .findPagosNoPagadosByContratoAndTipoServicio(
-                    request.getContratoId(),
-                    actualizacion.getTipoServicioId()
-                );
-
-            int actualizadosEnEsteTipo = 0;
-
-            // Actualizar el monto de cada pago
-            for (PagoServicio pago : pagosNoPagados) {
-                pago.setMonto(actualizacion.getNuevoMonto());
-                pagoServicioRepository.save(pago);
-                actualizadosEnEsteTipo++;
-                totalActualizados++;
-
-                logger.debug("Actualizado monto del pago ID: {} a {}",
-                            pago.getId(), actualizacion.getNuevoMonto());
-            }
+            // Actualizar en una sola sentencia todos los pagos no pagados de este contrato y tipo de servicio
+            int actualizadosEnEsteTipo = pagoServicioRepository.actualizarMontoPagosNoPagados(
+                request.getContratoId(),
+                actualizacion.getTipoServicioId(),
+                actualizacion.getNuevoMonto(),
+                LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME)
+            );
+            totalActualizados += actualizadosEnEsteTipo;
 
             detallesPorTipoServicio.put(actualizacion.getTipoServicioId(), actualizadosEnEsteTipo);
 
@@ -136,6 +131,7 @@ public class PagoServicioService {
      * @return Pago actualizado
      */
     @Transactional
+    @CacheEvict(value = CacheNames.DASHBOARD, allEntries = true)
     public PagoServicio actualizarPagoServicio(Integer pagoId, ActualizarPagoServicioRequest request) {
         logger.info("Actualizando pago de servicio ID: {}", pagoId);
 
@@ -143,7 +139,18 @@ public class PagoServicioService {
         PagoServicio pago = pagoServicioRepository.findById(pagoId)
             .orElseThrow(() -> new RuntimeException("Pago de servicio con ID " + pagoId + " no encontrado"));
 
-        // Actualizar solo los campos que no sean nulos
+        aplicarCambios(pago, request);
+
+        PagoServicio pagoActualizado = pagoServicioRepository.save(pago);
+        logger.info("Pago de servicio ID {} actualizado exitosamente", pagoId);
+
+        return pagoActualizado;
+    }
+
+    /**
+     * Copia al pago los campos no nulos del request
+     */
+    private void aplicarCambios(PagoServicio pago, ActualizarPagoServicioRequest request) {
         if (request.getPeriodo() != null) {
             pago.setPeriodo(request.getPeriodo());
             logger.debug("Periodo actualizado a: {}", request.getPeriodo());
@@ -178,11 +185,6 @@ public class PagoServicioService {
             pago.setMonto(request.getMonto());
             logger.debug("Monto actualizado a: {}", request.getMonto());
         }
-
-        PagoServicio pagoActualizado = pagoServicioRepository.save(pago);
-        logger.info("Pago de servicio ID {} actualizado exitosamente", pagoId);
-
-        return pagoActualizado;
     }
 
     /**
@@ -230,53 +232,67 @@ public class PagoServicioService {
 
     /**
      * Registra múltiples pagos de servicio en batch (procesamiento por lotes)
-     * Cada pago se procesa individualmente y el resultado se agrega a la respuesta
-     * Si un pago falla, se registra el error pero se continúa con los demás
+     *
+     * Los pagos se cargan con una sola consulta IN y se validan en memoria; cada ítem informa su
+     * propio resultado (pago inexistente o repetido en la solicitud) sin afectar a los demás.
+     * Como ningún ítem inválido llega a la base, los válidos se escriben juntos al confirmar la
+     * transacción, en lotes JDBC (hibernate.jdbc.batch_size).
      *
      * @param request Solicitud con lista de pagos a registrar
      * @return Respuesta con resumen de procesamiento y detalle de cada pago
      */
     @Transactional
+    @CacheEvict(value = CacheNames.DASHBOARD, allEntries = true)
     public RegistroPagoBatchResponse registrarPagosBatch(RegistroPagoBatchRequest request) {
         logger.info("Iniciando registro de pagos en batch. Total de pagos a procesar: {}",
                    request.getPagos().size());
 
+        // Cargar todos los pagos de la solicitud con una sola consulta
+        Set<Integer> ids = new HashSet<>();
+        for (RegistroPagoBatchRequest.RegistroPagoServicioItem item : request.getPagos()) {
+            if (item.getPagoId() != null) {
+                ids.add(item.getPagoId());
+            }
+        }
+        Map<Integer, PagoServicio> pagosPorId = new HashMap<>();
+        for (PagoServicio pago : pagoServicioRepository.findAllById(ids)) {
+            pagosPorId.put(pago.getId(), pago);
+        }
+
         RegistroPagoBatchResponse response = new RegistroPagoBatchResponse();
         List<RegistroPagoBatchResponse.ResultadoPagoItem> resultados = new ArrayList<>();
+        List<PagoServicio> modificados = new ArrayList<>();
+        Set<Integer> procesados = new HashSet<>();
         int exitosos = 0;
         int fallidos = 0;
 
-        // Procesar cada pago individualmente
         for (RegistroPagoBatchRequest.RegistroPagoServicioItem item : request.getPagos()) {
-            RegistroPagoBatchResponse.ResultadoPagoItem resultado =
-                new RegistroPagoBatchResponse.ResultadoPagoItem();
-            resultado.setPagoId(item.getPagoId());
-
-            try {
-                // Intentar actualizar el pago usando el método existente
-                PagoServicio pagoActualizado = actualizarPagoServicio(
-                    item.getPagoId(),
-                    item.getDatosPago()
-                );
-
-                resultado.setExitoso(true);
-                resultado.setMensaje("Pago registrado exitosamente");
-                exitosos++;
-
-                logger.debug("Pago ID {} procesado exitosamente en batch", item.getPagoId());
+            Integer pagoId = item.getPagoId();
+            PagoServicio pago = pagosPorId.get(pagoId);
+
+            String error = null;
+            if (pago == null) {
+                error = "Pago de servicio con ID " + pagoId + " no encontrado";
+            } else if (!procesados.add(pagoId)) {
+                error = "El pago con ID " + pagoId + " está repetido en la solicitud";
+            }
 
-            } catch (Exception e) {
-                resultado.setExitoso(false);
-                resultado.setMensaje("Error: " + e.getMessage());
+            if (error == null) {
+                aplicarCambios(pago, item.getDatosPago());
+                modificados.add(pago);
+                resultados.add(new RegistroPagoBatchResponse.ResultadoPagoItem(
+                    pagoId.longValue(), true, "Pago registrado exitosamente"));
+                exitosos++;
+            } else {
+                resultados.add(new RegistroPagoBatchResponse.ResultadoPagoItem(
+                    pagoId != null ? pagoId.longValue() : null, false, "Error: " + error));
                 fallidos++;
-
-                logger.error("Error al procesar pago ID {} en batch: {}",
-                           item.getPagoId(), e.getMessage());
+                logger.error("Error al procesar pago ID {} en batch: {}", pagoId, error);
             }
-
-            resultados.add(resultado);
         }
 
+        pagoServicioRepository.saveAll(modificados);
+
         // Configurar la respuesta
         response.setTotalProcesados(request.getPagos().size());
         response.setExitosos(exitosos);
@@ -3,39 +3,47 @@ package com.alquileres.service;
 import com.alquileres.model.RolNombre;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
 public class PermisosService {
 
     /**
-     * Obtiene los permisos para un rol específico
-     * Los permisos siguen el formato: accion_sujeto (ej: crear_propietario)
-     * Acciones: crear, modificar, consultar, eliminar, cambiar_estado, activar, desactivar
-     * Sujetos: propietario, inmueble, inquilino, contrato, estado_contrato, tipo_inmueble
+     * Orden de los permisos en el bitset que se firma en los JWT (bit i = PERMISOS.get(i))
+     * Los permisos nuevos se agregan al final para no cambiar el significado de los tokens vigentes
      */
-    public Map<String, Boolean> obtenerPermisosPorRol(RolNombre rol) {
-        Map<String, Boolean> permisos = new HashMap<>();
+    public static final List<String> PERMISOS;
 
-        // Inicializar todos los permisos en false
-        String[] sujetos = {"propietario", "inmueble", "inquilino", "contrato", "estado_contrato", "tipo_inmueble"};
-        String[] acciones = {"crear", "consultar", "modificar", "eliminar", "cambiar_estado", "activar", "desactivar"};
+    private static final String[] SUJETOS = {"propietario", "inmueble", "inquilino", "contrato", "estado_contrato", "tipo_inmueble"};
+    private static final String[] ACCIONES = {"crear", "consultar", "modificar", "eliminar", "cambiar_estado", "activar", "desactivar"};
 
-        for (String sujeto : sujetos) {
-            for (String accion : acciones) {
-                String permisoKey = accion + "_" + sujeto;
-                permisos.put(permisoKey, false);
+    static {
+        List<String> permisos = new ArrayList<>();
+        for (String sujeto : SUJETOS) {
+            for (String accion : ACCIONES) {
+                permisos.add(accion + "_" + sujeto);
             }
         }
+        permisos.add("crear_usuario_secretaria");
+        permisos.add("crear_usuario_abogada");
+        permisos.add("crear_usuario_administrador");
+        permisos.add("editar_servicios");
+        permisos.add("pagar_servicios");
+        PERMISOS = Collections.unmodifiableList(permisos);
+    }
 
-        // Inicializar permisos de creación de usuarios
-        permisos.put("crear_usuario_secretaria", false);
-        permisos.put("crear_usuario_abogada", false);
-        permisos.put("crear_usuario_administrador", false);
-
-        permisos.put("editar_servicios", false);
-        permisos.put("pagar_servicios", false);
+    /**
+     * Obtiene los permisos para un rol específico
+     * Los permisos siguen el formato: accion_sujeto (ej: crear_propietario)
+     * Acciones: crear, modificar, consultar, eliminar, cambiar_estado, activar, desactivar
+     * Sujetos: propietario, inmueble, inquilino, contrato, estado_contrato, tipo_inmueble
+     */
+    public Map<String, Boolean> obtenerPermisosPorRol(RolNombre rol) {
+        Map<String, Boolean> permisos = permisosEnFalse();
 
         // Asignar permisos específicos según el rol
         switch (rol) {
@@ -111,23 +119,7 @@ public class PermisosService {
      * Si el usuario tiene múltiples roles, se aplica OR lógico (cualquier rol que tenga el permiso lo otorga)
      */
     public Map<String, Boolean> obtenerPermisosConsolidados(Iterable<RolNombre> roles) {
-        Map<String, Boolean> permisosConsolidados = new HashMap<>();
-
-        // Inicializar todos los permisos en false
-        String[] sujetos = {"propietario", "inmueble", "inquilino", "contrato", "estado_contrato", "tipo_inmueble"};
-        String[] acciones = {"crear", "consultar", "modificar", "eliminar", "cambiar_estado", "activar", "desactivar"};
-
-        for (String sujeto : sujetos) {
-            for (String accion : acciones) {
-                String permisoKey = accion + "_" + sujeto;
-                permisosConsolidados.put(permisoKey, false);
-            }
-        }
-
-        // Inicializar permisos de creación de usuarios
-        permisosConsolidados.put("crear_usuario_secretaria", false);
-        permisosConsolidados.put("crear_usuario_abogada", false);
-        permisosConsolidados.put("crear_usuario_administrador", false);
+        Map<String, Boolean> permisosConsolidados = permisosEnFalse();
 
         // Aplicar OR lógico para cada rol
         for (RolNombre rol : roles) {
@@ -146,4 +138,46 @@ public class PermisosService {
 
         return permisosConsolidados;
     }
+
+    /**
+     * Todos los permisos de PERMISOS inicializados en false
+     */
+    private static Map<String, Boolean> permisosEnFalse() {
+        Map<String, Boolean> permisos = new HashMap<>();
+        for (String permiso : PERMISOS) {
+            permisos.put(permiso, false);
+        }
+        return permisos;
+    }
+
+    /**
+     * Permisos consolidados de los roles como bitset, para firmarlos en el JWT
+     */
+    public long obtenerBitsPermisos(Iterable<RolNombre> roles) {
+        return codificarPermisos(obtenerPermisosConsolidados(roles));
+    }
+
+    /**
+     * Codifica los permisos otorgados en un long: bit i encendido si PERMISOS.get(i) es true
+     */
+    public long codificarPermisos(Map<String, Boolean> permisos) {
+        long bits = 0L;
+        for (int i = 0; i < PERMISOS.size(); i++) {
+            if (Boolean.TRUE.equals(permisos.get(PERMISOS.get(i)))) {
+                bits |= 1L << i;
+            }
+        }
+        return bits;
+    }
+
+    /**
+     * Decodifica el bitset de un JWT al mapa de permisos que devuelve la API
+     */
+    public Map<String, Boolean> decodificarPermisos(long bits) {
+        Map<String, Boolean> permisos = new HashMap<>();
+        for (int i = 0; i < PERMISOS.size(); i++) {
+            permisos.put(PERMISOS.get(i), (bits & (1L << i)) != 0);
+        }
+        return permisos;
+    }
 }
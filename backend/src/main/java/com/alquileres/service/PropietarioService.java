@@ -1,6 +1,7 @@
 package com.alquileres.service;
 
 import com.alquileres.dto.PropietarioDTO;
+import com.alquileres.dto.PaginaDTO;
 import com.alquileres.model.Propietario;
 import com.alquileres.repository.PropietarioRepository;
 import com.alquileres.repository.ContratoRepository;
@@ -12,10 +13,12 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.cache.annotation.CacheEvict;
 import com.alquileres.exception.BusinessException;
 import com.alquileres.exception.ErrorCodes;
+import com.alquileres.util.Paginacion;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -49,37 +52,34 @@ public class PropietarioService {
     // Obtener todos los propietarios
     public List<PropietarioDTO> obtenerTodosLosPropietarios() {
         List<Propietario> propietarios = propietarioRepository.findAll();
-        return propietarios.stream()
-                .map(p -> {
-                    PropietarioDTO dto = new PropietarioDTO(p);
-                    desencriptarClaveFiscal(dto);
-                    return dto;
-                })
-                .collect(Collectors.toList());
+        return convertirConClaveEnmascarada(propietarios);
     }
 
     // Obtener solo propietarios activos
     public List<PropietarioDTO> obtenerPropietariosActivos() {
         List<Propietario> propietarios = propietarioRepository.findByEsActivoTrue();
-        return propietarios.stream()
-                .map(p -> {
-                    PropietarioDTO dto = new PropietarioDTO(p);
-                    desencriptarClaveFiscal(dto);
-                    return dto;
-                })
-                .collect(Collectors.toList());
+        return convertirConClaveEnmascarada(propietarios);
     }
 
     // Obtener solo los propietarios inactivos
     public List<PropietarioDTO> obtenerPropietariosInactivos() {
         List<Propietario> propietarios = propietarioRepository.findByEsActivoFalse();
-        return propietarios.stream()
-                .map(p -> {
-                    PropietarioDTO dto = new PropietarioDTO(p);
-                    desencriptarClaveFiscal(dto);
-                    return dto;
-                })
-                .collect(Collectors.toList());
+        return convertirConClaveEnmascarada(propietarios);
+    }
+
+    // Obtener una página de propietarios (ID descendente) con filtros opcionales;
+    // texto busca en nombre, apellido, CUIL y email
+    public PaginaDTO<PropietarioDTO> obtenerPaginaPropietarios(String cursor, Integer tamano, Boolean esActivo,
+                                                               String texto) {
+        int tamanoPagina = Paginacion.tamanoValido(tamano);
+
+        List<Propietario> propietarios = propietarioRepository.buscarPagina(
+                Paginacion.decodificarCursor(cursor),
+                esActivo,
+                Paginacion.patronBusqueda(texto),
+                Paginacion.limiteConsulta(tamanoPagina));
+        return Paginacion.armarPagina(propietarios, tamanoPagina, Propietario::getId,
+                this::convertirConClaveEnmascarada);
     }
 
     // Contar propietarios activos
@@ -127,13 +127,7 @@ public class PropietarioService {
                         nombre != null ? nombre : "",
                         apellido != null ? apellido : ""
                 );
-        return propietarios.stream()
-                .map(p -> {
-                    PropietarioDTO dto = new PropietarioDTO(p);
-                    desencriptarClaveFiscal(dto);
-                    return dto;
-                })
-                .collect(Collectors.toList());
+        return convertirConClaveEnmascarada(propietarios);
     }
 
     // Crear nuevo propietario
@@ -341,6 +335,9 @@ public class PropietarioService {
                     "Error al procesar la clave fiscal"
                 );
             }
+        } else {
+            // Aprovechar la escritura para pasar la clave guardada al formato actual
+            migrarClaveFiscalLegada(propietarioExistente);
         }
 
         Propietario propietarioActualizado = propietarioRepository.save(propietarioExistente);
@@ -410,16 +407,7 @@ public class PropietarioService {
         if (dto != null && dto.getClaveFiscal() != null && !dto.getClaveFiscal().trim().isEmpty()) {
             try {
                 // Desencriptar para obtener la longitud real
-                String claveDesencriptada = encryptionService.desencriptar(dto.getClaveFiscal());
-                int length = claveDesencriptada.length();
-
-                // Enmascarar mostrando solo los últimos 4 caracteres
-                if (length <= 4) {
-                    dto.setClaveFiscal("****");
-                } else {
-                    String ultimosCuatro = claveDesencriptada.substring(length - 4);
-                    dto.setClaveFiscal("*".repeat(length - 4) + ultimosCuatro);
-                }
+                dto.setClaveFiscal(enmascararClaveFiscal(encryptionService.desencriptar(dto.getClaveFiscal())));
             } catch (Exception e) {
                 logger.error("Error procesando clave fiscal para propietario ID: {}", dto.getId(), e);
                 dto.setClaveFiscal(null);
@@ -427,6 +415,54 @@ public class PropietarioService {
         }
     }
 
+    /**
+     * Reencripta con AES-GCM una clave fiscal guardada en el formato anterior (AES/ECB)
+     * Si no se puede desencriptar se deja como está: el error ya se informa al leerla
+     */
+    private void migrarClaveFiscalLegada(Propietario propietario) {
+        if (!encryptionService.esFormatoLegado(propietario.getClaveFiscal())) {
+            return;
+        }
+        try {
+            propietario.setClaveFiscal(encryptionService.reencriptarSiEsLegado(propietario.getClaveFiscal()));
+            logger.info("Clave fiscal migrada a AES-GCM para propietario ID: {}", propietario.getId());
+        } catch (Exception e) {
+            logger.warn("No se pudo migrar la clave fiscal del propietario ID: {}", propietario.getId(), e);
+        }
+    }
+
+    /**
+     * Convierte una lista de propietarios a DTOs con la clave fiscal enmascarada
+     * Desencripta todas las claves en un solo paso; si alguna falla, queda en null como en desencriptarClaveFiscal
+     */
+    private List<PropietarioDTO> convertirConClaveEnmascarada(List<Propietario> propietarios) {
+        Map<String, String> clavesDesencriptadas = encryptionService.desencriptarTodos(
+                propietarios.stream().map(Propietario::getClaveFiscal).toList());
+
+        return propietarios.stream()
+                .map(p -> {
+                    PropietarioDTO dto = new PropietarioDTO(p);
+                    if (dto.getClaveFiscal() != null && !dto.getClaveFiscal().trim().isEmpty()) {
+                        String claveDesencriptada = clavesDesencriptadas.get(dto.getClaveFiscal());
+                        dto.setClaveFiscal(claveDesencriptada != null ? enmascararClaveFiscal(claveDesencriptada) : null);
+                    }
+                    return dto;
+                })
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Enmascara una clave fiscal mostrando solo los últimos 4 caracteres
+     */
+    private static String enmascararClaveFiscal(String claveDesencriptada) {
+        int length = claveDesencriptada.length();
+        if (length <= 4) {
+            return "****";
+        }
+        String ultimosCuatro = claveDesencriptada.substring(length - 4);
+        return "*".repeat(length - 4) + ultimosCuatro;
+    }
+
     /**
      * Obtiene la clave fiscal desencriptada de un propietario
      * Este método es SOLO para uso interno del backend
@@ -3,6 +3,7 @@ package com.alquileres.service;
 import com.alquileres.dto.*;
 import com.alquileres.model.*;
 import com.alquileres.repository.PagoServicioRepository;
+import com.alquileres.util.FechaUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -94,7 +95,7 @@ public class ReciboServicioService {
         String tipoInmuebleNombre = inmuebleDTO.getTipoInmuebleNombre() != null ?
                 inmuebleDTO.getTipoInmuebleNombre() : "N/A";
         ReciboServicioDTO.ContratoReciboDTO datosContrato = new ReciboServicioDTO.ContratoReciboDTO(
-                contrato.getFechaInicio(),
+                FechaUtil.formatearISO(contrato.getFechaInicio()),
                 tipoInmuebleNombre
         );
 
@@ -0,0 +1,27 @@
+package com.alquileres.service;
+
+import java.time.Instant;
+
+/**
+ * Registro de tokens revocados, indexado por una clave compacta del token
+ *
+ * Cada revocación vence sola cuando vence el token, así el registro nunca guarda
+ * tokens que ya no serían aceptados de todas formas.
+ */
+public interface RegistroRevocaciones {
+
+    /**
+     * @param clave Clave compacta del token revocado
+     * @param expiracion Momento en que el token vence naturalmente
+     */
+    void revocar(String clave, Instant expiracion);
+
+    boolean estaRevocado(String clave);
+
+    /**
+     * @return Cantidad de revocaciones vigentes (para monitoreo)
+     */
+    long tamano();
+
+    void limpiar();
+}
@@ -0,0 +1,114 @@
+package com.alquileres.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.function.LongSupplier;
+
+/**
+ * Registro de revocaciones en memoria, para desarrollo o una sola instancia
+ *
+ * Además del mapa clave -> expiración mantiene una cola ordenada por expiración: en cada revocación
+ * se quitan de la cabeza las entradas vencidas, sin hilos propios ni recorridos del mapa completo.
+ * Revocar de nuevo una clave solo agrega una entrada a la cola si extiende su expiración.
+ *
+ * Una revocación vigente nunca se descarta: si después de purgar las vencidas el registro sigue lleno,
+ * la nueva revocación se rechaza con una excepción (el logout responde con error) en lugar de volver a
+ * aceptar un token revocado. El máximo debe alcanzar para todos los tokens revocados durante la vida
+ * de un token (app.jwt-blacklist-max-entradas).
+ */
+public class RegistroRevocacionesMemoria implements RegistroRevocaciones {
+
+    private static final Logger logger = LoggerFactory.getLogger(RegistroRevocacionesMemoria.class);
+
+    private final Map<String, Long> expiraciones = new ConcurrentHashMap<>();
+    private final PriorityBlockingQueue<Entrada> porExpiracion =
+        new PriorityBlockingQueue<>(64, Comparator.comparingLong(Entrada::expiracion));
+    private final int maxEntradas;
+    private final LongSupplier reloj;
+
+    public RegistroRevocacionesMemoria(int maxEntradas) {
+        this(maxEntradas, System::currentTimeMillis);
+    }
+
+    RegistroRevocacionesMemoria(int maxEntradas, LongSupplier reloj) {
+        this.maxEntradas = maxEntradas;
+        this.reloj = reloj;
+    }
+
+    @Override
+    public void revocar(String clave, Instant expiracion) {
+        long ahora = reloj.getAsLong();
+        purgarVencidas(ahora);
+
+        long vence = expiracion.toEpochMilli();
+        if (vence <= ahora) {
+            return;
+        }
+
+        if (expiraciones.size() >= maxEntradas && !expiraciones.containsKey(clave)) {
+            logger.error("Registro de revocaciones lleno ({} entradas vigentes): no se puede revocar el token", maxEntradas);
+            throw new IllegalStateException("Registro de revocaciones lleno (" + maxEntradas + " entradas vigentes)");
+        }
+
+        boolean[] extendida = {false};
+        expiraciones.compute(clave, (k, actual) -> {
+            if (actual != null && actual >= vence) {
+                return actual;
+            }
+            extendida[0] = true;
+            return vence;
+        });
+        if (extendida[0]) {
+            porExpiracion.offer(new Entrada(clave, vence));
+        }
+    }
+
+    @Override
+    public boolean estaRevocado(String clave) {
+        Long vence = expiraciones.get(clave);
+        if (vence == null) {
+            return false;
+        }
+        if (vence <= reloj.getAsLong()) {
+            expiraciones.remove(clave, vence);
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public long tamano() {
+        purgarVencidas(reloj.getAsLong());
+        return expiraciones.size();
+    }
+
+    @Override
+    public void limpiar() {
+        expiraciones.clear();
+        porExpiracion.clear();
+    }
+
+    int tamanoCola() {
+        return porExpiracion.size();
+    }
+
+    private void purgarVencidas(long ahora) {
+        Entrada cabeza;
+        while ((cabeza = porExpiracion.peek()) != null && cabeza.expiracion() <= ahora) {
+            Entrada vencida = porExpiracion.poll();
+            if (vencida != null) {
+                // Si la clave se volvió a revocar con otra expiración, la entrada del mapa es más nueva y se conserva
+                expiraciones.remove(vencida.clave(), vencida.expiracion());
+            }
+        }
+    }
+
+    private record Entrada(String clave, long expiracion) {
+    }
+}
@@ -0,0 +1,83 @@
+package com.alquileres.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Registro de revocaciones en Redis, compartido entre instancias y persistente entre reinicios
+ *
+ * Cada revocación es una clave con TTL igual al tiempo que le queda al token, así Redis
+ * la elimina sola al vencer.
+ *
+ * Qué pasa si Redis no responde al consultar se elige con app.jwt-blacklist-rechazar-sin-redis:
+ * - false (por defecto): el token se acepta. Una caída de Redis no deja a todos los usuarios sin acceso,
+ *   a cambio de que los tokens revocados vuelvan a valer mientras dure la caída
+ * - true: el token se rechaza. Ningún token revocado vale, pero sin Redis nadie puede operar
+ */
+public class RegistroRevocacionesRedis implements RegistroRevocaciones {
+
+    private static final Logger logger = LoggerFactory.getLogger(RegistroRevocacionesRedis.class);
+
+    private static final String PREFIJO = "jwt:revocado:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final boolean rechazarSinRedis;
+
+    public RegistroRevocacionesRedis(StringRedisTemplate redisTemplate, boolean rechazarSinRedis) {
+        this.redisTemplate = redisTemplate;
+        this.rechazarSinRedis = rechazarSinRedis;
+    }
+
+    @Override
+    public void revocar(String clave, Instant expiracion) {
+        Duration restante = Duration.between(Instant.now(), expiracion);
+        if (restante.isNegative() || restante.isZero()) {
+            return;
+        }
+        redisTemplate.opsForValue().set(PREFIJO + clave, "1", restante);
+    }
+
+    /**
+     * Si Redis no responde se registra el error y se responde según rechazarSinRedis
+     */
+    @Override
+    public boolean estaRevocado(String clave) {
+        try {
+            return Boolean.TRUE.equals(redisTemplate.hasKey(PREFIJO + clave));
+        } catch (Exception e) {
+            logger.error("⚠️ No se pudo consultar la revocación del token en Redis, se {} el token: {}",
+                        rechazarSinRedis ? "rechaza" : "acepta", e.getMessage());
+            return rechazarSinRedis;
+        }
+    }
+
+    @Override
+    public long tamano() {
+        return buscarClaves().size();
+    }
+
+    @Override
+    public void limpiar() {
+        List<String> claves = buscarClaves();
+        if (!claves.isEmpty()) {
+            redisTemplate.delete(claves);
+        }
+    }
+
+    private List<String> buscarClaves() {
+        List<String> claves = new ArrayList<>();
+        ScanOptions opciones = ScanOptions.scanOptions().match(PREFIJO + "*").count(500).build();
+        try (Cursor<String> cursor = redisTemplate.scan(opciones)) {
+            cursor.forEachRemaining(claves::add);
+        }
+        return claves;
+    }
+}
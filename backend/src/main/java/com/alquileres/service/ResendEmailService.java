@@ -1,6 +1,9 @@
 package com.alquileres.service;
 
+import com.alquileres.config.MetricasServiciosExternos;
+import com.alquileres.exception.EnvioEmailException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -9,31 +12,47 @@ import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Servicio de email utilizando la API REST de Resend.
  * Más confiable y mejor soportado que SMTP para producción en Render.
+ * Los emails de la aplicación se encolan en BandejaSalidaEmailService y los entrega DespachadorEmails.
  */
 @Service
 public class ResendEmailService {
 
     private static final Logger logger = LoggerFactory.getLogger(ResendEmailService.class);
-    private static final String RESEND_API_URL = "https://api.resend.com/emails";
+    private static final String SERVICIO_METRICAS = "resend";
+    private static final String ASUNTO_RECUPERACION = "Recuperación de Contraseña - Alquigest";
+    private static final Duration TIMEOUT = Duration.ofSeconds(15);
 
     private final String apiKey;
     private final String fromEmail;
+    private final String apiUrl;
     private final WebClient webClient;
     private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final BandejaSalidaEmailService bandejaSalidaEmailService;
 
     public ResendEmailService(
             @Value("${resend.api-key}") String apiKey,
             @Value("${resend.from-email:noreply@resend.dev}") String fromEmail,
-            WebClient.Builder webClientBuilder) {
+            @Value("${resend.api-url:https://api.resend.com/emails}") String apiUrl,
+            WebClient.Builder webClientBuilder,
+            MeterRegistry meterRegistry,
+            BandejaSalidaEmailService bandejaSalidaEmailService) {
         this.apiKey = apiKey;
+        this.meterRegistry = meterRegistry;
+        this.bandejaSalidaEmailService = bandejaSalidaEmailService;
         this.fromEmail = fromEmail;
+        this.apiUrl = apiUrl;
         this.webClient = webClientBuilder.build();
         this.objectMapper = new ObjectMapper();
 
@@ -54,47 +73,23 @@ public class ResendEmailService {
     }
 
     /**
-     * Envía un email de recuperación de contraseña
+     * Encola el email de recuperación de contraseña en la bandeja de salida
+     * Se guarda en la transacción del llamador, junto con el token; lo envía DespachadorEmails
      */
-    public void enviarEmailRecuperacionContrasena(String destinatario, String usuario, String token) {
-        try {
-            String enlace = "https://alquigest.onrender.com/auth/nueva-contrasena?token=" + token;
-            String htmlContent = buildHtmlRecuperacionContrasena(usuario, enlace);
-
-            Map<String, Object> requestBody = new HashMap<>();
-            requestBody.put("from", fromEmail);
-            requestBody.put("to", new String[]{destinatario}); // Resend requiere array
-            requestBody.put("subject", "Recuperación de Contraseña - Alquigest");
-            requestBody.put("html", htmlContent);
-
-            sendEmailViaResendAPI(requestBody);
-
-            logger.info("Email de recuperación de contraseña enviado exitosamente a: {}",
-                destinatario);
-        } catch (Exception e) {
-            logger.error("Error al enviar email de recuperación a {}: {}",
-                destinatario, e.getMessage(), e);
-            throw new RuntimeException("Error al enviar email de recuperación: " + e.getMessage(), e);
-        }
+    public void encolarEmailRecuperacionContrasena(String destinatario, String usuario, String token) {
+        String enlace = "https://alquigest.onrender.com/auth/nueva-contrasena?token=" + token;
+        bandejaSalidaEmailService.encolar(destinatario, ASUNTO_RECUPERACION,
+                buildHtmlRecuperacionContrasena(usuario, enlace));
+        logger.info("Email de recuperación de contraseña encolado para: {}", destinatario);
     }
 
     /**
-     * Envía un email de prueba
+     * Envía un email de prueba (directo, sin pasar por la bandeja de salida)
      */
     public void enviarEmailPrueba(String destinatario) {
         try {
-            String htmlContent = buildHtmlPrueba();
-
-            Map<String, Object> requestBody = new HashMap<>();
-            requestBody.put("from", fromEmail);
-            requestBody.put("to", new String[]{destinatario}); // Resend requiere array
-            requestBody.put("subject", "Email de Prueba - Alquigest");
-            requestBody.put("html", htmlContent);
-
-            sendEmailViaResendAPI(requestBody);
-
-            logger.info("Email de prueba enviado exitosamente a: {}",
-                destinatario);
+            enviar(destinatario, "Email de Prueba - Alquigest", buildHtmlPrueba());
+            logger.info("Email de prueba enviado exitosamente a: {}", destinatario);
         } catch (Exception e) {
             logger.error("Error al enviar email de prueba a {}: {}",
                 destinatario, e.getMessage(), e);
@@ -103,48 +98,95 @@ public class ResendEmailService {
     }
 
     /**
-     * Envía email a través de la API REST de Resend
+     * Envía un email a través de la API REST de Resend, esperando la respuesta
+     *
+     * @throws EnvioEmailException si no se pudo enviar; isReintentable indica si conviene reintentar
      */
-    private void sendEmailViaResendAPI(Map<String, Object> requestBody) {
-        try {
-            if (apiKey == null || apiKey.trim().isEmpty()) {
-                logger.error("❌ RESEND_API_KEY no está configurada");
-                throw new RuntimeException("RESEND_API_KEY no está configurada. Configura la variable de entorno en Render.");
-            }
+    public void enviar(String destinatario, String asunto, String html) {
+        enviarAsync(destinatario, asunto, html).block();
+    }
+
+    /**
+     * Envía un email a través de la API REST de Resend sin bloquear
+     *
+     * No reintenta: un POST repetido puede duplicar el email. Los reintentos los programa la bandeja de salida.
+     *
+     * @return Mono que completa al aceptar Resend el email, o emite EnvioEmailException
+     */
+    public Mono<Void> enviarAsync(String destinatario, String asunto, String html) {
+        if (apiKey == null || apiKey.trim().isEmpty()) {
+            logger.error("❌ RESEND_API_KEY no está configurada");
+            return Mono.error(new EnvioEmailException(
+                    "RESEND_API_KEY no está configurada. Configura la variable de entorno en Render.", true, null));
+        }
+
+        Map<String, Object> requestBody = new HashMap<>();
+        requestBody.put("from", fromEmail);
+        requestBody.put("to", new String[]{destinatario}); // Resend requiere array
+        requestBody.put("subject", asunto);
+        requestBody.put("html", html);
 
+        return sendEmailViaResendAPI(requestBody);
+    }
+
+    private Mono<Void> sendEmailViaResendAPI(Map<String, Object> requestBody) {
+        return Mono.defer(() -> {
             logger.debug("Enviando email a Resend API...");
-            logger.debug("Request body: {}", requestBody);
 
-            String response = webClient.post()
-                    .uri(RESEND_API_URL)
+            // Duración y errores de la llamada a la API, para las métricas
+            long inicio = System.nanoTime();
+            return webClient.post()
+                    .uri(apiUrl)
                     .header(HttpHeaders.AUTHORIZATION, "Bearer " + apiKey)
                     .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
                     .bodyValue(requestBody)
                     .retrieve()
-                    .onStatus(
-                        status -> status.value() == 403,
-                        clientResponse -> clientResponse.bodyToMono(String.class)
-                            .map(errorBody -> {
-                                logger.error("❌ Resend API retornó 403 Forbidden");
-                                logger.error("❌ Response body: {}", errorBody);
-                                logger.error("❌ API Key usado: {}...{}",
-                                    apiKey.substring(0, Math.min(10, apiKey.length())),
-                                    apiKey.substring(Math.max(0, apiKey.length() - 4)));
-                                return new RuntimeException("Error 403: " + errorBody);
-                            })
-                    )
                     .bodyToMono(String.class)
-                    .block();
+                    .timeout(TIMEOUT)
+                    .doOnSuccess(response -> {
+                        MetricasServiciosExternos.registrarLlamada(
+                                meterRegistry, SERVICIO_METRICAS, System.nanoTime() - inicio, null);
+                        logger.debug("Respuesta de Resend: {}", response);
+                        if (response != null && response.contains("id")) {
+                            logger.info("✅ Email enviado exitosamente a través de Resend API");
+                        } else {
+                            logger.warn("⚠️ Email enviado pero respuesta inesperada: {}", response);
+                        }
+                    })
+                    .doOnError(e -> MetricasServiciosExternos.registrarLlamada(
+                            meterRegistry, SERVICIO_METRICAS, System.nanoTime() - inicio, codigoError(e)))
+                    .onErrorMap(e -> traducirError(e, requestBody))
+                    .then();
+        });
+    }
+
+    private static String codigoError(Throwable e) {
+        if (e instanceof WebClientResponseException respuesta) {
+            return String.valueOf(respuesta.getStatusCode().value());
+        }
+        return e instanceof TimeoutException ? "Timeout" : e.getClass().getSimpleName();
+    }
+
+    private EnvioEmailException traducirError(Throwable e, Map<String, Object> requestBody) {
+        if (e instanceof WebClientResponseException respuesta) {
+            return errorDeRespuesta(respuesta, requestBody);
+        }
+        if (e instanceof WebClientException) {
+            logger.error("❌ Error de conexión con Resend API: {}", e.getMessage());
+            return new EnvioEmailException("Error de conexión con Resend API: " + e.getMessage(), true, e);
+        }
+        logger.error("❌ Error al llamar a Resend API: {}", e.getMessage());
+        return new EnvioEmailException("Error al llamar a Resend API: " + e.getMessage(), true, e);
+    }
 
-            logger.debug("Respuesta de Resend: {}", response);
+    /**
+     * Traduce una respuesta de error de Resend: 429 y 5xx se reintentan, el resto de los 4xx no
+     */
+    private EnvioEmailException errorDeRespuesta(WebClientResponseException e, Map<String, Object> requestBody) {
+        int status = e.getStatusCode().value();
+        String errorBody = e.getResponseBodyAsString();
 
-            if (response != null && response.contains("id")) {
-                logger.info("✅ Email enviado exitosamente a través de Resend API");
-            } else {
-                logger.warn("⚠️ Email enviado pero respuesta inesperada: {}", response);
-            }
-        } catch (org.springframework.web.reactive.function.client.WebClientResponseException.Forbidden e) {
-            String errorBody = e.getResponseBodyAsString();
+        if (status == 403) {
             logger.error("❌ ERROR 403 FORBIDDEN de Resend API");
             logger.error("❌ Response body: {}", errorBody);
             logger.error("❌ Posibles causas:");
@@ -153,15 +195,12 @@ public class ResendEmailService {
             logger.error("   3. API Key sin permisos correctos");
             logger.error("❌ From email usado: {}", requestBody.get("from"));
             logger.error("❌ API Key: {}...", apiKey.substring(0, Math.min(10, apiKey.length())));
-
-            throw new RuntimeException("Error 403 de Resend: " + errorBody, e);
-        } catch (WebClientException e) {
-            logger.error("❌ Error de conexión con Resend API: {}", e.getMessage());
-            throw new RuntimeException("Error de conexión con Resend API: " + e.getMessage(), e);
-        } catch (Exception e) {
-            logger.error("❌ Error inesperado al enviar email: {}", e.getMessage(), e);
-            throw new RuntimeException("Error al enviar email: " + e.getMessage(), e);
+        } else {
+            logger.error("❌ Resend API retornó {}: {}", status, errorBody);
         }
+
+        boolean reintentable = status == 429 || e.getStatusCode().is5xxServerError();
+        return new EnvioEmailException("Error " + status + " de Resend: " + errorBody, reintentable, e);
     }
 
     /**
@@ -1,21 +1,20 @@
 package com.alquileres.service;
 
+import com.alquileres.config.CacheNames;
 import com.alquileres.model.ConfiguracionSistema;
 import com.alquileres.model.PagoServicio;
 import com.alquileres.model.ServicioContrato;
-import com.alquileres.model.Contrato;
-import com.alquileres.model.TipoServicio;
 import com.alquileres.repository.ConfiguracionSistemaRepository;
 import com.alquileres.repository.PagoServicioRepository;
-import com.alquileres.repository.ContratoRepository;
-import com.alquileres.repository.TipoServicioRepository;
 import com.alquileres.repository.ServicioContratoRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
@@ -29,7 +28,6 @@ import java.util.Optional;
 public class ServicioActualizacionService {
 
     private static final Logger logger = LoggerFactory.getLogger(ServicioActualizacionService.class);
-    private static final DateTimeFormatter FORMATO_FECHA = DateTimeFormatter.ISO_LOCAL_DATE;
     private static final DateTimeFormatter FORMATO_PERIODO = DateTimeFormatter.ofPattern("MM/yyyy");
 
     /**
@@ -53,88 +51,64 @@ public class ServicioActualizacionService {
         this.clockService = clockService;
     }
 
+    /**
+     * Obtiene los IDs de los contratos con servicios que tienen facturas pendientes de generar
+     * Usado por el motor de tareas para procesar por lotes
+     *
+     * @return IDs de contratos ordenados
+     */
+    public List<Long> obtenerIdsContratosConPagosPendientes() {
+        return servicioContratoRepository.findIdsContratosConPagosPendientes(clockService.getCurrentDate());
+    }
 
     /**
-     * Procesa todos los servicios activos que tienen pagos pendientes de generar
-     * Se ejecuta al iniciar sesión
-     * Solo procesa si el mes actual es diferente al último mes procesado (guardado en BD)
+     * Genera las facturas pendientes de los servicios de un lote de contratos
+     * No verifica el último mes procesado: de eso se encarga el motor de tareas
      *
+     * @param contratoIds IDs de los contratos del lote
      * @return Cantidad de facturas generadas
      */
     @Transactional
-    public int procesarPagosPendientes() {
-        try {
-            logger.info("=== INICIO procesarPagosPendientes ===");
-
-            // Obtener el mes/año actual desde clockService
-            String mesActual = YearMonth.from(clockService.getCurrentDate()).format(DateTimeFormatter.ofPattern("MM/yyyy"));
-            logger.info("Mes actual: {}", mesActual);
-
-            // Obtener el último mes procesado desde la base de datos
-            String ultimoMesProcesado = obtenerUltimoMesProcesado();
-            logger.info("Ultimo mes procesado en BD: {}", ultimoMesProcesado);
-
-            // Verificar si ya se procesó en este mes
-            if (mesActual.equals(ultimoMesProcesado)) {
-                logger.info("Los pagos ya fueron procesados en el mes actual ({}). No se procesaran nuevamente.", mesActual);
-                return 0;
-            }
-
-            logger.info("Iniciando procesamiento de facturas de servicios pendientes para el mes {}", mesActual);
-
-            // Obtener la fecha actual
-            LocalDate fechaActual = clockService.getCurrentDate();
-            logger.info("Fecha actual: {}", fechaActual);
-
-            // Buscar todos los servicios activos con pagos pendientes
-            List<ServicioContrato> serviciosPendientes =
-                servicioContratoRepository.findServiciosConPagosPendientes(fechaActual);
-
-            logger.info("Servicios pendientes encontrados: {}", serviciosPendientes.size());
-
-            if (serviciosPendientes.isEmpty()) {
-                logger.info("No se encontraron servicios con pagos pendientes para generar");
-                // Actualizar el último mes procesado aunque no haya facturas
-                actualizarUltimoMesProcesado(mesActual);
-                return 0;
-            }
-
-            int facturasGeneradas = 0;
-            for (ServicioContrato servicio : serviciosPendientes) {
-                try {
-                    logger.info("Procesando servicio ID: {}, proximoPago: {}",
-                               servicio.getId(), servicio.getProximoPago());
-
-                    // Generar la nueva factura para este período
-                    boolean generado = generarFacturaParaServicio(servicio);
-
-                    if (generado) {
-                        facturasGeneradas++;
-                        logger.info("Factura generada para servicio ID: {}", servicio.getId());
-                    }
-
-                } catch (Exception e) {
-                    logger.error("Error al procesar servicio ID {}: {}",
-                                servicio.getId(), e.getMessage(), e);
-                    // Continuar con el siguiente servicio
-                }
-            }
-
-            // Actualizar el último mes procesado en la base de datos
-            actualizarUltimoMesProcesado(mesActual);
-            logger.info("Se generaron {} nuevas facturas para pagos pendientes. Último mes procesado actualizado a: {}",
-                       facturasGeneradas, mesActual);
-
-            logger.info("=== FIN procesarPagosPendientes ===");
-            return facturasGeneradas;
+    @CacheEvict(value = CacheNames.DASHBOARD, allEntries = true)
+    public int generarFacturasParaContratos(List<Long> contratoIds) {
+        return generarFacturasPendientes(contratoIds);
+    }
 
-        } catch (Exception e) {
-            logger.error("Error al procesar facturas de servicios pendientes: {}", e.getMessage(), e);
-            // No lanzamos la excepción para que no afecte el login del usuario
+    /**
+     * Genera la factura del próximo período de todos los servicios pendientes con dos sentencias,
+     * sin importar cuántos servicios haya
+     *
+     * Primero un INSERT ... SELECT crea las facturas que falten (NOT EXISTS por servicio y período),
+     * y después un único UPDATE avanza las fechas de esos mismos servicios, aunque la factura ya existiera.
+     * El orden importa: el UPDATE cambia proximo_pago, que es lo que define el período de la factura.
+     *
+     * @param contratoIds Lote de contratos a procesar, o null para todos
+     * @return Cantidad de facturas generadas
+     */
+    private int generarFacturasPendientes(List<Long> contratoIds) {
+        LocalDate fechaActual = clockService.getCurrentDate();
+        LocalDate proximoPagoMensual = fechaActual.plusMonths(1).withDayOfMonth(1);
+        LocalDateTime ahora = LocalDateTime.now();
+        String ahoraTexto = ahora.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+
+        int facturasGeneradas;
+        int serviciosActualizados;
+        if (contratoIds == null) {
+            facturasGeneradas = pagoServicioRepository.insertarFacturasPendientes(fechaActual, ahoraTexto);
+            serviciosActualizados = servicioContratoRepository
+                .avanzarFechasServiciosConPagoPendiente(fechaActual, proximoPagoMensual, ahora);
+        } else if (contratoIds.isEmpty()) {
             return 0;
+        } else {
+            facturasGeneradas = pagoServicioRepository
+                .insertarFacturasPendientesByContratoIds(fechaActual, ahoraTexto, contratoIds);
+            serviciosActualizados = servicioContratoRepository
+                .avanzarFechasServiciosConPagoPendienteByContratoIds(fechaActual, proximoPagoMensual, ahora, contratoIds);
         }
-    }
 
+        logger.info("Generadas {} facturas para {} servicios", facturasGeneradas, serviciosActualizados);
+        return facturasGeneradas;
+    }
 
     /**
      * Obtiene el último mes procesado desde la base de datos
@@ -177,79 +151,6 @@ public class ServicioActualizacionService {
         }
     }
 
-    /**
-     * Genera una factura (PagoServicio) para el servicio en el período especificado
-     *
-     * @param servicio El servicio de contrato
-     * @return true si se generó la factura, false si ya existía o hubo error
-     */
-    protected boolean generarFacturaParaServicio(ServicioContrato servicio) {
-        try {
-            // Verificar que el servicio esté activo
-            if (!Boolean.TRUE.equals(servicio.getEsActivo())) {
-                logger.warn("El servicio ID {} no está activo.", servicio.getId());
-                return false;
-            }
-
-            // Calcular el período en formato mm/aaaa
-            String periodo = servicio.getProximoPago().format(FORMATO_PERIODO);
-
-            // Verificar si ya existe una factura para este servicio y período
-            if (pagoServicioRepository.existsByServicioContratoIdAndPeriodo(servicio.getId(), periodo)) {
-                logger.debug("Ya existe una factura para el período {} del servicio ID: {}",
-                            periodo, servicio.getId());
-
-                // Actualizar el servicio aunque ya exista la factura
-                actualizarFechasServicio(servicio);
-                return false;
-            }
-
-            // Crear la nueva factura (PagoServicio) para este período
-            PagoServicio nuevaFactura = new PagoServicio();
-            nuevaFactura.setServicioContrato(servicio);
-            nuevaFactura.setPeriodo(periodo);
-
-            // La factura se crea sin pagar
-            nuevaFactura.setEstaPagado(false);
-            nuevaFactura.setEstaVencido(false);
-
-            // Guardar la nueva factura
-            pagoServicioRepository.save(nuevaFactura);
-            logger.info("Nueva factura generada - Período: {}, Servicio: {}, Contrato ID: {}",
-                       periodo, servicio.getTipoServicio().getNombre(),
-                       servicio.getContrato().getId());
-
-            // Actualizar las fechas del servicio
-            actualizarFechasServicio(servicio);
-
-            return true;
-
-        } catch (Exception e) {
-            logger.error("Error al generar factura para servicio ID {}: {}",
-                        servicio.getId(), e.getMessage(), e);
-            return false;
-        }
-    }
-
-    /**
-     * Actualiza las fechas de último y próximo pago de un servicio
-     */
-    private void actualizarFechasServicio(ServicioContrato servicio) {
-        LocalDate proximoPago = servicio.getProximoPago().withDayOfMonth(1);
-        servicio.setUltimoPagoGenerado(proximoPago);
-
-        // Calcular el próximo pago según si es anual o mensual
-        LocalDate nuevoProximoPago = servicio.getEsAnual()
-            ? proximoPago.plusYears(1).withDayOfMonth(1)
-            : LocalDate.now().plusMonths(1).withDayOfMonth(1);
-
-        servicio.setProximoPago(nuevoProximoPago);
-        servicioContratoRepository.save(servicio);
-
-        logger.debug("Fechas actualizadas para servicio ID={}: último={}, próximo={}",
-                    servicio.getId(), proximoPago, nuevoProximoPago);
-    }
-
     /**
      * Fuerza el procesamiento de pagos independientemente del mes
      * Útil para testing o procesamiento manual
@@ -257,17 +158,16 @@ public class ServicioActualizacionService {
      * @return Cantidad de facturas generadas
      */
     @Transactional
+    @CacheEvict(value = CacheNames.DASHBOARD, allEntries = true)
     public int forzarProcesamientoPagos() {
-        // Obtener el mes anterior desde la BD
         String mesAnterior = obtenerUltimoMesProcesado();
-
-        // Eliminar la configuración para forzar el procesamiento
-        configuracionSistemaRepository.findByClave(CLAVE_ULTIMO_MES_PROCESADO)
-            .ifPresent(configuracionSistemaRepository::delete);
-
+        String mesActual = YearMonth.from(clockService.getCurrentDate()).format(FORMATO_PERIODO);
         logger.info("Forzando procesamiento de pagos. Último mes procesado era: {}", mesAnterior);
 
-        return procesarPagosPendientes();
+        int facturasGeneradas = generarFacturasPendientes(null);
+
+        actualizarUltimoMesProcesado(mesActual);
+        return facturasGeneradas;
     }
 
     /**
@@ -286,41 +186,26 @@ public class ServicioActualizacionService {
      * @return Cantidad de pagos generados
      */
     @Transactional
+    @CacheEvict(value = CacheNames.DASHBOARD, allEntries = true)
     public int generarPagosPendientesParaServicio(Integer servicioId) {
         try {
             logger.info("Generando pagos pendientes para servicio ID: {}", servicioId);
 
-            Optional<ServicioContrato> servicioOpt = servicioContratoRepository.findById(servicioId);
-
-            if (servicioOpt.isEmpty()) {
-                logger.warn("Servicio no encontrado con ID: {}", servicioId);
-                return 0;
-            }
-
-            ServicioContrato servicio = servicioOpt.get();
-
-            // Verificar que el servicio esté activo
-            if (!Boolean.TRUE.equals(servicio.getEsActivo())) {
-                logger.warn("El servicio ID {} no está activo. No se generarán pagos.", servicioId);
-                return 0;
-            }
-
             LocalDate fechaActual = clockService.getCurrentDate();
-            int pagosGenerados = 0;
+            LocalDate proximoPagoMensual = fechaActual.plusMonths(1).withDayOfMonth(1);
+            LocalDateTime ahora = LocalDateTime.now();
+            String ahoraTexto = ahora.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
 
-            // Generar pagos mientras el próximo pago sea menor o igual a la fecha actual
-            while (servicio.getProximoPago() != null &&
-                   !servicio.getProximoPago().isAfter(fechaActual)) {
-
-                boolean generado = generarFacturaParaServicio(servicio);
-
-                if (generado) {
-                    pagosGenerados++;
-                }
-
-                // Recargar el servicio para obtener el próximo pago actualizado
-                servicio = servicioContratoRepository.findById(servicioId).orElse(servicio);
-            }
+            // Mismas sentencias que la generación mensual, limitadas al servicio. Cada vuelta genera un
+            // período; solo los servicios anuales atrasados necesitan más de una
+            int pagosGenerados = 0;
+            int avanzados;
+            do {
+                pagosGenerados += pagoServicioRepository
+                    .insertarFacturasPendientesByServicioId(fechaActual, ahoraTexto, servicioId);
+                avanzados = servicioContratoRepository
+                    .avanzarFechasServiciosConPagoPendienteByServicioId(fechaActual, proximoPagoMensual, ahora, servicioId);
+            } while (avanzados > 0);
 
             logger.info("Pagos pendientes generados para servicio ID {}: {} pagos",
                        servicioId, pagosGenerados);
@@ -342,6 +227,7 @@ public class ServicioActualizacionService {
      * @return true si se generó el pago, false en caso contrario
      */
     @Transactional
+    @CacheEvict(value = CacheNames.DASHBOARD, allEntries = true)
     public boolean generarPagoMesActualParaNuevoServicio(Integer servicioId) {
         try {
             logger.info("Forzando generación de pago del mes actual para servicio ID: {}", servicioId);
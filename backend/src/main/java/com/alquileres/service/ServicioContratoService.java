@@ -18,7 +18,6 @@ import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 
 import java.time.LocalDate;
@@ -38,6 +37,7 @@ public class ServicioContratoService {
     private final PagoServicioRepository pagoServicioRepository;
     private final ServicioActualizacionService servicioActualizacionService;
     private final ClockService clockService;
+    private final InvalidacionCacheContratos invalidacionCacheContratos;
 
     public ServicioContratoService(
             ServicioContratoRepository servicioContratoRepository,
@@ -45,13 +45,15 @@ public class ServicioContratoService {
             TipoServicioRepository tipoServicioRepository,
             PagoServicioRepository pagoServicioRepository,
             ServicioActualizacionService servicioActualizacionService,
-            ClockService clockService) {
+            ClockService clockService,
+            InvalidacionCacheContratos invalidacionCacheContratos) {
         this.servicioContratoRepository = servicioContratoRepository;
         this.contratoRepository = contratoRepository;
         this.tipoServicioRepository = tipoServicioRepository;
         this.pagoServicioRepository = pagoServicioRepository;
         this.servicioActualizacionService = servicioActualizacionService;
         this.clockService = clockService;
+        this.invalidacionCacheContratos = invalidacionCacheContratos;
     }
 
     /**
@@ -95,18 +97,6 @@ public class ServicioContratoService {
      * @return El servicio creado
      */
     @Transactional
-    @CacheEvict(
-        allEntries = true,
-        cacheNames = {
-            CacheNames.CONTRATOS,
-            CacheNames.CONTRATOS_VIGENTES,
-            CacheNames.CONTRATOS_NO_VIGENTES,
-            CacheNames.CONTRATOS_PROXIMOS_VENCER,
-            CacheNames.CONTRATOS_POR_INMUEBLE,
-            CacheNames.CONTRATOS_POR_INQUILINO,
-            CacheNames.SERVICIOS_POR_CONTRATO
-        }
-    )
     public ServicioContrato crearServicioCompleto(Long contratoId, Integer tipoServicioId,
                                                   String nroCuenta, String nroContrato, String nroContratoServicio,
                                                   Boolean esDeInquilino, Boolean esAnual,
@@ -196,6 +186,7 @@ public class ServicioContratoService {
         servicioGuardado.setProximoPago(proximoPago);
 
         servicioContratoRepository.save(servicioGuardado);
+        invalidacionCacheContratos.invalidarServiciosDeContrato(contratoId);
         logger.info("Fechas de pago inicializadas para servicio ID: {}", servicioGuardado.getId());
 
         // Generar automáticamente los pagos pendientes hasta la fecha actual
@@ -218,25 +209,14 @@ public class ServicioContratoService {
             // No lanzamos la excepción para no afectar la creación del servicio
         }
 
-        return servicioGuardado;
+        // La generación de pagos avanza las fechas con SQL: se relee el servicio para devolverlas actualizadas
+        return servicioContratoRepository.findById(servicioGuardado.getId()).orElse(servicioGuardado);
     }
 
     /**
      * Actualiza los datos administrativos de un servicio
      */
     @Transactional
-    @CacheEvict(
-        allEntries = true,
-        cacheNames = {
-            CacheNames.CONTRATOS,
-            CacheNames.CONTRATOS_VIGENTES,
-            CacheNames.CONTRATOS_NO_VIGENTES,
-            CacheNames.CONTRATOS_PROXIMOS_VENCER,
-            CacheNames.CONTRATOS_POR_INMUEBLE,
-            CacheNames.CONTRATOS_POR_INQUILINO,
-            CacheNames.SERVICIOS_POR_CONTRATO
-        }
-    )
     public ServicioContrato actualizarServicio(Integer servicioId, String nroCuenta,
                                               String nroContrato, String nroContratoServicio,
                                               Boolean esDeInquilino, Boolean esAnual) {
@@ -253,6 +233,7 @@ public class ServicioContratoService {
         if (esAnual != null) servicio.setEsAnual(esAnual);
 
         ServicioContrato servicioActualizado = servicioContratoRepository.save(servicio);
+        invalidacionCacheContratos.invalidarServiciosDeContrato(servicio.getContrato().getId());
         logger.info("Servicio actualizado: ID={}", servicioId);
 
         return servicioActualizado;
@@ -262,18 +243,6 @@ public class ServicioContratoService {
      * Desactiva un servicio (borrado lógico)
      */
     @Transactional
-    @CacheEvict(
-        allEntries = true,
-        cacheNames = {
-            CacheNames.CONTRATOS,
-            CacheNames.CONTRATOS_VIGENTES,
-            CacheNames.CONTRATOS_NO_VIGENTES,
-            CacheNames.CONTRATOS_PROXIMOS_VENCER,
-            CacheNames.CONTRATOS_POR_INMUEBLE,
-            CacheNames.CONTRATOS_POR_INQUILINO,
-            CacheNames.SERVICIOS_POR_CONTRATO
-        }
-    )
     public void desactivarServicio(Integer servicioId) {
         ServicioContrato servicio = servicioContratoRepository.findById(servicioId)
                 .orElseThrow(() -> new BusinessException(
@@ -283,6 +252,7 @@ public class ServicioContratoService {
 
         servicio.setEsActivo(false);
         servicioContratoRepository.save(servicio);
+        invalidacionCacheContratos.invalidarServiciosDeContrato(servicio.getContrato().getId());
 
         logger.info("Servicio desactivado: ID={}", servicioId);
     }
@@ -291,18 +261,6 @@ public class ServicioContratoService {
      * Reactiva un servicio (versión simple)
      */
     @Transactional
-    @CacheEvict(
-        allEntries = true,
-        cacheNames = {
-            CacheNames.CONTRATOS,
-            CacheNames.CONTRATOS_VIGENTES,
-            CacheNames.CONTRATOS_NO_VIGENTES,
-            CacheNames.CONTRATOS_PROXIMOS_VENCER,
-            CacheNames.CONTRATOS_POR_INMUEBLE,
-            CacheNames.CONTRATOS_POR_INQUILINO,
-            CacheNames.SERVICIOS_POR_CONTRATO
-        }
-    )
     public void reactivarServicio(Integer servicioId) {
         reactivarServicioConFecha(servicioId, clockService.getCurrentDate().format(FORMATO_FECHA));
     }
@@ -314,18 +272,6 @@ public class ServicioContratoService {
      * @param nuevaFechaInicio Nueva fecha de inicio para reactivar
      */
     @Transactional
-    @CacheEvict(
-        allEntries = true,
-        cacheNames = {
-            CacheNames.CONTRATOS,
-            CacheNames.CONTRATOS_VIGENTES,
-            CacheNames.CONTRATOS_NO_VIGENTES,
-            CacheNames.CONTRATOS_PROXIMOS_VENCER,
-            CacheNames.CONTRATOS_POR_INMUEBLE,
-            CacheNames.CONTRATOS_POR_INQUILINO,
-            CacheNames.SERVICIOS_POR_CONTRATO
-        }
-    )
     public void reactivarServicioConFecha(Integer servicioId, String nuevaFechaInicio) {
         ServicioContrato servicio = servicioContratoRepository.findById(servicioId)
                 .orElseThrow(() -> new BusinessException(
@@ -345,7 +291,7 @@ public class ServicioContratoService {
         servicio.setProximoPago(proximoPago);
 
         servicioContratoRepository.save(servicio);
-
+        invalidacionCacheContratos.invalidarServiciosDeContrato(servicio.getContrato().getId());
 
         logger.info("Servicio reactivado ID: {}", servicioId);
     }
@@ -414,24 +360,13 @@ public class ServicioContratoService {
      * Desactiva todos los servicios de un contrato
      */
     @Transactional
-    @CacheEvict(
-        allEntries = true,
-        cacheNames = {
-            CacheNames.CONTRATOS,
-            CacheNames.CONTRATOS_VIGENTES,
-            CacheNames.CONTRATOS_NO_VIGENTES,
-            CacheNames.CONTRATOS_PROXIMOS_VENCER,
-            CacheNames.CONTRATOS_POR_INMUEBLE,
-            CacheNames.CONTRATOS_POR_INQUILINO,
-            CacheNames.SERVICIOS_POR_CONTRATO
-        }
-    )
     public void desactivarServiciosDeContrato(Long contratoId) {
         List<ServicioContrato> servicios = servicioContratoRepository.findByContratoId(contratoId);
         servicios.forEach(servicio -> {
             servicio.setEsActivo(false);
             servicioContratoRepository.save(servicio);
         });
+        invalidacionCacheContratos.invalidarServiciosDeContrato(contratoId);
         logger.info("Todos los servicios desactivados para contrato ID={}", contratoId);
     }
 
@@ -0,0 +1,408 @@
+package com.alquileres.service;
+
+import com.alquileres.dto.EjecucionTareaDTO;
+import com.alquileres.exception.BusinessException;
+import com.alquileres.exception.ErrorCodes;
+import com.alquileres.model.EjecucionTarea;
+import com.alquileres.model.EstadoTarea;
+import com.alquileres.model.TipoTarea;
+import com.alquileres.repository.EjecucionTareaRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Motor de tareas automáticas en segundo plano
+ *
+ * Ejecuta la actualización de contratos vencidos, la generación de facturas de servicios y la
+ * generación de alquileres. Cada ejecución queda registrada en la tabla ejecuciones_tarea con su
+ * progreso. Los contratos se procesan en orden de ID y en lotes; cada lote se confirma en la misma
+ * transacción que el checkpoint (último contrato procesado), por lo que una ejecución interrumpida
+ * se reanuda desde el último lote confirmado.
+ *
+ * Con varias instancias, cada ejecución se reserva en la base antes de correrla: la restricción única
+ * por tipo y período deja crear una sola, y la reserva (proximo_intento) se toma con un UPDATE
+ * condicional que solo una instancia puede ganar. La reserva se renueva con cada lote; si la instancia
+ * se cae, otra retoma la ejecución cuando vence. Después de un fallo se espera antes de reintentar,
+ * duplicando la espera con cada fallo, para no repetir el proceso completo en cada login.
+ */
+@Service
+public class TareaAutomaticaService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TareaAutomaticaService.class);
+    private static final DateTimeFormatter FORMATO_PERIODO = DateTimeFormatter.ofPattern("MM/yyyy");
+    private static final DateTimeFormatter FORMATO_FECHA = DateTimeFormatter.ISO_LOCAL_DATE;
+
+    /**
+     * Cantidad de contratos por transacción
+     */
+    private static final int TAMANO_LOTE = 50;
+
+    /**
+     * Duración de la reserva de una ejecución; se renueva con cada lote confirmado
+     */
+    private static final Duration DURACION_RESERVA = Duration.ofMinutes(10);
+
+    private static final Duration ESPERA_INICIAL = Duration.ofMinutes(5);
+    private static final Duration ESPERA_MAXIMA = Duration.ofHours(6);
+
+    /**
+     * Orden en que se ejecutan los procesos al iniciar sesión
+     */
+    private static final TipoTarea[] ORDEN_EJECUCION = {
+        TipoTarea.ACTUALIZACION_CONTRATOS_VENCIDOS,
+        TipoTarea.GENERACION_FACTURAS_SERVICIOS,
+        TipoTarea.GENERACION_ALQUILERES
+    };
+
+    private final EjecucionTareaRepository ejecucionTareaRepository;
+    private final ContratoActualizacionService contratoActualizacionService;
+    private final ServicioActualizacionService servicioActualizacionService;
+    private final AlquilerActualizacionService alquilerActualizacionService;
+    private final ICLService iclService;
+    private final ClockService clockService;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor taskExecutor;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final AtomicBoolean ejecucionSolicitada = new AtomicBoolean(false);
+
+    /**
+     * Último día en que se completaron todos los procesos (evita consultar la BD en cada login)
+     */
+    private volatile LocalDate ultimoDiaCompletado;
+
+    public TareaAutomaticaService(
+            EjecucionTareaRepository ejecucionTareaRepository,
+            ContratoActualizacionService contratoActualizacionService,
+            ServicioActualizacionService servicioActualizacionService,
+            AlquilerActualizacionService alquilerActualizacionService,
+            ICLService iclService,
+            ClockService clockService,
+            PlatformTransactionManager transactionManager,
+            @Qualifier("taskExecutor") Executor taskExecutor) {
+        this.ejecucionTareaRepository = ejecucionTareaRepository;
+        this.contratoActualizacionService = contratoActualizacionService;
+        this.servicioActualizacionService = servicioActualizacionService;
+        this.alquilerActualizacionService = alquilerActualizacionService;
+        this.iclService = iclService;
+        this.clockService = clockService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.taskExecutor = taskExecutor;
+    }
+
+    /**
+     * Lanza en segundo plano los procesos pendientes del día/mes, sin bloquear al llamador
+     * Se invoca en cada login
+     *
+     * @return true si hay procesos ejecutándose (recién lanzados o ya en curso)
+     */
+    public boolean iniciarProcesosPendientes() {
+        if (clockService.getCurrentDate().equals(ultimoDiaCompletado)) {
+            return false;
+        }
+
+        if (!ejecucionSolicitada.compareAndSet(false, true)) {
+            return true;
+        }
+
+        try {
+            taskExecutor.execute(() -> {
+                try {
+                    ejecutarProcesosPendientes();
+                } finally {
+                    ejecucionSolicitada.set(false);
+                }
+            });
+        } catch (Exception e) {
+            ejecucionSolicitada.set(false);
+            logger.error("No se pudieron lanzar los procesos automáticos: {}", e.getMessage());
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Ejecuta (o reanuda) todos los procesos pendientes en el hilo actual
+     */
+    public void ejecutarProcesosPendientes() {
+        LocalDate hoy = clockService.getCurrentDate();
+        boolean todasCompletadas = true;
+
+        for (TipoTarea tipo : ORDEN_EJECUCION) {
+            EjecucionTarea ejecucion = ejecutarTarea(tipo);
+            if (ejecucion.getEstado() != EstadoTarea.COMPLETADA) {
+                todasCompletadas = false;
+            }
+        }
+
+        if (todasCompletadas) {
+            ultimoDiaCompletado = hoy;
+        }
+    }
+
+    /**
+     * Ejecuta un proceso para el período actual
+     * Si ya se completó no hace nada; si quedó interrumpido o falló, se reanuda desde el checkpoint.
+     * Si otra instancia la está ejecutando, o falló hace poco, la devuelve sin procesar
+     *
+     * @param tipo Proceso a ejecutar
+     * @return Ejecución resultante
+     */
+    public EjecucionTarea ejecutarTarea(TipoTarea tipo) {
+        lock.lock();
+        try {
+            String periodo = calcularPeriodo(tipo);
+            Optional<EjecucionTarea> existente = ejecucionTareaRepository.findByTipoAndPeriodo(tipo, periodo);
+
+            if (existente.isPresent() && existente.get().getEstado() == EstadoTarea.COMPLETADA) {
+                logger.debug("El proceso {} del período {} ya fue completado", tipo, periodo);
+                return existente.get();
+            }
+
+            EjecucionTarea ejecucion;
+            if (existente.isPresent()) {
+                ejecucion = reservar(existente.get());
+                if (ejecucion == null) {
+                    logger.debug("El proceso {} del período {} está en curso en otra instancia o esperando para reintentar",
+                                tipo, periodo);
+                    return existente.get();
+                }
+                logger.info("Reanudando proceso {} del período {} desde el contrato ID {}",
+                           tipo, periodo, ejecucion.getUltimoContratoId());
+            } else {
+                boolean yaProcesado = periodoYaProcesado(tipo, periodo);
+                ejecucion = new EjecucionTarea(tipo, periodo);
+                ejecucion.setFechaInicio(ahora());
+                if (yaProcesado) {
+                    // Período procesado antes de que existiera el motor de tareas
+                    ejecucion.setEstado(EstadoTarea.COMPLETADA);
+                    ejecucion.setFechaFin(ahora());
+                } else {
+                    ejecucion.setProximoIntento(finReserva());
+                }
+
+                try {
+                    ejecucion = ejecucionTareaRepository.save(ejecucion);
+                } catch (DataIntegrityViolationException e) {
+                    // Otra instancia creó la ejecución del período al mismo tiempo y es la que la corre
+                    logger.info("El proceso {} del período {} lo inició otra instancia", tipo, periodo);
+                    return ejecucionTareaRepository.findByTipoAndPeriodo(tipo, periodo).orElseThrow(() -> e);
+                }
+                if (yaProcesado) {
+                    return ejecucion;
+                }
+                logger.info("Iniciando proceso {} del período {}", tipo, periodo);
+            }
+
+            return procesar(ejecucion);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Indica si hay procesos ejecutándose o a punto de ejecutarse
+     */
+    public boolean estaProcesando() {
+        return ejecucionSolicitada.get() || lock.isLocked();
+    }
+
+    /**
+     * Obtiene las últimas ejecuciones registradas
+     */
+    public List<EjecucionTareaDTO> obtenerUltimasEjecuciones() {
+        return ejecucionTareaRepository.findTop20ByOrderByIdDesc().stream()
+            .map(EjecucionTareaDTO::new)
+            .toList();
+    }
+
+    /**
+     * Obtiene la última ejecución de cada proceso
+     */
+    public List<EjecucionTareaDTO> obtenerEstadoActual() {
+        List<EjecucionTareaDTO> estado = new ArrayList<>();
+        for (TipoTarea tipo : ORDEN_EJECUCION) {
+            ejecucionTareaRepository.findTopByTipoOrderByIdDesc(tipo)
+                .map(EjecucionTareaDTO::new)
+                .ifPresent(estado::add);
+        }
+        return estado;
+    }
+
+    /**
+     * Obtiene una ejecución por ID
+     */
+    public EjecucionTareaDTO obtenerEjecucion(Long id) {
+        EjecucionTarea ejecucion = ejecucionTareaRepository.findById(id)
+            .orElseThrow(() -> new BusinessException(
+                ErrorCodes.RECURSO_NO_ENCONTRADO,
+                "No se encontró la ejecución con ID: " + id,
+                HttpStatus.NOT_FOUND
+            ));
+        return new EjecucionTareaDTO(ejecucion);
+    }
+
+    /**
+     * Toma la reserva de una ejecución existente
+     *
+     * @return La ejecución recargada de la base (con el checkpoint que dejó la última instancia),
+     *         o null si otra instancia la tiene reservada o todavía no pasó la espera tras un fallo
+     */
+    private EjecucionTarea reservar(EjecucionTarea ejecucion) {
+        LocalDateTime ahora = LocalDateTime.now();
+        Integer reservadas = transactionTemplate.execute(status -> ejecucionTareaRepository.reservar(
+            ejecucion.getId(), EstadoTarea.EN_PROCESO, EstadoTarea.COMPLETADA, ahora, ahora.plus(DURACION_RESERVA)));
+        if (reservadas == null || reservadas == 0) {
+            return null;
+        }
+        return ejecucionTareaRepository.findById(ejecucion.getId()).orElse(null);
+    }
+
+    private EjecucionTarea procesar(EjecucionTarea ejecucion) {
+        TipoTarea tipo = ejecucion.getTipo();
+        try {
+            if (tipo == TipoTarea.GENERACION_ALQUILERES) {
+                // Una sola descarga del ICL para toda la ejecución
+                iclService.sincronizar();
+            }
+
+            Long ultimoId = ejecucion.getUltimoContratoId();
+            List<Long> pendientes = obtenerContratos(tipo).stream()
+                .filter(id -> ultimoId == null || id > ultimoId)
+                .toList();
+
+            ejecucion.setTotalContratos(ejecucion.getContratosProcesados() + pendientes.size());
+            ejecucion.setProximoIntento(finReserva());
+            ejecucion = ejecucionTareaRepository.save(ejecucion);
+
+            for (int i = 0; i < pendientes.size(); i += TAMANO_LOTE) {
+                List<Long> lote = pendientes.subList(i, Math.min(i + TAMANO_LOTE, pendientes.size()));
+                final EjecucionTarea actual = ejecucion;
+
+                ejecucion = transactionTemplate.execute(status -> {
+                    int generados = procesarLote(tipo, lote);
+                    actual.registrarLote(lote.get(lote.size() - 1), lote.size(), generados);
+                    actual.setProximoIntento(finReserva());
+                    return ejecucionTareaRepository.save(actual);
+                });
+
+                logger.debug("Proceso {} - lote confirmado hasta contrato ID {} ({}/{})",
+                            tipo, ejecucion.getUltimoContratoId(),
+                            ejecucion.getContratosProcesados(), ejecucion.getTotalContratos());
+            }
+
+            actualizarMarcadorMensual(tipo, ejecucion.getPeriodo());
+
+            ejecucion.setEstado(EstadoTarea.COMPLETADA);
+            ejecucion.setProximoIntento(null);
+            ejecucion.setFechaFin(ahora());
+            ejecucion = ejecucionTareaRepository.save(ejecucion);
+
+            logger.info("Proceso {} del período {} completado. Contratos: {}, generados: {}",
+                       tipo, ejecucion.getPeriodo(), ejecucion.getContratosProcesados(),
+                       ejecucion.getElementosGenerados());
+            return ejecucion;
+
+        } catch (Exception e) {
+            logger.error("Error en el proceso {} del período {} (checkpoint: contrato ID {}): {}",
+                        tipo, ejecucion.getPeriodo(), ejecucion.getUltimoContratoId(), e.getMessage(), e);
+            int intentos = (ejecucion.getIntentosFallidos() == null ? 0 : ejecucion.getIntentosFallidos()) + 1;
+            ejecucion.setEstado(EstadoTarea.FALLIDA);
+            ejecucion.setMensajeError(truncar(e.getMessage()));
+            ejecucion.setIntentosFallidos(intentos);
+            ejecucion.setProximoIntento(LocalDateTime.now().plus(esperaReintento(intentos)));
+            logger.warn("El proceso {} del período {} se reintenta a partir de las {} (fallo {})",
+                       tipo, ejecucion.getPeriodo(), ejecucion.getProximoIntento(), intentos);
+            try {
+                return ejecucionTareaRepository.save(ejecucion);
+            } catch (Exception guardado) {
+                logger.error("No se pudo registrar el fallo del proceso {}: {}", tipo, guardado.getMessage());
+                return ejecucion;
+            }
+        }
+    }
+
+    private List<Long> obtenerContratos(TipoTarea tipo) {
+        return switch (tipo) {
+            case ACTUALIZACION_CONTRATOS_VENCIDOS -> contratoActualizacionService.obtenerIdsContratosVencidos();
+            case GENERACION_FACTURAS_SERVICIOS -> servicioActualizacionService.obtenerIdsContratosConPagosPendientes();
+            case GENERACION_ALQUILERES -> alquilerActualizacionService.obtenerIdsContratosVigentes();
+        };
+    }
+
+    private int procesarLote(TipoTarea tipo, List<Long> contratoIds) {
+        return switch (tipo) {
+            case ACTUALIZACION_CONTRATOS_VENCIDOS -> contratoActualizacionService.actualizarContratosVencidos(contratoIds);
+            case GENERACION_FACTURAS_SERVICIOS -> servicioActualizacionService.generarFacturasParaContratos(contratoIds);
+            case GENERACION_ALQUILERES -> alquilerActualizacionService.crearAlquileresParaLote(contratoIds);
+        };
+    }
+
+    /**
+     * Los procesos mensuales guardaban el último mes procesado en configuracion_sistema;
+     * se respeta ese valor para no volver a procesar un mes ya generado
+     */
+    private boolean periodoYaProcesado(TipoTarea tipo, String periodo) {
+        return switch (tipo) {
+            case ACTUALIZACION_CONTRATOS_VENCIDOS -> false;
+            case GENERACION_FACTURAS_SERVICIOS -> periodo.equals(servicioActualizacionService.getUltimoMesProcesado());
+            case GENERACION_ALQUILERES -> periodo.equals(alquilerActualizacionService.getUltimoMesProcesado());
+        };
+    }
+
+    private void actualizarMarcadorMensual(TipoTarea tipo, String periodo) {
+        switch (tipo) {
+            case GENERACION_FACTURAS_SERVICIOS -> servicioActualizacionService.actualizarUltimoMesProcesado(periodo);
+            case GENERACION_ALQUILERES -> alquilerActualizacionService.actualizarUltimoMesProcesado(periodo);
+            default -> { }
+        }
+    }
+
+    private String calcularPeriodo(TipoTarea tipo) {
+        LocalDate hoy = clockService.getCurrentDate();
+        return tipo == TipoTarea.ACTUALIZACION_CONTRATOS_VENCIDOS
+            ? hoy.format(FORMATO_FECHA)
+            : hoy.format(FORMATO_PERIODO);
+    }
+
+    private LocalDateTime finReserva() {
+        return LocalDateTime.now().plus(DURACION_RESERVA);
+    }
+
+    /**
+     * Espera antes de reintentar una ejecución fallida: 5 minutos después del primer fallo, duplicándose hasta 6 horas
+     */
+    static Duration esperaReintento(int intentos) {
+        int exponente = Math.min(Math.max(intentos - 1, 0), 20);
+        Duration espera = ESPERA_INICIAL.multipliedBy(1L << exponente);
+        return espera.compareTo(ESPERA_MAXIMA) > 0 ? ESPERA_MAXIMA : espera;
+    }
+
+    private String ahora() {
+        return LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+    }
+
+    private String truncar(String mensaje) {
+        if (mensaje == null) {
+            return null;
+        }
+        return mensaje.length() > 1000 ? mensaje.substring(0, 1000) : mensaje;
+    }
+}
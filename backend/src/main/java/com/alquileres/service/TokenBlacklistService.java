@@ -4,89 +4,73 @@ import com.alquileres.security.JwtUtils;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 
-import java.util.Date;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
-
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Revocación de tokens JWT (logout y refresh)
+ *
+ * El registro no guarda el token completo sino los primeros 128 bits de su SHA-256
+ * (22 caracteres en Base64), que se calculan sin necesidad de validar ni parsear el token.
+ */
 @Service
 public class TokenBlacklistService {
 
-    private final JwtUtils jwtUtils;
+    private static final long EXPIRACION_POR_DEFECTO_MS = 24 * 60 * 60 * 1000L;
 
-    // Almacenamos el token junto con su fecha de expiración
-    private final Map<String, Date> blacklistedTokens = new ConcurrentHashMap<>();
-    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
+    private final JwtUtils jwtUtils;
+    private final RegistroRevocaciones registroRevocaciones;
 
-    public TokenBlacklistService(@Lazy JwtUtils jwtUtils) {
+    public TokenBlacklistService(@Lazy JwtUtils jwtUtils, RegistroRevocaciones registroRevocaciones) {
         this.jwtUtils = jwtUtils;
-        // Limpiar tokens expirados cada hora
-        scheduler.scheduleAtFixedRate(this::cleanupExpiredTokens, 1, 1, TimeUnit.HOURS);
+        this.registroRevocaciones = registroRevocaciones;
     }
 
     /**
-     * Agrega un token a la blacklist con su fecha de expiración
+     * Agrega un token a la blacklist hasta su fecha de expiración
      */
     public void blacklistToken(String token) {
+        Instant expiracion;
         try {
-            Date expirationDate = jwtUtils.getExpirationDateFromToken(token);
-            blacklistedTokens.put(token, expirationDate);
+            expiracion = jwtUtils.getExpirationDateFromToken(token).toInstant();
         } catch (Exception e) {
             // Si no se puede obtener la fecha de expiración, usar fecha actual + 24 horas
-            Date fallbackExpiration = new Date(System.currentTimeMillis() + 24 * 60 * 60 * 1000);
-            blacklistedTokens.put(token, fallbackExpiration);
+            expiracion = Instant.now().plusMillis(EXPIRACION_POR_DEFECTO_MS);
         }
+        registroRevocaciones.revocar(claveDe(token), expiracion);
     }
 
     /**
      * Verifica si un token está en la blacklist y no ha expirado
      */
     public boolean isTokenBlacklisted(String token) {
-        Date expirationDate = blacklistedTokens.get(token);
-
-        if (expirationDate == null) {
-            return false; // Token no está en blacklist
-        }
-
-        // Si el token ya expiró naturalmente, lo removemos de la blacklist
-        if (expirationDate.before(new Date())) {
-            blacklistedTokens.remove(token);
-            return false;
-        }
-
-        return true; // Token está en blacklist y aún no ha expirado
-    }
-
-    /**
-     * Limpia tokens que ya expiraron de la blacklist para liberar memoria
-     */
-    private void cleanupExpiredTokens() {
-        Date now = new Date();
-        blacklistedTokens.entrySet().removeIf(entry -> entry.getValue().before(now));
-
-        System.out.println("Limpieza de blacklist completada. Tokens activos en blacklist: " + blacklistedTokens.size());
+        return registroRevocaciones.estaRevocado(claveDe(token));
     }
 
     /**
      * Obtiene el tamano actual de la blacklist (útil para monitoreo)
      */
-    public int getBlacklistSize() {
-        return blacklistedTokens.size();
+    public long getBlacklistSize() {
+        return registroRevocaciones.tamano();
     }
 
     /**
      * Limpia manualmente todos los tokens de la blacklist
      */
     public void clearBlacklist() {
-        blacklistedTokens.clear();
+        registroRevocaciones.limpiar();
     }
 
-    /**
-     * Cierra el scheduler cuando el servicio se destruye
-     */
-    public void shutdown() {
-        scheduler.shutdown();
+    static String claveDe(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(hash, 16));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
     }
 }
@@ -0,0 +1,134 @@
+package com.alquileres.service;
+
+import com.alquileres.exception.BusinessException;
+import com.alquileres.exception.ErrorCodes;
+import com.alquileres.model.EstadoContrato;
+import com.alquileres.model.EstadoInmueble;
+import com.alquileres.repository.AlquilerRepository;
+import com.alquileres.repository.ContratoRepository;
+import com.alquileres.repository.EstadoContratoRepository;
+import com.alquileres.repository.EstadoInmuebleRepository;
+import com.alquileres.repository.InmuebleRepository;
+import com.alquileres.repository.InquilinoRepository;
+import com.alquileres.repository.ServicioContratoRepository;
+import com.alquileres.repository.projection.ContratoAfectado;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Cambios de estado masivos de contratos y sus dependencias
+ *
+ * Vencer o finalizar contratos se hace con una cantidad fija de sentencias UPDATE ... WHERE contrato IN (...),
+ * sin importar cuántos contratos, alquileres o servicios haya: se cambia el estado de los contratos,
+ * se liberan sus inmuebles e inquilinos (si no tienen otro contrato vigente), se anulan sus alquileres
+ * y se desactivan sus servicios.
+ * Después del commit se invalidan solo las entradas de caché de los contratos, inmuebles e inquilinos
+ * afectados, más los listados y el dashboard, que no se pueden invalidar por clave.
+ */
+@Service
+public class TransicionContratoService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransicionContratoService.class);
+
+    private final ContratoRepository contratoRepository;
+    private final EstadoContratoRepository estadoContratoRepository;
+    private final EstadoInmuebleRepository estadoInmuebleRepository;
+    private final InmuebleRepository inmuebleRepository;
+    private final InquilinoRepository inquilinoRepository;
+    private final AlquilerRepository alquilerRepository;
+    private final ServicioContratoRepository servicioContratoRepository;
+    private final InvalidacionCacheContratos invalidacionCacheContratos;
+
+    public TransicionContratoService(ContratoRepository contratoRepository,
+                                     EstadoContratoRepository estadoContratoRepository,
+                                     EstadoInmuebleRepository estadoInmuebleRepository,
+                                     InmuebleRepository inmuebleRepository,
+                                     InquilinoRepository inquilinoRepository,
+                                     AlquilerRepository alquilerRepository,
+                                     ServicioContratoRepository servicioContratoRepository,
+                                     InvalidacionCacheContratos invalidacionCacheContratos) {
+        this.contratoRepository = contratoRepository;
+        this.estadoContratoRepository = estadoContratoRepository;
+        this.estadoInmuebleRepository = estadoInmuebleRepository;
+        this.inmuebleRepository = inmuebleRepository;
+        this.inquilinoRepository = inquilinoRepository;
+        this.alquilerRepository = alquilerRepository;
+        this.servicioContratoRepository = servicioContratoRepository;
+        this.invalidacionCacheContratos = invalidacionCacheContratos;
+    }
+
+    /**
+     * Pasa los contratos a "No Vigente" y finaliza sus dependencias
+     *
+     * @param contratos Contratos vencidos, ya filtrados por quien llama
+     * @return Cantidad de contratos actualizados
+     */
+    @Transactional
+    public int vencerContratos(List<ContratoAfectado> contratos) {
+        if (contratos.isEmpty()) {
+            return 0;
+        }
+
+        EstadoContrato estadoNoVigente = estadoContratoRepository.findByNombre("No Vigente")
+            .orElseThrow(() -> new BusinessException(
+                ErrorCodes.ESTADO_CONTRATO_NO_ENCONTRADO,
+                "Estado 'No Vigente' no encontrado en el sistema",
+                HttpStatus.INTERNAL_SERVER_ERROR
+            ));
+
+        int actualizados = contratoRepository.actualizarEstado(estadoNoVigente, idsDe(contratos));
+        finalizarContratos(contratos);
+
+        logger.info("Se actualizaron {} contratos de 'Vigente' a 'No Vigente'", actualizados);
+        return actualizados;
+    }
+
+    /**
+     * Finaliza las dependencias de contratos que ya no están vigentes (el estado del contrato lo cambia quien llama)
+     *
+     * - Marca los inmuebles como disponibles y los inquilinos como no alquilando, salvo que tengan otro contrato vigente
+     * - Anula todos los alquileres activos de los contratos (borrado lógico)
+     * - Desactiva todos los servicios activos de los contratos
+     *
+     * @param contratos Contratos a finalizar
+     */
+    @Transactional
+    public void finalizarContratos(List<ContratoAfectado> contratos) {
+        if (contratos.isEmpty()) {
+            return;
+        }
+
+        EstadoInmueble estadoDisponible = estadoInmuebleRepository.findByNombre("Disponible")
+            .orElseThrow(() -> new BusinessException(
+                ErrorCodes.ESTADO_INMUEBLE_NO_ENCONTRADO,
+                "Estado 'Disponible' no encontrado en el sistema",
+                HttpStatus.INTERNAL_SERVER_ERROR
+            ));
+
+        List<Long> contratoIds = idsDe(contratos);
+        LocalDateTime ahora = LocalDateTime.now();
+        String ahoraTexto = ahora.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+
+        int inmuebles = inmuebleRepository.liberarInmueblesDeContratos(estadoDisponible.getId(), ahoraTexto, contratoIds);
+        int inquilinos = inquilinoRepository.liberarInquilinosDeContratos(ahoraTexto, contratoIds);
+        int alquileres = alquilerRepository.anularAlquileresDeContratos(ahoraTexto, contratoIds);
+        int servicios = servicioContratoRepository.desactivarServiciosDeContratos(ahora, contratoIds);
+
+        logger.info("Finalizados {} contratos: {} inmuebles liberados, {} inquilinos liberados, " +
+                    "{} alquileres anulados, {} servicios desactivados",
+                    contratoIds.size(), inmuebles, inquilinos, alquileres, servicios);
+
+        invalidacionCacheContratos.invalidarContratos(contratos);
+    }
+
+    private List<Long> idsDe(List<ContratoAfectado> contratos) {
+        return contratos.stream().map(ContratoAfectado::getContratoId).toList();
+    }
+}
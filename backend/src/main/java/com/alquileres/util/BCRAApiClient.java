@@ -1,246 +1,237 @@
 package com.alquileres.util;
 
+import com.alquileres.config.MetricasServiciosExternos;
 import com.alquileres.exception.BusinessException;
 import com.alquileres.exception.ErrorCodes;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
 
-import javax.net.ssl.SSLContext;
-import javax.net.ssl.TrustManager;
-import javax.net.ssl.X509TrustManager;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
-import java.math.RoundingMode;
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
-import java.security.cert.X509Certificate;
 import java.time.Duration;
-import java.util.HashMap;
-import java.util.Map;
-
+import java.time.LocalDate;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Cliente de la API de estadísticas monetarias del BCRA (serie 40, ICL)
+ *
+ * Usa el WebClient compartido (ver ClienteHttpConfig): no bloquea hilos mientras espera la respuesta y
+ * valida el certificado del servidor. La primera página informa el total de registros y las siguientes
+ * se piden en paralelo. Los errores transitorios (sin conexión, timeout, 429, 5xx) se reintentan con
+ * espera exponencial y jitter; es una consulta GET, así que reintentarla no tiene efectos.
+ */
 @Component
 public class BCRAApiClient {
 
     private static final Logger logger = LoggerFactory.getLogger(BCRAApiClient.class);
-    private static final String BCRA_API_URL = "https://api.bcra.gob.ar/estadisticas/v4.0/monetarias/40";
-    private static final int TIMEOUT_SECONDS = 30;
-
-    private final HttpClient httpClient;
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+    private static final int LIMITE_POR_PAGINA = 3000;
+    private static final int PAGINAS_SIMULTANEAS = 4;
+    private static final int REINTENTOS = 2;
+    private static final Duration ESPERA_REINTENTO = Duration.ofMillis(500);
+    private static final String SERVICIO_METRICAS = "bcra";
+
+    private final String apiUrl;
+    private final WebClient webClient;
     private final ObjectMapper objectMapper;
-
-    public BCRAApiClient() {
+    private final MeterRegistry meterRegistry;
+
+    public BCRAApiClient(
+            @Value("${app.bcra.api-url:https://api.bcra.gob.ar/estadisticas/v4.0/monetarias/40}") String apiUrl,
+            WebClient.Builder webClientBuilder,
+            MeterRegistry meterRegistry) {
+        this.apiUrl = apiUrl;
+        this.webClient = webClientBuilder.build();
+        this.meterRegistry = meterRegistry;
         this.objectMapper = new ObjectMapper();
-        HttpClient tempHttpClient = null;
+    }
 
-        try {
-            // Crear un TrustManager que acepte todos los certificados
-            TrustManager[] trustAllCerts = new TrustManager[]{
-                new X509TrustManager() {
-                    @Override
-                    public X509Certificate[] getAcceptedIssuers() {
-                        return null;
-                    }
-
-                    @Override
-                    public void checkClientTrusted(X509Certificate[] certs, String authType) {
-                        // No hacer nada - aceptar todos
-                    }
-
-                    @Override
-                    public void checkServerTrusted(X509Certificate[] certs, String authType) {
-                        // No hacer nada - aceptar todos
-                    }
-                }
-            };
-
-            // Crear SSLContext con el TrustManager permisivo
-            SSLContext sslContext = SSLContext.getInstance("TLS");
-            sslContext.init(null, trustAllCerts, new java.security.SecureRandom());
-
-            // Crear HttpClient con el SSLContext personalizado
-            tempHttpClient = HttpClient.newBuilder()
-                    .connectTimeout(Duration.ofSeconds(TIMEOUT_SECONDS))
-                    .sslContext(sslContext)
-                    .build();
-
-            logger.info("HttpClient configurado con SSL permisivo para la API del BCRA");
-
-        } catch (Exception e) {
-            logger.error("Error al configurar SSL: {}", e.getMessage(), e);
-            // Fallback a HttpClient estándar
-            tempHttpClient = HttpClient.newBuilder()
-                    .connectTimeout(Duration.ofSeconds(TIMEOUT_SECONDS))
-                    .build();
-        }
+    /**
+     * Descarga la serie diaria del ICL entre dos fechas, esperando el resultado
+     *
+     * @param desde Fecha inicial (inclusive)
+     * @param hasta Fecha final (inclusive)
+     * @return Mapa ordenado fecha -> valor del ICL (vacío si el BCRA no publicó valores en el rango)
+     * @throws BusinessException si la API no respondió o devolvió datos inválidos
+     */
+    public NavigableMap<LocalDate, BigDecimal> obtenerSerieICL(LocalDate desde, LocalDate hasta) {
+        return obtenerSerieICLAsync(desde, hasta).block();
+    }
 
-        this.httpClient = tempHttpClient;
+    /**
+     * Descarga la serie diaria del ICL entre dos fechas sin bloquear
+     *
+     * @param desde Fecha inicial (inclusive)
+     * @param hasta Fecha final (inclusive)
+     * @return Mono con el mapa ordenado fecha -> valor; los errores se emiten como BusinessException
+     */
+    public Mono<NavigableMap<LocalDate, BigDecimal>> obtenerSerieICLAsync(LocalDate desde, LocalDate hasta) {
+        return Mono.defer(() -> {
+            logger.info("Descargando serie ICL del BCRA desde {} hasta {}", desde, hasta);
+            NavigableMap<LocalDate, BigDecimal> serie = new TreeMap<>();
+
+            return pedirPagina(desde, hasta, 0)
+                    .flatMap(primera -> {
+                        int total = agregar(primera, serie);
+                        int paginasRestantes = total > LIMITE_POR_PAGINA ? (total - 1) / LIMITE_POR_PAGINA : 0;
+                        if (paginasRestantes == 0) {
+                            return Mono.just(serie);
+                        }
+                        return Flux.range(1, paginasRestantes)
+                                .flatMapSequential(pagina -> pedirPagina(desde, hasta, pagina * LIMITE_POR_PAGINA),
+                                        PAGINAS_SIMULTANEAS)
+                                .collectList()
+                                .map(paginas -> agregarTodas(paginas, serie));
+                    })
+                    .doOnSuccess(resultado -> logger.info("Serie ICL descargada: {} valores entre {} y {}",
+                            serie.size(), desde, hasta));
+        }).onErrorMap(e -> !(e instanceof BusinessException), this::traducirError);
     }
 
     /**
-     * Obtiene la tasa de aumento del ICL desde la API del BCRA
+     * Agrega a la serie los valores de ICL de una página de la respuesta del BCRA
      *
-     * @param fechaInicio Fecha de inicio en formato yyyy-MM-dd
-     * @param fechaFin Fecha de fin en formato yyyy-MM-dd
-     * @return Tasa de aumento (cociente valorFin / valorInicio)
+     * @param cuerpo JSON devuelto por la API
+     * @param serie Mapa fecha -> valor donde se acumulan los valores
+     * @return Total de registros del rango informado por la API (0 si la página no trajo valores)
      */
-    public BigDecimal obtenerTasaAumentoICL(String fechaInicio, String fechaFin) {
-        try {
-            logger.info("Consultando ICL del BCRA desde {} hasta {}", fechaInicio, fechaFin);
-
-            // Construir URL con parámetros
-            String url = String.format("%s?desde=%s&hasta=%s", BCRA_API_URL, fechaInicio, fechaFin);
-
-            // Crear request
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(url))
-                    .timeout(Duration.ofSeconds(TIMEOUT_SECONDS))
-                    .GET()
-                    .build();
-
-            // Ejecutar request
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-
-            // Validar respuesta
-            if (response.statusCode() != 200) {
-                logger.error("Error al consultar BCRA API. Status code: {}", response.statusCode());
-                throw new BusinessException(
-                    ErrorCodes.ERROR_SERVICIO_EXTERNO,
-                    "Error al consultar la API del BCRA. Código de estado: " + response.statusCode(),
-                    HttpStatus.BAD_GATEWAY
-                );
-            }
-
-            // Parsear JSON
-            JsonNode rootNode = objectMapper.readTree(response.body());
-
-            // Validar estructura
-            if (!rootNode.has("results") || !rootNode.get("results").isArray() || rootNode.get("results").isEmpty()) {
-                logger.error("Respuesta inválida de la API del BCRA: {}", response.body());
-                throw new BusinessException(
-                    ErrorCodes.ERROR_SERVICIO_EXTERNO,
-                    "La API del BCRA devolvió una estructura de datos inválida",
-                    HttpStatus.BAD_GATEWAY
-                );
-            }
-
-            // Obtener el array de detalles
-            JsonNode results = rootNode.get("results").get(0);
-            if (!results.has("detalle") || !results.get("detalle").isArray()) {
-                logger.error("No se encontró el detalle en la respuesta del BCRA");
-                throw new BusinessException(
-                    ErrorCodes.ERROR_SERVICIO_EXTERNO,
-                    "No se encontraron datos de ICL para el período solicitado",
-                    HttpStatus.BAD_GATEWAY
-                );
-            }
-
-            JsonNode detalle = results.get("detalle");
-
-            // Extraer valores del ICL en un mapa (fecha -> valor)
-            Map<String, BigDecimal> valoresPorFecha = new HashMap<>();
-            for (JsonNode nodo : detalle) {
-                String fecha = nodo.get("fecha").asText();
-                BigDecimal valor = new BigDecimal(nodo.get("valor").asText());
-                valoresPorFecha.put(fecha, valor);
-            }
-
-            // Obtener valores de inicio y fin
-            BigDecimal valorInicio = valoresPorFecha.get(fechaInicio);
-            BigDecimal valorFin = valoresPorFecha.get(fechaFin);
-
-            logger.info("=== === === Valores de ICL === === ===");
-            logger.info("Fecha Inicio: {}, Valor: {}", fechaInicio, valorInicio);
-            logger.info("Fecha Fin: {}, Valor: {}", fechaFin, valorFin);
-            logger.info("=== === === Fin Valores ICL === === ===");
-
-            // Validar que existan ambos valores
-            if (valorInicio == null) {
-                logger.error("No se encontró valor de ICL para la fecha de inicio: {}", fechaInicio);
-                throw new BusinessException(
-                    ErrorCodes.ERROR_SERVICIO_EXTERNO,
-                    "No se encontró el valor del ICL para la fecha de inicio: " + fechaInicio,
-                    HttpStatus.BAD_REQUEST
-                );
-            }
-
-            if (valorFin == null) {
-                logger.error("No se encontró valor de ICL para la fecha de fin: {}", fechaFin);
-                throw new BusinessException(
-                    ErrorCodes.ERROR_SERVICIO_EXTERNO,
-                    "No se encontró el valor del ICL para la fecha de fin: " + fechaFin,
-                    HttpStatus.BAD_REQUEST
-                );
-            }
-
-            // Validar que valorInicio no sea cero
-            if (valorInicio.compareTo(BigDecimal.ZERO) == 0) {
-                logger.error("El valor de ICL de inicio es cero");
-                throw new BusinessException(
-                    ErrorCodes.ERROR_SERVICIO_EXTERNO,
-                    "El valor del ICL de inicio no puede ser cero",
-                    HttpStatus.BAD_REQUEST
-                );
-            }
-
-            // Calcular tasa de aumento (cociente)
-            BigDecimal tasaAumento = valorFin.divide(valorInicio, 10, RoundingMode.HALF_UP);
-
-            logger.info("ICL obtenido - Inicio: {}, Fin: {}, Tasa de aumento: {}",
-                       valorInicio, valorFin, tasaAumento);
-
-            return tasaAumento;
+    int agregarPagina(String cuerpo, NavigableMap<LocalDate, BigDecimal> serie) throws IOException {
+        JsonNode rootNode = objectMapper.readTree(cuerpo);
 
-        } catch (IOException e) {
-            logger.error("Error de I/O al consultar la API del BCRA: {}", e.getMessage(), e);
+        // Validar estructura
+        if (!rootNode.has("results") || !rootNode.get("results").isArray()) {
+            logger.error("Respuesta inválida de la API del BCRA: {}", cuerpo);
             throw new BusinessException(
                 ErrorCodes.ERROR_SERVICIO_EXTERNO,
-                "Error de comunicación con la API del BCRA: " + e.getMessage(),
+                "La API del BCRA devolvió una estructura de datos inválida",
                 HttpStatus.BAD_GATEWAY
             );
-        } catch (InterruptedException e) {
-            logger.error("Consulta a la API del BCRA interrumpida: {}", e.getMessage(), e);
-            Thread.currentThread().interrupt();
-            throw new BusinessException(
-                ErrorCodes.ERROR_SERVICIO_EXTERNO,
-                "La consulta a la API del BCRA fue interrumpida",
-                HttpStatus.INTERNAL_SERVER_ERROR
-            );
-        } catch (BusinessException e) {
-            // Re-lanzar excepciones de negocio
-            throw e;
-        } catch (Exception e) {
-            logger.error("Error inesperado al consultar la API del BCRA: {}", e.getMessage(), e);
+        }
+
+        // Sin resultados: el BCRA todavía no publicó valores para el rango
+        if (rootNode.get("results").isEmpty()) {
+            return 0;
+        }
+
+        // Obtener el array de detalles
+        JsonNode results = rootNode.get("results").get(0);
+        if (!results.has("detalle") || !results.get("detalle").isArray()) {
+            logger.error("No se encontró el detalle en la respuesta del BCRA");
             throw new BusinessException(
                 ErrorCodes.ERROR_SERVICIO_EXTERNO,
-                "Error inesperado al consultar el ICL: " + e.getMessage(),
-                HttpStatus.INTERNAL_SERVER_ERROR
+                "No se encontraron datos de ICL para el período solicitado",
+                HttpStatus.BAD_GATEWAY
             );
         }
+
+        // Extraer valores del ICL en el mapa (fecha -> valor)
+        JsonNode detalle = results.get("detalle");
+        for (JsonNode nodo : detalle) {
+            LocalDate fecha = LocalDate.parse(nodo.get("fecha").asText());
+            BigDecimal valor = new BigDecimal(nodo.get("valor").asText());
+            serie.put(fecha, valor);
+        }
+
+        if (detalle.isEmpty()) {
+            return 0;
+        }
+
+        // Paginación: la API informa el total de registros en metadata.resultset.count
+        JsonNode count = rootNode.path("metadata").path("resultset").path("count");
+        return count.isNumber() ? count.asInt() : serie.size();
     }
 
     /**
-     * Calcula el nuevo monto aplicando la tasa de aumento del ICL
-     *
-     * @param montoOriginal Monto original del alquiler
-     * @param fechaInicio Fecha de inicio del período
-     * @param fechaFin Fecha de fin del período
-     * @return Nuevo monto ajustado por ICL
+     * Pide una página a la API registrando la duración y el resultado de cada intento
      */
-    public BigDecimal calcularNuevoMontoConICL(BigDecimal montoOriginal, String fechaInicio, String fechaFin) {
-        BigDecimal tasaAumento = obtenerTasaAumentoICL(fechaInicio, fechaFin);
-        BigDecimal nuevoMonto = montoOriginal.multiply(tasaAumento).setScale(2, RoundingMode.HALF_UP);
+    private Mono<String> pedirPagina(LocalDate desde, LocalDate hasta, int offset) {
+        return Mono.defer(() -> {
+            long inicio = System.nanoTime();
+            return webClient.get()
+                    .uri(apiUrl + "?desde={desde}&hasta={hasta}&limit={limit}&offset={offset}",
+                            desde, hasta, LIMITE_POR_PAGINA, offset)
+                    .retrieve()
+                    .bodyToMono(String.class)
+                    .defaultIfEmpty("")
+                    .timeout(TIMEOUT)
+                    .doOnSuccess(cuerpo -> MetricasServiciosExternos.registrarLlamada(
+                            meterRegistry, SERVICIO_METRICAS, System.nanoTime() - inicio, null))
+                    .doOnError(e -> MetricasServiciosExternos.registrarLlamada(
+                            meterRegistry, SERVICIO_METRICAS, System.nanoTime() - inicio, codigoError(e)));
+        }).retryWhen(Retry.backoff(REINTENTOS, ESPERA_REINTENTO)
+                .jitter(0.5)
+                .filter(BCRAApiClient::esReintentable)
+                .doBeforeRetry(senal -> logger.warn("Reintentando consulta al BCRA (offset {}) tras: {}",
+                        offset, senal.failure().getMessage()))
+                .onRetryExhaustedThrow((spec, senal) -> senal.failure()));
+    }
 
-        logger.info("Cálculo de nuevo monto - Original: {}, Tasa: {}, Nuevo: {}",
-                   montoOriginal, tasaAumento, nuevoMonto);
+    private NavigableMap<LocalDate, BigDecimal> agregarTodas(List<String> paginas, NavigableMap<LocalDate, BigDecimal> serie) {
+        for (String pagina : paginas) {
+            agregar(pagina, serie);
+        }
+        return serie;
+    }
 
-        return nuevoMonto;
+    private int agregar(String cuerpo, NavigableMap<LocalDate, BigDecimal> serie) {
+        try {
+            return agregarPagina(cuerpo, serie);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static boolean esReintentable(Throwable e) {
+        if (e instanceof WebClientResponseException respuesta) {
+            return respuesta.getStatusCode().is5xxServerError() || respuesta.getStatusCode().value() == 429;
+        }
+        return e instanceof WebClientRequestException || e instanceof TimeoutException;
     }
-}
 
+    private static String codigoError(Throwable e) {
+        return e instanceof WebClientResponseException respuesta
+                ? String.valueOf(respuesta.getStatusCode().value())
+                : e.getClass().getSimpleName();
+    }
 
+    private BusinessException traducirError(Throwable e) {
+        if (e instanceof WebClientResponseException respuesta) {
+            logger.error("Error al consultar BCRA API. Status code: {}", respuesta.getStatusCode().value());
+            return new BusinessException(
+                ErrorCodes.ERROR_SERVICIO_EXTERNO,
+                "Error al consultar la API del BCRA. Código de estado: " + respuesta.getStatusCode().value(),
+                HttpStatus.BAD_GATEWAY
+            );
+        }
+        if (e instanceof WebClientRequestException || e instanceof TimeoutException || e instanceof UncheckedIOException) {
+            logger.error("Error de comunicación con la API del BCRA: {}", e.getMessage(), e);
+            return new BusinessException(
+                ErrorCodes.ERROR_SERVICIO_EXTERNO,
+                "Error de comunicación con la API del BCRA: " + e.getMessage(),
+                HttpStatus.BAD_GATEWAY
+            );
+        }
+        logger.error("Error inesperado al consultar la API del BCRA: {}", e.getMessage(), e);
+        return new BusinessException(
+            ErrorCodes.ERROR_SERVICIO_EXTERNO,
+            "Error inesperado al consultar el ICL: " + e.getMessage(),
+            HttpStatus.INTERNAL_SERVER_ERROR
+        );
+    }
+}
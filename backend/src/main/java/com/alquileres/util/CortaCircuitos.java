@@ -0,0 +1,91 @@
+package com.alquileres.util;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Corta circuitos para llamadas a un servicio externo
+ *
+ * - CERRADO: se permiten todas las llamadas; tras umbralFallos fallos seguidos pasa a ABIERTO
+ * - ABIERTO: no se permiten llamadas hasta que pasa la espera; después pasa a SEMI_ABIERTO
+ * - SEMI_ABIERTO: se permite una sola llamada de prueba; si sale bien se cierra, si falla se vuelve a abrir
+ *
+ * Solo deben registrarse como fallo los errores del servicio (caído, saturado, sin conexión), no los
+ * rechazos propios de una llamada (datos inválidos), que muestran que el servicio responde.
+ */
+public class CortaCircuitos {
+
+    public enum Estado {
+        CERRADO,
+        ABIERTO,
+        SEMI_ABIERTO
+    }
+
+    private final int umbralFallos;
+    private final long esperaNanos;
+    private final LongSupplier reloj;
+
+    private Estado estado = Estado.CERRADO;
+    private int fallosConsecutivos;
+    private long abiertoDesde;
+    private boolean pruebaEnCurso;
+
+    public CortaCircuitos(int umbralFallos, Duration espera) {
+        this(umbralFallos, espera, System::nanoTime);
+    }
+
+    CortaCircuitos(int umbralFallos, Duration espera, LongSupplier reloj) {
+        this.umbralFallos = umbralFallos;
+        this.esperaNanos = espera.toNanos();
+        this.reloj = reloj;
+    }
+
+    /**
+     * Pide permiso para una llamada; en SEMI_ABIERTO lo obtiene solo la primera
+     */
+    public synchronized boolean permiteIntento() {
+        actualizarEstado();
+        switch (estado) {
+            case CERRADO:
+                return true;
+            case SEMI_ABIERTO:
+                if (!pruebaEnCurso) {
+                    pruebaEnCurso = true;
+                    return true;
+                }
+                return false;
+            default:
+                return false;
+        }
+    }
+
+    public synchronized void registrarExito() {
+        estado = Estado.CERRADO;
+        fallosConsecutivos = 0;
+        pruebaEnCurso = false;
+    }
+
+    public synchronized void registrarFallo() {
+        fallosConsecutivos++;
+        if (estado == Estado.SEMI_ABIERTO || fallosConsecutivos >= umbralFallos) {
+            estado = Estado.ABIERTO;
+            abiertoDesde = reloj.getAsLong();
+            pruebaEnCurso = false;
+        }
+    }
+
+    /**
+     * Estado actual, considerando si ya pasó la espera del circuito abierto (no consume la llamada de prueba)
+     */
+    public synchronized Estado getEstado() {
+        actualizarEstado();
+        return estado;
+    }
+
+    private void actualizarEstado() {
+        if (estado == Estado.ABIERTO && reloj.getAsLong() - abiertoDesde >= esperaNanos) {
+            estado = Estado.SEMI_ABIERTO;
+            pruebaEnCurso = false;
+        }
+    }
+}
@@ -233,4 +233,50 @@ public class FechaUtil {
             throw new IllegalArgumentException("Error comparando fechas: " + fecha1 + " y " + fecha2, e);
         }
     }
+
+    /**
+     * Convierte un texto en formato del usuario (dd/MM/yyyy) o ISO (yyyy-MM-dd, yyyy-MM-ddTHH:mm:ss) a LocalDate
+     *
+     * @param fecha Fecha en cualquiera de los formatos aceptados
+     * @return La fecha, o null si el texto es null o vacío
+     * @throws IllegalArgumentException si el formato no es válido
+     */
+    public static LocalDate parsearFecha(String fecha) {
+        if (fecha == null || fecha.trim().isEmpty()) {
+            return null;
+        }
+
+        String valor = fecha.trim();
+        try {
+            if (valor.contains("/")) {
+                return LocalDate.parse(valor, FORMATO_USUARIO);
+            }
+            if (valor.contains("T")) {
+                return LocalDateTime.parse(valor, FORMATO_ISO_DATETIME).toLocalDate();
+            }
+            return LocalDate.parse(valor, FORMATO_ISO_DATE);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Formato de fecha inválido. Use dd/MM/yyyy (ej: 25/12/2024)", e);
+        }
+    }
+
+    /**
+     * Formatea una fecha en formato ISO (yyyy-MM-dd)
+     *
+     * @param fecha Fecha a formatear
+     * @return Fecha en formato yyyy-MM-dd, o null si la fecha es null
+     */
+    public static String formatearISO(LocalDate fecha) {
+        return fecha != null ? fecha.format(FORMATO_ISO_DATE) : null;
+    }
+
+    /**
+     * Formatea una fecha en el formato del usuario (dd/MM/yyyy)
+     *
+     * @param fecha Fecha a formatear
+     * @return Fecha en formato dd/MM/yyyy, o null si la fecha es null
+     */
+    public static String formatearUsuario(LocalDate fecha) {
+        return fecha != null ? fecha.format(FORMATO_USUARIO) : null;
+    }
 }
@@ -0,0 +1,147 @@
+package com.alquileres.util;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Lee sentencias SQL de a una desde un Reader, sin cargar el archivo completo en memoria
+ *
+ * Un ';' solo termina la sentencia si está fuera de literales ('...'), identificadores ("..."),
+ * bloques con dollar quoting ($$...$$ o $tag$...$tag$) y comentarios de línea o de bloque.
+ * Los comentarios se descartan; el resto del texto se devuelve sin el ';' final y sin espacios
+ * al principio ni al final.
+ * El lector debe tener buffer propio (p. ej. BufferedReader) porque se lee de a un carácter.
+ */
+public class LectorSentenciasSQL {
+
+    private final Reader reader;
+    private int siguiente = -2;
+
+    public LectorSentenciasSQL(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * @return La próxima sentencia, o null si no quedan más
+     * @throws IOException si falla la lectura o el archivo termina dentro de un literal
+     */
+    public String leerSentencia() throws IOException {
+        StringBuilder sentencia = new StringBuilder();
+
+        int c;
+        while ((c = leer()) != -1) {
+            char caracter = (char) c;
+
+            if (caracter == ';') {
+                String resultado = sentencia.toString().trim();
+                if (!resultado.isEmpty()) {
+                    return resultado;
+                }
+                sentencia.setLength(0);
+            } else if (caracter == '\'' || caracter == '"') {
+                sentencia.append(caracter);
+                copiarHastaCierre(caracter, sentencia);
+            } else if (caracter == '-' && mirar() == '-') {
+                saltarComentarioDeLinea();
+                sentencia.append('\n');
+            } else if (caracter == '/' && mirar() == '*') {
+                leer();
+                saltarComentarioDeBloque();
+                sentencia.append(' ');
+            } else if (caracter == '$') {
+                sentencia.append(caracter);
+                copiarDollarQuoting(sentencia);
+            } else {
+                sentencia.append(caracter);
+            }
+        }
+
+        String resultado = sentencia.toString().trim();
+        return resultado.isEmpty() ? null : resultado;
+    }
+
+    /**
+     * Copia un literal o identificador entre comillas; la comilla duplicada es un escape
+     */
+    private void copiarHastaCierre(char comilla, StringBuilder sentencia) throws IOException {
+        int c;
+        while ((c = leer()) != -1) {
+            sentencia.append((char) c);
+            if (c == comilla) {
+                if (mirar() == comilla) {
+                    sentencia.append((char) leer());
+                } else {
+                    return;
+                }
+            }
+        }
+        throw new IOException("El archivo termina dentro de un texto entre comillas");
+    }
+
+    /**
+     * Si el '$' abre un bloque $tag$...$tag$, lo copia completo; si no (p. ej. un parámetro $1), no hace nada
+     */
+    private void copiarDollarQuoting(StringBuilder sentencia) throws IOException {
+        StringBuilder etiqueta = new StringBuilder("$");
+        while (Character.isLetterOrDigit(mirar()) || mirar() == '_') {
+            char c = (char) leer();
+            etiqueta.append(c);
+            sentencia.append(c);
+        }
+        if (mirar() != '$' || (etiqueta.length() > 1 && Character.isDigit(etiqueta.charAt(1)))) {
+            return;
+        }
+        sentencia.append((char) leer());
+        etiqueta.append('$');
+
+        String cierre = etiqueta.toString();
+        int coincidencias = 0;
+        int c;
+        while ((c = leer()) != -1) {
+            sentencia.append((char) c);
+            if (c == cierre.charAt(coincidencias)) {
+                coincidencias++;
+                if (coincidencias == cierre.length()) {
+                    return;
+                }
+            } else {
+                coincidencias = c == '$' ? 1 : 0;
+            }
+        }
+        throw new IOException("El archivo termina dentro de un bloque " + cierre);
+    }
+
+    private void saltarComentarioDeLinea() throws IOException {
+        int c;
+        while ((c = leer()) != -1 && c != '\n') {
+            // descartar
+        }
+    }
+
+    private void saltarComentarioDeBloque() throws IOException {
+        int anterior = 0;
+        int c;
+        while ((c = leer()) != -1) {
+            if (anterior == '*' && c == '/') {
+                return;
+            }
+            anterior = c;
+        }
+    }
+
+    private int leer() throws IOException {
+        if (siguiente != -2) {
+            int c = siguiente;
+            siguiente = -2;
+            return c;
+        }
+        return reader.read();
+    }
+
+    private int mirar() throws IOException {
+        if (siguiente == -2) {
+            siguiente = reader.read();
+        }
+        return siguiente;
+    }
+}
@@ -0,0 +1,118 @@
+package com.alquileres.util;
+
+import com.alquileres.dto.PaginaDTO;
+import com.alquileres.exception.BusinessException;
+import com.alquileres.exception.ErrorCodes;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * Utilidades para los listados paginados por cursor (keyset)
+ *
+ * Los listados se ordenan por ID descendente (primero los más nuevos). El cursor es el último ID
+ * devuelto, codificado para que el cliente lo trate como un valor opaco; la página siguiente se
+ * busca con "id < cursor", que usa el índice de la clave primaria sin importar cuántas páginas
+ * se hayan recorrido (a diferencia de OFFSET).
+ */
+public class Paginacion {
+
+    public static final int TAMANO_POR_DEFECTO = 50;
+    public static final int TAMANO_MAXIMO = 200;
+
+    private static final String PREFIJO_CURSOR = "id:";
+
+    private Paginacion() {
+    }
+
+    /**
+     * Tamaño de página pedido, acotado entre 1 y TAMANO_MAXIMO
+     */
+    public static int tamanoValido(Integer tamano) {
+        if (tamano == null) {
+            return TAMANO_POR_DEFECTO;
+        }
+        return Math.max(1, Math.min(tamano, TAMANO_MAXIMO));
+    }
+
+    /**
+     * Límite para la consulta: un elemento más que la página, para saber si hay página siguiente
+     */
+    public static Limit limiteConsulta(int tamano) {
+        return Limit.of(tamano + 1);
+    }
+
+    /**
+     * Último ID de la página anterior, o null si se pide la primera página
+     *
+     * @throws BusinessException si el cursor no fue generado por el servidor
+     */
+    public static Long decodificarCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!valor.startsWith(PREFIJO_CURSOR)) {
+                throw new IllegalArgumentException(valor);
+            }
+            return Long.valueOf(valor.substring(PREFIJO_CURSOR.length()));
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException(ErrorCodes.DATOS_INVALIDOS, "Cursor de paginación inválido", HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    public static String codificarCursor(Long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString((PREFIJO_CURSOR + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Patrón LIKE para la búsqueda por texto libre (en minúsculas), o null si no hay texto
+     */
+    public static String patronBusqueda(String texto) {
+        if (texto == null || texto.isBlank()) {
+            return null;
+        }
+        String escapado = texto.trim().toLowerCase(Locale.ROOT)
+            .replace("\\", "\\\\")
+            .replace("%", "\\%")
+            .replace("_", "\\_");
+        return "%" + escapado + "%";
+    }
+
+    /**
+     * @throws BusinessException si desde es posterior a hasta
+     */
+    public static void validarRango(LocalDate desde, LocalDate hasta) {
+        if (desde != null && hasta != null && desde.isAfter(hasta)) {
+            throw new BusinessException(
+                ErrorCodes.RANGO_DE_FECHAS_INVALIDO,
+                "La fecha 'desde' no puede ser posterior a la fecha 'hasta'",
+                HttpStatus.BAD_REQUEST
+            );
+        }
+    }
+
+    /**
+     * Arma la página a partir de las filas leídas con limiteConsulta(tamano)
+     *
+     * @param filas Filas ordenadas por ID descendente (hasta tamano + 1)
+     * @param tamano Tamaño de página pedido
+     * @param idDe Obtiene el ID de una fila
+     * @param convertir Convierte las filas de la página a DTOs (en bloque, para poder cargar datos relacionados juntos)
+     */
+    public static <E, D> PaginaDTO<D> armarPagina(List<E> filas, int tamano, Function<E, Long> idDe,
+                                                 Function<List<E>, List<D>> convertir) {
+        boolean hayMas = filas.size() > tamano;
+        List<E> pagina = hayMas ? filas.subList(0, tamano) : filas;
+        String siguienteCursor = hayMas ? codificarCursor(idDe.apply(pagina.get(pagina.size() - 1))) : null;
+        return new PaginaDTO<>(convertir.apply(pagina), siguienteCursor, tamano);
+    }
+}
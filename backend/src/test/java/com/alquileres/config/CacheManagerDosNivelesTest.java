@@ -0,0 +1,185 @@
+package com.alquileres.config;
+
+import com.alquileres.dto.DashboardDTO;
+import com.alquileres.dto.EstadisticasCacheDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios para el caché de dos niveles
+ * Verifica el límite de entradas y el TTL de la memoria local, la copia de L2 a L1, la carga única y las estadísticas
+ */
+class CacheManagerDosNivelesTest {
+
+    @Test
+    void cacheLocal_alSuperarElMaximo_debeDescartarLaMenosUsada() {
+        // Arrange
+        CacheLocalAcotada cache = new CacheLocalAcotada("contrato-id", 2, Duration.ofMinutes(10));
+        cache.put(1L, "uno");
+        cache.put(2L, "dos");
+        cache.get(1L);
+
+        // Act
+        cache.put(3L, "tres");
+
+        // Assert
+        assertEquals(2, cache.getCantidadEntradas());
+        assertNotNull(cache.get(1L));
+        assertNull(cache.get(2L));
+        assertNotNull(cache.get(3L));
+        assertEquals(1, cache.getDesalojos());
+    }
+
+    @Test
+    void cacheLocal_entradaVencida_debeContarComoFallo() {
+        // Arrange
+        AtomicLong ahora = new AtomicLong(0);
+        CacheLocalAcotada cache = new CacheLocalAcotada("dashboard", 10, Duration.ofMinutes(1), ahora::get);
+        cache.put("03/2025", "resumen");
+
+        // Act
+        Cache.ValueWrapper antes = cache.get("03/2025");
+        ahora.addAndGet(Duration.ofMinutes(1).toNanos());
+        Cache.ValueWrapper despues = cache.get("03/2025");
+
+        // Assert
+        assertNotNull(antes);
+        assertNull(despues);
+        assertEquals(1, cache.getAciertos());
+        assertEquals(1, cache.getFallos());
+        assertEquals(0, cache.getCantidadEntradas());
+    }
+
+    @Test
+    void cacheDosNiveles_aciertoEnRedis_debeCopiarseALaMemoriaLocal() {
+        // Arrange
+        ConcurrentMapCache redis = new ConcurrentMapCache("contrato-id");
+        redis.put(5L, "contrato 5");
+        CacheManagerDosNiveles manager = new CacheManagerDosNiveles(
+            Map.of("contrato-id", new CacheManagerDosNiveles.Politica(10, Duration.ofMinutes(10))),
+            new CacheManagerDosNiveles.Politica(10, Duration.ofMinutes(1)),
+            nombre -> redis);
+        Cache cache = manager.getCache("contrato-id");
+
+        // Act
+        Object primera = cache.get(5L).get();
+        redis.evict(5L);
+        Object segunda = cache.get(5L).get();
+        Cache.ValueWrapper inexistente = cache.get(6L);
+
+        // Assert
+        assertEquals("contrato 5", primera);
+        assertEquals("contrato 5", segunda, "la segunda lectura debe salir de la memoria local");
+        assertNull(inexistente);
+
+        EstadisticasCacheDTO estadisticas = manager.obtenerEstadisticas().get(0);
+        assertEquals(1L, estadisticas.getAciertosLocales());
+        assertEquals(1L, estadisticas.getAciertosRemotos());
+        assertEquals(1L, estadisticas.getFallos());
+        assertEquals(2.0 / 3, estadisticas.getTasaAciertos(), 1e-9);
+    }
+
+    @Test
+    void cacheDosNiveles_evict_debeAplicarseEnAmbosNiveles() {
+        // Arrange
+        ConcurrentMapCache redis = new ConcurrentMapCache("servicios-contrato");
+        CacheManagerDosNiveles manager = new CacheManagerDosNiveles(
+            Map.of(), new CacheManagerDosNiveles.Politica(10, Duration.ofMinutes(1)), nombre -> redis);
+        Cache cache = manager.getCache("servicios-contrato");
+        cache.put("7_activos", List.of("agua"));
+
+        // Act
+        cache.evict("7_activos");
+
+        // Assert
+        assertNull(cache.get("7_activos"));
+        assertNull(redis.get("7_activos"));
+    }
+
+    @Test
+    void cacheDosNiveles_getConCargaSimultanea_debeCargarUnaSolaVez() throws Exception {
+        // Arrange
+        ConcurrentMapCache redis = new ConcurrentMapCache("contrato-id");
+        Cache cache = new CacheManagerDosNiveles(
+            Map.of(), new CacheManagerDosNiveles.Politica(10, Duration.ofMinutes(1)), nombre -> redis)
+            .getCache("contrato-id");
+        AtomicInteger cargas = new AtomicInteger();
+        CountDownLatch largada = new CountDownLatch(1);
+        Callable<String> cargar = () -> {
+            cargas.incrementAndGet();
+            Thread.sleep(100);
+            return "contrato 5";
+        };
+        ExecutorService hilos = Executors.newFixedThreadPool(4);
+
+        // Act
+        List<Future<String>> resultados = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            resultados.add(hilos.submit(() -> {
+                largada.await();
+                return cache.get(5L, cargar);
+            }));
+        }
+        largada.countDown();
+        for (Future<String> resultado : resultados) {
+            assertEquals("contrato 5", resultado.get(5, TimeUnit.SECONDS));
+        }
+        hilos.shutdown();
+
+        // Assert
+        assertEquals(1, cargas.get());
+        assertEquals("contrato 5", redis.get(5L).get());
+    }
+
+    @Test
+    void politica_conTtlMaximo_debeAcortarSoloLosTtlMayores() {
+        // Arrange
+        CacheManagerDosNiveles.Politica larga = new CacheManagerDosNiveles.Politica(10, Duration.ofMinutes(10));
+        CacheManagerDosNiveles.Politica corta = new CacheManagerDosNiveles.Politica(10, Duration.ofSeconds(2));
+
+        // Act & Assert
+        assertEquals(CacheConfig.TTL_LOCAL_CON_REDIS, larga.conTtlMaximo(CacheConfig.TTL_LOCAL_CON_REDIS).getTtl());
+        assertSame(corta, corta.conTtlMaximo(CacheConfig.TTL_LOCAL_CON_REDIS));
+    }
+
+    @Test
+    void serializadorJson_debeConservarLosTiposDeLosValores() {
+        // Arrange
+        GenericJackson2JsonRedisSerializer serializador = CacheConfig.serializadorJson();
+        DashboardDTO dashboard = new DashboardDTO();
+        dashboard.setPeriodo("03/2025");
+        dashboard.setCantContratosVigentes(8L);
+        dashboard.setHonorariosDelMes(new BigDecimal("1234.50"));
+
+        // Act
+        Object total = serializador.deserialize(serializador.serialize(42L));
+        Object lista = serializador.deserialize(serializador.serialize(Stream.of(dashboard).toList()));
+        DashboardDTO copia = (DashboardDTO) serializador.deserialize(serializador.serialize(dashboard));
+
+        // Assert
+        assertEquals(42L, total);
+        assertEquals("03/2025", ((DashboardDTO) ((List<?>) lista).get(0)).getPeriodo());
+        assertEquals("03/2025", copia.getPeriodo());
+        assertEquals(8L, copia.getCantContratosVigentes());
+        assertEquals(0, new BigDecimal("1234.50").compareTo(copia.getHonorariosDelMes()));
+    }
+}
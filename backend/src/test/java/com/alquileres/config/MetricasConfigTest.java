@@ -0,0 +1,41 @@
+package com.alquileres.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios para las métricas de los cachés
+ * Verifica que cada caché publique sus aciertos por nivel, fallos y tasa de aciertos
+ */
+class MetricasConfigTest {
+
+    @Test
+    void registrarCaches_debePublicarLaTasaDeAciertosDeCadaCache() {
+        // Arrange
+        SimpleMeterRegistry registro = new SimpleMeterRegistry();
+        CacheManagerDosNiveles cacheManager = new CacheManagerDosNiveles(
+                Map.of(CacheNames.CONTRATO_POR_ID, new CacheManagerDosNiveles.Politica(10, Duration.ofMinutes(10))),
+                new CacheManagerDosNiveles.Politica(10, Duration.ofMinutes(10)), null);
+
+        // Act
+        MetricasConfig.registrarCaches(registro, cacheManager);
+        cacheManager.getCache(CacheNames.CONTRATO_POR_ID).put(1L, "contrato");
+        cacheManager.getCache(CacheNames.CONTRATO_POR_ID).get(1L);
+        cacheManager.getCache(CacheNames.CONTRATO_POR_ID).get(2L);
+
+        // Assert
+        assertEquals(0.5, registro.get("alquigest.cache.tasa.aciertos")
+                .tag("cache", CacheNames.CONTRATO_POR_ID).gauge().value());
+        assertEquals(1.0, registro.get("alquigest.cache.aciertos")
+                .tags("cache", CacheNames.CONTRATO_POR_ID, "nivel", "local").functionCounter().count());
+        assertEquals(0.0, registro.get("alquigest.cache.aciertos")
+                .tags("cache", CacheNames.CONTRATO_POR_ID, "nivel", "redis").functionCounter().count());
+        assertEquals(1.0, registro.get("alquigest.cache.fallos")
+                .tag("cache", CacheNames.CONTRATO_POR_ID).functionCounter().count());
+    }
+}
@@ -1,5 +1,6 @@
 package com.alquileres.controller;
 
+import com.alquileres.dto.ContenidoPDFDTO;
 import com.alquileres.dto.ContratoDTO;
 import com.alquileres.dto.ContratoCreateDTO;
 import com.alquileres.dto.EstadoContratoUpdateDTO;
@@ -9,11 +10,13 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ByteArrayResource;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.Collections;
@@ -227,7 +230,7 @@ class ContratoControllerTest {
         );
         
         ContratoDTO updatedDTO = createContratoDTO(id, 1L, 1L);
-        when(contratoService.guardarPdf(eq(id), any(byte[].class), anyString())).thenReturn(updatedDTO);
+        when(contratoService.guardarPdf(eq(id), any(InputStream.class), anyString())).thenReturn(updatedDTO);
 
         ResponseEntity<?> response = contratoController.cargarPdf(id, file);
 
@@ -274,14 +277,17 @@ class ContratoControllerTest {
     @Test
     void descargarPdf_returnsPdf_whenPdfExists() {
         Long id = 1L;
-        byte[] pdfBytes = "Test PDF content".getBytes();
-        when(contratoService.obtenerPdf(id)).thenReturn(pdfBytes);
+        ByteArrayResource recurso = new ByteArrayResource("Test PDF content".getBytes());
+        String sha256 = "a".repeat(64);
+        when(contratoService.obtenerPdf(id)).thenReturn(new ContenidoPDFDTO(sha256, 16L, recurso));
 
         ResponseEntity<?> response = contratoController.descargarPdf(id);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        assertEquals(pdfBytes, response.getBody());
+        assertSame(recurso, response.getBody());
         assertEquals("application/pdf", response.getHeaders().getFirst("Content-Type"));
+        assertEquals("\"" + sha256 + "\"", response.getHeaders().getETag());
+        assertEquals("bytes", response.getHeaders().getFirst("Accept-Ranges"));
     }
 
     @Test
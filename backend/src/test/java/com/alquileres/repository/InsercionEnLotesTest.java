@@ -0,0 +1,254 @@
+package com.alquileres.repository;
+
+import com.alquileres.model.*;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.io.InputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica que los INSERT de las entidades que se generan en masa (alquileres, aumentos y facturas
+ * de servicios) viajen a la base en lotes JDBC con la configuración de producción
+ *
+ * Hibernate arranca contra una conexión JDBC simulada que cuenta los viajes a la base: cada
+ * executeUpdate, executeBatch y executeQuery es un viaje.
+ */
+class InsercionEnLotesTest {
+
+    private static final int CANTIDAD = 100;
+
+    private final List<String> viajes = new ArrayList<>();
+    private final AtomicLong secuencia = new AtomicLong();
+
+    private StandardServiceRegistry registry;
+    private SessionFactory sessionFactory;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Map<String, Object> settings = new HashMap<>(propiedadesHibernateDeProduccion());
+        settings.put("hibernate.connection.datasource", dataSourceQueCuentaViajes());
+        settings.put("hibernate.dialect", "org.hibernate.dialect.PostgreSQLDialect");
+        settings.put("hibernate.temp.use_jdbc_metadata_defaults", "false");
+        settings.put("hibernate.hbm2ddl.auto", "none");
+        settings.put("jakarta.persistence.validation.mode", "none");
+
+        registry = new StandardServiceRegistryBuilder().applySettings(settings).build();
+        MetadataSources fuentes = new MetadataSources(registry);
+        for (Class<?> entidad : List.of(Alquiler.class, AumentoAlquiler.class, PagoServicio.class, ServicioContrato.class,
+                Contrato.class, EstadoContrato.class, Inmueble.class, Inquilino.class, TipoServicio.class)) {
+            fuentes.addAnnotatedClass(entidad);
+        }
+        sessionFactory = fuentes.buildMetadata().buildSessionFactory();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (sessionFactory != null) {
+            sessionFactory.close();
+        }
+        StandardServiceRegistryBuilder.destroy(registry);
+    }
+
+    @Test
+    void aumentosAlquiler_debenInsertarseEnLotes() {
+        // Act
+        persistirEnUnaTransaccion(session -> {
+            Contrato contrato = session.getReference(Contrato.class, 1L);
+            for (int i = 0; i < CANTIDAD; i++) {
+                session.persist(new AumentoAlquiler(contrato, LocalDate.of(2025, 3, 1),
+                    new BigDecimal("1000.00"), new BigDecimal("1100.00"), new BigDecimal("10.00")));
+            }
+        });
+
+        // Assert
+        assertInsercionEnLotes("aumento_alquiler", "aumento_alquiler_seq");
+    }
+
+    @Test
+    void alquileres_debenInsertarseEnLotes() {
+        // Act
+        persistirEnUnaTransaccion(session -> {
+            Contrato contrato = session.getReference(Contrato.class, 1L);
+            for (int i = 0; i < CANTIDAD; i++) {
+                session.persist(new Alquiler(contrato, LocalDate.of(2025, 3, 10), new BigDecimal("1000.00")));
+            }
+        });
+
+        // Assert
+        assertInsercionEnLotes("alquileres", "alquileres_seq");
+    }
+
+    @Test
+    void facturasServicios_debenInsertarseEnLotes() {
+        // Act
+        persistirEnUnaTransaccion(session -> {
+            ServicioContrato servicio = session.getReference(ServicioContrato.class, 1);
+            for (int i = 0; i < CANTIDAD; i++) {
+                PagoServicio factura = new PagoServicio();
+                factura.setServicioContrato(servicio);
+                factura.setPeriodo("03/2025");
+                factura.setEstaPagado(false);
+                factura.setEstaVencido(false);
+                session.persist(factura);
+            }
+        });
+
+        // Assert
+        assertInsercionEnLotes("pago_servicio", "pago_servicio_seq");
+    }
+
+    private void assertInsercionEnLotes(String tabla, String nombreSecuencia) {
+        long inserts = viajes.stream().filter(v -> v.startsWith("insert into " + tabla + " ")).count();
+        long lotes = viajes.stream().filter(v -> v.startsWith("insert into " + tabla + " ") && v.endsWith("[batch]")).count();
+        long consultasSecuencia = viajes.stream().filter(v -> v.contains(nombreSecuencia)).count();
+
+        // batch_size=20 en producción: 100 filas son 5 viajes, no 100
+        assertEquals(5, inserts, "Viajes a la base: " + viajes);
+        assertEquals(inserts, lotes, "Todos los INSERT deben ir en lotes: " + viajes);
+        // La secuencia reserva de a 50 ids: unas pocas consultas para 100 filas, no una por fila
+        assertTrue(consultasSecuencia <= 3, "Consultas a la secuencia: " + consultasSecuencia);
+    }
+
+    private void persistirEnUnaTransaccion(java.util.function.Consumer<Session> trabajo) {
+        try (Session session = sessionFactory.openSession()) {
+            session.beginTransaction();
+            trabajo.accept(session);
+            session.getTransaction().commit();
+        }
+    }
+
+    /**
+     * Propiedades hibernate.* de application-production.properties (las que no dependen de variables de entorno)
+     */
+    private Map<String, String> propiedadesHibernateDeProduccion() throws Exception {
+        Properties produccion = new Properties();
+        try (InputStream entrada = getClass().getResourceAsStream("/application-production.properties")) {
+            produccion.load(entrada);
+        }
+
+        Map<String, String> hibernate = new HashMap<>();
+        String prefijo = "spring.jpa.properties.";
+        for (String clave : produccion.stringPropertyNames()) {
+            String valor = produccion.getProperty(clave);
+            if (clave.startsWith(prefijo + "hibernate.") && !valor.contains("${")) {
+                hibernate.put(clave.substring(prefijo.length()), valor);
+            }
+        }
+        assertEquals("20", hibernate.get("hibernate.jdbc.batch_size"));
+        return hibernate;
+    }
+
+    // --- Conexión JDBC simulada ---
+
+    private DataSource dataSourceQueCuentaViajes() {
+        Connection conexion = proxy(Connection.class, (p, metodo, args) -> switch (metodo.getName()) {
+            case "prepareStatement" -> sentencia((String) args[0]);
+            case "createStatement" -> sentencia(null);
+            case "getMetaData" -> proxy(DatabaseMetaData.class, (p2, m2, a2) -> porDefecto(m2.getReturnType()));
+            case "getAutoCommit", "isValid" -> true;
+            case "getTransactionIsolation" -> Connection.TRANSACTION_READ_COMMITTED;
+            default -> porDefecto(metodo.getReturnType());
+        });
+        return proxy(DataSource.class, (p, metodo, args) ->
+            "getConnection".equals(metodo.getName()) ? conexion : porDefecto(metodo.getReturnType()));
+    }
+
+    private PreparedStatement sentencia(String sql) {
+        int[] enLote = {0};
+        return proxy(PreparedStatement.class, (p, metodo, args) -> {
+            String texto = sql != null ? sql : args != null && args.length > 0 ? String.valueOf(args[0]) : "";
+            switch (metodo.getName()) {
+                case "addBatch":
+                    enLote[0]++;
+                    return null;
+                case "executeBatch": {
+                    viajes.add(texto + " [batch]");
+                    int[] filas = new int[enLote[0]];
+                    java.util.Arrays.fill(filas, 1);
+                    enLote[0] = 0;
+                    return filas;
+                }
+                case "executeUpdate":
+                    viajes.add(texto);
+                    return 1;
+                case "executeQuery":
+                    viajes.add(texto);
+                    return valorDeSecuencia();
+                case "getGeneratedKeys":
+                    return valorDeSecuencia();
+                case "execute":
+                    viajes.add(texto);
+                    return false;
+                default:
+                    return porDefecto(metodo.getReturnType());
+            }
+        });
+    }
+
+    /**
+     * Simula nextval de una secuencia de PostgreSQL con INCREMENT BY 50 (también sirve como clave generada)
+     */
+    private ResultSet valorDeSecuencia() {
+        long valor = secuencia.getAndAdd(50) + 1;
+        boolean[] leido = {false};
+        return proxy(ResultSet.class, (p, metodo, args) -> switch (metodo.getName()) {
+            case "next" -> {
+                boolean hay = !leido[0];
+                leido[0] = true;
+                yield hay;
+            }
+            case "getLong" -> valor;
+            case "getInt" -> (int) valor;
+            case "getObject" -> valor;
+            case "getMetaData" -> proxy(ResultSetMetaData.class, (p2, m2, a2) -> switch (m2.getName()) {
+                case "getColumnCount" -> 1;
+                case "getColumnName", "getColumnLabel" -> "id";
+                default -> porDefecto(m2.getReturnType());
+            });
+            default -> porDefecto(metodo.getReturnType());
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> tipo, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(InsercionEnLotesTest.class.getClassLoader(), new Class<?>[]{tipo}, handler);
+    }
+
+    private static Object porDefecto(Class<?> tipo) {
+        if (tipo == boolean.class) {
+            return false;
+        }
+        if (tipo == int.class) {
+            return 0;
+        }
+        if (tipo == long.class) {
+            return 0L;
+        }
+        return null;
+    }
+}
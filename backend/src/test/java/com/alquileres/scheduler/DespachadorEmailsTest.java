@@ -0,0 +1,219 @@
+package com.alquileres.scheduler;
+
+import com.alquileres.model.EmailPendiente;
+import com.alquileres.service.BandejaSalidaEmailService;
+import com.alquileres.service.ResendEmailService;
+import com.alquileres.util.CortaCircuitos;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests de DespachadorEmails contra un servidor HTTP local que simula la API de Resend
+ * Verifica el límite de envíos simultáneos y por segundo, la clasificación de errores y el corta circuitos
+ */
+@ExtendWith(MockitoExtension.class)
+class DespachadorEmailsTest {
+
+    @Mock
+    private BandejaSalidaEmailService bandejaSalidaEmailService;
+
+    private HttpServer servidor;
+    private ExecutorService hilosServidor;
+    private final AtomicInteger llamadas = new AtomicInteger();
+    private final AtomicInteger enCurso = new AtomicInteger();
+    private final AtomicInteger maximoEnCurso = new AtomicInteger();
+    private volatile int statusRespuesta = 200;
+
+    private DespachadorEmails despachador;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        servidor.createContext("/emails", this::responder);
+        hilosServidor = Executors.newCachedThreadPool();
+        servidor.setExecutor(hilosServidor);
+        servidor.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (despachador != null) {
+            despachador.detener();
+        }
+        servidor.stop(0);
+        hilosServidor.shutdownNow();
+    }
+
+    @Test
+    void despachar_debeEnviarTodoElLoteSinSuperarLaConcurrencia() {
+        // Arrange
+        despachador = crearDespachador(3, 0, 5);
+        when(bandejaSalidaEmailService.reservarLote(20)).thenReturn(emails(12), List.of());
+
+        // Act
+        int enviados = despachador.despachar();
+
+        // Assert
+        assertEquals(12, enviados);
+        assertEquals(12, llamadas.get());
+        assertTrue(maximoEnCurso.get() <= 3, "Envíos simultáneos: " + maximoEnCurso.get());
+        verify(bandejaSalidaEmailService, times(12)).marcarEnviado(anyLong());
+    }
+
+    @Test
+    void despachar_debeRespetarLosEnviosPorSegundo() {
+        // Arrange
+        despachador = crearDespachador(4, 10, 5);
+        when(bandejaSalidaEmailService.reservarLote(20)).thenReturn(emails(6), List.of());
+
+        // Act
+        long inicio = System.nanoTime();
+        int enviados = despachador.despachar();
+        long milisegundos = (System.nanoTime() - inicio) / 1_000_000;
+
+        // Assert: 6 envíos a 10 por segundo son 5 intervalos de 100 ms
+        assertEquals(6, enviados);
+        assertTrue(milisegundos >= 450, "Duración: " + milisegundos + " ms");
+    }
+
+    @Test
+    void despachar_conRechazoDefinitivo_noDebeReintentarNiAbrirElCircuito() {
+        // Arrange
+        statusRespuesta = 422;
+        despachador = crearDespachador(2, 0, 1);
+        when(bandejaSalidaEmailService.reservarLote(20)).thenReturn(emails(1), List.of());
+
+        // Act
+        int enviados = despachador.despachar();
+
+        // Assert
+        assertEquals(0, enviados);
+        verify(bandejaSalidaEmailService).registrarFallo(eq(1L), contains("422"), eq(false));
+        verify(bandejaSalidaEmailService, never()).marcarEnviado(anyLong());
+        assertEquals(CortaCircuitos.Estado.CERRADO, despachador.getEstadoCircuito());
+    }
+
+    @Test
+    void despachar_conErrorDelServidor_debeProgramarReintento() {
+        // Arrange
+        statusRespuesta = 500;
+        despachador = crearDespachador(2, 0, 5);
+        when(bandejaSalidaEmailService.reservarLote(20)).thenReturn(emails(1), List.of());
+
+        // Act
+        int enviados = despachador.despachar();
+
+        // Assert
+        assertEquals(0, enviados);
+        verify(bandejaSalidaEmailService).registrarFallo(eq(1L), contains("500"), eq(true));
+    }
+
+    @Test
+    void despachar_conFallosSeguidos_debeAbrirElCircuitoYDejarDeLlamar() {
+        // Arrange
+        statusRespuesta = 503;
+        despachador = crearDespachador(1, 0, 3);
+        when(bandejaSalidaEmailService.reservarLote(20)).thenReturn(emails(10));
+
+        // Act
+        int primera = despachador.despachar();
+        int segunda = despachador.despachar();
+
+        // Assert: solo llegan los 3 fallos del umbral, el resto del lote conserva la reserva
+        assertEquals(0, primera);
+        assertEquals(0, segunda);
+        assertEquals(3, llamadas.get());
+        assertEquals(CortaCircuitos.Estado.ABIERTO, despachador.getEstadoCircuito());
+        verify(bandejaSalidaEmailService, times(3)).registrarFallo(anyLong(), anyString(), eq(true));
+        verify(bandejaSalidaEmailService, times(1)).reservarLote(anyInt());
+    }
+
+    private DespachadorEmails crearDespachador(int concurrencia, double enviosPorSegundo, int umbralFallos) {
+        return crearDespachador(concurrencia, enviosPorSegundo, umbralFallos, 30);
+    }
+
+    private DespachadorEmails crearDespachador(int concurrencia, double enviosPorSegundo, int umbralFallos,
+                                               long duracionMaximaSegundos) {
+        String url = "http://127.0.0.1:" + servidor.getAddress().getPort() + "/emails";
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ResendEmailService resendEmailService = new ResendEmailService(
+                "re_prueba_1234567890", "noreply@alquigest.test", url,
+                WebClient.builder(), meterRegistry, bandejaSalidaEmailService);
+        return new DespachadorEmails(bandejaSalidaEmailService, resendEmailService, meterRegistry,
+                concurrencia, enviosPorSegundo, 20, umbralFallos, 60, duracionMaximaSegundos);
+    }
+
+    @Test
+    void despachar_alSuperarLaDuracionMaxima_debeCancelarLosEnviosPendientes() {
+        // Arrange: 1 envío por segundo, el segundo email del lote no llega a enviarse en 1 s
+        despachador = crearDespachador(1, 1, 5, 1);
+        when(bandejaSalidaEmailService.reservarLote(20)).thenReturn(emails(3));
+
+        // Act
+        long inicio = System.nanoTime();
+        int enviados = despachador.despachar();
+        long milisegundos = (System.nanoTime() - inicio) / 1_000_000;
+
+        // Assert: vuelve a tiempo sin tomar otro lote; el resto conserva la reserva
+        assertTrue(enviados >= 1 && enviados < 3, "Enviados: " + enviados);
+        assertTrue(milisegundos < 1500, "Duración: " + milisegundos + " ms");
+        verify(bandejaSalidaEmailService, times(1)).reservarLote(anyInt());
+        verify(bandejaSalidaEmailService, never()).registrarFallo(anyLong(), anyString(), anyBoolean());
+    }
+
+    private List<EmailPendiente> emails(int cantidad) {
+        List<EmailPendiente> emails = new ArrayList<>();
+        for (int i = 1; i <= cantidad; i++) {
+            EmailPendiente email = new EmailPendiente(
+                    "destinatario" + i + "@alquigest.test", "Asunto", "<p>Hola</p>", LocalDateTime.now());
+            email.setId((long) i);
+            emails.add(email);
+        }
+        return emails;
+    }
+
+    private void responder(HttpExchange exchange) throws IOException {
+        llamadas.incrementAndGet();
+        maximoEnCurso.accumulateAndGet(enCurso.incrementAndGet(), Math::max);
+        try {
+            Thread.sleep(50);
+            int status = statusRespuesta;
+            byte[] cuerpo = (status == 200 ? "{\"id\":\"abc\"}" : "{\"message\":\"error " + status + "\"}")
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, cuerpo.length);
+            try (OutputStream salida = exchange.getResponseBody()) {
+                salida.write(cuerpo);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            enCurso.decrementAndGet();
+            exchange.close();
+        }
+    }
+}
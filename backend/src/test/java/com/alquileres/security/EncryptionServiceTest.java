@@ -0,0 +1,94 @@
+package com.alquileres.security;
+
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.AEADBadTagException;
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios para la encriptación de datos sensibles
+ * Verifica el formato AES-GCM, la lectura de valores AES/ECB anteriores y la desencriptación en lote
+ */
+class EncryptionServiceTest {
+
+    private static final String CLAVE = "6a3838956795d84d0c717e266885a25a37aacd0260a1b2c3d4e5f60718293a4b";
+
+    private final EncryptionService encryptionService = new EncryptionService(CLAVE);
+
+    @Test
+    void encriptar_debeUsarGcmConIvAleatorioYDesencriptarAlOriginal() throws Exception {
+        // Act
+        String primero = encryptionService.encriptar("ClaveAFIP123456");
+        String segundo = encryptionService.encriptar("ClaveAFIP123456");
+
+        // Assert
+        assertTrue(primero.startsWith("v2:"));
+        assertNotEquals(primero, segundo);
+        assertFalse(encryptionService.esFormatoLegado(primero));
+        assertEquals("ClaveAFIP123456", encryptionService.desencriptar(primero));
+        assertEquals("ClaveAFIP123456", encryptionService.desencriptar(segundo));
+    }
+
+    @Test
+    void desencriptar_valorAlterado_debeFallarLaAutenticacion() throws Exception {
+        // Arrange
+        byte[] datos = Base64.getDecoder().decode(encryptionService.encriptar("ClaveAFIP123456").substring(3));
+        datos[datos.length - 1] ^= 1;
+        String alterado = "v2:" + Base64.getEncoder().encodeToString(datos);
+
+        // Act & Assert
+        assertThrows(AEADBadTagException.class, () -> encryptionService.desencriptar(alterado));
+    }
+
+    @Test
+    void desencriptar_valorLegado_debeLeerloYPermitirMigrarlo() throws Exception {
+        // Arrange
+        String legado = encriptarLegado("ClaveAFIP123456");
+
+        // Act
+        String migrado = encryptionService.reencriptarSiEsLegado(legado);
+
+        // Assert
+        assertTrue(encryptionService.esFormatoLegado(legado));
+        assertEquals("ClaveAFIP123456", encryptionService.desencriptar(legado));
+        assertTrue(migrado.startsWith("v2:"));
+        assertEquals("ClaveAFIP123456", encryptionService.desencriptar(migrado));
+        assertSame(migrado, encryptionService.reencriptarSiEsLegado(migrado));
+    }
+
+    @Test
+    void desencriptarTodos_debeOmitirValoresInvalidosYVacios() throws Exception {
+        // Arrange
+        String nuevo = encryptionService.encriptar("ClaveUno");
+        String legado = encriptarLegado("ClaveDos");
+
+        // Act
+        Map<String, String> resultado = encryptionService.desencriptarTodos(
+                Arrays.asList(nuevo, legado, nuevo, null, "", "v2:AAAA"));
+
+        // Assert
+        assertEquals(Map.of(nuevo, "ClaveUno", legado, "ClaveDos"), resultado);
+    }
+
+    @Test
+    void constructor_conClaveDeLongitudInvalida_debeFallar() {
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> new EncryptionService("abc123"));
+    }
+
+    /**
+     * Encripta como lo hacía la versión anterior del servicio (AES por defecto = AES/ECB/PKCS5Padding)
+     */
+    private static String encriptarLegado(String valor) throws Exception {
+        Cipher cipher = Cipher.getInstance("AES");
+        cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(HexFormat.of().parseHex(CLAVE), "AES"));
+        return Base64.getEncoder().encodeToString(cipher.doFinal(valor.getBytes()));
+    }
+}
@@ -0,0 +1,109 @@
+package com.alquileres.security;
+
+import com.alquileres.service.PermisosService;
+import com.alquileres.service.TokenBlacklistService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para JwtUtils
+ * Verifica que el token lleve firmados los datos del usuario y que se lea con un solo parseo
+ */
+@ExtendWith(MockitoExtension.class)
+class JwtUtilsTest {
+
+    private static final String SECRETO = "6a3838956795d84d0c717e266885a25a37aacd0260a1b2c3d4e5f60718293a4b";
+
+    @Mock
+    private TokenBlacklistService tokenBlacklistService;
+
+    @Spy
+    private PermisosService permisosService;
+
+    @InjectMocks
+    private JwtUtils jwtUtils;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", SECRETO);
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 3_600_000);
+    }
+
+    @Test
+    void generateJwtToken_debeFirmarRolesPermisosYVersion() {
+        // Arrange
+        UserDetailsImpl usuario = new UserDetailsImpl(7L, "abogada", "abogada@estudio.com", "hash",
+                List.of(new SimpleGrantedAuthority("ROLE_ABOGADA")), 3);
+        String token = jwtUtils.generateJwtToken(
+                new UsernamePasswordAuthenticationToken(usuario, null, usuario.getAuthorities()));
+
+        // Act
+        Claims claims = jwtUtils.obtenerClaims(token);
+        UserDetailsImpl reconstruido = jwtUtils.construirUsuario(claims);
+        Map<String, Boolean> permisos = jwtUtils.obtenerPermisos(claims);
+
+        // Assert
+        assertTrue(jwtUtils.tieneDatosDeUsuario(claims));
+        assertEquals(7L, reconstruido.getId());
+        assertEquals("abogada", reconstruido.getUsername());
+        assertEquals("abogada@estudio.com", reconstruido.getEmail());
+        assertNull(reconstruido.getPassword());
+        assertEquals(3, reconstruido.getVersionCredenciales());
+        assertEquals(List.of("ROLE_ABOGADA"),
+                reconstruido.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+        assertTrue(permisos.get("crear_contrato"));
+        assertFalse(permisos.get("crear_usuario_administrador"));
+        assertFalse(jwtUtils.shouldRefreshToken(claims));
+    }
+
+    @Test
+    void obtenerClaims_tokenAnteriorSinDatosDeUsuario_debeSerValidoPeroSinDatos() {
+        // Arrange
+        String token = Jwts.builder()
+                .setSubject("secretaria")
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(SECRETO.getBytes()), SignatureAlgorithm.HS512)
+                .compact();
+
+        // Act
+        Claims claims = jwtUtils.obtenerClaims(token);
+
+        // Assert
+        assertNotNull(claims);
+        assertEquals("secretaria", claims.getSubject());
+        assertFalse(jwtUtils.tieneDatosDeUsuario(claims));
+        assertTrue(jwtUtils.shouldRefreshToken(claims));
+    }
+
+    @Test
+    void obtenerClaims_tokenRevocado_debeDevolverNull() {
+        // Arrange
+        when(tokenBlacklistService.isTokenBlacklisted(anyString())).thenReturn(true);
+
+        // Act & Assert
+        assertNull(jwtUtils.obtenerClaims("eyJhbGciOiJIUzUxMiJ9.e30.firma"));
+        assertFalse(jwtUtils.validateJwtToken("eyJhbGciOiJIUzUxMiJ9.e30.firma"));
+    }
+}
@@ -0,0 +1,67 @@
+package com.alquileres.security;
+
+import com.alquileres.repository.UsuarioRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para VersionesCredenciales
+ * Verifica que la versión se consulte una vez por usuario y que un cambio de versión invalide los tokens anteriores
+ */
+@ExtendWith(MockitoExtension.class)
+class VersionesCredencialesTest {
+
+    @Mock
+    private UsuarioRepository usuarioRepository;
+
+    @Test
+    void esVigente_mismaVersion_debeConsultarLaBaseUnaSolaVez() {
+        // Arrange
+        VersionesCredenciales versiones = new VersionesCredenciales(usuarioRepository, 10, 60);
+        when(usuarioRepository.findVersionCredencialesByUsername("admin")).thenReturn(Optional.of(2));
+
+        // Act
+        boolean primera = versiones.esVigente("admin", 2);
+        boolean segunda = versiones.esVigente("admin", 2);
+
+        // Assert
+        assertTrue(primera);
+        assertTrue(segunda);
+        verify(usuarioRepository, times(1)).findVersionCredencialesByUsername("admin");
+    }
+
+    @Test
+    void esVigente_versionCambiada_debeRechazarElTokenAnteriorYAceptarElNuevo() {
+        // Arrange
+        VersionesCredenciales versiones = new VersionesCredenciales(usuarioRepository, 10, 60);
+        when(usuarioRepository.findVersionCredencialesByUsername("admin"))
+                .thenReturn(Optional.of(2))
+                .thenReturn(Optional.of(3));
+        versiones.esVigente("admin", 2);
+
+        // Act
+        boolean tokenNuevo = versiones.esVigente("admin", 3);
+        boolean tokenAnterior = versiones.esVigente("admin", 2);
+
+        // Assert
+        assertTrue(tokenNuevo);
+        assertFalse(tokenAnterior);
+    }
+
+    @Test
+    void esVigente_usuarioInexistente_debeRechazar() {
+        // Arrange
+        VersionesCredenciales versiones = new VersionesCredenciales(usuarioRepository, 10, 60);
+        when(usuarioRepository.findVersionCredencialesByUsername("borrado")).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertFalse(versiones.esVigente("borrado", 0));
+    }
+}
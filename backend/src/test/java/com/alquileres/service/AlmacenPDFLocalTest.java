@@ -0,0 +1,116 @@
+package com.alquileres.service;
+
+import com.alquileres.dto.ContenidoPDFDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios para AlmacenPDFLocal
+ * Verifica el direccionamiento por SHA-256, que el mismo contenido se guarde una sola vez
+ * y que no se borre un archivo que se volvió a guardar después del límite
+ */
+class AlmacenPDFLocalTest {
+
+    private static final byte[] CONTENIDO = "%PDF-1.4 contrato".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    Path directorio;
+
+    private AlmacenPDFLocal almacen;
+
+    @BeforeEach
+    void setUp() {
+        almacen = new AlmacenPDFLocal(directorio.toString());
+    }
+
+    @Test
+    void guardar_mismoContenidoDosVeces_debeGuardarUnSoloArchivo() throws Exception {
+        // Act
+        ContenidoPDFDTO primero = almacen.guardar(new ByteArrayInputStream(CONTENIDO));
+        ContenidoPDFDTO segundo = almacen.guardar(new ByteArrayInputStream(CONTENIDO));
+
+        // Assert
+        assertEquals(primero.getSha256(), segundo.getSha256());
+        assertEquals(64, primero.getSha256().length());
+        assertEquals((long) CONTENIDO.length, primero.getTamano());
+
+        Path archivo = directorio.resolve(primero.getSha256().substring(0, 2)).resolve(primero.getSha256() + ".pdf");
+        assertArrayEquals(CONTENIDO, Files.readAllBytes(archivo));
+        try (Stream<Path> archivos = Files.walk(directorio)) {
+            assertEquals(1, archivos.filter(Files::isRegularFile).count(), "No deben quedar duplicados ni temporales");
+        }
+    }
+
+    @Test
+    void obtener_hashGuardado_debeDevolverRecursoConElContenido() throws Exception {
+        // Arrange
+        String sha256 = almacen.guardar(new ByteArrayInputStream(CONTENIDO)).getSha256();
+
+        // Act
+        Optional<ContenidoPDFDTO> resultado = almacen.obtener(sha256);
+
+        // Assert
+        assertTrue(resultado.isPresent());
+        assertEquals((long) CONTENIDO.length, resultado.get().getTamano());
+        try (InputStream entrada = resultado.get().getRecurso().getInputStream()) {
+            assertArrayEquals(CONTENIDO, entrada.readAllBytes());
+        }
+    }
+
+    @Test
+    void obtener_hashInexistenteOInvalido_debeDevolverVacio() throws Exception {
+        // Act & Assert
+        assertTrue(almacen.obtener("0".repeat(64)).isEmpty());
+        assertTrue(almacen.obtener("../../etc/passwd").isEmpty());
+        assertTrue(almacen.obtener(null).isEmpty());
+    }
+
+    @Test
+    void eliminarSiEsAnteriorA_archivoGuardadoAntesDelLimite_debeBorrarlo() throws Exception {
+        // Arrange
+        String sha256 = almacen.guardar(new ByteArrayInputStream(CONTENIDO)).getSha256();
+        Instant limite = Instant.now().plusSeconds(60);
+
+        // Act
+        List<String> candidatos = almacen.listarAnterioresA(limite);
+        boolean borrado = almacen.eliminarSiEsAnteriorA(sha256, limite);
+
+        // Assert
+        assertEquals(List.of(sha256), candidatos);
+        assertTrue(borrado);
+        assertTrue(almacen.obtener(sha256).isEmpty());
+    }
+
+    @Test
+    void eliminarSiEsAnteriorA_archivoGuardadoDeNuevo_noDebeBorrarlo() throws Exception {
+        // Arrange
+        String sha256 = almacen.guardar(new ByteArrayInputStream(CONTENIDO)).getSha256();
+        Path archivo = directorio.resolve(sha256.substring(0, 2)).resolve(sha256 + ".pdf");
+        Files.setLastModifiedTime(archivo, FileTime.from(Instant.now().minus(Duration.ofDays(1))));
+        Instant limite = Instant.now().minus(Duration.ofHours(1));
+        assertEquals(List.of(sha256), almacen.listarAnterioresA(limite));
+
+        // Act: una subida simultánea reutiliza el contenido antes de que se borre
+        almacen.guardar(new ByteArrayInputStream(CONTENIDO));
+        boolean borrado = almacen.eliminarSiEsAnteriorA(sha256, limite);
+
+        // Assert
+        assertFalse(borrado);
+        assertTrue(almacen.obtener(sha256).isPresent());
+    }
+}
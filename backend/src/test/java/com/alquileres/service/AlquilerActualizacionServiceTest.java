@@ -5,11 +5,9 @@ import com.alquileres.model.Contrato;
 import com.alquileres.model.EstadoContrato;
 import com.alquileres.model.Inmueble;
 import com.alquileres.model.Inquilino;
-import com.alquileres.model.ConfiguracionSistema;
 import com.alquileres.repository.AlquilerRepository;
 import com.alquileres.repository.ContratoRepository;
 import com.alquileres.repository.ConfiguracionSistemaRepository;
-import com.alquileres.util.BCRAApiClient;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -22,7 +20,6 @@ import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -30,7 +27,7 @@ import static org.mockito.Mockito.*;
 
 /**
  * Tests unitarios para AlquilerActualizacionService
- * Prueba la lógica de aumentos automáticos de alquileres
+ * Prueba la lógica de aumentos automáticos de alquileres sobre la generación por lotes del motor de tareas
  */
 @ExtendWith(MockitoExtension.class)
 class AlquilerActualizacionServiceTest {
@@ -45,7 +42,7 @@ class AlquilerActualizacionServiceTest {
     private ConfiguracionSistemaRepository configuracionSistemaRepository;
 
     @Mock
-    private BCRAApiClient bcraApiClient;
+    private ICLService iclService;
 
     @Mock
     private AumentoAlquilerService aumentoAlquilerService;
@@ -54,7 +51,6 @@ class AlquilerActualizacionServiceTest {
     private AlquilerActualizacionService service;
 
     private static final DateTimeFormatter FORMATO_FECHA = DateTimeFormatter.ISO_LOCAL_DATE;
-    private static final DateTimeFormatter FORMATO_PERIODO = DateTimeFormatter.ofPattern("MM/yyyy");
 
     private EstadoContrato estadoVigente;
     private Inmueble inmueble;
@@ -74,6 +70,8 @@ class AlquilerActualizacionServiceTest {
         inquilino.setId(1L);
         inquilino.setNombre("Juan");
         inquilino.setApellido("Pérez");
+
+        service.clockService = new ClockService();
     }
 
     // ==================== TESTS DE VALIDACIÓN DE AUMENTO ====================
@@ -85,13 +83,12 @@ class AlquilerActualizacionServiceTest {
         String fechaAumento = fechaActual.withDayOfMonth(1).format(FORMATO_FECHA);
 
         Contrato contrato = crearContratoConAumento(fechaAumento, 3, new BigDecimal("10"));
-        when(contratoRepository.findContratosVigentes()).thenReturn(Collections.singletonList(contrato));
-        when(alquilerRepository.findAlquileresPendientesByContratoIds(anyList())).thenReturn(Collections.emptyList());
-        when(alquilerRepository.findTopByContratoOrderByFechaVencimientoPagoDesc(any())).thenReturn(Optional.empty());
+        when(contratoRepository.findAllById(List.of(1L))).thenReturn(List.of(contrato));
+        when(alquilerRepository.findAlquileresPendientesByContratoIdsAndVencimientoEntre(anyList(), any(), any())).thenReturn(Collections.emptyList());
         when(alquilerRepository.saveAll(anyList())).thenAnswer(i -> i.getArgument(0));
 
         // Act
-        int resultado = service.crearAlquileresParaContratosVigentes();
+        int resultado = service.crearAlquileresParaLote(List.of(1L));
 
         // Assert
         assertTrue(resultado > 0, "Debe crear al menos un alquiler con aumento");
@@ -105,13 +102,12 @@ class AlquilerActualizacionServiceTest {
         String fechaAumento = fechaPasada.format(FORMATO_FECHA);
 
         Contrato contrato = crearContratoConAumento(fechaAumento, 3, new BigDecimal("10"));
-        when(contratoRepository.findContratosVigentes()).thenReturn(Collections.singletonList(contrato));
-        when(alquilerRepository.findAlquileresPendientesByContratoIds(anyList())).thenReturn(Collections.emptyList());
-        when(alquilerRepository.findTopByContratoOrderByFechaVencimientoPagoDesc(any())).thenReturn(Optional.empty());
+        when(contratoRepository.findAllById(List.of(1L))).thenReturn(List.of(contrato));
+        when(alquilerRepository.findAlquileresPendientesByContratoIdsAndVencimientoEntre(anyList(), any(), any())).thenReturn(Collections.emptyList());
         when(alquilerRepository.saveAll(anyList())).thenAnswer(i -> i.getArgument(0));
 
         // Act
-        int resultado = service.crearAlquileresParaContratosVigentes();
+        int resultado = service.crearAlquileresParaLote(List.of(1L));
 
         // Assert
         assertTrue(resultado > 0, "Debe crear alquiler con aumento atrasado");
@@ -125,13 +121,12 @@ class AlquilerActualizacionServiceTest {
         String fechaAumento = fechaFutura.format(FORMATO_FECHA);
 
         Contrato contrato = crearContratoConAumento(fechaAumento, 3, new BigDecimal("10"));
-        when(contratoRepository.findContratosVigentes()).thenReturn(Collections.singletonList(contrato));
-        when(alquilerRepository.findAlquileresPendientesByContratoIds(anyList())).thenReturn(Collections.emptyList());
-        when(alquilerRepository.findTopByContratoOrderByFechaVencimientoPagoDesc(any())).thenReturn(Optional.empty());
+        when(contratoRepository.findAllById(List.of(1L))).thenReturn(List.of(contrato));
+        when(alquilerRepository.findAlquileresPendientesByContratoIdsAndVencimientoEntre(anyList(), any(), any())).thenReturn(Collections.emptyList());
         when(alquilerRepository.saveAll(anyList())).thenAnswer(i -> i.getArgument(0));
 
         // Act
-        int resultado = service.crearAlquileresParaContratosVigentes();
+        int resultado = service.crearAlquileresParaLote(List.of(1L));
 
         // Assert
         assertTrue(resultado > 0, "Debe crear alquiler sin aumento");
@@ -142,13 +137,12 @@ class AlquilerActualizacionServiceTest {
     void debeAplicarAumento_fechaAumentoNoAumentaMas_noDebeAplicarAumento() {
         // Arrange
         Contrato contrato = crearContratoConAumento("No aumenta más", 3, new BigDecimal("10"));
-        when(contratoRepository.findContratosVigentes()).thenReturn(Collections.singletonList(contrato));
-        when(alquilerRepository.findAlquileresPendientesByContratoIds(anyList())).thenReturn(Collections.emptyList());
-        when(alquilerRepository.findTopByContratoOrderByFechaVencimientoPagoDesc(any())).thenReturn(Optional.empty());
+        when(contratoRepository.findAllById(List.of(1L))).thenReturn(List.of(contrato));
+        when(alquilerRepository.findAlquileresPendientesByContratoIdsAndVencimientoEntre(anyList(), any(), any())).thenReturn(Collections.emptyList());
         when(alquilerRepository.saveAll(anyList())).thenAnswer(i -> i.getArgument(0));
 
         // Act
-        int resultado = service.crearAlquileresParaContratosVigentes();
+        int resultado = service.crearAlquileresParaLote(List.of(1L));
 
         // Assert
         assertTrue(resultado > 0, "Debe crear alquiler sin aumento");
@@ -169,9 +163,8 @@ class AlquilerActualizacionServiceTest {
         contrato.setMonto(montoBase);
         contrato.setAumentaConIcl(false);
 
-        when(contratoRepository.findContratosVigentes()).thenReturn(Collections.singletonList(contrato));
-        when(alquilerRepository.findAlquileresPendientesByContratoIds(anyList())).thenReturn(Collections.emptyList());
-        when(alquilerRepository.findTopByContratoOrderByFechaVencimientoPagoDesc(any())).thenReturn(Optional.empty());
+        when(contratoRepository.findAllById(List.of(1L))).thenReturn(List.of(contrato));
+        when(alquilerRepository.findAlquileresPendientesByContratoIdsAndVencimientoEntre(anyList(), any(), any())).thenReturn(Collections.emptyList());
         when(alquilerRepository.saveAll(anyList())).thenAnswer(invocation -> {
             List<Alquiler> alquileres = invocation.getArgument(0);
             // Verificar que el monto calculado sea correcto: 100000 * 1.10 = 110000
@@ -182,7 +175,7 @@ class AlquilerActualizacionServiceTest {
         });
 
         // Act
-        service.crearAlquileresParaContratosVigentes();
+        service.crearAlquileresParaLote(List.of(1L));
 
         // Assert
         verify(alquilerRepository).saveAll(anyList());
@@ -208,12 +201,12 @@ class AlquilerActualizacionServiceTest {
         contrato.setAumentaConIcl(false);
 
         Alquiler ultimoAlquiler = new Alquiler();
+        ultimoAlquiler.setContrato(contrato);
         ultimoAlquiler.setMonto(montoUltimoAlquiler);
 
-        when(contratoRepository.findContratosVigentes()).thenReturn(Collections.singletonList(contrato));
-        when(alquilerRepository.findAlquileresPendientesByContratoIds(anyList())).thenReturn(Collections.emptyList());
-        when(alquilerRepository.findTopByContratoOrderByFechaVencimientoPagoDesc(any()))
-            .thenReturn(Optional.of(ultimoAlquiler));
+        when(contratoRepository.findAllById(List.of(1L))).thenReturn(List.of(contrato));
+        when(alquilerRepository.findAlquileresPendientesByContratoIdsAndVencimientoEntre(anyList(), any(), any())).thenReturn(Collections.emptyList());
+        when(alquilerRepository.findUltimosAlquileresByContratoIds(List.of(1L))).thenReturn(List.of(ultimoAlquiler));
         when(alquilerRepository.saveAll(anyList())).thenAnswer(invocation -> {
             List<Alquiler> alquileres = invocation.getArgument(0);
             // Debe usar el monto del último alquiler: 120000 * 1.05 = 126000
@@ -224,7 +217,7 @@ class AlquilerActualizacionServiceTest {
         });
 
         // Act
-        service.crearAlquileresParaContratosVigentes();
+        service.crearAlquileresParaLote(List.of(1L));
 
         // Assert
         verify(alquilerRepository).saveAll(anyList());
@@ -250,10 +243,9 @@ class AlquilerActualizacionServiceTest {
         contrato.setMonto(montoBase);
         contrato.setAumentaConIcl(true);
 
-        when(contratoRepository.findContratosVigentes()).thenReturn(Collections.singletonList(contrato));
-        when(alquilerRepository.findAlquileresPendientesByContratoIds(anyList())).thenReturn(Collections.emptyList());
-        when(alquilerRepository.findTopByContratoOrderByFechaVencimientoPagoDesc(any())).thenReturn(Optional.empty());
-        when(bcraApiClient.obtenerTasaAumentoICL(anyString(), anyString())).thenReturn(tasaICL);
+        when(contratoRepository.findAllById(List.of(1L))).thenReturn(List.of(contrato));
+        when(alquilerRepository.findAlquileresPendientesByContratoIdsAndVencimientoEntre(anyList(), any(), any())).thenReturn(Collections.emptyList());
+        when(iclService.obtenerTasaAumentoICL(anyString(), anyString())).thenReturn(tasaICL);
         when(alquilerRepository.saveAll(anyList())).thenAnswer(invocation -> {
             List<Alquiler> alquileres = invocation.getArgument(0);
             // Verificar que el monto calculado sea correcto: 100000 * 1.05 = 105000
@@ -264,10 +256,10 @@ class AlquilerActualizacionServiceTest {
         });
 
         // Act
-        service.crearAlquileresParaContratosVigentes();
+        service.crearAlquileresParaLote(List.of(1L));
 
         // Assert
-        verify(bcraApiClient).obtenerTasaAumentoICL(eq(fechaAumento), anyString());
+        verify(iclService).obtenerTasaAumentoICL(eq(fechaAumento), anyString());
         verify(alquilerRepository).saveAll(anyList());
         verify(aumentoAlquilerService).crearAumentoSinGuardar(any(), any(), any(), any());
     }
@@ -283,24 +275,25 @@ class AlquilerActualizacionServiceTest {
         contrato.setMonto(montoBase);
         contrato.setAumentaConIcl(true);
 
-        when(contratoRepository.findContratosVigentes()).thenReturn(Collections.singletonList(contrato));
-        when(alquilerRepository.findAlquileresPendientesByContratoIds(anyList())).thenReturn(Collections.emptyList());
-        when(alquilerRepository.findTopByContratoOrderByFechaVencimientoPagoDesc(any())).thenReturn(Optional.empty());
-        when(bcraApiClient.obtenerTasaAumentoICL(anyString(), anyString()))
+        when(contratoRepository.findAllById(List.of(1L))).thenReturn(List.of(contrato));
+        when(alquilerRepository.findAlquileresPendientesByContratoIdsAndVencimientoEntre(anyList(), any(), any())).thenReturn(Collections.emptyList());
+        when(iclService.obtenerTasaAumentoICL(anyString(), anyString()))
             .thenThrow(new RuntimeException("Error API BCRA"));
         when(alquilerRepository.saveAll(anyList())).thenAnswer(invocation -> {
             List<Alquiler> alquileres = invocation.getArgument(0);
             // Si falla la API, debe usar el monto base sin aumento
             assertEquals(0, alquileres.get(0).getMonto().compareTo(montoBase),
                 "Debe usar el monto base al fallar la API");
+            assertTrue(alquileres.get(0).getNecesitaAumentoManual(),
+                "Debe quedar marcado para aumento manual");
             return alquileres;
         });
 
         // Act
-        service.crearAlquileresParaContratosVigentes();
+        service.crearAlquileresParaLote(List.of(1L));
 
         // Assert
-        verify(bcraApiClient).obtenerTasaAumentoICL(anyString(), anyString());
+        verify(iclService).obtenerTasaAumentoICL(anyString(), anyString());
         verify(alquilerRepository).saveAll(anyList());
         verify(aumentoAlquilerService, never()).crearAumentoSinGuardar(any(), any(), any(), any());
     }
@@ -315,11 +308,10 @@ class AlquilerActualizacionServiceTest {
         Integer periodoAumento = 3; // 3 meses
 
         Contrato contrato = crearContratoConAumento(fechaAumento, periodoAumento, new BigDecimal("10"));
-        contrato.setFechaFin(fechaActual.plusYears(1).format(FORMATO_FECHA)); // Fecha fin lejana
+        contrato.setFechaFin(fechaActual.plusYears(1)); // Fecha fin lejana
 
-        when(contratoRepository.findContratosVigentes()).thenReturn(Collections.singletonList(contrato));
-        when(alquilerRepository.findAlquileresPendientesByContratoIds(anyList())).thenReturn(Collections.emptyList());
-        when(alquilerRepository.findTopByContratoOrderByFechaVencimientoPagoDesc(any())).thenReturn(Optional.empty());
+        when(contratoRepository.findAllById(List.of(1L))).thenReturn(List.of(contrato));
+        when(alquilerRepository.findAlquileresPendientesByContratoIdsAndVencimientoEntre(anyList(), any(), any())).thenReturn(Collections.emptyList());
         when(alquilerRepository.saveAll(anyList())).thenAnswer(i -> i.getArgument(0));
         when(contratoRepository.save(any())).thenAnswer(invocation -> {
             Contrato c = invocation.getArgument(0);
@@ -331,7 +323,7 @@ class AlquilerActualizacionServiceTest {
         });
 
         // Act
-        service.crearAlquileresParaContratosVigentes();
+        service.crearAlquileresParaLote(List.of(1L));
 
         // Assert
         verify(contratoRepository, atLeastOnce()).save(any(Contrato.class));
@@ -346,11 +338,10 @@ class AlquilerActualizacionServiceTest {
 
         Contrato contrato = crearContratoConAumento(fechaAumento, periodoAumento, new BigDecimal("10"));
         // Fecha fin cercana: solo 1 mes más
-        contrato.setFechaFin(fechaActual.plusMonths(1).format(FORMATO_FECHA));
+        contrato.setFechaFin(fechaActual.plusMonths(1));
 
-        when(contratoRepository.findContratosVigentes()).thenReturn(Collections.singletonList(contrato));
-        when(alquilerRepository.findAlquileresPendientesByContratoIds(anyList())).thenReturn(Collections.emptyList());
-        when(alquilerRepository.findTopByContratoOrderByFechaVencimientoPagoDesc(any())).thenReturn(Optional.empty());
+        when(contratoRepository.findAllById(List.of(1L))).thenReturn(List.of(contrato));
+        when(alquilerRepository.findAlquileresPendientesByContratoIdsAndVencimientoEntre(anyList(), any(), any())).thenReturn(Collections.emptyList());
         when(alquilerRepository.saveAll(anyList())).thenAnswer(i -> i.getArgument(0));
         when(contratoRepository.save(any())).thenAnswer(invocation -> {
             Contrato c = invocation.getArgument(0);
@@ -361,64 +352,12 @@ class AlquilerActualizacionServiceTest {
         });
 
         // Act
-        service.crearAlquileresParaContratosVigentes();
+        service.crearAlquileresParaLote(List.of(1L));
 
         // Assert
         verify(contratoRepository, atLeastOnce()).save(any(Contrato.class));
     }
 
-    // ==================== TESTS DE PROCESAMIENTO MENSUAL ====================
-
-    @Test
-    void procesarAlquileresPendientes_mesYaProcesado_noDebeCrearAlquileres() {
-        // Arrange
-        String mesActual = LocalDate.now().format(FORMATO_PERIODO);
-        ConfiguracionSistema config = new ConfiguracionSistema(
-            "ULTIMO_MES_PROCESADO_ALQUILERES",
-            mesActual,
-            "Test"
-        );
-
-        when(configuracionSistemaRepository.findByClave(anyString()))
-            .thenReturn(Optional.of(config));
-
-        // Act
-        int resultado = service.procesarAlquileresPendientes();
-
-        // Assert
-        assertEquals(0, resultado, "No debe crear alquileres si el mes ya fue procesado");
-        verify(contratoRepository, never()).findContratosVigentes();
-    }
-
-    @Test
-    void procesarAlquileresPendientes_mesNoProcesado_debeCrearAlquileres() {
-        // Arrange
-        String mesPasado = LocalDate.now().minusMonths(1).format(FORMATO_PERIODO);
-        ConfiguracionSistema config = new ConfiguracionSistema(
-            "ULTIMO_MES_PROCESADO_ALQUILERES",
-            mesPasado,
-            "Test"
-        );
-
-        Contrato contrato = crearContratoSinAumento();
-
-        when(configuracionSistemaRepository.findByClave(anyString()))
-            .thenReturn(Optional.of(config));
-        when(contratoRepository.findContratosVigentes()).thenReturn(Collections.singletonList(contrato));
-        when(alquilerRepository.findAlquileresPendientesByContratoIds(anyList())).thenReturn(Collections.emptyList());
-        when(alquilerRepository.findTopByContratoOrderByFechaVencimientoPagoDesc(any())).thenReturn(Optional.empty());
-        when(alquilerRepository.saveAll(anyList())).thenAnswer(i -> i.getArgument(0));
-        when(configuracionSistemaRepository.save(any())).thenAnswer(i -> i.getArgument(0));
-
-        // Act
-        int resultado = service.procesarAlquileresPendientes();
-
-        // Assert
-        assertTrue(resultado > 0, "Debe crear alquileres para el nuevo mes");
-        verify(contratoRepository).findContratosVigentes();
-        verify(alquilerRepository).saveAll(anyList());
-    }
-
     // ==================== TESTS DE NO CREACIÓN DE ALQUILERES ====================
 
     @Test
@@ -429,12 +368,12 @@ class AlquilerActualizacionServiceTest {
         alquilerPendiente.setContrato(contrato);
         alquilerPendiente.setEstaPagado(false);
 
-        when(contratoRepository.findContratosVigentes()).thenReturn(Collections.singletonList(contrato));
-        when(alquilerRepository.findAlquileresPendientesByContratoIds(anyList()))
+        when(contratoRepository.findAllById(List.of(1L))).thenReturn(List.of(contrato));
+        when(alquilerRepository.findAlquileresPendientesByContratoIdsAndVencimientoEntre(anyList(), any(), any()))
             .thenReturn(Collections.singletonList(alquilerPendiente));
 
         // Act
-        int resultado = service.crearAlquileresParaContratosVigentes();
+        int resultado = service.crearAlquileresParaLote(List.of(1L));
 
         // Assert
         assertEquals(0, resultado, "No debe crear alquiler si ya existe uno pendiente");
@@ -444,10 +383,10 @@ class AlquilerActualizacionServiceTest {
     @Test
     void crearAlquileres_sinContratosVigentes_noDebeCrearAlquileres() {
         // Arrange
-        when(contratoRepository.findContratosVigentes()).thenReturn(Collections.emptyList());
+        when(contratoRepository.findAllById(List.of(1L))).thenReturn(Collections.emptyList());
 
         // Act
-        int resultado = service.crearAlquileresParaContratosVigentes();
+        int resultado = service.crearAlquileresParaLote(List.of(1L));
 
         // Assert
         assertEquals(0, resultado, "No debe crear alquileres si no hay contratos vigentes");
@@ -463,8 +402,8 @@ class AlquilerActualizacionServiceTest {
         contrato.setInquilino(inquilino);
         contrato.setEstadoContrato(estadoVigente);
         contrato.setMonto(new BigDecimal("100000"));
-        contrato.setFechaInicio(LocalDate.now().minusMonths(6).format(FORMATO_FECHA));
-        contrato.setFechaFin(LocalDate.now().plusYears(1).format(FORMATO_FECHA));
+        contrato.setFechaInicio(LocalDate.now().minusMonths(6));
+        contrato.setFechaFin(LocalDate.now().plusYears(1));
         contrato.setFechaAumento(fechaAumento);
         contrato.setPeriodoAumento(periodoAumento);
         contrato.setPorcentajeAumento(porcentajeAumento);
@@ -479,8 +418,8 @@ class AlquilerActualizacionServiceTest {
         contrato.setInquilino(inquilino);
         contrato.setEstadoContrato(estadoVigente);
         contrato.setMonto(new BigDecimal("100000"));
-        contrato.setFechaInicio(LocalDate.now().minusMonths(6).format(FORMATO_FECHA));
-        contrato.setFechaFin(LocalDate.now().plusYears(1).format(FORMATO_FECHA));
+        contrato.setFechaInicio(LocalDate.now().minusMonths(6));
+        contrato.setFechaFin(LocalDate.now().plusYears(1));
         contrato.setFechaAumento(null);
         contrato.setPeriodoAumento(null);
         contrato.setPorcentajeAumento(null);
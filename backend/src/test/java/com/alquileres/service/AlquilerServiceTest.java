@@ -0,0 +1,126 @@
+package com.alquileres.service;
+
+import com.alquileres.dto.RegistroPagoAlquilerBatchRequest;
+import com.alquileres.dto.RegistroPagoBatchResponse;
+import com.alquileres.dto.RegistroPagoDTO;
+import com.alquileres.model.Alquiler;
+import com.alquileres.repository.AlquilerRepository;
+import com.alquileres.repository.ContratoRepository;
+import com.alquileres.repository.PropietarioRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para el registro de pagos de alquileres en batch
+ */
+@ExtendWith(MockitoExtension.class)
+class AlquilerServiceTest {
+
+    @Mock
+    private AlquilerRepository alquilerRepository;
+
+    @Mock
+    private ContratoRepository contratoRepository;
+
+    @Mock
+    private PropietarioRepository propietarioRepository;
+
+    @Mock
+    private AumentoAlquilerService aumentoAlquilerService;
+
+    @Mock
+    private AlquilerActualizacionService alquilerActualizacionService;
+
+    @Mock
+    private ICLService iclService;
+
+    private AlquilerService alquilerService;
+
+    @BeforeEach
+    void setUp() {
+        alquilerService = new AlquilerService(alquilerRepository, contratoRepository, propietarioRepository,
+            aumentoAlquilerService, alquilerActualizacionService, iclService);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void registrarPagosBatch_200Alquileres_debeCargarConUnaConsultaYGuardarJuntos() {
+        // Arrange
+        List<Alquiler> alquileres = new ArrayList<>();
+        List<RegistroPagoAlquilerBatchRequest.RegistroPagoAlquilerItem> items = new ArrayList<>();
+        for (long id = 1; id <= 200; id++) {
+            alquileres.add(alquiler(id, false));
+            items.add(new RegistroPagoAlquilerBatchRequest.RegistroPagoAlquilerItem(id, datosPago("2025-03-05")));
+        }
+        when(alquilerRepository.findAllById(anyIterable())).thenReturn(alquileres);
+
+        // Act
+        RegistroPagoBatchResponse response = alquilerService.registrarPagosBatch(new RegistroPagoAlquilerBatchRequest(items));
+
+        // Assert
+        assertEquals(200, response.getExitosos());
+        assertEquals(0, response.getFallidos());
+        assertTrue(alquileres.stream().allMatch(a -> a.getEstaPagado() && "05/03/2025".equals(a.getFechaPago())));
+
+        verify(alquilerRepository, times(1)).findAllById(anyIterable());
+        ArgumentCaptor<List<Alquiler>> guardados = ArgumentCaptor.forClass(List.class);
+        verify(alquilerRepository, times(1)).saveAll(guardados.capture());
+        assertEquals(200, guardados.getValue().size());
+        verify(alquilerRepository, never()).findById(any());
+        verify(alquilerRepository, never()).save(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void registrarPagosBatch_itemsInvalidos_noDebenModificarseNiGuardarse() {
+        // Arrange
+        Alquiler valido = alquiler(1L, false);
+        Alquiler yaPagado = alquiler(2L, true);
+        Alquiler fechaInvalida = alquiler(3L, false);
+        when(alquilerRepository.findAllById(anyIterable())).thenReturn(List.of(valido, yaPagado, fechaInvalida));
+
+        List<RegistroPagoAlquilerBatchRequest.RegistroPagoAlquilerItem> items = List.of(
+            new RegistroPagoAlquilerBatchRequest.RegistroPagoAlquilerItem(1L, datosPago("2025-03-05")),
+            new RegistroPagoAlquilerBatchRequest.RegistroPagoAlquilerItem(2L, datosPago("2025-03-05")),
+            new RegistroPagoAlquilerBatchRequest.RegistroPagoAlquilerItem(3L, datosPago("05/03/2025")),
+            new RegistroPagoAlquilerBatchRequest.RegistroPagoAlquilerItem(4L, datosPago("2025-03-05"))
+        );
+
+        // Act
+        RegistroPagoBatchResponse response = alquilerService.registrarPagosBatch(new RegistroPagoAlquilerBatchRequest(items));
+
+        // Assert
+        assertEquals(1, response.getExitosos());
+        assertEquals(3, response.getFallidos());
+        assertTrue(response.getResultados().get(1).getMensaje().contains("ya está pagado"));
+        assertTrue(response.getResultados().get(2).getMensaje().contains("Fecha de pago inválida"));
+        assertTrue(response.getResultados().get(3).getMensaje().contains("no encontrado"));
+        assertFalse(fechaInvalida.getEstaPagado(), "Un ítem inválido no debe quedar modificado");
+
+        ArgumentCaptor<List<Alquiler>> guardados = ArgumentCaptor.forClass(List.class);
+        verify(alquilerRepository).saveAll(guardados.capture());
+        assertEquals(List.of(valido), guardados.getValue());
+    }
+
+    private Alquiler alquiler(Long id, boolean pagado) {
+        Alquiler alquiler = new Alquiler();
+        alquiler.setId(id);
+        alquiler.setEstaPagado(pagado);
+        return alquiler;
+    }
+
+    private RegistroPagoDTO datosPago(String fechaPago) {
+        return new RegistroPagoDTO("0001-2345", "Juan Pérez", "Transferencia", fechaPago);
+    }
+}
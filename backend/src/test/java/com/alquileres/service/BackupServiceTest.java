@@ -0,0 +1,314 @@
+package com.alquileres.service;
+
+import com.alquileres.dto.ContenidoPDFDTO;
+import com.alquileres.dto.ProgresoRestauracionDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.core.io.ByteArrayResource;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.sql.BatchUpdateException;
+import java.sql.Blob;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para BackupService
+ * Verifica que el backup se lea con cursor y se escriba comprimido en INSERTs de varias filas,
+ * y que la restauración se ejecute en lotes dentro de una única transacción
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class BackupServiceTest {
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private AlmacenPDF almacenPDF;
+
+    private BackupService backupService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        backupService = new BackupService(dataSource, almacenPDF);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.getAutoCommit()).thenReturn(true);
+        when(connection.getTransactionIsolation()).thenReturn(Connection.TRANSACTION_READ_COMMITTED);
+    }
+
+    @Test
+    void generarBackupSQL_tablaGrande_debeUsarCursorYAgruparFilas() throws Exception {
+        // Arrange
+        Statement tablasStatement = mockTablas("inquilinos");
+
+        ResultSet filas = mock(ResultSet.class);
+        ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+        when(metaData.getColumnCount()).thenReturn(2);
+        when(metaData.getColumnName(1)).thenReturn("id");
+        when(metaData.getColumnName(2)).thenReturn("nombre");
+        when(metaData.getColumnType(anyInt())).thenReturn(Types.VARCHAR);
+        when(metaData.getColumnTypeName(anyInt())).thenReturn("varchar");
+        when(filas.getMetaData()).thenReturn(metaData);
+
+        int[] fila = {0};
+        when(filas.next()).thenAnswer(i -> ++fila[0] <= 150);
+        when(filas.getObject(1)).thenAnswer(i -> (long) fila[0]);
+        when(filas.getObject(2)).thenAnswer(i -> "O'Brien " + fila[0]);
+
+        Statement datosStatement = mock(Statement.class);
+        when(datosStatement.executeQuery("SELECT * FROM \"inquilinos\"")).thenReturn(filas);
+        when(connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)).thenReturn(datosStatement);
+
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+        // Act
+        backupService.generarBackupSQL(salida);
+
+        // Assert
+        String sql = descomprimir(salida.toByteArray());
+        assertEquals(2, contar(sql, "INSERT INTO \"inquilinos\" (\"id\", \"nombre\") VALUES"),
+            "150 filas deben quedar en 2 sentencias de hasta 100 filas");
+        assertTrue(sql.contains("(1, 'O''Brien 1')"));
+        assertTrue(sql.contains("(150, 'O''Brien 150');"));
+        assertTrue(sql.endsWith("-- Backup completado exitosamente\n"));
+
+        verify(connection).setAutoCommit(false);
+        verify(datosStatement).setFetchSize(intThat(n -> n > 0));
+        verify(connection).commit();
+        verify(connection).setAutoCommit(true);
+        verify(tablasStatement, times(2)).close();
+    }
+
+    @Test
+    void generarBackupSQL_columnaLargeObject_debeExportarEnHexSinCargarTodo() throws Exception {
+        // Arrange
+        Statement tablasStatement = mockTablas("pdfs");
+        when(tablasStatement.executeQuery(contains("sha256"))).thenReturn(mock(ResultSet.class));
+
+        ResultSet filas = mock(ResultSet.class);
+        ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+        when(metaData.getColumnCount()).thenReturn(2);
+        when(metaData.getColumnName(1)).thenReturn("id");
+        when(metaData.getColumnName(2)).thenReturn("file");
+        when(metaData.getColumnType(1)).thenReturn(Types.BIGINT);
+        when(metaData.getColumnTypeName(1)).thenReturn("int8");
+        when(metaData.getColumnType(2)).thenReturn(Types.BIGINT);
+        when(metaData.getColumnTypeName(2)).thenReturn("oid");
+        when(filas.getMetaData()).thenReturn(metaData);
+        when(filas.next()).thenReturn(true, false);
+        when(filas.getObject(1)).thenReturn(7L);
+
+        byte[] contenido = new byte[20000];
+        for (int i = 0; i < contenido.length; i++) {
+            contenido[i] = (byte) i;
+        }
+        InputStream datos = spy(new ByteArrayInputStream(contenido));
+        Blob blob = mock(Blob.class);
+        when(blob.getBinaryStream()).thenReturn(datos);
+        when(filas.getBlob(2)).thenReturn(blob);
+
+        Statement datosStatement = mock(Statement.class);
+        when(datosStatement.executeQuery(anyString())).thenReturn(filas);
+        when(connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)).thenReturn(datosStatement);
+
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+        // Act
+        backupService.generarBackupSQL(salida);
+
+        // Assert
+        String sql = descomprimir(salida.toByteArray());
+        assertTrue(sql.contains("(7, lo_from_bytea(0, decode('000102"));
+        assertTrue(sql.contains("', 'hex')));"));
+        verify(datos, atLeast(3)).read(any(byte[].class));
+        verify(blob).free();
+        verify(filas, never()).getBytes(anyInt());
+    }
+
+    @Test
+    void generarBackupSQL_conPDFsEnElAlmacen_debeIncluirSuContenido() throws Exception {
+        // Arrange
+        String sha256 = "a".repeat(64);
+        Statement tablasStatement = mockTablas("pdfs");
+        ResultSet hashes = mock(ResultSet.class);
+        when(hashes.next()).thenReturn(true, false);
+        when(hashes.getString(1)).thenReturn(sha256);
+        when(tablasStatement.executeQuery(contains("sha256"))).thenReturn(hashes);
+        when(almacenPDF.obtener(sha256)).thenReturn(Optional.of(
+            new ContenidoPDFDTO(sha256, 3L, new ByteArrayResource(new byte[]{0x25, 0x50, 0x44}))));
+
+        ResultSet filas = mock(ResultSet.class);
+        ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+        when(metaData.getColumnCount()).thenReturn(1);
+        when(metaData.getColumnName(1)).thenReturn("sha256");
+        when(metaData.getColumnType(1)).thenReturn(Types.VARCHAR);
+        when(metaData.getColumnTypeName(1)).thenReturn("varchar");
+        when(filas.getMetaData()).thenReturn(metaData);
+        when(filas.next()).thenReturn(true, false);
+        when(filas.getObject(1)).thenReturn(sha256);
+        Statement datosStatement = mock(Statement.class);
+        when(datosStatement.executeQuery(anyString())).thenReturn(filas);
+        when(connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)).thenReturn(datosStatement);
+
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+        // Act
+        backupService.generarBackupSQL(salida);
+
+        // Assert
+        String sql = descomprimir(salida.toByteArray());
+        assertTrue(sql.contains("INSERT INTO almacen_pdfs (sha256, contenido) VALUES ('" + sha256 + "', decode('255044', 'hex'));"));
+    }
+
+    @Test
+    void cargarBackupSQL_conContenidoDePDFs_debeGuardarloEnElAlmacenSinTocarLaBase() throws Exception {
+        // Arrange
+        byte[] contenido = {0x25, 0x50, 0x44};
+        String sha256 = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(contenido));
+        byte[] backup = ("INSERT INTO \"pdfs\" (\"id\", \"sha256\") VALUES (1, '" + sha256 + "');\n" +
+                         "INSERT INTO almacen_pdfs (sha256, contenido) VALUES ('" + sha256 + "', decode('255044', 'hex'));\n")
+            .getBytes(StandardCharsets.UTF_8);
+
+        Statement statement = mockTablas("pdfs");
+        when(statement.executeBatch()).thenAnswer(i -> new int[]{1});
+        when(almacenPDF.guardar(any(InputStream.class))).thenAnswer(i -> {
+            byte[] guardado = ((InputStream) i.getArgument(0)).readAllBytes();
+            assertArrayEquals(contenido, guardado);
+            return new ContenidoPDFDTO(sha256, 3L, null);
+        });
+
+        // Act
+        ProgresoRestauracionDTO resultado = backupService.cargarBackupSQL(
+            () -> new ByteArrayInputStream(backup), false, backup.length);
+
+        // Assert
+        verify(statement).execute("TRUNCATE TABLE \"pdfs\"");
+        verify(statement, never()).addBatch(contains("almacen_pdfs"));
+        verify(almacenPDF).guardar(any(InputStream.class));
+        assertEquals(1, resultado.getTablasRestauradas());
+        verify(connection).commit();
+    }
+
+    @Test
+    void cargarBackupSQL_backupComprimido_debeRestaurarEnLotesDentroDeUnaTransaccion() throws Exception {
+        // Arrange
+        StringBuilder sql = new StringBuilder("SET client_encoding = 'UTF8';\n-- Tabla: inquilinos\n");
+        for (int i = 1; i <= 120; i++) {
+            sql.append("INSERT INTO \"inquilinos\" (\"id\", \"nombre\") VALUES (").append(i).append(", 'Pérez; ").append(i).append("');\n");
+        }
+        sql.append("INSERT INTO \"pdfs\" (\"id\") VALUES (1);\n");
+        byte[] backup = comprimir(sql.toString());
+
+        // aumento_alquiler está vacía en el backup (sin INSERTs) y referencia a otras tablas
+        Statement statement = mockTablas("aumento_alquiler", "inquilinos", "pdfs");
+        when(statement.executeBatch()).thenAnswer(i -> new int[]{1});
+
+        // Act
+        ProgresoRestauracionDTO resultado = backupService.cargarBackupSQL(
+            () -> new ByteArrayInputStream(backup), true, backup.length);
+
+        // Assert
+        verify(statement).execute("TRUNCATE TABLE \"aumento_alquiler\", \"inquilinos\", \"pdfs\"");
+        verify(statement, never()).execute(startsWith("SET CONSTRAINTS"));
+        verify(statement, times(121)).addBatch(startsWith("INSERT INTO"));
+        verify(statement).addBatch("INSERT INTO \"inquilinos\" (\"id\", \"nombre\") VALUES (7, 'Pérez; 7')");
+        verify(statement, times(3)).executeBatch();
+        verify(statement, never()).execute(startsWith("SET client_encoding"));
+        verify(connection).commit();
+        verify(connection, never()).rollback();
+
+        assertEquals("COMPLETADA", resultado.getEstado());
+        assertEquals(121L, resultado.getSentenciasEjecutadas());
+        assertEquals(2, resultado.getTablasRestauradas());
+        assertEquals((long) backup.length, resultado.getBytesProcesados());
+        assertEquals(100, resultado.getPorcentajeAvance());
+    }
+
+    @Test
+    void cargarBackupSQL_errorEnUnLote_debeHacerRollbackCompleto() throws Exception {
+        // Arrange
+        byte[] backup = "INSERT INTO alquileres (id) VALUES (1);\nINSERT INTO alquileres (id) VALUES (1);\n"
+            .getBytes(StandardCharsets.UTF_8);
+
+        Statement statement = mockTablas("alquileres");
+        BatchUpdateException error = new BatchUpdateException("Batch entry 1 was aborted", new int[0]);
+        error.setNextException(new SQLException("duplicate key value violates unique constraint"));
+        when(statement.executeBatch()).thenThrow(error);
+
+        // Act
+        Exception excepcion = assertThrows(Exception.class,
+            () -> backupService.cargarBackupSQL(() -> new ByteArrayInputStream(backup), false, backup.length));
+
+        // Assert
+        assertTrue(excepcion.getMessage().contains("duplicate key"));
+        verify(connection).rollback();
+        verify(connection, never()).commit();
+        assertEquals("FALLIDA", backupService.obtenerProgresoRestauracion().getEstado());
+    }
+
+    private byte[] comprimir(String contenido) throws Exception {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(salida)) {
+            gzip.write(contenido.getBytes(StandardCharsets.UTF_8));
+        }
+        return salida.toByteArray();
+    }
+
+    private Statement mockTablas(String tabla, String... otras) throws Exception {
+        ResultSet tablas = mock(ResultSet.class);
+        Boolean[] siguientes = new Boolean[otras.length + 1];
+        Arrays.fill(siguientes, 0, otras.length, true);
+        siguientes[otras.length] = false;
+        when(tablas.next()).thenReturn(true, siguientes);
+        when(tablas.getString(1)).thenReturn(tabla, otras);
+
+        Statement statement = mock(Statement.class);
+        when(statement.executeQuery(contains("pg_tables"))).thenReturn(tablas);
+        when(statement.executeQuery(contains("pg_constraint"))).thenReturn(mock(ResultSet.class));
+        when(connection.createStatement()).thenReturn(statement);
+        return statement;
+    }
+
+    private String descomprimir(byte[] comprimido) throws Exception {
+        try (InputStream entrada = new GZIPInputStream(new ByteArrayInputStream(comprimido))) {
+            return new String(entrada.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private int contar(String texto, String buscado) {
+        int cantidad = 0;
+        int desde = 0;
+        while ((desde = texto.indexOf(buscado, desde)) != -1) {
+            cantidad++;
+            desde += buscado.length();
+        }
+        return cantidad;
+    }
+}
@@ -0,0 +1,92 @@
+package com.alquileres.service;
+
+import com.alquileres.model.EmailPendiente;
+import com.alquileres.model.EstadoEmail;
+import com.alquileres.repository.EmailPendienteRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para BandejaSalidaEmailService
+ * Verifica la espera exponencial entre reintentos y el descarte de los emails
+ */
+@ExtendWith(MockitoExtension.class)
+class BandejaSalidaEmailServiceTest {
+
+    @Mock
+    private EmailPendienteRepository emailPendienteRepository;
+
+    private BandejaSalidaEmailService bandejaSalidaEmailService;
+    private EmailPendiente email;
+
+    @BeforeEach
+    void setUp() {
+        bandejaSalidaEmailService = new BandejaSalidaEmailService(emailPendienteRepository, 3, 300);
+        email = new EmailPendiente("inquilino@alquigest.test", "Asunto", "<p>Hola</p>", LocalDateTime.now());
+        email.setId(1L);
+    }
+
+    @Test
+    void esperaReintento_debeDuplicarseHastaUnaHora() {
+        // Act & Assert
+        assertEquals(Duration.ofSeconds(30), BandejaSalidaEmailService.esperaReintento(1));
+        assertEquals(Duration.ofSeconds(60), BandejaSalidaEmailService.esperaReintento(2));
+        assertEquals(Duration.ofMinutes(4), BandejaSalidaEmailService.esperaReintento(4));
+        assertEquals(Duration.ofHours(1), BandejaSalidaEmailService.esperaReintento(10));
+        assertEquals(Duration.ofHours(1), BandejaSalidaEmailService.esperaReintento(100));
+    }
+
+    @Test
+    void registrarFallo_reintentable_debeProgramarElSiguienteIntento() {
+        // Arrange
+        when(emailPendienteRepository.findById(1L)).thenReturn(Optional.of(email));
+
+        // Act
+        boolean descartado = bandejaSalidaEmailService.registrarFallo(1L, "Error 503 de Resend", true);
+
+        // Assert
+        assertFalse(descartado);
+        assertEquals(EstadoEmail.PENDIENTE, email.getEstado());
+        assertEquals(1, email.getIntentos());
+        assertEquals("Error 503 de Resend", email.getUltimoError());
+        assertTrue(email.getProximoIntento().isAfter(LocalDateTime.now().plusSeconds(25)));
+    }
+
+    @Test
+    void registrarFallo_alAgotarLosIntentos_debeDescartarElEmail() {
+        // Arrange
+        email.setIntentos(2);
+        when(emailPendienteRepository.findById(1L)).thenReturn(Optional.of(email));
+
+        // Act
+        boolean descartado = bandejaSalidaEmailService.registrarFallo(1L, "Error 503 de Resend", true);
+
+        // Assert
+        assertTrue(descartado);
+        assertEquals(EstadoEmail.DESCARTADO, email.getEstado());
+        assertEquals(3, email.getIntentos());
+    }
+
+    @Test
+    void registrarFallo_noReintentable_debeDescartarEnElPrimerIntento() {
+        // Arrange
+        when(emailPendienteRepository.findById(1L)).thenReturn(Optional.of(email));
+
+        // Act
+        boolean descartado = bandejaSalidaEmailService.registrarFallo(1L, "Error 422 de Resend", false);
+
+        // Assert
+        assertTrue(descartado);
+        assertEquals(EstadoEmail.DESCARTADO, email.getEstado());
+    }
+}
@@ -0,0 +1,118 @@
+package com.alquileres.service;
+
+import com.alquileres.config.IndicesBusqueda;
+import com.alquileres.dto.ResultadoBusquedaDTO;
+import com.alquileres.exception.BusinessException;
+import com.alquileres.model.Inmueble;
+import com.alquileres.repository.InmuebleRepository;
+import com.alquileres.repository.InquilinoRepository;
+import com.alquileres.repository.PropietarioRepository;
+import com.alquileres.repository.projection.CoincidenciaBusqueda;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para BusquedaService
+ * Verifica que se mezclen los resultados de cada tipo por puntaje y el uso de LIKE cuando no hay índices
+ */
+@ExtendWith(MockitoExtension.class)
+class BusquedaServiceTest {
+
+    @Mock
+    private InquilinoRepository inquilinoRepository;
+
+    @Mock
+    private PropietarioRepository propietarioRepository;
+
+    @Mock
+    private InmuebleRepository inmuebleRepository;
+
+    @Mock
+    private IndicesBusqueda indicesBusqueda;
+
+    @InjectMocks
+    private BusquedaService busquedaService;
+
+    @Test
+    void buscar_conIndices_debeDevolverLosMejoresPuntajesDeTodosLosTipos() {
+        // Arrange
+        when(indicesBusqueda.isDisponible()).thenReturn(true);
+        when(inquilinoRepository.buscarPorSimilitud("gonzales", 2)).thenReturn(List.of(
+            coincidencia(1L, "Juan González", 0.7), coincidencia(2L, "Ana Gonzalo", 0.4)));
+        when(propietarioRepository.buscarPorSimilitud("gonzales", 2)).thenReturn(List.of(
+            coincidencia(5L, "Marta Gonzales", 1.0)));
+        when(inmuebleRepository.buscarPorSimilitud("gonzales", 2)).thenReturn(List.of());
+
+        // Act
+        List<ResultadoBusquedaDTO> resultados = busquedaService.buscar("  gonzales ", null, 2);
+
+        // Assert
+        assertEquals(2, resultados.size());
+        assertEquals(BusquedaService.TIPO_PROPIETARIO, resultados.get(0).getTipo());
+        assertEquals(5L, resultados.get(0).getId());
+        assertEquals(BusquedaService.TIPO_INQUILINO, resultados.get(1).getTipo());
+        assertEquals(1L, resultados.get(1).getId());
+        verify(inquilinoRepository, never()).buscarPagina(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void buscar_sinIndices_debeBuscarPorContiene() {
+        // Arrange
+        Inmueble inmueble = new Inmueble();
+        inmueble.setId(9L);
+        inmueble.setDireccion("Av. Colón 1234");
+        when(indicesBusqueda.isDisponible()).thenReturn(false);
+        when(inmuebleRepository.buscarPagina(isNull(), eq(true), isNull(), isNull(), isNull(), eq("%colón%"), eq(Limit.of(10))))
+            .thenReturn(List.of(inmueble));
+
+        // Act
+        List<ResultadoBusquedaDTO> resultados = busquedaService.buscar("Colón", BusquedaService.TIPO_INMUEBLE, null);
+
+        // Assert
+        assertEquals(1, resultados.size());
+        assertEquals("Av. Colón 1234", resultados.get(0).getTitulo());
+        verify(inmuebleRepository, never()).buscarPorSimilitud(anyString(), anyInt());
+        verifyNoInteractions(inquilinoRepository, propietarioRepository);
+    }
+
+    @Test
+    void buscar_tipoInvalido_debeLanzarExcepcion() {
+        // Act & Assert
+        assertThrows(BusinessException.class, () -> busquedaService.buscar("perez", "contrato", null));
+        verifyNoInteractions(inquilinoRepository, propietarioRepository, inmuebleRepository);
+    }
+
+    private CoincidenciaBusqueda coincidencia(Long id, String titulo, double puntaje) {
+        return new CoincidenciaBusqueda() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getTitulo() {
+                return titulo;
+            }
+
+            @Override
+            public String getDetalle() {
+                return null;
+            }
+
+            @Override
+            public Double getPuntaje() {
+                return puntaje;
+            }
+        };
+    }
+}
@@ -0,0 +1,156 @@
+package com.alquileres.service;
+
+import com.alquileres.dto.ContratoDTO;
+import com.alquileres.dto.PaginaDTO;
+import com.alquileres.model.*;
+import com.alquileres.repository.*;
+import com.alquileres.security.EncryptionService;
+import com.alquileres.util.Paginacion;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests para los listados de contratos
+ * Verifica que el enriquecimiento haga una consulta por tipo de dato y no por contrato
+ */
+@ExtendWith(MockitoExtension.class)
+class ContratoServiceListadoTest {
+
+    @Mock
+    private ContratoRepository contratoRepository;
+
+    @Mock
+    private PropietarioRepository propietarioRepository;
+
+    @Mock
+    private TipoInmuebleRepository tipoInmuebleRepository;
+
+    @Mock
+    private AlquilerRepository alquilerRepository;
+
+    @Mock
+    private EncryptionService encryptionService;
+
+    @InjectMocks
+    private ContratoService contratoService;
+
+    @Test
+    void obtenerTodosLosContratos_debeCargarDatosRelacionadosEnBloque() {
+        // Arrange
+        EstadoContrato vigente = new EstadoContrato();
+        vigente.setId(1);
+        vigente.setNombre("Vigente");
+
+        Propietario propietario = new Propietario();
+        propietario.setId(7L);
+        propietario.setNombre("Ana");
+        propietario.setApellido("García");
+        propietario.setClaveFiscal("clave-encriptada");
+
+        TipoInmueble tipo = new TipoInmueble();
+        tipo.setId(3L);
+        tipo.setNombre("Departamento");
+
+        List<Contrato> contratos = new ArrayList<>();
+        List<Alquiler> ultimosAlquileres = new ArrayList<>();
+        for (long id = 1; id <= 30; id++) {
+            Inmueble inmueble = new Inmueble();
+            inmueble.setId(id);
+            inmueble.setPropietarioId(7L);
+            inmueble.setTipoInmuebleId(3L);
+
+            Inquilino inquilino = new Inquilino();
+            inquilino.setId(id);
+
+            Contrato contrato = new Contrato();
+            contrato.setId(id);
+            contrato.setInmueble(inmueble);
+            contrato.setInquilino(inquilino);
+            contrato.setEstadoContrato(vigente);
+            contrato.setFechaInicio(LocalDate.of(2025, 1, 1));
+            contrato.setFechaFin(LocalDate.of(2027, 1, 1));
+            contratos.add(contrato);
+
+            Alquiler alquiler = new Alquiler(contrato, LocalDate.of(2025, 3, 10), new BigDecimal(1000 + id));
+            alquiler.setId(id);
+            ultimosAlquileres.add(alquiler);
+        }
+
+        when(contratoRepository.findAllConRelaciones()).thenReturn(contratos);
+        when(propietarioRepository.findAllById(anyIterable())).thenReturn(List.of(propietario));
+        when(tipoInmuebleRepository.findAllById(anyIterable())).thenReturn(List.of(tipo));
+        when(alquilerRepository.findUltimosAlquileresByContratoIds(anyList())).thenReturn(ultimosAlquileres);
+
+        // Act
+        List<ContratoDTO> resultado = contratoService.obtenerTodosLosContratos();
+
+        // Assert
+        assertEquals(30, resultado.size());
+        ContratoDTO primero = resultado.get(0);
+        assertEquals("Ana", primero.getNombrePropietario());
+        assertEquals("Departamento", primero.getTipoInmueble());
+        assertEquals(0, new BigDecimal("1001").compareTo(primero.getMontoUltimoAlquiler()));
+        assertEquals("01/01/2025", primero.getFechaInicio());
+        assertNull(primero.getClaveFiscalPropietario(), "Los listados no deben incluir la clave fiscal");
+
+        verify(propietarioRepository, times(1)).findAllById(anyIterable());
+        verify(tipoInmuebleRepository, times(1)).findAllById(anyIterable());
+        verify(alquilerRepository, times(1)).findUltimosAlquileresByContratoIds(anyList());
+        verify(propietarioRepository, never()).findById(any());
+        verify(alquilerRepository, never()).findUltimoAlquilerByContratoId(any());
+        verifyNoInteractions(encryptionService);
+    }
+
+    @Test
+    void obtenerPaginaContratos_debeContinuarDesdeElCursorYPedirUnaFilaDeMas() {
+        // Arrange
+        EstadoContrato vigente = new EstadoContrato();
+        vigente.setId(1);
+        vigente.setNombre("Vigente");
+
+        List<Contrato> filas = new ArrayList<>();
+        for (long id = 90; id > 87; id--) {
+            Inmueble inmueble = new Inmueble();
+            inmueble.setId(id);
+            inmueble.setPropietarioId(7L);
+            Inquilino inquilino = new Inquilino();
+            inquilino.setId(id);
+
+            Contrato contrato = new Contrato();
+            contrato.setId(id);
+            contrato.setInmueble(inmueble);
+            contrato.setInquilino(inquilino);
+            contrato.setEstadoContrato(vigente);
+            filas.add(contrato);
+        }
+        String cursor = Paginacion.codificarCursor(91L);
+
+        when(contratoRepository.buscarPagina(eq(91L), eq("Vigente"), isNull(), isNull(), isNull(), eq("%perez%"), any()))
+            .thenReturn(filas);
+
+        // Act
+        PaginaDTO<ContratoDTO> pagina = contratoService.obtenerPaginaContratos(
+            cursor, 2, "Vigente", null, null, null, "Perez");
+
+        // Assert
+        assertEquals(List.of(90L, 89L), pagina.getElementos().stream().map(ContratoDTO::getId).toList());
+        assertTrue(pagina.isHayMas());
+        assertEquals(89L, Paginacion.decodificarCursor(pagina.getSiguienteCursor()));
+        verify(contratoRepository).buscarPagina(eq(91L), eq("Vigente"), isNull(), isNull(), isNull(), eq("%perez%"),
+            eq(Limit.of(3)));
+        verify(contratoRepository, never()).findAllConRelaciones();
+    }
+}
@@ -0,0 +1,90 @@
+package com.alquileres.service;
+
+import com.alquileres.dto.DashboardDTO;
+import com.alquileres.repository.AlquilerRepository;
+import com.alquileres.repository.projection.ResumenDashboard;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para DashboardService
+ * Verifica que los indicadores salgan de una única consulta agregada del mes actual
+ */
+@ExtendWith(MockitoExtension.class)
+class DashboardServiceTest {
+
+    private static final ProjectionFactory PROYECCIONES = new SpelAwareProxyProjectionFactory();
+
+    @Mock
+    private AlquilerRepository alquilerRepository;
+
+    @Mock
+    private ClockService clockService;
+
+    private DashboardService dashboardService;
+
+    @BeforeEach
+    void setUp() {
+        dashboardService = new DashboardService(alquilerRepository, clockService);
+        when(clockService.getCurrentDate()).thenReturn(LocalDate.of(2025, 3, 17));
+    }
+
+    @Test
+    void obtenerResumen_debeUsarUnaSolaConsultaDelMesActual() {
+        // Arrange
+        Map<String, Object> valores = new HashMap<>();
+        valores.put("inmueblesActivos", 12L);
+        valores.put("contratosVigentes", 8L);
+        valores.put("serviciosTotales", 20L);
+        valores.put("serviciosPendientes", 5L);
+        valores.put("honorariosDelMes", new BigDecimal("15432.5"));
+        when(alquilerRepository.obtenerResumenDashboard(anyString(), any(), any()))
+            .thenReturn(PROYECCIONES.createProjection(ResumenDashboard.class, valores));
+
+        // Act
+        DashboardDTO resumen = dashboardService.obtenerResumen();
+
+        // Assert
+        verify(alquilerRepository, times(1)).obtenerResumenDashboard(
+            "03/2025", LocalDate.of(2025, 3, 1), LocalDate.of(2025, 4, 1));
+        verifyNoMoreInteractions(alquilerRepository);
+
+        assertEquals("03/2025", resumen.getPeriodo());
+        assertEquals(12L, resumen.getCantInmueblesActivos());
+        assertEquals(8L, resumen.getCantContratosVigentes());
+        assertEquals(20L, resumen.getCantServiciosTotales());
+        assertEquals(5L, resumen.getCantServiciosNoPagos());
+        assertEquals(new BigDecimal("15432.50"), resumen.getHonorariosDelMes());
+    }
+
+    @Test
+    void obtenerResumen_sinDatos_debeDevolverCeros() {
+        // Arrange
+        when(alquilerRepository.obtenerResumenDashboard(anyString(), any(), any()))
+            .thenReturn(PROYECCIONES.createProjection(ResumenDashboard.class, new HashMap<>()));
+
+        // Act
+        DashboardDTO resumen = dashboardService.obtenerResumen();
+
+        // Assert
+        assertEquals(0L, resumen.getCantInmueblesActivos());
+        assertEquals(0L, resumen.getCantContratosVigentes());
+        assertEquals(0L, resumen.getCantServiciosTotales());
+        assertEquals(0L, resumen.getCantServiciosNoPagos());
+        assertEquals(new BigDecimal("0.00"), resumen.getHonorariosDelMes());
+    }
+}
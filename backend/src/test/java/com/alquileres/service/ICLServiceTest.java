@@ -0,0 +1,185 @@
+package com.alquileres.service;
+
+import com.alquileres.exception.BusinessException;
+import com.alquileres.exception.ErrorCodes;
+import com.alquileres.model.IndiceICL;
+import com.alquileres.repository.IndiceICLRepository;
+import com.alquileres.util.BCRAApiClient;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para ICLService
+ * Verifica que las tasas se calculen desde la serie local y que el BCRA se consulte una sola vez
+ */
+@ExtendWith(MockitoExtension.class)
+class ICLServiceTest {
+
+    @Mock
+    private IndiceICLRepository indiceICLRepository;
+
+    @Mock
+    private BCRAApiClient bcraApiClient;
+
+    @InjectMocks
+    private ICLService iclService;
+
+    @Test
+    void obtenerTasa_valoresAlmacenados_noDebeConsultarBCRA() {
+        // Arrange
+        when(indiceICLRepository.findAllByOrderByFechaAsc()).thenReturn(List.of(
+            new IndiceICL(LocalDate.of(2025, 1, 1), new BigDecimal("20.00")),
+            new IndiceICL(LocalDate.of(2025, 4, 1), new BigDecimal("22.00"))
+        ));
+
+        // Act
+        BigDecimal tasa = iclService.obtenerTasaAumentoICL("2025-01-01", "01/04/2025");
+
+        // Assert
+        assertEquals(0, tasa.compareTo(new BigDecimal("1.1")), "La tasa debe ser 22 / 20 = 1.1");
+        verifyNoInteractions(bcraApiClient);
+    }
+
+    @Test
+    void obtenerTasa_valorFaltante_debeSincronizarUnaSolaVez() {
+        // Arrange
+        LocalDate ultimaAlmacenada = LocalDate.of(2025, 1, 1);
+        LocalDate nuevaFecha = LocalDate.of(2025, 4, 1);
+        when(indiceICLRepository.findAllByOrderByFechaAsc()).thenReturn(List.of(
+            new IndiceICL(ultimaAlmacenada, new BigDecimal("20.00"))
+        ));
+
+        TreeMap<LocalDate, BigDecimal> serie = new TreeMap<>();
+        serie.put(nuevaFecha, new BigDecimal("25.00"));
+        when(bcraApiClient.obtenerSerieICLAsync(eq(ultimaAlmacenada.plusDays(1)), any())).thenReturn(Mono.just(serie));
+
+        // Act
+        BigDecimal tasa = iclService.obtenerTasaAumentoICL("2025-01-01", "2025-04-01");
+        BigDecimal tasaRepetida = iclService.obtenerTasaAumentoICL("2025-01-01", "2025-04-01");
+
+        // Assert
+        assertEquals(0, tasa.compareTo(new BigDecimal("1.25")));
+        assertEquals(0, tasaRepetida.compareTo(tasa));
+        verify(bcraApiClient, times(1)).obtenerSerieICLAsync(any(), any());
+        verify(indiceICLRepository).saveAll(argThat(indices -> indices.iterator().hasNext()));
+    }
+
+    @Test
+    void obtenerTasa_fechasGuardadasPorOtraInstancia_debeCargarlasYGuardarSoloLasQueFaltan() {
+        // Arrange
+        LocalDate ultimaAlmacenada = LocalDate.of(2025, 1, 1);
+        LocalDate guardadaPorOtra = LocalDate.of(2025, 3, 1);
+        LocalDate nuevaFecha = LocalDate.of(2025, 4, 1);
+        when(indiceICLRepository.findAllByOrderByFechaAsc()).thenReturn(List.of(
+            new IndiceICL(ultimaAlmacenada, new BigDecimal("20.00"))
+        ));
+
+        TreeMap<LocalDate, BigDecimal> serie = new TreeMap<>();
+        serie.put(guardadaPorOtra, new BigDecimal("22.00"));
+        serie.put(nuevaFecha, new BigDecimal("25.00"));
+        when(bcraApiClient.obtenerSerieICLAsync(eq(ultimaAlmacenada.plusDays(1)), any())).thenReturn(Mono.just(serie));
+        when(indiceICLRepository.saveAll(anyList()))
+            .thenThrow(new DataIntegrityViolationException("duplicate key value violates unique constraint"))
+            .thenAnswer(i -> i.getArgument(0));
+        when(indiceICLRepository.findByFechaBetweenOrderByFechaAsc(guardadaPorOtra, nuevaFecha)).thenReturn(List.of(
+            new IndiceICL(guardadaPorOtra, new BigDecimal("22.00"))
+        ));
+
+        // Act
+        BigDecimal tasa = iclService.obtenerTasaAumentoICL("2025-03-01", "2025-04-01");
+
+        // Assert
+        assertEquals(0, tasa.compareTo(new BigDecimal("25.00").divide(new BigDecimal("22.00"), 10, RoundingMode.HALF_UP)));
+        verify(indiceICLRepository, times(2)).saveAll(anyList());
+        verify(indiceICLRepository).saveAll(argThat(indices -> {
+            List<IndiceICL> lista = (List<IndiceICL>) indices;
+            return lista.size() == 1 && lista.get(0).getFecha().equals(nuevaFecha);
+        }));
+    }
+
+    @Test
+    void obtenerTasa_apiCaidaYValorFaltante_debeLanzarExcepcionSinReintentar() {
+        // Arrange
+        when(indiceICLRepository.findAllByOrderByFechaAsc()).thenReturn(List.of(
+            new IndiceICL(LocalDate.of(2025, 1, 1), new BigDecimal("20.00"))
+        ));
+        when(bcraApiClient.obtenerSerieICLAsync(any(), any())).thenReturn(Mono.error(new BusinessException(
+            ErrorCodes.ERROR_SERVICIO_EXTERNO, "Error API BCRA", HttpStatus.BAD_GATEWAY)));
+
+        // Act & Assert
+        assertThrows(BusinessException.class,
+            () -> iclService.obtenerTasaAumentoICL("2025-01-01", "2025-04-01"));
+        assertThrows(BusinessException.class,
+            () -> iclService.obtenerTasaAumentoICL("2025-01-01", "2025-05-01"));
+        verify(bcraApiClient, times(1)).obtenerSerieICLAsync(any(), any());
+        verify(indiceICLRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void obtenerTasa_dentroDeUnaTransaccion_debeEsperarLaDescarga() {
+        // Arrange
+        LocalDate nuevaFecha = LocalDate.of(2025, 4, 1);
+        when(indiceICLRepository.findAllByOrderByFechaAsc()).thenReturn(List.of(
+            new IndiceICL(LocalDate.of(2025, 1, 1), new BigDecimal("20.00"))
+        ));
+        TreeMap<LocalDate, BigDecimal> serie = new TreeMap<>();
+        serie.put(nuevaFecha, new BigDecimal("25.00"));
+        when(bcraApiClient.obtenerSerieICLAsync(any(), any()))
+            .thenReturn(Mono.<NavigableMap<LocalDate, BigDecimal>>just(serie).delayElement(Duration.ofMillis(200)));
+
+        // Act
+        BigDecimal tasa;
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            tasa = iclService.obtenerTasaAumentoICL("2025-01-01", "2025-04-01");
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+
+        // Assert
+        assertEquals(0, tasa.compareTo(new BigDecimal("1.25")));
+    }
+
+    @Test
+    void sincronizar_dentroDeUnaTransaccion_debeLimitarLaEspera() {
+        // Arrange
+        iclService.esperaEnTransaccion = Duration.ofMillis(100);
+        when(indiceICLRepository.findAllByOrderByFechaAsc()).thenReturn(List.of(
+            new IndiceICL(LocalDate.of(2025, 1, 1), new BigDecimal("20.00"))
+        ));
+        when(bcraApiClient.obtenerSerieICLAsync(any(), any())).thenReturn(Mono.never());
+
+        // Act
+        int nuevos;
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            nuevos = iclService.sincronizar();
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+
+        // Assert: la descarga sigue en curso y un segundo pedido la reutiliza
+        assertEquals(0, nuevos);
+        assertSame(iclService.sincronizarAsync(), iclService.sincronizarAsync());
+        verify(bcraApiClient, times(1)).obtenerSerieICLAsync(any(), any());
+    }
+}
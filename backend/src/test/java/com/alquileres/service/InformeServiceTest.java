@@ -0,0 +1,197 @@
+package com.alquileres.service;
+
+import com.alquileres.dto.InformeAlquileresDTO;
+import com.alquileres.dto.InformeAumentosDTO;
+import com.alquileres.dto.InformeHonorariosDTO;
+import com.alquileres.dto.InformePagosServiciosDTO;
+import com.alquileres.repository.AlquilerRepository;
+import com.alquileres.repository.AumentoAlquilerRepository;
+import com.alquileres.repository.PagoServicioRepository;
+import com.alquileres.repository.projection.FilaInformeAlquiler;
+import com.alquileres.repository.projection.FilaInformeAumento;
+import com.alquileres.repository.projection.FilaInformePagoServicio;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para InformeService
+ * Verifica que cada informe se arme con una sola consulta, sin importar la cantidad de filas,
+ * y que acepte un mes distinto del actual
+ */
+@ExtendWith(MockitoExtension.class)
+class InformeServiceTest {
+
+    private static final ProjectionFactory PROYECCIONES = new SpelAwareProxyProjectionFactory();
+
+    @Mock
+    private AlquilerRepository alquilerRepository;
+
+    @Mock
+    private PagoServicioRepository pagoServicioRepository;
+
+    @Mock
+    private AumentoAlquilerRepository aumentoAlquilerRepository;
+
+    @Mock
+    private ClockService clockService;
+
+    private InformeService informeService;
+
+    @BeforeEach
+    void setUp() {
+        informeService = new InformeService(alquilerRepository, pagoServicioRepository, aumentoAlquilerRepository, clockService);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {10, 1_000, 10_000})
+    void generarInformeAlquileres_cantidadDeConsultasNoDependeDeLasFilas(int cantidadFilas) {
+        // Arrange
+        List<FilaInformeAlquiler> filas = IntStream.rangeClosed(1, cantidadFilas)
+            .mapToObj(i -> filaAlquiler(i, i % 2 == 0))
+            .toList();
+        when(alquilerRepository.findFilasInformeAlquileres(any(), any(), eq("Vigente"))).thenReturn(filas);
+
+        // Act
+        InformeAlquileresDTO informe = informeService.generarInformeAlquileres(YearMonth.of(2025, 3));
+
+        // Assert
+        assertEquals(cantidadFilas, informe.getPagos().size());
+        assertEquals(BigDecimal.valueOf(1000L * (cantidadFilas / 2)), informe.getTotalPagado());
+        verify(alquilerRepository, times(1)).findFilasInformeAlquileres(any(), any(), any());
+        verifyNoMoreInteractions(alquilerRepository);
+        verifyNoInteractions(pagoServicioRepository, aumentoAlquilerRepository, clockService);
+    }
+
+    @Test
+    void generarInformeHonorarios_mesIndicado_debeConsultarEseMesSinUsarElReloj() {
+        // Arrange
+        when(alquilerRepository.findFilasInformeHonorarios(LocalDate.of(2024, 12, 1), LocalDate.of(2025, 1, 1)))
+            .thenReturn(List.of(filaAlquiler(1, true), filaAlquiler(2, true)));
+
+        // Act
+        InformeHonorariosDTO informe = informeService.generarInformeHonorarios(YearMonth.of(2024, 12));
+
+        // Assert
+        assertEquals("12/2024", informe.getPeriodo());
+        assertEquals(new BigDecimal("200.00"), informe.getTotalHonorarios());
+        assertEquals("Propietario 1", informe.getHonorariosPorInmueble().get(0).getNombrePropietario());
+        verifyNoInteractions(clockService);
+    }
+
+    @Test
+    void generarInformeHonorarios_sinMes_debeUsarElMesActual() {
+        // Arrange
+        when(clockService.getCurrentDate()).thenReturn(LocalDate.of(2025, 3, 17));
+        when(alquilerRepository.findFilasInformeHonorarios(LocalDate.of(2025, 3, 1), LocalDate.of(2025, 4, 1)))
+            .thenReturn(List.of());
+
+        // Act
+        InformeHonorariosDTO informe = informeService.generarInformeHonorarios(null);
+
+        // Assert
+        assertEquals("03/2025", informe.getPeriodo());
+    }
+
+    @Test
+    void generarInformeAumentos_debeAgruparPorContratoEnUnaSolaConsulta() {
+        // Arrange
+        when(aumentoAlquilerRepository.findFilasInformeAumentos(LocalDate.of(2024, 12, 30), LocalDate.of(2025, 6, 30)))
+            .thenReturn(List.of(filaAumento(1, 10L), filaAumento(2, 10L), filaAumento(3, 20L)));
+
+        // Act
+        InformeAumentosDTO informe = informeService.generarInformeAumentos(6, YearMonth.of(2025, 6));
+
+        // Assert
+        assertEquals("12/2024", informe.getPeriodoDesde());
+        assertEquals("06/2025", informe.getPeriodoHasta());
+        assertEquals(2, informe.getAumentosPorContrato().size());
+        assertEquals(2, informe.getAumentosPorContrato().get(0).getAumentos().size());
+        verify(aumentoAlquilerRepository, times(1)).findFilasInformeAumentos(any(), any());
+        verifyNoMoreInteractions(aumentoAlquilerRepository);
+    }
+
+    @Test
+    void generarInformePagosServicios_debeAgruparPorContratoConAlquilerRelacionado() {
+        // Arrange
+        when(pagoServicioRepository.findFilasInformePagosServicios("03/2025", LocalDate.of(2025, 3, 1), LocalDate.of(2025, 4, 1)))
+            .thenReturn(List.of(filaPagoServicio(1, 10L, true), filaPagoServicio(2, 10L, false), filaPagoServicio(3, 20L, true)));
+
+        // Act
+        InformePagosServiciosDTO informe = informeService.generarInformePagosServicios(YearMonth.of(2025, 3));
+
+        // Assert
+        assertEquals(2, informe.getContratosPagosServicios().size());
+        InformePagosServiciosDTO.PagosServiciosPorContratoDTO primero = informe.getContratosPagosServicios().get(0);
+        assertEquals(2, primero.getPagosServicios().size());
+        assertEquals(new BigDecimal("500"), primero.getSubtotalPagado());
+        assertEquals(99L, primero.getAlquilerRelacionado().getAlquilerId());
+        assertEquals(new BigDecimal("1000"), informe.getTotalPagado());
+        verify(pagoServicioRepository, times(1)).findFilasInformePagosServicios(anyString(), any(), any());
+        verifyNoMoreInteractions(pagoServicioRepository);
+    }
+
+    private FilaInformeAlquiler filaAlquiler(long id, boolean pagado) {
+        Map<String, Object> valores = new HashMap<>();
+        valores.put("alquilerId", id);
+        valores.put("contratoId", id);
+        valores.put("inmuebleId", id);
+        valores.put("direccionInmueble", "Calle " + id);
+        valores.put("nombreInquilino", "Inquilino " + id);
+        valores.put("apellidoInquilino", "Apellido");
+        valores.put("nombrePropietario", "Propietario " + id);
+        valores.put("apellidoPropietario", "Apellido");
+        valores.put("monto", BigDecimal.valueOf(1000));
+        valores.put("fechaPago", pagado ? "2025-03-05" : null);
+        valores.put("fechaVencimientoPago", LocalDate.of(2025, 3, 10));
+        valores.put("estaPagado", pagado);
+        return PROYECCIONES.createProjection(FilaInformeAlquiler.class, valores);
+    }
+
+    private FilaInformeAumento filaAumento(long id, Long contratoId) {
+        Map<String, Object> valores = new HashMap<>();
+        valores.put("aumentoId", id);
+        valores.put("contratoId", contratoId);
+        valores.put("direccionInmueble", "Calle " + contratoId);
+        valores.put("nombrePropietario", "Propietario");
+        valores.put("fechaAumento", LocalDate.of(2025, 1, 1).plusMonths(id));
+        valores.put("montoAnterior", BigDecimal.valueOf(1000));
+        valores.put("montoNuevo", BigDecimal.valueOf(1100));
+        valores.put("porcentajeAumento", BigDecimal.TEN);
+        return PROYECCIONES.createProjection(FilaInformeAumento.class, valores);
+    }
+
+    private FilaInformePagoServicio filaPagoServicio(int id, Long contratoId, boolean pagado) {
+        Map<String, Object> valores = new HashMap<>();
+        valores.put("pagoServicioId", id);
+        valores.put("monto", new BigDecimal("500"));
+        valores.put("periodoServicio", "03/2025");
+        valores.put("tipoServicio", "Luz");
+        valores.put("estaPagado", pagado);
+        valores.put("contratoId", contratoId);
+        valores.put("direccionInmueble", "Calle " + contratoId);
+        valores.put("alquilerId", 99L);
+        valores.put("montoAlquiler", BigDecimal.valueOf(1000));
+        valores.put("fechaVencimientoAlquiler", LocalDate.of(2025, 3, 10));
+        valores.put("alquilerPagado", false);
+        return PROYECCIONES.createProjection(FilaInformePagoServicio.class, valores);
+    }
+}
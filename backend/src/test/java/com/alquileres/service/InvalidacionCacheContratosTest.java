@@ -0,0 +1,104 @@
+package com.alquileres.service;
+
+import com.alquileres.config.CacheNames;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios para InvalidacionCacheContratos
+ * Verifica que solo se invaliden las claves del contrato que cambió y que, dentro de una
+ * transacción, la invalidación espere al commit
+ */
+class InvalidacionCacheContratosTest {
+
+    private CacheManager cacheManager;
+    private InvalidacionCacheContratos invalidacionCacheContratos;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new ConcurrentMapCacheManager(
+            CacheNames.CONTRATOS, CacheNames.CONTRATOS_VIGENTES, CacheNames.CONTRATO_POR_ID,
+            CacheNames.CONTRATO_EXISTE, CacheNames.SERVICIOS_POR_CONTRATO, CacheNames.CONTRATOS_POR_INMUEBLE,
+            CacheNames.CONTRATOS_POR_INQUILINO, CacheNames.INMUEBLE_TIENE_CONTRATO_VIGENTE, CacheNames.DASHBOARD);
+        invalidacionCacheContratos = new InvalidacionCacheContratos(cacheManager);
+
+        cacheManager.getCache(CacheNames.CONTRATOS).put("todos", "listado");
+        cacheManager.getCache(CacheNames.CONTRATOS_VIGENTES).put("vigentes", "listado");
+        cacheManager.getCache(CacheNames.DASHBOARD).put("estadisticas", "dashboard");
+        cacheManager.getCache(CacheNames.CONTRATO_POR_ID).put(1L, "afectado");
+        cacheManager.getCache(CacheNames.CONTRATO_POR_ID).put(2L, "otro");
+        cacheManager.getCache(CacheNames.CONTRATO_EXISTE).put(1L, true);
+        cacheManager.getCache(CacheNames.SERVICIOS_POR_CONTRATO).put(1L, "afectado");
+        cacheManager.getCache(CacheNames.SERVICIOS_POR_CONTRATO).put(2L, "otro");
+        cacheManager.getCache(CacheNames.CONTRATOS_POR_INMUEBLE).put(10L, "afectado");
+        cacheManager.getCache(CacheNames.CONTRATOS_POR_INMUEBLE).put(20L, "otro");
+        cacheManager.getCache(CacheNames.CONTRATOS_POR_INQUILINO).put(100L, "afectado");
+        cacheManager.getCache(CacheNames.CONTRATOS_POR_INQUILINO).put(200L, "otro");
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void invalidarContrato_debeInvalidarSoloLasClavesDelContratoYLosListados() {
+        // Act
+        invalidacionCacheContratos.invalidarContrato(1L, 10L, 100L);
+
+        // Assert
+        assertNull(cacheManager.getCache(CacheNames.CONTRATOS).get("todos"));
+        assertNull(cacheManager.getCache(CacheNames.CONTRATOS_VIGENTES).get("vigentes"));
+        assertNull(cacheManager.getCache(CacheNames.DASHBOARD).get("estadisticas"));
+        assertNull(cacheManager.getCache(CacheNames.CONTRATO_POR_ID).get(1L));
+        assertNull(cacheManager.getCache(CacheNames.CONTRATO_EXISTE).get(1L));
+        assertNull(cacheManager.getCache(CacheNames.SERVICIOS_POR_CONTRATO).get(1L));
+        assertNull(cacheManager.getCache(CacheNames.CONTRATOS_POR_INMUEBLE).get(10L));
+        assertNull(cacheManager.getCache(CacheNames.CONTRATOS_POR_INQUILINO).get(100L));
+
+        assertNotNull(cacheManager.getCache(CacheNames.CONTRATO_POR_ID).get(2L));
+        assertNotNull(cacheManager.getCache(CacheNames.SERVICIOS_POR_CONTRATO).get(2L));
+        assertNotNull(cacheManager.getCache(CacheNames.CONTRATOS_POR_INMUEBLE).get(20L));
+        assertNotNull(cacheManager.getCache(CacheNames.CONTRATOS_POR_INQUILINO).get(200L));
+    }
+
+    @Test
+    void invalidarServiciosDeContrato_noDebeTocarLosCachesDeContratos() {
+        // Act
+        invalidacionCacheContratos.invalidarServiciosDeContrato(1L);
+
+        // Assert
+        assertNull(cacheManager.getCache(CacheNames.SERVICIOS_POR_CONTRATO).get(1L));
+        assertNull(cacheManager.getCache(CacheNames.DASHBOARD).get("estadisticas"));
+
+        assertNotNull(cacheManager.getCache(CacheNames.SERVICIOS_POR_CONTRATO).get(2L));
+        assertNotNull(cacheManager.getCache(CacheNames.CONTRATOS).get("todos"));
+        assertNotNull(cacheManager.getCache(CacheNames.CONTRATO_POR_ID).get(1L));
+        assertNotNull(cacheManager.getCache(CacheNames.CONTRATOS_POR_INMUEBLE).get(10L));
+    }
+
+    @Test
+    void invalidarContrato_conTransaccionActiva_debeEsperarAlCommit() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        invalidacionCacheContratos.invalidarContrato(1L, 10L, 100L);
+
+        // Assert
+        assertNotNull(cacheManager.getCache(CacheNames.CONTRATO_POR_ID).get(1L));
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertNull(cacheManager.getCache(CacheNames.CONTRATO_POR_ID).get(1L));
+        assertNull(cacheManager.getCache(CacheNames.CONTRATOS).get("todos"));
+    }
+}
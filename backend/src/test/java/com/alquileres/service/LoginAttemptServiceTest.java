@@ -0,0 +1,170 @@
+package com.alquileres.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios para LoginAttemptService
+ * Verifica que los intentos se rechacen con Retry-After en lugar de demorar el hilo,
+ * y que el conteo de fallos sea atómico bajo concurrencia
+ */
+class LoginAttemptServiceTest {
+
+    private static final String USUARIO = "admin";
+
+    private final AtomicLong ahora = new AtomicLong(1_000_000L);
+
+    private LoginAttemptService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new LoginAttemptService(1_000, ahora::get);
+    }
+
+    @Test
+    void tryAcquire_trasDosFallos_debeRechazarCincoSegundosYLuegoPermitir() {
+        // Arrange
+        service.loginFailed(USUARIO);
+        assertEquals(0, service.tryAcquire(USUARIO), "Un solo fallo no demora el siguiente intento");
+        service.loginFailed(USUARIO);
+
+        // Act & Assert
+        assertEquals(5, service.tryAcquire(USUARIO));
+
+        ahora.addAndGet(4_200);
+        assertEquals(1, service.tryAcquire(USUARIO), "Retry-After se redondea hacia arriba");
+
+        ahora.addAndGet(800);
+        assertEquals(0, service.tryAcquire(USUARIO));
+    }
+
+    @Test
+    void tryAcquire_trasTresFallos_debeRechazarTreintaSegundos() {
+        // Arrange
+        for (int i = 0; i < 3; i++) {
+            service.loginFailed(USUARIO);
+        }
+
+        // Act
+        long espera = service.tryAcquire(USUARIO);
+
+        // Assert
+        assertEquals(30, espera);
+        assertEquals(3, service.getFailedAttempts(USUARIO));
+    }
+
+    @Test
+    void loginFailed_fallosFueraDeLaVentana_noDebenContar() {
+        // Arrange
+        service.loginFailed(USUARIO);
+        service.loginFailed(USUARIO);
+        ahora.addAndGet(Duration.ofMinutes(16).toMillis());
+
+        // Act
+        service.loginFailed(USUARIO);
+
+        // Assert
+        assertEquals(1, service.getFailedAttempts(USUARIO));
+        assertEquals(0, service.tryAcquire(USUARIO));
+    }
+
+    @Test
+    void loginFailed_masUsuariosQueElMaximo_debeDescartarElUsadoHaceMasTiempo() {
+        // Arrange
+        LoginAttemptService acotado = new LoginAttemptService(2, ahora::get);
+        acotado.loginFailed("usuario-1");
+        acotado.loginFailed("usuario-2");
+        acotado.loginFailed("usuario-1");
+
+        // Act
+        acotado.loginFailed("usuario-3");
+
+        // Assert
+        assertEquals(2, acotado.getFailedAttempts("usuario-1"));
+        assertEquals(0, acotado.getFailedAttempts("usuario-2"));
+        assertEquals(1, acotado.getFailedAttempts("usuario-3"));
+    }
+
+    @Test
+    void tryAcquire_intentosSimultaneos_noDebenDejarHilosEsperandoYSoloUnoReservaElIntento() throws Exception {
+        // Arrange
+        int hilos = 64;
+        service.loginFailed(USUARIO);
+        service.loginFailed(USUARIO);
+        ahora.addAndGet(5_000);
+
+        ExecutorService executor = Executors.newFixedThreadPool(hilos);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<Long>> resultados = new ArrayList<>();
+        for (int i = 0; i < hilos; i++) {
+            resultados.add(executor.submit(() -> {
+                largada.await();
+                return service.tryAcquire(USUARIO);
+            }));
+        }
+
+        // Act
+        long inicio = System.nanoTime();
+        largada.countDown();
+        executor.shutdown();
+        boolean terminaron = executor.awaitTermination(2, TimeUnit.SECONDS);
+        long duracionMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+
+        // Assert
+        assertTrue(terminaron, "Ningún hilo debe quedar detenido esperando");
+        assertTrue(duracionMs < 1_000, "Los rechazos deben ser inmediatos, tardaron " + duracionMs + " ms");
+
+        long permitidos = 0;
+        for (Future<Long> resultado : resultados) {
+            long espera = resultado.get();
+            if (espera == 0) {
+                permitidos++;
+            } else {
+                assertEquals(5, espera);
+            }
+        }
+        assertEquals(1, permitidos, "Solo un intento simultáneo puede pasar mientras corre la demora");
+    }
+
+    @Test
+    void loginFailed_fallosSimultaneos_debeContarlosTodos() throws Exception {
+        // Arrange
+        int hilos = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(hilos);
+
+        for (int ronda = 0; ronda < 200; ronda++) {
+            String usuario = "usuario-" + ronda;
+            CountDownLatch largada = new CountDownLatch(1);
+            List<Future<?>> tareas = new ArrayList<>();
+            for (int i = 0; i < hilos; i++) {
+                tareas.add(executor.submit(() -> {
+                    largada.await();
+                    service.loginFailed(usuario);
+                    return null;
+                }));
+            }
+
+            // Act
+            largada.countDown();
+            for (Future<?> tarea : tareas) {
+                tarea.get(2, TimeUnit.SECONDS);
+            }
+
+            // Assert
+            assertEquals(hilos, service.getFailedAttempts(usuario));
+        }
+        executor.shutdown();
+    }
+}
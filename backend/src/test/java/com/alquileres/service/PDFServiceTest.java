@@ -0,0 +1,138 @@
+package com.alquileres.service;
+
+import com.alquileres.dto.ContenidoPDFDTO;
+import com.alquileres.model.PDF;
+import com.alquileres.repository.PDFRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ByteArrayResource;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para PDFService
+ * Verifica que el contenido vaya al almacén y que las filas sin migrar se sigan pudiendo leer
+ */
+@ExtendWith(MockitoExtension.class)
+class PDFServiceTest {
+
+    private static final String SHA256 = "b".repeat(64);
+
+    @Mock
+    private PDFRepository pdfRepository;
+
+    @Mock
+    private AlmacenPDF almacenPDF;
+
+    @InjectMocks
+    private PDFService pdfService;
+
+    @Test
+    void guardarPDF_debeGuardarContenidoEnAlmacenYSoloMetadatosEnLaBase() throws Exception {
+        // Arrange
+        InputStream contenido = new ByteArrayInputStream(new byte[]{1, 2, 3});
+        when(almacenPDF.guardar(contenido)).thenReturn(new ContenidoPDFDTO(SHA256, 3L, null));
+        when(pdfRepository.save(any(PDF.class))).thenAnswer(i -> i.getArgument(0));
+
+        // Act
+        PDF pdf = pdfService.guardarPDF("CONTRATO", contenido, "contrato.pdf");
+
+        // Assert
+        assertEquals(SHA256, pdf.getSha256());
+        assertEquals(3L, pdf.getTamano());
+        assertNull(pdf.getFile());
+    }
+
+    @Test
+    void obtenerContenido_pdfSinMigrar_debeDevolverContenidoDeLaBaseSinHash() throws Exception {
+        // Arrange
+        PDF pdf = new PDF();
+        pdf.setFile(new byte[]{4, 5});
+        when(pdfRepository.findById(1L)).thenReturn(Optional.of(pdf));
+
+        // Act
+        Optional<ContenidoPDFDTO> contenido = pdfService.obtenerContenido(1L);
+
+        // Assert
+        assertTrue(contenido.isPresent());
+        assertNull(contenido.get().getSha256());
+        assertArrayEquals(new byte[]{4, 5}, contenido.get().getRecurso().getContentAsByteArray());
+        verifyNoInteractions(almacenPDF);
+    }
+
+    @Test
+    void obtenerContenido_pdfMigrado_debeLeerDelAlmacen() {
+        // Arrange
+        PDF pdf = new PDF("CONTRATO", SHA256, 2L, "contrato.pdf");
+        ContenidoPDFDTO almacenado = new ContenidoPDFDTO(SHA256, 2L, new ByteArrayResource(new byte[]{4, 5}));
+        when(pdfRepository.findById(1L)).thenReturn(Optional.of(pdf));
+        when(almacenPDF.obtener(SHA256)).thenReturn(Optional.of(almacenado));
+
+        // Act
+        Optional<ContenidoPDFDTO> contenido = pdfService.obtenerContenido(1L);
+
+        // Assert
+        assertSame(almacenado, contenido.orElseThrow());
+    }
+
+    @Test
+    void obtenerContenido_faltaEnElAlmacenConCopiaEnLaBase_debeDevolverLaCopia() throws Exception {
+        // Arrange
+        PDF pdf = new PDF("CONTRATO", SHA256, 2L, "contrato.pdf");
+        pdf.setFile(new byte[]{0x25, 0x50});
+        when(pdfRepository.findById(1L)).thenReturn(Optional.of(pdf));
+        when(almacenPDF.obtener(SHA256)).thenReturn(Optional.empty());
+
+        // Act
+        Optional<ContenidoPDFDTO> resultado = pdfService.obtenerContenido(1L);
+
+        // Assert
+        assertTrue(resultado.isPresent());
+        assertNull(resultado.get().getSha256());
+        try (InputStream entrada = resultado.get().getRecurso().getInputStream()) {
+            assertArrayEquals(new byte[]{0x25, 0x50}, entrada.readAllBytes());
+        }
+    }
+
+    @Test
+    void eliminarPDF_debeBorrarSoloLaFilaSinTocarElAlmacen() throws Exception {
+        // Arrange
+        PDF pdf = new PDF("CONTRATO", SHA256, 2L, "contrato.pdf");
+        when(pdfRepository.findById(1L)).thenReturn(Optional.of(pdf));
+
+        // Act
+        pdfService.eliminarPDF(1L);
+
+        // Assert
+        verify(pdfRepository).delete(pdf);
+        verifyNoInteractions(almacenPDF);
+    }
+
+    @Test
+    void limpiarAlmacen_debeBorrarSoloLosArchivosSinReferencias() throws Exception {
+        // Arrange
+        String huerfano = "c".repeat(64);
+        when(almacenPDF.listarAnterioresA(any(Instant.class))).thenReturn(List.of(SHA256, huerfano));
+        when(pdfRepository.countBySha256(SHA256)).thenReturn(1L);
+        when(pdfRepository.countBySha256(huerfano)).thenReturn(0L);
+        when(almacenPDF.eliminarSiEsAnteriorA(eq(huerfano), any(Instant.class))).thenReturn(true);
+
+        // Act
+        int borrados = pdfService.limpiarAlmacen();
+
+        // Assert
+        assertEquals(1, borrados);
+        verify(almacenPDF, never()).eliminarSiEsAnteriorA(eq(SHA256), any(Instant.class));
+    }
+}
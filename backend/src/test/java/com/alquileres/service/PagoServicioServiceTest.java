@@ -0,0 +1,143 @@
+package com.alquileres.service;
+
+import com.alquileres.dto.ActualizacionMontoServicioDTO;
+import com.alquileres.dto.ActualizacionMontosServiciosRequest;
+import com.alquileres.dto.ActualizarPagoServicioRequest;
+import com.alquileres.dto.RegistroPagoBatchRequest;
+import com.alquileres.dto.RegistroPagoBatchResponse;
+import com.alquileres.model.PagoServicio;
+import com.alquileres.repository.ContratoRepository;
+import com.alquileres.repository.PagoServicioRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para PagoServicioService
+ * Verifica que el registro de pagos en batch cargue todo con una consulta y escriba en un solo paso,
+ * informando el resultado de cada ítem
+ */
+@ExtendWith(MockitoExtension.class)
+class PagoServicioServiceTest {
+
+    @Mock
+    private PagoServicioRepository pagoServicioRepository;
+
+    @Mock
+    private ContratoRepository contratoRepository;
+
+    @Mock
+    private ClockService clockService;
+
+    private PagoServicioService pagoServicioService;
+
+    @BeforeEach
+    void setUp() {
+        pagoServicioService = new PagoServicioService(pagoServicioRepository, contratoRepository, clockService);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void registrarPagosBatch_200Pagos_debeCargarConUnaConsultaYGuardarJuntos() {
+        // Arrange
+        List<PagoServicio> pagos = new ArrayList<>();
+        List<RegistroPagoBatchRequest.RegistroPagoServicioItem> items = new ArrayList<>();
+        for (int id = 1; id <= 200; id++) {
+            pagos.add(pago(id));
+            items.add(new RegistroPagoBatchRequest.RegistroPagoServicioItem(id, datosPagado()));
+        }
+        when(pagoServicioRepository.findAllById(anyIterable())).thenReturn(pagos);
+
+        // Act
+        RegistroPagoBatchResponse response = pagoServicioService.registrarPagosBatch(new RegistroPagoBatchRequest(items));
+
+        // Assert
+        assertEquals(200, response.getExitosos());
+        assertEquals(0, response.getFallidos());
+        assertTrue(pagos.stream().allMatch(PagoServicio::getEstaPagado));
+
+        verify(pagoServicioRepository, times(1)).findAllById(anyIterable());
+        ArgumentCaptor<List<PagoServicio>> guardados = ArgumentCaptor.forClass(List.class);
+        verify(pagoServicioRepository, times(1)).saveAll(guardados.capture());
+        assertEquals(200, guardados.getValue().size());
+        verify(pagoServicioRepository, never()).findById(any());
+        verify(pagoServicioRepository, never()).save(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void registrarPagosBatch_pagoInexistenteORepetido_debeInformarloSinAfectarAlResto() {
+        // Arrange
+        PagoServicio pago1 = pago(1);
+        when(pagoServicioRepository.findAllById(anyIterable())).thenReturn(List.of(pago1));
+
+        List<RegistroPagoBatchRequest.RegistroPagoServicioItem> items = List.of(
+            new RegistroPagoBatchRequest.RegistroPagoServicioItem(1, datosPagado()),
+            new RegistroPagoBatchRequest.RegistroPagoServicioItem(99, datosPagado()),
+            new RegistroPagoBatchRequest.RegistroPagoServicioItem(1, datosPagado())
+        );
+
+        // Act
+        RegistroPagoBatchResponse response = pagoServicioService.registrarPagosBatch(new RegistroPagoBatchRequest(items));
+
+        // Assert
+        assertEquals(3, response.getTotalProcesados());
+        assertEquals(1, response.getExitosos());
+        assertEquals(2, response.getFallidos());
+        assertTrue(response.getResultados().get(0).isExitoso());
+        assertTrue(response.getResultados().get(1).getMensaje().contains("no encontrado"));
+        assertTrue(response.getResultados().get(2).getMensaje().contains("repetido"));
+
+        ArgumentCaptor<List<PagoServicio>> guardados = ArgumentCaptor.forClass(List.class);
+        verify(pagoServicioRepository).saveAll(guardados.capture());
+        assertEquals(List.of(pago1), guardados.getValue());
+    }
+
+    @Test
+    void actualizarMontosPagosNoPagados_debeUsarUnaSentenciaPorTipoDeServicio() {
+        // Arrange
+        when(contratoRepository.existsById(5L)).thenReturn(true);
+        when(pagoServicioRepository.actualizarMontoPagosNoPagados(eq(5L), eq(1), any(), anyString())).thenReturn(12);
+        when(pagoServicioRepository.actualizarMontoPagosNoPagados(eq(5L), eq(2), any(), anyString())).thenReturn(3);
+
+        ActualizacionMontoServicioDTO luz = new ActualizacionMontoServicioDTO(1, new BigDecimal("1500.00"));
+        ActualizacionMontoServicioDTO gas = new ActualizacionMontoServicioDTO(2, new BigDecimal("800.00"));
+
+        // Act
+        Map<String, Object> resultado = pagoServicioService.actualizarMontosPagosNoPagados(
+            new ActualizacionMontosServiciosRequest(5L, List.of(luz, gas)));
+
+        // Assert
+        assertEquals(15, resultado.get("totalPagosActualizados"));
+        verify(pagoServicioRepository).actualizarMontoPagosNoPagados(eq(5L), eq(1), eq(new BigDecimal("1500.00")), anyString());
+        verify(pagoServicioRepository).actualizarMontoPagosNoPagados(eq(5L), eq(2), eq(new BigDecimal("800.00")), anyString());
+        verify(pagoServicioRepository, never()).save(any());
+    }
+
+    private PagoServicio pago(int id) {
+        PagoServicio pago = new PagoServicio();
+        pago.setId(id);
+        pago.setEstaPagado(false);
+        return pago;
+    }
+
+    private ActualizarPagoServicioRequest datosPagado() {
+        ActualizarPagoServicioRequest datos = new ActualizarPagoServicioRequest();
+        datos.setEstaPagado(true);
+        datos.setFechaPago("05/03/2025");
+        datos.setMedioPago("Transferencia");
+        return datos;
+    }
+}
@@ -1 +1,52 @@
+package com.alquileres.service;
 
+import com.alquileres.model.RolNombre;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios para PermisosService
+ * Verifica la codificación de los permisos consolidados en el bitset que se firma en los JWT
+ */
+class PermisosServiceTest {
+
+    private final PermisosService permisosService = new PermisosService();
+
+    @Test
+    void permisos_debenEntrarEnUnLong() {
+        // Assert
+        assertTrue(PermisosService.PERMISOS.size() <= Long.SIZE);
+        assertEquals(PermisosService.PERMISOS.size(), PermisosService.PERMISOS.stream().distinct().count());
+    }
+
+    @Test
+    void decodificarPermisos_debeDevolverLosPermisosConsolidadosDeLosRoles() {
+        // Arrange
+        List<RolNombre> roles = List.of(RolNombre.ROLE_SECRETARIA, RolNombre.ROLE_ABOGADA);
+        Map<String, Boolean> consolidados = permisosService.obtenerPermisosConsolidados(roles);
+
+        // Act
+        long bits = permisosService.obtenerBitsPermisos(roles);
+        Map<String, Boolean> decodificados = permisosService.decodificarPermisos(bits);
+
+        // Assert
+        consolidados.forEach((permiso, otorgado) -> assertEquals(otorgado, decodificados.get(permiso), permiso));
+        assertTrue(decodificados.get("crear_usuario_abogada"));
+        assertFalse(decodificados.get("crear_usuario_administrador"));
+        assertFalse(decodificados.get("eliminar_contrato"));
+    }
+
+    @Test
+    void obtenerBitsPermisos_administrador_debeTenerTodosLosBits() {
+        // Act
+        long bits = permisosService.obtenerBitsPermisos(List.of(RolNombre.ROLE_ADMINISTRADOR));
+
+        // Assert
+        assertEquals((1L << PermisosService.PERMISOS.size()) - 1, bits);
+        assertEquals(0L, permisosService.obtenerBitsPermisos(List.of()));
+    }
+}
@@ -0,0 +1,130 @@
+package com.alquileres.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios para RegistroRevocacionesMemoria
+ * Verifica que las revocaciones venzan solas y que el registro lleno nunca descarte una revocación vigente
+ */
+class RegistroRevocacionesMemoriaTest {
+
+    private final AtomicLong ahora = new AtomicLong(1_000_000L);
+
+    private RegistroRevocacionesMemoria registro;
+
+    @BeforeEach
+    void setUp() {
+        registro = new RegistroRevocacionesMemoria(3, ahora::get);
+    }
+
+    @Test
+    void estaRevocado_antesYDespuesDeLaExpiracion() {
+        // Arrange
+        registro.revocar("token-a", Instant.ofEpochMilli(ahora.get() + 5_000));
+
+        // Act & Assert
+        assertTrue(registro.estaRevocado("token-a"));
+        assertFalse(registro.estaRevocado("token-b"));
+
+        ahora.addAndGet(5_000);
+        assertFalse(registro.estaRevocado("token-a"), "Al vencer el token la revocación deja de aplicar");
+    }
+
+    @Test
+    void revocar_debePurgarLasEntradasVencidasSinRecorrerElMapa() {
+        // Arrange
+        registro.revocar("token-a", Instant.ofEpochMilli(ahora.get() + 1_000));
+        registro.revocar("token-b", Instant.ofEpochMilli(ahora.get() + 2_000));
+        ahora.addAndGet(1_500);
+
+        // Act
+        registro.revocar("token-c", Instant.ofEpochMilli(ahora.get() + 10_000));
+
+        // Assert
+        assertEquals(2, registro.tamano());
+        assertTrue(registro.estaRevocado("token-b"));
+        assertTrue(registro.estaRevocado("token-c"));
+    }
+
+    @Test
+    void revocar_registroLleno_debeRechazarSinDescartarRevocacionesVigentes() {
+        // Arrange
+        registro.revocar("token-a", Instant.ofEpochMilli(ahora.get() + 30_000));
+        registro.revocar("token-b", Instant.ofEpochMilli(ahora.get() + 10_000));
+        registro.revocar("token-c", Instant.ofEpochMilli(ahora.get() + 20_000));
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class,
+            () -> registro.revocar("token-d", Instant.ofEpochMilli(ahora.get() + 40_000)));
+        assertEquals(3, registro.tamano());
+        assertTrue(registro.estaRevocado("token-a"));
+        assertTrue(registro.estaRevocado("token-b"));
+        assertTrue(registro.estaRevocado("token-c"));
+        assertFalse(registro.estaRevocado("token-d"));
+    }
+
+    @Test
+    void revocar_registroLlenoConVencidas_debePurgarlasYAceptar() {
+        // Arrange
+        registro.revocar("token-a", Instant.ofEpochMilli(ahora.get() + 30_000));
+        registro.revocar("token-b", Instant.ofEpochMilli(ahora.get() + 10_000));
+        registro.revocar("token-c", Instant.ofEpochMilli(ahora.get() + 20_000));
+        ahora.addAndGet(10_000);
+
+        // Act
+        registro.revocar("token-d", Instant.ofEpochMilli(ahora.get() + 40_000));
+
+        // Assert
+        assertEquals(3, registro.tamano());
+        assertTrue(registro.estaRevocado("token-d"));
+    }
+
+    @Test
+    void revocar_mismaClaveVariasVeces_noDebeDuplicarEntradasEnLaCola() {
+        // Arrange
+        Instant expiracion = Instant.ofEpochMilli(ahora.get() + 30_000);
+        registro.revocar("token-a", expiracion);
+        registro.revocar("token-b", Instant.ofEpochMilli(ahora.get() + 30_000));
+
+        // Act
+        for (int i = 0; i < 10; i++) {
+            registro.revocar("token-a", expiracion);
+        }
+        registro.revocar("token-c", Instant.ofEpochMilli(ahora.get() + 30_000));
+
+        // Assert
+        assertEquals(3, registro.tamanoCola());
+        assertEquals(3, registro.tamano());
+        assertTrue(registro.estaRevocado("token-c"));
+    }
+
+    @Test
+    void revocar_mismaClaveConExpiracionPosterior_debeExtenderla() {
+        // Arrange
+        registro.revocar("token-a", Instant.ofEpochMilli(ahora.get() + 1_000));
+
+        // Act
+        registro.revocar("token-a", Instant.ofEpochMilli(ahora.get() + 5_000));
+        ahora.addAndGet(2_000);
+
+        // Assert
+        assertTrue(registro.estaRevocado("token-a"));
+        assertEquals(1, registro.tamano());
+        assertEquals(1, registro.tamanoCola(), "La entrada con la expiración anterior se purga al vencer");
+    }
+
+    @Test
+    void revocar_tokenYaVencido_noDebeRegistrarse() {
+        // Act
+        registro.revocar("token-a", Instant.ofEpochMilli(ahora.get() - 1));
+
+        // Assert
+        assertEquals(0, registro.tamano());
+    }
+}
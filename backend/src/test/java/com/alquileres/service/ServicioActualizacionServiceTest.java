@@ -0,0 +1,120 @@
+package com.alquileres.service;
+
+import com.alquileres.model.ConfiguracionSistema;
+import com.alquileres.repository.ConfiguracionSistemaRepository;
+import com.alquileres.repository.PagoServicioRepository;
+import com.alquileres.repository.ServicioContratoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para ServicioActualizacionService
+ * Verifica que la generación mensual de facturas use una sentencia para crear las facturas
+ * y otra para avanzar las fechas, sin cargar los servicios uno por uno
+ */
+@ExtendWith(MockitoExtension.class)
+class ServicioActualizacionServiceTest {
+
+    private static final LocalDate HOY = LocalDate.of(2025, 3, 17);
+
+    @Mock
+    private PagoServicioRepository pagoServicioRepository;
+
+    @Mock
+    private ConfiguracionSistemaRepository configuracionSistemaRepository;
+
+    @Mock
+    private ServicioContratoRepository servicioContratoRepository;
+
+    @Mock
+    private ClockService clockService;
+
+    private ServicioActualizacionService servicioActualizacionService;
+
+    @BeforeEach
+    void setUp() {
+        servicioActualizacionService = new ServicioActualizacionService(
+            pagoServicioRepository, configuracionSistemaRepository, servicioContratoRepository, clockService);
+        when(clockService.getCurrentDate()).thenReturn(HOY);
+    }
+
+    @Test
+    void forzarProcesamientoPagos_debeGenerarFacturasYAvanzarFechasConDosSentencias() {
+        // Arrange
+        ConfiguracionSistema config = new ConfiguracionSistema(
+            "ULTIMO_MES_PROCESADO_PAGOS_SERVICIOS", "02/2025", "Último mes procesado");
+        when(configuracionSistemaRepository.findByClave("ULTIMO_MES_PROCESADO_PAGOS_SERVICIOS"))
+            .thenReturn(Optional.of(config));
+        when(pagoServicioRepository.insertarFacturasPendientes(eq(HOY), anyString())).thenReturn(7);
+        when(servicioContratoRepository.avanzarFechasServiciosConPagoPendiente(eq(HOY), any(), any())).thenReturn(9);
+
+        // Act
+        int generadas = servicioActualizacionService.forzarProcesamientoPagos();
+
+        // Assert
+        assertEquals(7, generadas);
+        assertEquals("03/2025", config.getValor());
+
+        InOrder orden = inOrder(pagoServicioRepository, servicioContratoRepository);
+        orden.verify(pagoServicioRepository).insertarFacturasPendientes(eq(HOY), anyString());
+        orden.verify(servicioContratoRepository)
+            .avanzarFechasServiciosConPagoPendiente(eq(HOY), eq(LocalDate.of(2025, 4, 1)), any());
+
+        verify(servicioContratoRepository, never()).findServiciosConPagosPendientes(any());
+        verify(servicioContratoRepository, never()).save(any());
+        verify(pagoServicioRepository, never()).save(any());
+        verify(pagoServicioRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void generarPagosPendientesParaServicio_anualAtrasado_debeRepetirLasSentenciasHastaAlcanzarLaFecha() {
+        // Arrange: dos períodos anuales vencidos; la tercera vuelta ya no avanza ningún servicio
+        when(pagoServicioRepository.insertarFacturasPendientesByServicioId(eq(HOY), anyString(), eq(8)))
+            .thenReturn(1, 1, 0);
+        when(servicioContratoRepository.avanzarFechasServiciosConPagoPendienteByServicioId(eq(HOY), any(), any(), eq(8)))
+            .thenReturn(1, 1, 0);
+
+        // Act
+        int generados = servicioActualizacionService.generarPagosPendientesParaServicio(8);
+
+        // Assert
+        assertEquals(2, generados);
+        verify(servicioContratoRepository, times(3))
+            .avanzarFechasServiciosConPagoPendienteByServicioId(eq(HOY), eq(LocalDate.of(2025, 4, 1)), any(), eq(8));
+        verify(pagoServicioRepository, never()).existsByServicioContratoIdAndPeriodo(any(), any());
+        verify(pagoServicioRepository, never()).save(any());
+        verify(servicioContratoRepository, never()).save(any());
+    }
+
+    @Test
+    void generarFacturasParaContratos_debeLimitarAmbasSentenciasAlLote() {
+        // Arrange
+        List<Long> lote = List.of(3L, 5L);
+        when(pagoServicioRepository.insertarFacturasPendientesByContratoIds(eq(HOY), anyString(), eq(lote)))
+            .thenReturn(4);
+
+        // Act
+        int generadas = servicioActualizacionService.generarFacturasParaContratos(lote);
+        int generadasLoteVacio = servicioActualizacionService.generarFacturasParaContratos(List.of());
+
+        // Assert
+        assertEquals(4, generadas);
+        assertEquals(0, generadasLoteVacio);
+        verify(servicioContratoRepository).avanzarFechasServiciosConPagoPendienteByContratoIds(
+            eq(HOY), eq(LocalDate.of(2025, 4, 1)), any(), eq(lote));
+        verify(pagoServicioRepository, never()).insertarFacturasPendientes(any(), any());
+        verify(servicioContratoRepository, never()).avanzarFechasServiciosConPagoPendiente(any(), any(), any());
+    }
+}
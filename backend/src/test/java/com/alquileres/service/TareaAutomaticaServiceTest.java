@@ -0,0 +1,232 @@
+package com.alquileres.service;
+
+import com.alquileres.model.EjecucionTarea;
+import com.alquileres.model.EstadoTarea;
+import com.alquileres.model.TipoTarea;
+import com.alquileres.repository.EjecucionTareaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para TareaAutomaticaService
+ * Verifica el procesamiento por lotes, la reanudación desde el checkpoint y la reserva de cada
+ * ejecución para que una sola instancia la corra
+ */
+@ExtendWith(MockitoExtension.class)
+class TareaAutomaticaServiceTest {
+
+    private static final LocalDate HOY = LocalDate.of(2025, 3, 1);
+    private static final String PERIODO = HOY.format(DateTimeFormatter.ofPattern("MM/yyyy"));
+
+    @Mock
+    private EjecucionTareaRepository ejecucionTareaRepository;
+
+    @Mock
+    private ContratoActualizacionService contratoActualizacionService;
+
+    @Mock
+    private ServicioActualizacionService servicioActualizacionService;
+
+    @Mock
+    private AlquilerActualizacionService alquilerActualizacionService;
+
+    @Mock
+    private ICLService iclService;
+
+    @Mock
+    private ClockService clockService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TareaAutomaticaService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new TareaAutomaticaService(
+            ejecucionTareaRepository,
+            contratoActualizacionService,
+            servicioActualizacionService,
+            alquilerActualizacionService,
+            iclService,
+            clockService,
+            transactionManager,
+            Runnable::run
+        );
+        lenient().when(clockService.getCurrentDate()).thenReturn(HOY);
+        lenient().when(ejecucionTareaRepository.save(any(EjecucionTarea.class))).thenAnswer(i -> i.getArgument(0));
+    }
+
+    @Test
+    void ejecutarTarea_nuevaEjecucion_debeProcesarEnLotesYMarcarMes() {
+        // Arrange
+        List<Long> ids = LongStream.rangeClosed(1, 120).boxed().toList();
+        when(ejecucionTareaRepository.findByTipoAndPeriodo(TipoTarea.GENERACION_ALQUILERES, PERIODO))
+            .thenReturn(Optional.empty());
+        when(alquilerActualizacionService.getUltimoMesProcesado()).thenReturn("02/2025");
+        when(alquilerActualizacionService.obtenerIdsContratosVigentes()).thenReturn(ids);
+        when(alquilerActualizacionService.crearAlquileresParaLote(anyList())).thenAnswer(i -> ((List<?>) i.getArgument(0)).size());
+
+        // Act
+        EjecucionTarea ejecucion = service.ejecutarTarea(TipoTarea.GENERACION_ALQUILERES);
+
+        // Assert
+        assertEquals(EstadoTarea.COMPLETADA, ejecucion.getEstado());
+        assertEquals(120, ejecucion.getContratosProcesados());
+        assertEquals(120, ejecucion.getElementosGenerados());
+        assertEquals(120L, ejecucion.getUltimoContratoId());
+        verify(alquilerActualizacionService, times(3)).crearAlquileresParaLote(anyList());
+        verify(iclService).sincronizar();
+        verify(alquilerActualizacionService).actualizarUltimoMesProcesado(PERIODO);
+    }
+
+    @Test
+    void ejecutarTarea_ejecucionInterrumpida_debeReanudarDesdeCheckpoint() {
+        // Arrange
+        EjecucionTarea interrumpida = new EjecucionTarea(TipoTarea.GENERACION_ALQUILERES, PERIODO);
+        interrumpida.setId(7L);
+        interrumpida.registrarLote(50L, 50, 50);
+
+        when(ejecucionTareaRepository.findByTipoAndPeriodo(TipoTarea.GENERACION_ALQUILERES, PERIODO))
+            .thenReturn(Optional.of(interrumpida));
+        when(ejecucionTareaRepository.reservar(eq(7L), eq(EstadoTarea.EN_PROCESO), eq(EstadoTarea.COMPLETADA), any(), any()))
+            .thenReturn(1);
+        when(ejecucionTareaRepository.findById(7L)).thenReturn(Optional.of(interrumpida));
+        when(alquilerActualizacionService.obtenerIdsContratosVigentes())
+            .thenReturn(LongStream.rangeClosed(1, 80).boxed().toList());
+        when(alquilerActualizacionService.crearAlquileresParaLote(anyList())).thenReturn(30);
+
+        // Act
+        EjecucionTarea ejecucion = service.ejecutarTarea(TipoTarea.GENERACION_ALQUILERES);
+
+        // Assert
+        verify(alquilerActualizacionService).crearAlquileresParaLote(LongStream.rangeClosed(51, 80).boxed().toList());
+        assertEquals(EstadoTarea.COMPLETADA, ejecucion.getEstado());
+        assertEquals(80, ejecucion.getContratosProcesados());
+        assertEquals(80, ejecucion.getTotalContratos());
+    }
+
+    @Test
+    void ejecutarTarea_falloEnLote_debeConservarCheckpointDelUltimoLoteConfirmado() {
+        // Arrange
+        when(ejecucionTareaRepository.findByTipoAndPeriodo(TipoTarea.GENERACION_FACTURAS_SERVICIOS, PERIODO))
+            .thenReturn(Optional.empty());
+        when(servicioActualizacionService.getUltimoMesProcesado()).thenReturn(null);
+        when(servicioActualizacionService.obtenerIdsContratosConPagosPendientes())
+            .thenReturn(LongStream.rangeClosed(1, 100).boxed().toList());
+        when(servicioActualizacionService.generarFacturasParaContratos(anyList()))
+            .thenReturn(50)
+            .thenThrow(new RuntimeException("Conexión perdida"));
+
+        // Act
+        EjecucionTarea ejecucion = service.ejecutarTarea(TipoTarea.GENERACION_FACTURAS_SERVICIOS);
+
+        // Assert
+        assertEquals(EstadoTarea.FALLIDA, ejecucion.getEstado());
+        assertEquals(50L, ejecucion.getUltimoContratoId());
+        assertEquals("Conexión perdida", ejecucion.getMensajeError());
+        assertEquals(1, ejecucion.getIntentosFallidos());
+        assertTrue(ejecucion.getProximoIntento().isAfter(LocalDateTime.now().plusMinutes(4)),
+            "Después de un fallo se espera antes de reintentar");
+        verify(servicioActualizacionService, never()).actualizarUltimoMesProcesado(anyString());
+    }
+
+    @Test
+    void ejecutarTarea_reservadaPorOtraInstanciaOEsperandoReintento_noDebeProcesar() {
+        // Arrange
+        EjecucionTarea fallida = new EjecucionTarea(TipoTarea.GENERACION_ALQUILERES, PERIODO);
+        fallida.setId(9L);
+        fallida.setEstado(EstadoTarea.FALLIDA);
+        when(ejecucionTareaRepository.findByTipoAndPeriodo(TipoTarea.GENERACION_ALQUILERES, PERIODO))
+            .thenReturn(Optional.of(fallida));
+        when(ejecucionTareaRepository.reservar(eq(9L), any(), any(), any(), any())).thenReturn(0);
+
+        // Act
+        EjecucionTarea ejecucion = service.ejecutarTarea(TipoTarea.GENERACION_ALQUILERES);
+
+        // Assert
+        assertSame(fallida, ejecucion);
+        verify(ejecucionTareaRepository, never()).findById(anyLong());
+        verify(alquilerActualizacionService, never()).obtenerIdsContratosVigentes();
+        verify(iclService, never()).sincronizar();
+    }
+
+    @Test
+    void ejecutarTarea_otraInstanciaCreaLaMismaEjecucion_noDebeProcesar() {
+        // Arrange
+        EjecucionTarea deOtraInstancia = new EjecucionTarea(TipoTarea.GENERACION_ALQUILERES, PERIODO);
+        when(ejecucionTareaRepository.findByTipoAndPeriodo(TipoTarea.GENERACION_ALQUILERES, PERIODO))
+            .thenReturn(Optional.empty())
+            .thenReturn(Optional.of(deOtraInstancia));
+        when(alquilerActualizacionService.getUltimoMesProcesado()).thenReturn("02/2025");
+        when(ejecucionTareaRepository.save(any(EjecucionTarea.class)))
+            .thenThrow(new DataIntegrityViolationException("uk_ejecuciones_tarea_tipo_periodo"));
+
+        // Act
+        EjecucionTarea ejecucion = service.ejecutarTarea(TipoTarea.GENERACION_ALQUILERES);
+
+        // Assert
+        assertSame(deOtraInstancia, ejecucion);
+        verify(alquilerActualizacionService, never()).obtenerIdsContratosVigentes();
+        verify(iclService, never()).sincronizar();
+    }
+
+    @Test
+    void esperaReintento_debeDuplicarseHastaElMaximo() {
+        assertEquals(Duration.ofMinutes(5), TareaAutomaticaService.esperaReintento(1));
+        assertEquals(Duration.ofMinutes(10), TareaAutomaticaService.esperaReintento(2));
+        assertEquals(Duration.ofMinutes(40), TareaAutomaticaService.esperaReintento(4));
+        assertEquals(Duration.ofHours(6), TareaAutomaticaService.esperaReintento(10));
+        assertEquals(Duration.ofHours(6), TareaAutomaticaService.esperaReintento(1_000));
+    }
+
+    @Test
+    void ejecutarTarea_periodoCompletado_noDebeProcesar() {
+        // Arrange
+        EjecucionTarea completada = new EjecucionTarea(TipoTarea.GENERACION_ALQUILERES, PERIODO);
+        completada.setEstado(EstadoTarea.COMPLETADA);
+        when(ejecucionTareaRepository.findByTipoAndPeriodo(TipoTarea.GENERACION_ALQUILERES, PERIODO))
+            .thenReturn(Optional.of(completada));
+
+        // Act
+        service.ejecutarTarea(TipoTarea.GENERACION_ALQUILERES);
+
+        // Assert
+        verify(alquilerActualizacionService, never()).obtenerIdsContratosVigentes();
+        verify(iclService, never()).sincronizar();
+    }
+
+    @Test
+    void iniciarProcesosPendientes_todoCompletado_noDebeRelanzarEnElMismoDia() {
+        // Arrange
+        EjecucionTarea completada = new EjecucionTarea();
+        completada.setEstado(EstadoTarea.COMPLETADA);
+        when(ejecucionTareaRepository.findByTipoAndPeriodo(any(), anyString())).thenReturn(Optional.of(completada));
+
+        // Act
+        boolean primera = service.iniciarProcesosPendientes();
+        boolean segunda = service.iniciarProcesosPendientes();
+
+        // Assert
+        assertTrue(primera, "La primera llamada lanza los procesos");
+        assertFalse(segunda, "El mismo día ya no debe relanzarlos");
+        verify(ejecucionTareaRepository, times(3)).findByTipoAndPeriodo(any(), anyString());
+    }
+}
@@ -0,0 +1,72 @@
+package com.alquileres.service;
+
+import com.alquileres.security.JwtUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para TokenBlacklistService
+ * Verifica que se revoque por una clave compacta y no por el token completo
+ */
+@ExtendWith(MockitoExtension.class)
+class TokenBlacklistServiceTest {
+
+    private static final String TOKEN = "eyJhbGciOiJIUzUxMiJ9." + "x".repeat(400) + ".firma";
+
+    @Mock
+    private JwtUtils jwtUtils;
+
+    @Mock
+    private RegistroRevocaciones registroRevocaciones;
+
+    @InjectMocks
+    private TokenBlacklistService tokenBlacklistService;
+
+    @Test
+    void blacklistToken_debeRevocarConClaveDe128BitsHastaLaExpiracionDelToken() {
+        // Arrange
+        Date expiracion = new Date(System.currentTimeMillis() + 60_000);
+        when(jwtUtils.getExpirationDateFromToken(TOKEN)).thenReturn(expiracion);
+
+        // Act
+        tokenBlacklistService.blacklistToken(TOKEN);
+
+        // Assert
+        String clave = TokenBlacklistService.claveDe(TOKEN);
+        assertEquals(22, clave.length());
+        verify(registroRevocaciones).revocar(clave, expiracion.toInstant());
+    }
+
+    @Test
+    void blacklistToken_sinExpiracionLegible_debeUsarExpiracionPorDefecto() {
+        // Arrange
+        when(jwtUtils.getExpirationDateFromToken(TOKEN)).thenThrow(new IllegalArgumentException("token inválido"));
+
+        // Act
+        tokenBlacklistService.blacklistToken(TOKEN);
+
+        // Assert
+        verify(registroRevocaciones).revocar(eq(TokenBlacklistService.claveDe(TOKEN)),
+            argThat(expiracion -> expiracion.isAfter(Instant.now().plusSeconds(23 * 3600))));
+    }
+
+    @Test
+    void isTokenBlacklisted_debeConsultarPorLaMismaClave() {
+        // Arrange
+        when(registroRevocaciones.estaRevocado(TokenBlacklistService.claveDe(TOKEN))).thenReturn(true);
+
+        // Act & Assert
+        assertTrue(tokenBlacklistService.isTokenBlacklisted(TOKEN));
+        assertNotEquals(TokenBlacklistService.claveDe(TOKEN), TokenBlacklistService.claveDe(TOKEN + "a"));
+    }
+}
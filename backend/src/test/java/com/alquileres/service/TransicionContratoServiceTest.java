@@ -0,0 +1,153 @@
+package com.alquileres.service;
+
+import com.alquileres.config.CacheNames;
+import com.alquileres.model.EstadoContrato;
+import com.alquileres.model.EstadoInmueble;
+import com.alquileres.repository.AlquilerRepository;
+import com.alquileres.repository.ContratoRepository;
+import com.alquileres.repository.EstadoContratoRepository;
+import com.alquileres.repository.EstadoInmuebleRepository;
+import com.alquileres.repository.InmuebleRepository;
+import com.alquileres.repository.InquilinoRepository;
+import com.alquileres.repository.ServicioContratoRepository;
+import com.alquileres.repository.projection.ContratoAfectado;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para TransicionContratoService
+ * Verifica que el vencimiento de contratos use una sentencia por tabla y que solo se invaliden
+ * las entradas de caché de los contratos afectados (más los listados)
+ */
+@ExtendWith(MockitoExtension.class)
+class TransicionContratoServiceTest {
+
+    @Mock
+    private ContratoRepository contratoRepository;
+
+    @Mock
+    private EstadoContratoRepository estadoContratoRepository;
+
+    @Mock
+    private EstadoInmuebleRepository estadoInmuebleRepository;
+
+    @Mock
+    private InmuebleRepository inmuebleRepository;
+
+    @Mock
+    private InquilinoRepository inquilinoRepository;
+
+    @Mock
+    private AlquilerRepository alquilerRepository;
+
+    @Mock
+    private ServicioContratoRepository servicioContratoRepository;
+
+    private CacheManager cacheManager;
+    private TransicionContratoService transicionContratoService;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new ConcurrentMapCacheManager(
+            CacheNames.CONTRATOS, CacheNames.CONTRATO_POR_ID, CacheNames.SERVICIOS_POR_CONTRATO,
+            CacheNames.CONTRATOS_POR_INMUEBLE, CacheNames.CONTRATOS_POR_INQUILINO,
+            CacheNames.INMUEBLE_TIENE_CONTRATO_VIGENTE, CacheNames.DASHBOARD);
+        transicionContratoService = new TransicionContratoService(contratoRepository, estadoContratoRepository,
+            estadoInmuebleRepository, inmuebleRepository, inquilinoRepository, alquilerRepository,
+            servicioContratoRepository, new InvalidacionCacheContratos(cacheManager));
+    }
+
+    @Test
+    void vencerContratos_debeUsarUnaSentenciaPorTabla() {
+        // Arrange
+        EstadoContrato noVigente = new EstadoContrato();
+        EstadoInmueble disponible = new EstadoInmueble();
+        disponible.setId(1);
+        when(estadoContratoRepository.findByNombre("No Vigente")).thenReturn(Optional.of(noVigente));
+        when(estadoInmuebleRepository.findByNombre("Disponible")).thenReturn(Optional.of(disponible));
+        when(contratoRepository.actualizarEstado(noVigente, List.of(1L, 2L, 3L))).thenReturn(3);
+
+        List<ContratoAfectado> contratos = List.of(afectado(1L, 10L, 100L), afectado(2L, 20L, 200L),
+            afectado(3L, 30L, 300L));
+
+        // Act
+        int actualizados = transicionContratoService.vencerContratos(contratos);
+
+        // Assert
+        assertEquals(3, actualizados);
+        List<Long> ids = List.of(1L, 2L, 3L);
+        verify(contratoRepository).actualizarEstado(noVigente, ids);
+        verify(inmuebleRepository).liberarInmueblesDeContratos(eq(1), anyString(), eq(ids));
+        verify(inquilinoRepository).liberarInquilinosDeContratos(anyString(), eq(ids));
+        verify(alquilerRepository).anularAlquileresDeContratos(anyString(), eq(ids));
+        verify(servicioContratoRepository).desactivarServiciosDeContratos(any(), eq(ids));
+        verify(contratoRepository, never()).save(any());
+        verify(alquilerRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void finalizarContratos_debeInvalidarSoloLasEntradasDeLosContratosAfectados() {
+        // Arrange
+        EstadoInmueble disponible = new EstadoInmueble();
+        disponible.setId(1);
+        when(estadoInmuebleRepository.findByNombre("Disponible")).thenReturn(Optional.of(disponible));
+
+        cacheManager.getCache(CacheNames.CONTRATOS).put("todos", "listado");
+        cacheManager.getCache(CacheNames.CONTRATO_POR_ID).put(1L, "afectado");
+        cacheManager.getCache(CacheNames.CONTRATO_POR_ID).put(2L, "otro");
+        cacheManager.getCache(CacheNames.SERVICIOS_POR_CONTRATO).put("1_activos", "afectado");
+        cacheManager.getCache(CacheNames.SERVICIOS_POR_CONTRATO).put("2_activos", "otro");
+        cacheManager.getCache(CacheNames.CONTRATOS_POR_INMUEBLE).put(10L, "afectado");
+        cacheManager.getCache(CacheNames.CONTRATOS_POR_INMUEBLE).put(20L, "otro");
+        cacheManager.getCache(CacheNames.INMUEBLE_TIENE_CONTRATO_VIGENTE).put(10L, true);
+        cacheManager.getCache(CacheNames.CONTRATOS_POR_INQUILINO).put(100L, "afectado");
+        cacheManager.getCache(CacheNames.CONTRATOS_POR_INQUILINO).put(200L, "otro");
+
+        // Act
+        transicionContratoService.finalizarContratos(List.of(afectado(1L, 10L, 100L)));
+
+        // Assert
+        assertNull(cacheManager.getCache(CacheNames.CONTRATOS).get("todos"));
+        assertNull(cacheManager.getCache(CacheNames.CONTRATO_POR_ID).get(1L));
+        assertNull(cacheManager.getCache(CacheNames.SERVICIOS_POR_CONTRATO).get("1_activos"));
+        assertNull(cacheManager.getCache(CacheNames.CONTRATOS_POR_INMUEBLE).get(10L));
+        assertNull(cacheManager.getCache(CacheNames.INMUEBLE_TIENE_CONTRATO_VIGENTE).get(10L));
+        assertNull(cacheManager.getCache(CacheNames.CONTRATOS_POR_INQUILINO).get(100L));
+
+        assertNotNull(cacheManager.getCache(CacheNames.CONTRATO_POR_ID).get(2L));
+        assertNotNull(cacheManager.getCache(CacheNames.SERVICIOS_POR_CONTRATO).get("2_activos"));
+        assertNotNull(cacheManager.getCache(CacheNames.CONTRATOS_POR_INMUEBLE).get(20L));
+        assertNotNull(cacheManager.getCache(CacheNames.CONTRATOS_POR_INQUILINO).get(200L));
+    }
+
+    private ContratoAfectado afectado(Long contratoId, Long inmuebleId, Long inquilinoId) {
+        return new ContratoAfectado() {
+            @Override
+            public Long getContratoId() {
+                return contratoId;
+            }
+
+            @Override
+            public Long getInmuebleId() {
+                return inmuebleId;
+            }
+
+            @Override
+            public Long getInquilinoId() {
+                return inquilinoId;
+            }
+        };
+    }
+}
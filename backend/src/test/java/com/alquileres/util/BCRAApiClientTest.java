@@ -0,0 +1,156 @@
+package com.alquileres.util;
+
+import com.alquileres.exception.BusinessException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.NavigableMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de BCRAApiClient contra un servidor HTTP local que simula la API del BCRA
+ * Verifica la descarga paginada, los reintentos de errores transitorios y la traducción de errores
+ */
+class BCRAApiClientTest {
+
+    private static final Pattern OFFSET = Pattern.compile("offset=(\\d+)");
+    private static final LocalDate DESDE = LocalDate.of(2020, 7, 1);
+
+    private HttpServer servidor;
+    private ExecutorService hilosServidor;
+    private final AtomicInteger llamadas = new AtomicInteger();
+    // Status a devolver en las próximas llamadas; vacío = 200 con la página pedida
+    private final Deque<Integer> fallos = new ArrayDeque<>();
+    private volatile int totalRegistros = 30;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private BCRAApiClient cliente;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        servidor.createContext("/monetarias/40", this::responder);
+        hilosServidor = Executors.newCachedThreadPool();
+        servidor.setExecutor(hilosServidor);
+        servidor.start();
+
+        String url = "http://127.0.0.1:" + servidor.getAddress().getPort() + "/monetarias/40";
+        cliente = new BCRAApiClient(url, WebClient.builder(), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        servidor.stop(0);
+        hilosServidor.shutdownNow();
+    }
+
+    @Test
+    void obtenerSerieICL_variasPaginas_debeDescargarlasTodas() {
+        // Arrange
+        totalRegistros = 7000;
+
+        // Act
+        NavigableMap<LocalDate, BigDecimal> serie = cliente.obtenerSerieICL(DESDE, DESDE.plusDays(6999));
+
+        // Assert
+        assertEquals(7000, serie.size());
+        assertEquals(3, llamadas.get());
+        assertEquals(DESDE, serie.firstKey());
+        assertEquals(DESDE.plusDays(6999), serie.lastKey());
+    }
+
+    @Test
+    void obtenerSerieICL_errorTransitorio_debeReintentar() {
+        // Arrange
+        synchronized (fallos) {
+            fallos.add(503);
+        }
+
+        // Act
+        NavigableMap<LocalDate, BigDecimal> serie = cliente.obtenerSerieICLAsync(DESDE, DESDE.plusDays(29)).block();
+
+        // Assert
+        assertEquals(30, serie.size());
+        assertEquals(2, llamadas.get());
+    }
+
+    @Test
+    void obtenerSerieICL_errorDelCliente_noDebeReintentar() {
+        // Arrange
+        synchronized (fallos) {
+            fallos.add(400);
+        }
+
+        // Act
+        BusinessException e = assertThrows(BusinessException.class,
+                () -> cliente.obtenerSerieICL(DESDE, DESDE.plusDays(29)));
+
+        // Assert
+        assertEquals(HttpStatus.BAD_GATEWAY, e.getHttpStatus());
+        assertTrue(e.getMessage().contains("400"));
+        assertEquals(1, llamadas.get());
+        assertEquals(1.0, meterRegistry.get("alquigest.servicio.externo.errores")
+                .tags("servicio", "bcra", "error", "400").counter().count());
+    }
+
+    private void responder(HttpExchange exchange) throws IOException {
+        llamadas.incrementAndGet();
+        Integer fallo;
+        synchronized (fallos) {
+            fallo = fallos.poll();
+        }
+
+        byte[] cuerpo;
+        int status;
+        if (fallo != null) {
+            status = fallo;
+            cuerpo = ("{\"status\":" + fallo + "}").getBytes(StandardCharsets.UTF_8);
+        } else {
+            Matcher matcher = OFFSET.matcher(exchange.getRequestURI().getQuery());
+            int offset = matcher.find() ? Integer.parseInt(matcher.group(1)) : 0;
+            status = 200;
+            cuerpo = pagina(offset).getBytes(StandardCharsets.UTF_8);
+        }
+
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, cuerpo.length);
+        try (OutputStream salida = exchange.getResponseBody()) {
+            salida.write(cuerpo);
+        }
+        exchange.close();
+    }
+
+    private String pagina(int offset) {
+        int cantidad = Math.min(3000, totalRegistros - offset);
+        StringBuilder json = new StringBuilder("{\"status\":200,\"metadata\":{\"resultset\":{\"count\":")
+                .append(totalRegistros).append("}},\"results\":[{\"idVariable\":40,\"detalle\":[");
+        for (int i = 0; i < cantidad; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"fecha\":\"").append(DESDE.plusDays(offset + i))
+                .append("\",\"valor\":").append(20 + (offset + i) / 1000.0).append('}');
+        }
+        return json.append("]}]}").toString();
+    }
+}
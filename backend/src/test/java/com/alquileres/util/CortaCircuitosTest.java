@@ -0,0 +1,101 @@
+package com.alquileres.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios para CortaCircuitos, con un reloj controlado por el test
+ */
+class CortaCircuitosTest {
+
+    private final AtomicLong reloj = new AtomicLong();
+    private final CortaCircuitos cortaCircuitos = new CortaCircuitos(3, Duration.ofSeconds(60), reloj::get);
+
+    @Test
+    void registrarFallo_alLlegarAlUmbral_debeAbrirElCircuito() {
+        // Arrange
+        cortaCircuitos.registrarFallo();
+        cortaCircuitos.registrarFallo();
+        assertTrue(cortaCircuitos.permiteIntento());
+
+        // Act
+        cortaCircuitos.registrarFallo();
+
+        // Assert
+        assertEquals(CortaCircuitos.Estado.ABIERTO, cortaCircuitos.getEstado());
+        assertFalse(cortaCircuitos.permiteIntento());
+    }
+
+    @Test
+    void registrarExito_debeReiniciarLosFallosConsecutivos() {
+        // Arrange
+        cortaCircuitos.registrarFallo();
+        cortaCircuitos.registrarFallo();
+
+        // Act
+        cortaCircuitos.registrarExito();
+        cortaCircuitos.registrarFallo();
+        cortaCircuitos.registrarFallo();
+
+        // Assert
+        assertEquals(CortaCircuitos.Estado.CERRADO, cortaCircuitos.getEstado());
+    }
+
+    @Test
+    void permiteIntento_pasadaLaEspera_debePermitirUnaSolaPrueba() {
+        // Arrange
+        abrir();
+        reloj.addAndGet(Duration.ofSeconds(60).toNanos());
+
+        // Act
+        boolean primera = cortaCircuitos.permiteIntento();
+        boolean segunda = cortaCircuitos.permiteIntento();
+
+        // Assert
+        assertEquals(CortaCircuitos.Estado.SEMI_ABIERTO, cortaCircuitos.getEstado());
+        assertTrue(primera);
+        assertFalse(segunda);
+    }
+
+    @Test
+    void registrarFallo_enLaPrueba_debeVolverAAbrirElCircuito() {
+        // Arrange
+        abrir();
+        reloj.addAndGet(Duration.ofSeconds(60).toNanos());
+        cortaCircuitos.permiteIntento();
+
+        // Act
+        cortaCircuitos.registrarFallo();
+
+        // Assert
+        assertEquals(CortaCircuitos.Estado.ABIERTO, cortaCircuitos.getEstado());
+        reloj.addAndGet(Duration.ofSeconds(59).toNanos());
+        assertFalse(cortaCircuitos.permiteIntento());
+    }
+
+    @Test
+    void registrarExito_enLaPrueba_debeCerrarElCircuito() {
+        // Arrange
+        abrir();
+        reloj.addAndGet(Duration.ofSeconds(60).toNanos());
+        cortaCircuitos.permiteIntento();
+
+        // Act
+        cortaCircuitos.registrarExito();
+
+        // Assert
+        assertEquals(CortaCircuitos.Estado.CERRADO, cortaCircuitos.getEstado());
+        assertTrue(cortaCircuitos.permiteIntento());
+        assertTrue(cortaCircuitos.permiteIntento());
+    }
+
+    private void abrir() {
+        for (int i = 0; i < 3; i++) {
+            cortaCircuitos.registrarFallo();
+        }
+    }
+}
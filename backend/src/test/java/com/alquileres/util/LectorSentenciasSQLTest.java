@@ -0,0 +1,67 @@
+package com.alquileres.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios para LectorSentenciasSQL
+ * Verifica que el ';' dentro de literales y comentarios no corte la sentencia
+ */
+class LectorSentenciasSQLTest {
+
+    @Test
+    void leerSentencia_puntoYComaEnLiteral_noDebeCortarLaSentencia() throws IOException {
+        // Arrange
+        String sql = "INSERT INTO \"notas\" (\"texto\") VALUES ('pagó; debe ''todo''; ok'), ('a;b');\n" +
+                     "INSERT INTO notas (texto) VALUES ('c');";
+
+        // Act
+        List<String> sentencias = leerTodas(sql);
+
+        // Assert
+        assertEquals(2, sentencias.size());
+        assertEquals("INSERT INTO \"notas\" (\"texto\") VALUES ('pagó; debe ''todo''; ok'), ('a;b')", sentencias.get(0));
+        assertEquals("INSERT INTO notas (texto) VALUES ('c')", sentencias.get(1));
+    }
+
+    @Test
+    void leerSentencia_comentariosYDollarQuoting_debeIgnorarComentariosYRespetarBloques() throws IOException {
+        // Arrange
+        String sql = "-- Tabla: notas; vacía\n" +
+                     "/* bloque; con punto y coma */\n" +
+                     "SELECT $$uno; dos$$, $tag$tres; $ cuatro$tag$;\n" +
+                     "SELECT 1;;\n";
+
+        // Act
+        List<String> sentencias = leerTodas(sql);
+
+        // Assert
+        assertEquals(List.of("SELECT $$uno; dos$$, $tag$tres; $ cuatro$tag$", "SELECT 1"), sentencias);
+    }
+
+    @Test
+    void leerSentencia_literalSinCerrar_debeLanzarExcepcion() {
+        // Arrange
+        LectorSentenciasSQL lector = new LectorSentenciasSQL(new StringReader("INSERT INTO t VALUES ('abc;"));
+
+        // Act & Assert
+        assertThrows(IOException.class, lector::leerSentencia);
+    }
+
+    private List<String> leerTodas(String sql) throws IOException {
+        LectorSentenciasSQL lector = new LectorSentenciasSQL(new BufferedReader(new StringReader(sql)));
+        List<String> sentencias = new ArrayList<>();
+        String sentencia;
+        while ((sentencia = lector.leerSentencia()) != null) {
+            sentencias.add(sentencia);
+        }
+        return sentencias;
+    }
+}
@@ -0,0 +1,63 @@
+package com.alquileres.util;
+
+import com.alquileres.dto.PaginaDTO;
+import com.alquileres.exception.BusinessException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios para Paginacion
+ * Verifica el armado de páginas por cursor y la validación de los parámetros
+ */
+class PaginacionTest {
+
+    @Test
+    void armarPagina_conUnaFilaDeMas_debeDevolverCursorDelUltimoElemento() {
+        // Arrange: la consulta pide tamano + 1 filas
+        List<Long> filas = List.of(50L, 49L, 48L, 47L);
+
+        // Act
+        PaginaDTO<String> pagina = Paginacion.armarPagina(filas, 3, Function.identity(),
+            ids -> ids.stream().map(id -> "contrato-" + id).collect(Collectors.toList()));
+
+        // Assert
+        assertEquals(List.of("contrato-50", "contrato-49", "contrato-48"), pagina.getElementos());
+        assertTrue(pagina.isHayMas());
+        assertEquals(48L, Paginacion.decodificarCursor(pagina.getSiguienteCursor()));
+    }
+
+    @Test
+    void armarPagina_ultimaPagina_noDebeDevolverCursor() {
+        // Act
+        PaginaDTO<Long> pagina = Paginacion.armarPagina(List.of(2L, 1L), 3, Function.identity(), Function.identity());
+
+        // Assert
+        assertEquals(2, pagina.getElementos().size());
+        assertFalse(pagina.isHayMas());
+        assertNull(pagina.getSiguienteCursor());
+    }
+
+    @Test
+    void decodificarCursor_cursorAjeno_debeLanzarBadRequest() {
+        // Act & Assert
+        BusinessException ex = assertThrows(BusinessException.class, () -> Paginacion.decodificarCursor("123"));
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getHttpStatus());
+        assertNull(Paginacion.decodificarCursor(null));
+    }
+
+    @Test
+    void parametros_debenNormalizarseAntesDeLaConsulta() {
+        // Act & Assert
+        assertEquals(Paginacion.TAMANO_POR_DEFECTO, Paginacion.tamanoValido(null));
+        assertEquals(Paginacion.TAMANO_MAXIMO, Paginacion.tamanoValido(10_000));
+        assertEquals(1, Paginacion.tamanoValido(0));
+        assertEquals("%50\\% off%", Paginacion.patronBusqueda("  50% OFF "));
+        assertNull(Paginacion.patronBusqueda("   "));
+    }
+}
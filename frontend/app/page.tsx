@@ -50,16 +50,13 @@ export default function HomePage() {
   const fetchContadores = async () => {
 
     try {
-      const cantInmuebles = await fetchJSON<number>('/inmuebles/count/activos');
-      const cantContratos = await fetchJSON<number>('/contratos/count/vigentes');
-      const cantServicios = await fetchJSON('/pagos-servicios/count/pendientes')
-      const honorarios = await fetchJSON<number>('/alquileres/honorarios')
+      const resumen = await fetchJSON('/dashboard');
 
       setContadores({
-        cantInmueblesActivos: cantInmuebles,
-        cantContratosVigentes: cantContratos,
-        cantServiciosNoPagos: cantServicios.serviciosPendientes,
-        honorariosDelMes: honorarios
+        cantInmueblesActivos: resumen.cantInmueblesActivos,
+        cantContratosVigentes: resumen.cantContratosVigentes,
+        cantServiciosNoPagos: resumen.cantServiciosNoPagos,
+        honorariosDelMes: resumen.honorariosDelMes
       });
 
       setCargandoContadores(false);